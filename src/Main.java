@@ -2,13 +2,36 @@ public class Main {
 
     public static void main(String[] args) throws Exception {
         tests.TestCellCompare.main(args);
+        tests.TestColumnStorage.main(args);
         tests.TestDataFrame.main(args);
+        tests.TestRowViews.main(args);
         tests.TestExportTo.main(args);
         tests.TestFilter.main(args);
+        tests.TestRowFilter.main(args);
+        tests.TestViews.main(args);
+        tests.TestChunkStatistics.main(args);
+        tests.TestChunkedStorage.main(args);
         tests.TestGroupedDataFrame.main(args);
+        tests.TestGroupBy.main(args);
+        tests.TestParallelGroupBy.main(args);
         tests.TestReadCSV.main(args);
+        tests.TestCSVParser.main(args);
+        tests.TestParallelReadCSV.main(args);
+        tests.TestImportOptions.main(args);
         tests.TestReadJSON.main(args);
+        tests.TestBinaryFormat.main(args);
+        tests.TestJSONParser.main(args);
         tests.TestSortBy.main(args);
+        tests.TestRowSorter.main(args);
+        tests.TestParallelSort.main(args);
+        tests.TestTopN.main(args);
+        tests.TestJoin.main(args);
+        tests.TestConcat.main(args);
+        tests.TestBenchmark.main(args);
+        tests.TestMetrics.main(args);
+        tests.TestMemoryUsage.main(args);
+        tests.TestConcurrentDataFrame.main(args);
+        tests.TestImmutableDataFrame.main(args);
 
         System.out.println("Todos los tests pasaron exitosamente");
     }
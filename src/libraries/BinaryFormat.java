@@ -0,0 +1,510 @@
+package libraries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import exceptions.IndexOutOfBounds;
+import exceptions.InvalidShape;
+import exceptions.TypeDoesNotMatch;
+import structures.BooleanStorage;
+import structures.Column;
+import structures.ColumnStorage;
+import structures.ColumnStorage.Kind;
+import structures.DataFrame;
+import structures.DoubleStorage;
+import structures.IntStorage;
+import structures.LongStorage;
+import structures.ObjectStorage;
+import structures.Row;
+import structures.StringStorage;
+
+/**
+ * Formato binario por columnas para guardar y cargar un DataFrame sin
+ * interpretar texto. Todos los números están en little-endian.
+ *
+ * <pre>
+ * encabezado: magic "DFBN", versión, cantidad de columnas, cantidad de filas
+ * etiquetas de fila: 0 si son las posiciones, o 1 seguido de un valor por fila
+ * por cada columna:
+ *   etiqueta (valor), tipo (ordinal de Kind), 1 si tiene mapa de nulos
+ *   mapa de nulos: una palabra de 64 bits cada 64 filas
+ *   INT, LONG, DOUBLE: los valores en un bloque contiguo
+ *   BOOLEAN: mapa de bits, una palabra de 64 bits cada 64 filas
+ *   STRING: diccionario (cantidad, largo en bytes de cada valor y un bloque
+ *           con todos los valores en UTF-8) y un código por fila, -1 para
+ *           los nulos
+ *   OBJECT: sin datos; solo se admiten columnas sin tipo (todas nulas)
+ * </pre>
+ *
+ * Los valores sueltos (etiquetas) se guardan con un byte que indica su tipo:
+ * nulo, String, Integer, Long, Double o Boolean.
+ *
+ * Al leer, los bloques se mapean en memoria y se copian de una vez en los
+ * arreglos de cada almacenamiento.
+ */
+class BinaryFormat {
+    private static final int MAGIC = 0x4e424644;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_MAPPED_BYTES = 1 << 30;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte INT_VALUE = 2;
+    private static final byte LONG_VALUE = 3;
+    private static final byte DOUBLE_VALUE = 4;
+    private static final byte BOOLEAN_VALUE = 5;
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Escribe un DataFrame en formato binario.
+     *
+     * @param df      DataFrame a escribir.
+     * @param channel canal de destino; no se cierra.
+     * @throws IOException si ocurre un error de entrada/salida o si una columna
+     *                     tiene valores de un tipo que el formato no admite.
+     */
+    static void write(DataFrame df, WritableByteChannel channel) throws IOException {
+        Writer out = new Writer(channel);
+        int rows = df.countRows();
+        List<Column<?>> columns = df.getColumns();
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(columns.size());
+        out.putInt(rows);
+
+        boolean customLabels = df.hasRowLabels();
+        out.putByte(customLabels ? 1 : 0);
+        if (customLabels) {
+            for (Row row : df.getRows()) {
+                out.putValue(row.getLabel());
+            }
+        }
+
+        for (Column<?> column : columns) {
+            writeColumn(out, column, rows);
+        }
+        out.flush();
+    }
+
+    private static void writeColumn(Writer out, Column<?> column, int rows) throws IOException {
+        ColumnStorage<?> storage = column.getReadOnlyStorage();
+        Kind kind = storage.getKind();
+        if (kind == Kind.OBJECT && storage.getValueType() != null) {
+            throw new IOException("Column " + column.getLabel() + " of type " + storage.getValueType().getName()
+                    + " cannot be written in binary format");
+        }
+        out.putValue(column.getLabel());
+        out.putByte(kind.ordinal());
+
+        boolean nulls = kind != Kind.STRING && kind != Kind.OBJECT && storage.hasNulls();
+        out.putByte(nulls ? 1 : 0);
+        if (nulls) {
+            out.putBits(rows, storage::isNull);
+        }
+
+        switch (kind) {
+            case INT:
+                for (int i = 0; i < rows; i++) {
+                    out.putInt(storage.getInt(i));
+                }
+                break;
+            case LONG:
+                for (int i = 0; i < rows; i++) {
+                    out.putLong(storage.getLong(i));
+                }
+                break;
+            case DOUBLE:
+                for (int i = 0; i < rows; i++) {
+                    out.putDouble(storage.getDouble(i));
+                }
+                break;
+            case BOOLEAN:
+                out.putBits(rows, storage::getBoolean);
+                break;
+            case STRING:
+                byte[][] dictionary = new byte[storage.dictionarySize()][];
+                out.putInt(dictionary.length);
+                for (int code = 0; code < dictionary.length; code++) {
+                    dictionary[code] = storage.decode(code).getBytes(StandardCharsets.UTF_8);
+                    out.putInt(dictionary[code].length);
+                }
+                for (byte[] value : dictionary) {
+                    out.putBytes(value);
+                }
+                for (int i = 0; i < rows; i++) {
+                    out.putInt(storage.getCode(i));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Lee un DataFrame en formato binario.
+     *
+     * @param channel canal del archivo; no se cierra.
+     * @return el DataFrame leído.
+     * @throws IOException  si ocurre un error de entrada/salida o el archivo no
+     *                      está en formato binario.
+     * @throws InvalidShape si el contenido del archivo es inconsistente.
+     */
+    static DataFrame read(FileChannel channel) throws IOException, InvalidShape {
+        Reader in = new Reader(channel);
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not a binary DataFrame file");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary DataFrame version: " + version);
+        }
+        int columnCount = in.getInt();
+        int rows = in.getInt();
+        if (columnCount < 0 || rows < 0) {
+            throw new InvalidShape("Invalid binary DataFrame header");
+        }
+
+        List<Object> rowLabels = null;
+        if (in.getByte() == 1) {
+            rowLabels = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                rowLabels.add(in.getValue());
+            }
+        }
+
+        List<Column<?>> columns = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            columns.add(readColumn(in, rows));
+        }
+
+        try {
+            DataFrame df = new DataFrame(columns);
+            if (rowLabels != null) {
+                List<Row> rowViews = df.getRows();
+                for (int i = 0; i < rows; i++) {
+                    rowViews.get(i).setLabel(rowLabels.get(i));
+                }
+            }
+            return df;
+        } catch (IndexOutOfBounds | TypeDoesNotMatch e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Column<?> readColumn(Reader in, int rows) throws IOException, InvalidShape {
+        Object label = in.getValue();
+        int ordinal = in.getByte();
+        if (ordinal < 0 || ordinal >= Kind.values().length) {
+            throw new InvalidShape("Invalid column type in binary DataFrame: " + ordinal);
+        }
+        Kind kind = Kind.values()[ordinal];
+        long[] nulls = in.getByte() == 1 ? in.getLongs(words(rows)) : null;
+
+        ColumnStorage<?> storage;
+        switch (kind) {
+            case INT:
+                storage = new IntStorage(in.getInts(rows), rows);
+                break;
+            case LONG:
+                storage = new LongStorage(in.getLongs(rows), rows);
+                break;
+            case DOUBLE:
+                storage = new DoubleStorage(in.getDoubles(rows), rows);
+                break;
+            case BOOLEAN:
+                storage = new BooleanStorage(in.getLongs(words(rows)), rows);
+                break;
+            case STRING:
+                int dictionarySize = in.getInt();
+                int[] lengths = in.getInts(dictionarySize);
+                for (int length : lengths) {
+                    if (length < 0) {
+                        throw new InvalidShape("Invalid string length in binary DataFrame: " + length);
+                    }
+                }
+                List<String> dictionary = new ArrayList<>(dictionarySize);
+                byte[] bytes = new byte[0];
+                for (int start = 0; start < dictionarySize;) {
+                    long total = 0;
+                    int end = start;
+                    while (end < dictionarySize && (end == start || total + lengths[end] <= MAX_MAPPED_BYTES)) {
+                        total += lengths[end++];
+                    }
+                    if (total > bytes.length) {
+                        bytes = new byte[(int) total];
+                    }
+                    in.getBytes(bytes, (int) total);
+                    for (int code = start, offset = 0; code < end; offset += lengths[code++]) {
+                        dictionary.add(new String(bytes, offset, lengths[code], StandardCharsets.UTF_8));
+                    }
+                    start = end;
+                }
+                int[] codes = in.getInts(rows);
+                for (int code : codes) {
+                    if (code < -1 || code >= dictionarySize) {
+                        throw new InvalidShape("Invalid dictionary code in binary DataFrame: " + code);
+                    }
+                }
+                storage = new StringStorage(dictionary, codes, rows);
+                break;
+            default:
+                ObjectStorage empty = new ObjectStorage(null, rows);
+                for (int i = 0; i < rows; i++) {
+                    empty.addNull();
+                }
+                storage = empty;
+        }
+
+        if (nulls != null) {
+            for (int i = 0; i < rows; i++) {
+                if ((nulls[i >>> 6] & (1L << i)) != 0) {
+                    storage.set(i, null);
+                }
+            }
+        }
+        return new Column<>(label, storage);
+    }
+
+    private static int words(int bits) {
+        return (int) ((bits + 63L) >>> 6);
+    }
+
+    /**
+     * Predicado sobre una posición, para escribir mapas de bits.
+     */
+    private interface BitSource {
+        boolean get(int index);
+    }
+
+    /**
+     * Escribe valores en un buffer que se vuelca al canal cuando se llena.
+     */
+    private static class Writer {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        Writer(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void putByte(int value) throws IOException {
+            reserve(1);
+            buffer.put((byte) value);
+        }
+
+        void putInt(int value) throws IOException {
+            reserve(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            reserve(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            reserve(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            putBytes(bytes);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                reserve(1);
+                int length = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+        }
+
+        void putBits(int count, BitSource source) throws IOException {
+            for (int word = 0; word < words(count); word++) {
+                long bits = 0;
+                int end = Math.min(count, (word + 1) << 6);
+                for (int i = word << 6; i < end; i++) {
+                    if (source.get(i)) {
+                        bits |= 1L << i;
+                    }
+                }
+                putLong(bits);
+            }
+        }
+
+        void putValue(Object value) throws IOException {
+            if (value == null) {
+                putByte(NULL_VALUE);
+            } else if (value instanceof String) {
+                putByte(STRING_VALUE);
+                putString((String) value);
+            } else if (value instanceof Integer) {
+                putByte(INT_VALUE);
+                putInt((Integer) value);
+            } else if (value instanceof Long) {
+                putByte(LONG_VALUE);
+                putLong((Long) value);
+            } else if (value instanceof Double) {
+                putByte(DOUBLE_VALUE);
+                putDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                putByte(BOOLEAN_VALUE);
+                putByte((Boolean) value ? 1 : 0);
+            } else {
+                throw new IOException("Label of type " + value.getClass().getName()
+                        + " cannot be written in binary format");
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void reserve(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Lee valores desde una posición del archivo. Los bloques grandes se
+     * mapean en memoria por partes de hasta 1 GB.
+     */
+    private static class Reader {
+        private final FileChannel channel;
+        private final ByteBuffer small = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Reader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        int getByte() throws IOException {
+            return readSmall(1).get();
+        }
+
+        int getInt() throws IOException {
+            return readSmall(Integer.BYTES).getInt();
+        }
+
+        long getLong() throws IOException {
+            return readSmall(Long.BYTES).getLong();
+        }
+
+        double getDouble() throws IOException {
+            return readSmall(Double.BYTES).getDouble();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0) {
+                throw new IOException("Invalid string length in binary DataFrame: " + length);
+            }
+            byte[] bytes = new byte[length];
+            getBytes(bytes, length);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void getBytes(byte[] bytes, int length) throws IOException {
+            if (position + length > channel.size()) {
+                throw new IOException("Unexpected end of binary DataFrame file");
+            }
+            ByteBuffer target = ByteBuffer.wrap(bytes, 0, length);
+            while (target.hasRemaining()) {
+                if (channel.read(target, position + target.position()) < 0) {
+                    throw new IOException("Unexpected end of binary DataFrame file");
+                }
+            }
+            position += length;
+        }
+
+        Object getValue() throws IOException {
+            int tag = getByte();
+            switch (tag) {
+                case NULL_VALUE:
+                    return null;
+                case STRING_VALUE:
+                    return getString();
+                case INT_VALUE:
+                    return getInt();
+                case LONG_VALUE:
+                    return getLong();
+                case DOUBLE_VALUE:
+                    return getDouble();
+                case BOOLEAN_VALUE:
+                    return getByte() == 1;
+                default:
+                    throw new IOException("Invalid value tag in binary DataFrame: " + tag);
+            }
+        }
+
+        int[] getInts(int count) throws IOException {
+            int[] values = new int[count];
+            for (int done = 0; done < count;) {
+                int length = Math.min(count - done, MAX_MAPPED_BYTES / Integer.BYTES);
+                map((long) length * Integer.BYTES).asIntBuffer().get(values, done, length);
+                done += length;
+            }
+            return values;
+        }
+
+        long[] getLongs(int count) throws IOException {
+            long[] values = new long[count];
+            for (int done = 0; done < count;) {
+                int length = Math.min(count - done, MAX_MAPPED_BYTES / Long.BYTES);
+                map((long) length * Long.BYTES).asLongBuffer().get(values, done, length);
+                done += length;
+            }
+            return values;
+        }
+
+        double[] getDoubles(int count) throws IOException {
+            double[] values = new double[count];
+            for (int done = 0; done < count;) {
+                int length = Math.min(count - done, MAX_MAPPED_BYTES / Double.BYTES);
+                map((long) length * Double.BYTES).asDoubleBuffer().get(values, done, length);
+                done += length;
+            }
+            return values;
+        }
+
+        private ByteBuffer readSmall(int length) throws IOException {
+            small.clear().limit(length);
+            while (small.hasRemaining()) {
+                if (channel.read(small, position + small.position()) < 0) {
+                    throw new IOException("Unexpected end of binary DataFrame file");
+                }
+            }
+            position += length;
+            return small.flip();
+        }
+
+        private ByteBuffer map(long length) throws IOException {
+            if (position + length > channel.size()) {
+                throw new IOException("Unexpected end of binary DataFrame file");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return mapped.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package libraries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import exceptions.IndexOutOfBounds;
+import exceptions.InvalidShape;
+import exceptions.LabelNotFound;
+import exceptions.TypeDoesNotMatch;
+import structures.Column;
+import structures.DataFrame;
+
+/**
+ * Lector de CSV que recorre directamente un buffer de bytes.
+ * No crea un String por línea ni por campo: cada campo se entrega a su
+ * ColumnBuilder como un rango del buffer, y solo las cadenas se decodifican.
+ * Soporta campos entre comillas (con comillas escapadas como "") que pueden
+ * contener el delimitador o saltos de línea, y delimitadores configurables.
+ * Las líneas vacías se ignoran.
+ */
+class CSVParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte QUOTE = '"';
+
+    private static final int END_OF_FIELD = 0;
+    private static final int END_OF_ROW = 1;
+
+    private final InputStream input;
+    private final byte delimiter;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    private int fieldStart;
+    private int fieldEnd;
+    private boolean fieldQuoted;
+
+    private boolean keepRow;
+    private int rowStart;
+    private int[] rowFieldStarts;
+    private int[] rowFieldEnds;
+    private Boolean[] conditionText;
+    private int[] pendingRows;
+
+    /**
+     * Crea un lector de CSV.
+     *
+     * @param input     flujo con el contenido en UTF-8.
+     * @param delimiter separador de campos; debe ser un carácter ASCII distinto
+     *                  de las comillas y de los saltos de línea.
+     */
+    CSVParser(InputStream input, char delimiter) {
+        if (delimiter > 127 || delimiter == QUOTE || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid CSV delimiter: " + delimiter);
+        }
+        this.input = input;
+        this.delimiter = (byte) delimiter;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Lee todo el contenido y construye el DataFrame. La primera línea no vacía
+     * contiene los encabezados.
+     *
+     * @return el DataFrame con los datos leídos.
+     * @throws IOException      si ocurre un error de entrada/salida.
+     * @throws InvalidShape     si una fila no tiene tantos campos como
+     *                          encabezados.
+     * @throws TypeDoesNotMatch si los valores de una columna son de tipos
+     *                          distintos.
+     */
+    DataFrame parse() throws IOException, InvalidShape, TypeDoesNotMatch {
+        List<String> headers = readHeaders();
+        CSVSelection selection = CSVSelection.all(headers);
+        List<ColumnBuilder> builders = selection.newBuilders(BUFFER_SIZE);
+        readRows(builders, selection);
+        return build(builders);
+    }
+
+    /**
+     * Lee todo el contenido y construye el DataFrame solo con las columnas y
+     * filas que indican las opciones.
+     *
+     * @param options opciones de lectura.
+     * @return el DataFrame con los datos leídos.
+     * @throws IOException      si ocurre un error de entrada/salida.
+     * @throws InvalidShape     si una fila no tiene tantos campos como
+     *                          encabezados.
+     * @throws TypeDoesNotMatch si los valores de una columna son de tipos
+     *                          distintos.
+     * @throws LabelNotFound    si una columna de las opciones no está en los
+     *                          encabezados.
+     */
+    DataFrame parse(ImportOptions options) throws IOException, InvalidShape, TypeDoesNotMatch, LabelNotFound {
+        List<String> headers = readHeaders();
+        if (headers.isEmpty()) {
+            return build(new ArrayList<>());
+        }
+        CSVSelection selection = CSVSelection.of(headers, options);
+        List<ColumnBuilder> builders = selection.newBuilders(BUFFER_SIZE);
+        readRows(builders, selection);
+        removeRejectedRows(builders, selection, conditionText);
+        return build(builders);
+    }
+
+    /**
+     * Lee la línea de encabezados.
+     *
+     * @return la lista de encabezados, vacía si no hay contenido.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    List<String> readHeaders() throws IOException {
+        List<String> headers = new ArrayList<>();
+        if (!skipBlankLines()) {
+            return headers;
+        }
+        int status;
+        do {
+            status = nextField();
+            String header = new String(buffer, fieldStart, fieldEnd - fieldStart, StandardCharsets.UTF_8);
+            headers.add(fieldQuoted ? header : header.trim());
+        } while (status == END_OF_FIELD);
+        return headers;
+    }
+
+    /**
+     * Lee todas las filas restantes y agrega cada campo a la columna que le
+     * corresponde según la selección. Los campos que no se conservan no se
+     * convierten.
+     *
+     * @param builders  constructores de las columnas conservadas, en orden.
+     * @param selection relación entre los campos y las columnas.
+     * @throws IOException      si ocurre un error de entrada/salida.
+     * @throws InvalidShape     si una fila no tiene tantos campos como columnas.
+     * @throws TypeDoesNotMatch si los valores de una columna son de tipos
+     *                          distintos.
+     */
+    void readRows(List<ColumnBuilder> builders, CSVSelection selection)
+            throws IOException, InvalidShape, TypeDoesNotMatch {
+        if (selection.hasConditions()) {
+            readFilteredRows(builders, selection);
+            return;
+        }
+        int fields = selection.fieldCount();
+        ColumnBuilder[] targets = targets(builders, selection);
+        while (skipBlankLines()) {
+            int column = 0;
+            int status;
+            do {
+                status = nextField();
+                if (column < fields && targets[column] != null) {
+                    targets[column].appendText(buffer, fieldStart, fieldEnd, fieldQuoted);
+                }
+                column++;
+            } while (status == END_OF_FIELD);
+
+            if (column != fields) {
+                throw new InvalidShape();
+            }
+        }
+    }
+
+    /**
+     * Lee las filas evaluando primero las condiciones. Los rangos de los campos
+     * de la fila se guardan y la fila se conserva completa en el buffer hasta
+     * decidir si se agrega, por lo que los campos de las filas descartadas
+     * nunca se convierten.
+     *
+     * Un campo vacío llega a su condición como "" si la columna es de texto y
+     * como null si no, igual que quedaría en el DataFrame. Mientras la columna
+     * no tiene ningún valor, su tipo no se conoce: esas filas se agregan sin
+     * evaluar la condición y se cuentan en pendingRows, para descartarlas al
+     * final con removeRejectedRows si la condición rechaza el valor vacío.
+     */
+    private void readFilteredRows(List<ColumnBuilder> builders, CSVSelection selection)
+            throws IOException, InvalidShape, TypeDoesNotMatch {
+        int fields = selection.fieldCount();
+        ColumnBuilder[] targets = targets(builders, selection);
+        boolean[] needed = new boolean[fields];
+        for (int i = 0; i < fields; i++) {
+            needed[i] = targets[i] != null;
+        }
+        for (int c = 0; c < selection.conditionCount(); c++) {
+            needed[selection.conditionField(c)] = true;
+        }
+        rowFieldStarts = new int[fields];
+        rowFieldEnds = new int[fields];
+        boolean[] quoted = new boolean[fields];
+        ColumnBuilder converter = new ColumnBuilder(null, 0);
+        int conditions = selection.conditionCount();
+        conditionText = new Boolean[conditions];
+        pendingRows = new int[conditions];
+
+        keepRow = true;
+        try {
+            while (skipBlankLines()) {
+                rowStart = position;
+                int column = 0;
+                int status;
+                do {
+                    status = nextField();
+                    if (column < fields && needed[column]) {
+                        rowFieldStarts[column] = fieldStart;
+                        rowFieldEnds[column] = fieldEnd;
+                        quoted[column] = fieldQuoted;
+                    }
+                    column++;
+                } while (status == END_OF_FIELD);
+
+                if (column != fields) {
+                    throw new InvalidShape();
+                }
+
+                boolean accepted = true;
+                for (int c = 0; c < conditions; c++) {
+                    if (!accepted && conditionText[c] != null) {
+                        continue;
+                    }
+                    int field = selection.conditionField(c);
+                    Object value = converter.convert(buffer, rowFieldStarts[field], rowFieldEnds[field],
+                            quoted[field]);
+                    if (value != null) {
+                        conditionText[c] = value instanceof String;
+                    } else if (conditionText[c] != null) {
+                        value = conditionText[c] ? "" : null;
+                    } else {
+                        continue;
+                    }
+                    accepted = accepted && selection.test(c, value);
+                }
+                if (accepted) {
+                    for (int field = 0; field < fields; field++) {
+                        if (targets[field] != null) {
+                            targets[field].appendText(buffer, rowFieldStarts[field], rowFieldEnds[field],
+                                    quoted[field]);
+                        }
+                    }
+                    for (int c = 0; c < conditions; c++) {
+                        if (conditionText[c] == null) {
+                            pendingRows[c]++;
+                        }
+                    }
+                }
+            }
+        } finally {
+            keepRow = false;
+        }
+    }
+
+    /**
+     * Indica, para cada condición de la última lectura, si los valores no
+     * vacíos de su campo son texto.
+     *
+     * @return true si son texto, false si no y null si el campo no tuvo
+     *         valores; null si la lectura no tenía condiciones.
+     */
+    Boolean[] conditionText() {
+        return conditionText;
+    }
+
+    /**
+     * Quita las filas iniciales que se agregaron sin evaluar una condición
+     * porque su campo estaba vacío y el tipo de la columna todavía no se
+     * conocía, si la condición rechaza el valor vacío de esa columna.
+     *
+     * @param builders  constructores de las columnas conservadas.
+     * @param selection relación entre los campos y las columnas.
+     * @param text      para cada condición, si su campo es de texto en todo el
+     *                  archivo (null si nunca tuvo valores, que equivale a una
+     *                  columna de cadenas vacías).
+     */
+    void removeRejectedRows(List<ColumnBuilder> builders, CSVSelection selection, Boolean[] text) {
+        if (pendingRows == null) {
+            return;
+        }
+        int rejected = 0;
+        for (int c = 0; c < pendingRows.length; c++) {
+            if (pendingRows[c] > rejected && !selection.test(c, text[c] == null || text[c] ? "" : null)) {
+                rejected = pendingRows[c];
+            }
+        }
+        for (ColumnBuilder builder : builders) {
+            builder.removeFirst(rejected);
+        }
+    }
+
+    private static ColumnBuilder[] targets(List<ColumnBuilder> builders, CSVSelection selection) {
+        ColumnBuilder[] targets = new ColumnBuilder[selection.fieldCount()];
+        for (int field = 0; field < targets.length; field++) {
+            int target = selection.target(field);
+            targets[field] = target < 0 ? null : builders.get(target);
+        }
+        return targets;
+    }
+
+    /**
+     * Construye el DataFrame a partir de los constructores de columnas.
+     *
+     * @param builders constructores de las columnas.
+     * @return el DataFrame.
+     * @throws InvalidShape     si las columnas no tienen el mismo tamaño.
+     * @throws TypeDoesNotMatch si los tipos de datos no coinciden.
+     */
+    static DataFrame build(List<ColumnBuilder> builders) throws InvalidShape, TypeDoesNotMatch {
+        List<Column<?>> columns = new ArrayList<>(builders.size());
+        for (ColumnBuilder builder : builders) {
+            columns.add(builder.build());
+        }
+        try {
+            return new DataFrame(columns);
+        } catch (IndexOutOfBounds e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Avanza sobre los saltos de línea hasta el comienzo de la próxima fila.
+     *
+     * @return false si no quedan más filas.
+     */
+    private boolean skipBlankLines() throws IOException {
+        while (true) {
+            if (position == limit) {
+                position = 0;
+                limit = 0;
+                if (!readMore()) {
+                    return false;
+                }
+            }
+            byte b = buffer[position];
+            if (b != '\n' && b != '\r') {
+                return true;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Lee el próximo campo y deja su rango en fieldStart/fieldEnd.
+     *
+     * @return END_OF_FIELD si el campo terminó en un delimitador, END_OF_ROW si
+     *         terminó la fila (o el contenido).
+     */
+    private int nextField() throws IOException {
+        if (position == limit) {
+            if (keepRow) {
+                compact(position);
+            } else {
+                position = 0;
+                limit = 0;
+            }
+            if (!readMore()) {
+                setField(0, 0, false);
+                return END_OF_ROW;
+            }
+        }
+        return buffer[position] == QUOTE ? quotedField() : unquotedField();
+    }
+
+    private int unquotedField() throws IOException {
+        int start = position;
+        int i = position;
+        while (true) {
+            if (i == limit) {
+                int shift = compact(start);
+                i -= shift;
+                start -= shift;
+                if (!readMore()) {
+                    setField(start, i, false);
+                    position = i;
+                    return END_OF_ROW;
+                }
+            }
+            byte c = buffer[i];
+            if (c == delimiter) {
+                setField(start, i, false);
+                position = i + 1;
+                return END_OF_FIELD;
+            } else if (c == '\n' || c == '\r') {
+                setField(start, i, false);
+                position = i + 1;
+                return END_OF_ROW;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Lee un campo entre comillas. Las comillas escapadas se eliminan en el
+     * mismo buffer, por lo que el campo queda contiguo.
+     */
+    private int quotedField() throws IOException {
+        int start = position + 1;
+        int read = start;
+        int write = start;
+        boolean closed = false;
+
+        while (true) {
+            if (read + 1 >= limit) {
+                int shift = compact(start);
+                start -= shift;
+                read -= shift;
+                write -= shift;
+                if (!readMore() && read >= limit) {
+                    setField(start, write, true);
+                    position = read;
+                    return END_OF_ROW;
+                }
+            }
+            byte c = buffer[read];
+            if (!closed && c == QUOTE) {
+                if (read + 1 < limit && buffer[read + 1] == QUOTE) {
+                    buffer[write++] = QUOTE;
+                    read += 2;
+                } else {
+                    closed = true;
+                    read++;
+                }
+            } else if (!closed) {
+                buffer[write++] = c;
+                read++;
+            } else if (c == delimiter) {
+                setField(start, write, true);
+                position = read + 1;
+                return END_OF_FIELD;
+            } else if (c == '\n' || c == '\r') {
+                setField(start, write, true);
+                position = read + 1;
+                return END_OF_ROW;
+            } else {
+                if ((c & 0xff) > ' ') {
+                    buffer[write++] = c;
+                }
+                read++;
+            }
+        }
+    }
+
+    private void setField(int start, int end, boolean quoted) {
+        fieldStart = start;
+        fieldEnd = end;
+        fieldQuoted = quoted;
+    }
+
+    /**
+     * Mueve al comienzo del buffer los bytes desde la posición indicada, para
+     * que el campo en curso quede contiguo al leer más contenido. Si se está
+     * conservando la fila, se mueve desde el comienzo de la fila y se ajustan
+     * los rangos de los campos ya leídos.
+     *
+     * @param keepFrom primera posición que se conserva.
+     * @return la cantidad de posiciones que se desplazó el contenido.
+     */
+    private int compact(int keepFrom) {
+        if (keepRow) {
+            keepFrom = Math.min(keepFrom, rowStart);
+        }
+        if (keepFrom > 0) {
+            System.arraycopy(buffer, keepFrom, buffer, 0, limit - keepFrom);
+            limit -= keepFrom;
+            position = Math.max(position - keepFrom, 0);
+            if (keepRow) {
+                rowStart -= keepFrom;
+                for (int i = 0; i < rowFieldStarts.length; i++) {
+                    rowFieldStarts[i] -= keepFrom;
+                    rowFieldEnds[i] -= keepFrom;
+                }
+            }
+        }
+        return keepFrom;
+    }
+
+    /**
+     * Lee más contenido a continuación de limit, agrandando el buffer si está
+     * lleno.
+     *
+     * @return false si no hay más contenido.
+     */
+    private boolean readMore() throws IOException {
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = input.read(buffer, limit, buffer.length - limit);
+        while (read == 0) {
+            read = input.read(buffer, limit, buffer.length - limit);
+        }
+        if (read < 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+}
@@ -0,0 +1,176 @@
+package libraries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import exceptions.LabelNotFound;
+
+/**
+ * Relaciona los campos de cada fila de un CSV con las columnas que se
+ * construyen y con las condiciones que se evalúan, según las opciones de
+ * lectura.
+ */
+class CSVSelection {
+    private final List<String> labels;
+    private final int[] targets;
+    private final int[] conditionFields;
+    private final List<Predicate<Object>> predicates;
+
+    private CSVSelection(List<String> labels, int[] targets, int[] conditionFields,
+            List<Predicate<Object>> predicates) {
+        this.labels = labels;
+        this.targets = targets;
+        this.conditionFields = conditionFields;
+        this.predicates = predicates;
+    }
+
+    /**
+     * Crea una selección que conserva todas las columnas, sin condiciones.
+     *
+     * @param headers encabezados del archivo.
+     * @return la selección.
+     */
+    static CSVSelection all(List<String> headers) {
+        int[] targets = new int[headers.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = i;
+        }
+        return new CSVSelection(headers, targets, new int[0], new ArrayList<>());
+    }
+
+    /**
+     * Crea la selección que corresponde a las opciones de lectura.
+     *
+     * @param headers encabezados del archivo.
+     * @param options opciones de lectura.
+     * @return la selección.
+     * @throws LabelNotFound si una columna o condición no está en los
+     *                       encabezados.
+     */
+    static CSVSelection of(List<String> headers, ImportOptions options) throws LabelNotFound {
+        if (options.getColumns() == null && options.getConditions().isEmpty()) {
+            return all(headers);
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < headers.size(); i++) {
+            positions.putIfAbsent(headers.get(i), i);
+        }
+
+        List<String> labels = headers;
+        int[] targets = new int[headers.size()];
+        if (options.getColumns() == null) {
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = i;
+            }
+        } else {
+            labels = new ArrayList<>();
+            Arrays.fill(targets, -1);
+            for (Object label : options.getColumns()) {
+                int field = find(positions, label);
+                targets[field] = labels.size();
+                labels.add(headers.get(field));
+            }
+        }
+
+        int[] conditionFields = new int[options.getConditions().size()];
+        List<Predicate<Object>> predicates = new ArrayList<>();
+        for (Map.Entry<Object, Predicate<Object>> condition : options.getConditions().entrySet()) {
+            conditionFields[predicates.size()] = find(positions, condition.getKey());
+            predicates.add(condition.getValue());
+        }
+        return new CSVSelection(labels, targets, conditionFields, predicates);
+    }
+
+    private static int find(Map<String, Integer> positions, Object label) throws LabelNotFound {
+        Integer field = positions.get(String.valueOf(label));
+        if (field == null) {
+            throw new LabelNotFound("Label not found: " + label);
+        }
+        return field;
+    }
+
+    /**
+     * Crea los constructores de las columnas conservadas, en orden.
+     *
+     * @param capacity cantidad de valores esperada por columna.
+     * @return los constructores.
+     */
+    List<ColumnBuilder> newBuilders(int capacity) {
+        List<ColumnBuilder> builders = new ArrayList<>(labels.size());
+        for (String label : labels) {
+            builders.add(new ColumnBuilder(label, capacity));
+        }
+        return builders;
+    }
+
+    /**
+     * Obtiene las etiquetas de las columnas conservadas.
+     *
+     * @return las etiquetas.
+     */
+    List<String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * Obtiene la cantidad de campos de cada fila.
+     *
+     * @return la cantidad de campos.
+     */
+    int fieldCount() {
+        return targets.length;
+    }
+
+    /**
+     * Obtiene la columna en la que se agrega un campo.
+     *
+     * @param field posición del campo en la fila.
+     * @return la posición de la columna, o -1 si el campo no se conserva.
+     */
+    int target(int field) {
+        return targets[field];
+    }
+
+    /**
+     * Indica si hay condiciones sobre las filas.
+     *
+     * @return true si hay condiciones.
+     */
+    boolean hasConditions() {
+        return conditionFields.length > 0;
+    }
+
+    /**
+     * Obtiene la cantidad de condiciones.
+     *
+     * @return la cantidad de condiciones.
+     */
+    int conditionCount() {
+        return conditionFields.length;
+    }
+
+    /**
+     * Obtiene el campo que evalúa una condición.
+     *
+     * @param condition posición de la condición.
+     * @return la posición del campo en la fila.
+     */
+    int conditionField(int condition) {
+        return conditionFields[condition];
+    }
+
+    /**
+     * Evalúa una condición.
+     *
+     * @param condition posición de la condición.
+     * @param value     valor del campo.
+     * @return true si el valor cumple la condición.
+     */
+    boolean test(int condition, Object value) {
+        return predicates.get(condition).test(value);
+    }
+}
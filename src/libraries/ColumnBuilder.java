@@ -0,0 +1,586 @@
+package libraries;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import exceptions.TypeDoesNotMatch;
+import structures.BooleanStorage;
+import structures.ChunkedStorage;
+import structures.Column;
+import structures.ColumnStorage;
+import structures.DoubleStorage;
+import structures.IntStorage;
+import structures.LongStorage;
+import structures.ObjectStorage;
+import structures.StringStorage;
+
+/**
+ * Construye una columna a partir de valores en texto (bytes UTF-8), infiriendo
+ * el tipo de la columna con el primer valor no vacío y agregando cada valor
+ * directamente en el almacenamiento especializado. Los valores se agregan en
+ * bloques de tamaño fijo (ver ChunkedStorage), de modo que una columna grande
+ * crece sin copiar los valores ya leídos.
+ *
+ * Las reglas de tipo son las del importador: enteros (-?\d+), decimales
+ * (-?\d*\.\d+), booleanos (true/false) y cadenas. Un entero que no entra en
+ * un int se guarda como long, y una columna de int se amplía a long si
+ * aparece uno. Si el constructor admite números mezclados (como en JSON, que
+ * tiene un solo tipo de número), una columna entera se amplía a double si
+ * aparece un decimal, y los enteros de una columna de double se guardan como
+ * double. Cualquier otra mezcla de tipos produce TypeDoesNotMatch.
+ * Los campos vacíos son cadenas vacías en columnas de texto y nulos en el
+ * resto, salvo que el constructor se cree para valores nulos (como en JSON),
+ * en cuyo caso siempre son nulos.
+ *
+ * Además de texto, acepta valores ya tipados (appendLong, appendDouble,
+ * appendBoolean y appendString), con las mismas reglas de tipo.
+ */
+class ColumnBuilder {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private static final int MAX_CACHED_STRINGS = 1 << 16;
+
+    private static final int TEXT = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+    private static final int BOOLEAN = 4;
+
+    private final Object label;
+    private final int capacity;
+    private final boolean emptyAsText;
+    private final boolean mixedNumbers;
+    private ChunkedStorage<?> storage;
+    private int kind = -1;
+    private int pendingEmpties;
+
+    private long parsedLong;
+    private double parsedDouble;
+    private boolean parsedBoolean;
+
+    private int[] cacheSlots;
+    private byte[][] cacheKeys;
+    private int[] cacheCodes;
+    private int cacheSize;
+
+    /**
+     * Crea un constructor de columna.
+     *
+     * @param label    etiqueta de la columna.
+     * @param capacity cantidad de valores esperada.
+     */
+    ColumnBuilder(Object label, int capacity) {
+        this(label, capacity, true, false);
+    }
+
+    /**
+     * Crea un constructor de columna.
+     *
+     * @param label       etiqueta de la columna.
+     * @param capacity    cantidad de valores esperada.
+     * @param emptyAsText  true si los valores vacíos de una columna de texto
+     *                     son cadenas vacías; false si siempre son nulos.
+     * @param mixedNumbers true si los enteros y los decimales pueden compartir
+     *                     una columna, que entonces es de double.
+     */
+    ColumnBuilder(Object label, int capacity, boolean emptyAsText, boolean mixedNumbers) {
+        this.label = label;
+        this.capacity = capacity;
+        this.emptyAsText = emptyAsText;
+        this.mixedNumbers = mixedNumbers;
+    }
+
+    /**
+     * Obtiene la etiqueta de la columna.
+     *
+     * @return la etiqueta.
+     */
+    Object getLabel() {
+        return label;
+    }
+
+    /**
+     * Obtiene la cantidad de valores agregados.
+     *
+     * @return la cantidad de valores.
+     */
+    int size() {
+        return storage == null ? pendingEmpties : storage.size();
+    }
+
+    /**
+     * Agrega un valor en texto, recortando los espacios en los extremos.
+     *
+     * @param bytes  buffer con el texto en UTF-8.
+     * @param start  posición inicial (inclusiva).
+     * @param end    posición final (exclusiva).
+     * @param quoted true si el valor venía entre comillas; en ese caso no se
+     *               recortan los espacios.
+     * @throws TypeDoesNotMatch si el tipo del valor no coincide con el de la
+     *                          columna.
+     */
+    void appendText(byte[] bytes, int start, int end, boolean quoted) throws TypeDoesNotMatch {
+        if (!quoted) {
+            while (start < end && (bytes[start] & 0xff) <= ' ') {
+                start++;
+            }
+            while (end > start && (bytes[end - 1] & 0xff) <= ' ') {
+                end--;
+            }
+        }
+        if (start == end) {
+            appendEmpty();
+            return;
+        }
+
+        int type = classify(bytes, start, end);
+        accept(type);
+        if (kind == TEXT) {
+            appendString(bytes, start, end);
+        } else {
+            appendParsed();
+        }
+    }
+
+    /**
+     * Convierte un valor en texto al objeto que le corresponde según las reglas
+     * de tipo, sin agregarlo a la columna ni verificar el tipo de la columna.
+     *
+     * @param bytes  buffer con el texto en UTF-8.
+     * @param start  posición inicial (inclusiva).
+     * @param end    posición final (exclusiva).
+     * @param quoted true si el valor venía entre comillas.
+     * @return el valor como Integer, Long, Double, Boolean o String, o null si
+     *         está vacío.
+     */
+    Object convert(byte[] bytes, int start, int end, boolean quoted) {
+        if (!quoted) {
+            while (start < end && (bytes[start] & 0xff) <= ' ') {
+                start++;
+            }
+            while (end > start && (bytes[end - 1] & 0xff) <= ' ') {
+                end--;
+            }
+        }
+        if (start == end) {
+            return null;
+        }
+        switch (classify(bytes, start, end)) {
+            case INT:
+                return (int) parsedLong;
+            case LONG:
+                return parsedLong;
+            case DOUBLE:
+                return parsedDouble;
+            case BOOLEAN:
+                return parsedBoolean;
+            default:
+                return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Agrega un valor entero, que se guarda como int si entra en uno.
+     *
+     * @param value valor a agregar.
+     * @throws TypeDoesNotMatch si la columna no es entera (ni de double, si
+     *                          admite números mezclados).
+     */
+    void appendLong(long value) throws TypeDoesNotMatch {
+        parsedLong = value;
+        accept(value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? INT : LONG);
+        appendParsed();
+    }
+
+    /**
+     * Agrega un valor decimal.
+     *
+     * @param value valor a agregar.
+     * @throws TypeDoesNotMatch si la columna no es decimal (ni entera, si
+     *                          admite números mezclados).
+     */
+    void appendDouble(double value) throws TypeDoesNotMatch {
+        parsedDouble = value;
+        accept(DOUBLE);
+        appendParsed();
+    }
+
+    /**
+     * Agrega un valor booleano.
+     *
+     * @param value valor a agregar.
+     * @throws TypeDoesNotMatch si la columna no es booleana.
+     */
+    void appendBoolean(boolean value) throws TypeDoesNotMatch {
+        parsedBoolean = value;
+        accept(BOOLEAN);
+        appendParsed();
+    }
+
+    /**
+     * Agrega una cadena sin interpretar su contenido.
+     *
+     * @param value valor a agregar.
+     * @throws TypeDoesNotMatch si la columna no es de texto.
+     */
+    void appendString(String value) throws TypeDoesNotMatch {
+        accept(TEXT);
+        strings().add(value);
+    }
+
+    /**
+     * Verifica que un valor del tipo indicado se pueda agregar, fijando el tipo
+     * de la columna con el primer valor o ampliándola de int a long (o a
+     * double, si admite números mezclados).
+     */
+    private void accept(int type) throws TypeDoesNotMatch {
+        boolean integer = type == INT || type == LONG;
+        if (kind == -1) {
+            initialize(type);
+        } else if (type == LONG && kind == INT) {
+            widenToLong();
+        } else if (mixedNumbers && type == DOUBLE && (kind == INT || kind == LONG)) {
+            widenToDouble();
+        } else if (mixedNumbers && integer && kind == DOUBLE) {
+            parsedDouble = parsedLong;
+        } else if (type != kind && !(type == INT && kind == LONG)) {
+            throw new TypeDoesNotMatch();
+        }
+    }
+
+    /**
+     * Agrega el valor numérico o booleano que quedó en los campos parsed*.
+     */
+    private void appendParsed() {
+        switch (kind) {
+            case INT:
+                storage.addInt((int) parsedLong);
+                break;
+            case LONG:
+                storage.addLong(parsedLong);
+                break;
+            case DOUBLE:
+                storage.addDouble(parsedDouble);
+                break;
+            default:
+                storage.addBoolean(parsedBoolean);
+        }
+    }
+
+    /**
+     * Agrega un valor vacío o nulo.
+     */
+    void appendEmpty() {
+        if (storage == null) {
+            pendingEmpties++;
+        } else if (kind == TEXT && emptyAsText) {
+            strings().add("");
+        } else {
+            storage.addNull();
+        }
+    }
+
+    /**
+     * Quita los primeros valores agregados, copiando una vez los que quedan.
+     *
+     * @param count cantidad de valores a quitar.
+     */
+    void removeFirst(int count) {
+        if (count == 0) {
+            return;
+        }
+        if (storage == null) {
+            pendingEmpties -= count;
+            return;
+        }
+        storage = ChunkedStorage.of(storage.slice(count, storage.size()));
+        cacheSlots = null;
+        cacheKeys = null;
+        cacheCodes = null;
+        cacheSize = 0;
+    }
+
+    /**
+     * Agrega al final los valores de otro constructor de la misma columna. Los
+     * tipos se concilian igual que en la lectura secuencial: los valores vacíos
+     * del otro constructor toman el tipo de esta columna y una columna de int se
+     * amplía a long si el otro constructor tiene valores long.
+     *
+     * @param other constructor cuyos valores se agregan.
+     * @throws TypeDoesNotMatch si los tipos de ambos constructores no coinciden.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    void appendAll(ColumnBuilder other) throws TypeDoesNotMatch {
+        if (other.storage == null) {
+            for (int i = 0; i < other.pendingEmpties; i++) {
+                appendEmpty();
+            }
+            return;
+        }
+        if (kind == -1) {
+            initialize(other.kind);
+        } else if (kind == INT && other.kind == LONG) {
+            widenToLong();
+        }
+
+        if (kind == other.kind) {
+            ((ColumnStorage) storage).appendAll(other.storage);
+        } else if (kind == LONG && other.kind == INT) {
+            for (int i = 0; i < other.storage.size(); i++) {
+                if (other.storage.isNull(i)) {
+                    storage.addNull();
+                } else {
+                    storage.addLong(other.storage.getInt(i));
+                }
+            }
+        } else {
+            throw new TypeDoesNotMatch();
+        }
+    }
+
+    /**
+     * Construye la columna con los valores agregados. Una columna que solo
+     * recibió valores vacíos es una columna de cadenas vacías, o una columna
+     * sin tipo con valores nulos si los vacíos son nulos.
+     *
+     * @return la columna.
+     */
+    Column<?> build() {
+        if (storage == null && pendingEmpties > 0 && emptyAsText) {
+            initialize(TEXT);
+        }
+        if (storage == null) {
+            ObjectStorage nulls = new ObjectStorage(null, pendingEmpties);
+            for (int i = 0; i < pendingEmpties; i++) {
+                nulls.addNull();
+            }
+            return new Column<>(label, nulls);
+        }
+        return new Column<>(label, storage.unwrap());
+    }
+
+    private void initialize(int type) {
+        kind = type;
+        int expected = Math.min(Math.max(capacity, pendingEmpties + 1), ChunkedStorage.CHUNK_ROWS);
+        switch (type) {
+            case INT:
+                storage = ChunkedStorage.of(new IntStorage(expected));
+                break;
+            case LONG:
+                storage = ChunkedStorage.of(new LongStorage(expected));
+                break;
+            case DOUBLE:
+                storage = ChunkedStorage.of(new DoubleStorage(expected));
+                break;
+            case BOOLEAN:
+                storage = ChunkedStorage.of(new BooleanStorage(expected));
+                break;
+            default:
+                storage = ChunkedStorage.of(new StringStorage(expected));
+        }
+        for (int i = 0; i < pendingEmpties; i++) {
+            appendEmpty();
+        }
+        pendingEmpties = 0;
+    }
+
+    private void widenToLong() {
+        ChunkedStorage<?> ints = storage;
+        ChunkedStorage<Long> longs = ChunkedStorage.of(new LongStorage(
+                Math.min(Math.max(capacity, ints.size() + 1), ChunkedStorage.CHUNK_ROWS)));
+        for (int i = 0; i < ints.size(); i++) {
+            if (ints.isNull(i)) {
+                longs.addNull();
+            } else {
+                longs.addLong(ints.getInt(i));
+            }
+        }
+        storage = longs;
+        kind = LONG;
+    }
+
+    private void widenToDouble() {
+        ChunkedStorage<?> integers = storage;
+        ChunkedStorage<Double> doubles = ChunkedStorage.of(new DoubleStorage(
+                Math.min(Math.max(capacity, integers.size() + 1), ChunkedStorage.CHUNK_ROWS)));
+        for (int i = 0; i < integers.size(); i++) {
+            if (integers.isNull(i)) {
+                doubles.addNull();
+            } else {
+                doubles.addDouble(kind == INT ? integers.getInt(i) : integers.getLong(i));
+            }
+        }
+        storage = doubles;
+        kind = DOUBLE;
+    }
+
+    /**
+     * Determina el tipo de un valor y deja su valor numérico o booleano en los
+     * campos parsed*.
+     */
+    private int classify(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = bytes[i] == '-';
+        if (negative) {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int significant = 0;
+        while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+            int digit = bytes[i] - '0';
+            if (significant > 0 || digit != 0) {
+                significant++;
+            }
+            if (significant <= 18) {
+                mantissa = mantissa * 10 + digit;
+            }
+            digits++;
+            i++;
+        }
+
+        if (i == end && digits > 0) {
+            if (significant > 18) {
+                return TEXT;
+            }
+            parsedLong = negative ? -mantissa : mantissa;
+            return parsedLong >= Integer.MIN_VALUE && parsedLong <= Integer.MAX_VALUE ? INT : LONG;
+        }
+
+        if (i < end && bytes[i] == '.') {
+            i++;
+            int fractionStart = i;
+            while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+                int digit = bytes[i] - '0';
+                if (significant > 0 || digit != 0) {
+                    significant++;
+                }
+                if (significant <= 18) {
+                    mantissa = mantissa * 10 + digit;
+                }
+                i++;
+            }
+            int fractionDigits = i - fractionStart;
+            if (i == end && fractionDigits > 0) {
+                if (significant <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+                    double value = mantissa / POWERS_OF_TEN[fractionDigits];
+                    parsedDouble = negative ? -value : value;
+                } else {
+                    parsedDouble = Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+                }
+                return DOUBLE;
+            }
+            return TEXT;
+        }
+
+        if (!negative && (end - start == 4 || end - start == 5)) {
+            if (equalsIgnoreCase(bytes, start, end, "true")) {
+                parsedBoolean = true;
+                return BOOLEAN;
+            } else if (equalsIgnoreCase(bytes, start, end, "false")) {
+                parsedBoolean = false;
+                return BOOLEAN;
+            }
+        }
+        return TEXT;
+    }
+
+    private static boolean equalsIgnoreCase(byte[] bytes, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if ((bytes[start + i] | 0x20) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Agrega una cadena. Los valores repetidos se resuelven comparando bytes
+     * contra un caché de códigos de diccionario, sin crear un String por valor.
+     */
+    private void appendString(byte[] bytes, int start, int end) {
+        ChunkedStorage<String> strings = strings();
+        if (cacheSlots == null && cacheSize == 0) {
+            cacheSlots = new int[1024];
+            cacheKeys = new byte[512][];
+            cacheCodes = new int[512];
+        }
+        if (cacheSlots == null) {
+            strings.add(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            return;
+        }
+
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int mask = cacheSlots.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (cacheSlots[slot] != 0) {
+            int entry = cacheSlots[slot] - 1;
+            if (sameBytes(cacheKeys[entry], bytes, start, end)) {
+                strings.addCode(cacheCodes[entry]);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        strings.add(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        if (cacheSize == MAX_CACHED_STRINGS) {
+            cacheSlots = null;
+            cacheKeys = null;
+            cacheCodes = null;
+            return;
+        }
+        if (cacheSize == cacheKeys.length) {
+            cacheKeys = Arrays.copyOf(cacheKeys, cacheSize * 2);
+            cacheCodes = Arrays.copyOf(cacheCodes, cacheSize * 2);
+        }
+        cacheKeys[cacheSize] = Arrays.copyOfRange(bytes, start, end);
+        cacheCodes[cacheSize] = strings.getCode(strings.size() - 1);
+        cacheSlots[slot] = ++cacheSize;
+        if (cacheSize * 2 > cacheSlots.length) {
+            rehash();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChunkedStorage<String> strings() {
+        return (ChunkedStorage<String>) storage;
+    }
+
+    private void rehash() {
+        int[] slots = new int[cacheSlots.length * 2];
+        int mask = slots.length - 1;
+        for (int entry = 0; entry < cacheSize; entry++) {
+            byte[] key = cacheKeys[entry];
+            int hash = 1;
+            for (byte b : key) {
+                hash = 31 * hash + b;
+            }
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+        cacheSlots = slots;
+    }
+
+    private static boolean sameBytes(byte[] key, byte[] bytes, int start, int end) {
+        if (key.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,15 +1,23 @@
 package libraries;
 
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import performance.Metrics;
+import structures.Column;
+import structures.ColumnStorage;
 import structures.DataFrame;
-import structures.Row;
 
 /**
- * Clase que permite exportar un DataFrame a un archivo CSV o JSON.
+ * Clase que permite exportar un DataFrame a un archivo CSV, JSON o binario
+ * (ver BinaryFormat).
+ * Los valores se leen directamente de los almacenamientos de las columnas y se
+ * escriben en un buffer de bytes, por lo que no se crean celdas ni cadenas por
+ * valor. La salida puede ser un archivo, un OutputStream o un
+ * WritableByteChannel.
  */
 public class DataExporter {
     private DataFrame df;
@@ -30,31 +38,31 @@ public class DataExporter {
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     public void toCSV(String path) throws IOException {
-        try (FileWriter writer = new FileWriter(path)) {
-            writeCSVHeaders(this.df.getColumnLabels(), writer);
-            writeCSVRows(this.df.getRows(), writer);
+        try (FileOutputStream output = new FileOutputStream(path)) {
+            toCSV(output.getChannel());
         }
     }
 
     /**
-     * @param headers
-     * @param writer
-     * @throws IOException
+     * Exporta el DataFrame en formato CSV (UTF-8) a un flujo. El flujo no se
+     * cierra.
+     *
+     * @param output Flujo de destino.
+     * @throws IOException Si ocurre un error de entrada/salida.
      */
-    private static void writeCSVHeaders(List<Object> headers, FileWriter writer) throws IOException {
-        writer.write(String.join(",", headers.stream().map(Object::toString).collect(Collectors.toList())));
-        writer.write("\n");
+    public void toCSV(OutputStream output) throws IOException {
+        writeCSV(new OutputBuffer(output));
     }
 
-    private static void writeCSVRows(List<Row> rows, FileWriter writer) throws IOException {
-        for (Row row : rows) {
-            for (int i = 0; i < row.size(); i++) {
-                writer.write(String.valueOf(row.getCell(i).getValue()));
-                if (i < row.size() - 1)
-                    writer.write(",");
-            }
-            writer.write("\n");
-        }
+    /**
+     * Exporta el DataFrame en formato CSV (UTF-8) a un canal. El canal no se
+     * cierra.
+     *
+     * @param channel Canal de destino.
+     * @throws IOException Si ocurre un error de entrada/salida.
+     */
+    public void toCSV(WritableByteChannel channel) throws IOException {
+        writeCSV(new OutputBuffer(channel));
     }
 
     /**
@@ -64,38 +72,268 @@ public class DataExporter {
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     public void toJSON(String path) throws IOException {
-        try (FileWriter writer = new FileWriter(path)) {
-            writer.write("[\n");
-            List<Object> headers = this.df.getColumnLabels();
-            List<Row> rows = this.df.getRows();
-
-            for (int i = 0; i < rows.size(); i++) {
-                writeJSONRow(rows.get(i), headers, writer);
-                if (i < rows.size() - 1)
-                    writer.write(",");
-                writer.write("\n");
-            }
-            writer.write("]");
+        try (FileOutputStream output = new FileOutputStream(path)) {
+            toJSON(output.getChannel());
+        }
+    }
+
+    /**
+     * Exporta el DataFrame en formato JSON (UTF-8) a un flujo. El flujo no se
+     * cierra.
+     *
+     * @param output Flujo de destino.
+     * @throws IOException Si ocurre un error de entrada/salida.
+     */
+    public void toJSON(OutputStream output) throws IOException {
+        writeJSON(new OutputBuffer(output));
+    }
+
+    /**
+     * Exporta el DataFrame en formato JSON (UTF-8) a un canal. El canal no se
+     * cierra.
+     *
+     * @param channel Canal de destino.
+     * @throws IOException Si ocurre un error de entrada/salida.
+     */
+    public void toJSON(WritableByteChannel channel) throws IOException {
+        writeJSON(new OutputBuffer(channel));
+    }
+
+    /**
+     * Exporta el DataFrame a un archivo en formato binario por columnas, que se
+     * puede cargar con DataImporter.readBinary sin interpretar texto.
+     *
+     * @param path Ruta del archivo.
+     * @throws IOException Si ocurre un error de entrada/salida o si una columna
+     *                     tiene valores de un tipo que el formato no admite.
+     */
+    public void toBinary(String path) throws IOException {
+        try (FileOutputStream output = new FileOutputStream(path)) {
+            toBinary(output.getChannel());
         }
     }
 
-    private static void writeJSONRow(Row row, List<Object> headers, FileWriter writer) throws IOException {
-        writer.write("  {");
+    /**
+     * Exporta el DataFrame en formato binario por columnas a un canal. El canal
+     * no se cierra.
+     *
+     * @param channel Canal de destino.
+     * @throws IOException Si ocurre un error de entrada/salida o si una columna
+     *                     tiene valores de un tipo que el formato no admite.
+     */
+    public void toBinary(WritableByteChannel channel) throws IOException {
+        long start = Metrics.start();
+        BinaryFormat.write(df, channel);
+        Metrics.record("toBinary", start, df.countRows(), 0);
+    }
+
+    /**
+     * Escribe los encabezados y las filas en CSV. Los valores nulos quedan
+     * vacíos y las cadenas se escriben entre comillas si contienen comas,
+     * comillas, saltos de línea o espacios en los extremos.
+     */
+    private void writeCSV(OutputBuffer out) throws IOException {
+        long start = Metrics.start();
+        List<Object> headers = df.getColumnLabels();
         for (int i = 0; i < headers.size(); i++) {
-            writer.write("\"" + headers.get(i) + "\": " + formatJSONValue(row.getCell(i).getValue()));
-            if (i < headers.size() - 1)
-                writer.write(", ");
+            if (i > 0) {
+                out.writeByte(',');
+            }
+            writeCSVText(out, headers.get(i).toString());
+        }
+        out.writeByte('\n');
+
+        ColumnStorage<?>[] storages = storages();
+        int rows = df.countRows();
+        for (int row = 0; row < rows; row++) {
+            for (int i = 0; i < storages.length; i++) {
+                if (i > 0) {
+                    out.writeByte(',');
+                }
+                writeCSVValue(out, storages[i], row);
+            }
+            out.writeByte('\n');
+        }
+        out.flush();
+        Metrics.record("toCSV", start, rows, out.written());
+    }
+
+    private static void writeCSVValue(OutputBuffer out, ColumnStorage<?> storage, int row) throws IOException {
+        if (storage.isNull(row)) {
+            return;
+        }
+        switch (storage.getKind()) {
+            case INT:
+                out.writeLong(storage.getInt(row));
+                break;
+            case LONG:
+                out.writeLong(storage.getLong(row));
+                break;
+            case DOUBLE:
+                out.writeDouble(storage.getDouble(row));
+                break;
+            case BOOLEAN:
+                out.writeAscii(storage.getBoolean(row) ? "true" : "false");
+                break;
+            case STRING:
+                writeCSVText(out, storage.decode(storage.getCode(row)));
+                break;
+            default:
+                writeCSVText(out, String.valueOf(storage.get(row)));
+        }
+    }
+
+    private static void writeCSVText(OutputBuffer out, String text) throws IOException {
+        if (!needsQuotes(text)) {
+            out.writeString(text, 0, text.length());
+            return;
+        }
+        out.writeByte('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                out.writeString(text, start, i + 1);
+                out.writeByte('"');
+                start = i + 1;
+            }
+        }
+        out.writeString(text, start, text.length());
+        out.writeByte('"');
+    }
+
+    private static boolean needsQuotes(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        if (text.charAt(0) <= ' ' || text.charAt(text.length() - 1) <= ' ') {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Escribe las filas como un arreglo de objetos JSON, un objeto por línea.
+     */
+    private void writeJSON(OutputBuffer out) throws IOException {
+        long start = Metrics.start();
+        out.writeAscii("[\n");
+        List<Object> headers = df.getColumnLabels();
+        ColumnStorage<?>[] storages = storages();
+        int rows = df.countRows();
+
+        for (int row = 0; row < rows; row++) {
+            out.writeAscii("  {");
+            for (int i = 0; i < storages.length; i++) {
+                if (i > 0) {
+                    out.writeAscii(", ");
+                }
+                writeJSONString(out, headers.get(i).toString());
+                out.writeAscii(": ");
+                writeJSONValue(out, storages[i], row);
+            }
+            out.writeByte('}');
+            if (row < rows - 1) {
+                out.writeByte(',');
+            }
+            out.writeByte('\n');
+        }
+        out.writeByte(']');
+        out.flush();
+        Metrics.record("toJSON", start, rows, out.written());
+    }
+
+    private static void writeJSONValue(OutputBuffer out, ColumnStorage<?> storage, int row) throws IOException {
+        if (storage.isNull(row)) {
+            out.writeAscii("null");
+            return;
+        }
+        switch (storage.getKind()) {
+            case INT:
+                out.writeLong(storage.getInt(row));
+                break;
+            case LONG:
+                out.writeLong(storage.getLong(row));
+                break;
+            case DOUBLE:
+                double value = storage.getDouble(row);
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    out.writeAscii("null");
+                } else {
+                    out.writeDouble(value);
+                }
+                break;
+            case BOOLEAN:
+                out.writeAscii(storage.getBoolean(row) ? "true" : "false");
+                break;
+            case STRING:
+                writeJSONString(out, storage.decode(storage.getCode(row)));
+                break;
+            default:
+                Object object = storage.get(row);
+                if (object instanceof Number || object instanceof Boolean) {
+                    out.writeAscii(object.toString());
+                } else {
+                    writeJSONString(out, object.toString());
+                }
+        }
+    }
+
+    private static void writeJSONString(OutputBuffer out, String text) throws IOException {
+        out.writeByte('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                out.writeString(text, start, i);
+                writeJSONEscape(out, c);
+                start = i + 1;
+            }
+        }
+        out.writeString(text, start, text.length());
+        out.writeByte('"');
+    }
+
+    private static void writeJSONEscape(OutputBuffer out, char c) throws IOException {
+        out.writeByte('\\');
+        switch (c) {
+            case '"':
+            case '\\':
+                out.writeByte(c);
+                break;
+            case '\n':
+                out.writeByte('n');
+                break;
+            case '\r':
+                out.writeByte('r');
+                break;
+            case '\t':
+                out.writeByte('t');
+                break;
+            case '\b':
+                out.writeByte('b');
+                break;
+            case '\f':
+                out.writeByte('f');
+                break;
+            default:
+                out.writeAscii("u00");
+                out.writeByte(Character.forDigit(c >> 4, 16));
+                out.writeByte(Character.forDigit(c & 0xf, 16));
         }
-        writer.write("}");
     }
 
-    private static String formatJSONValue(Object value) {
-        if (value instanceof String) {
-            return "\"" + value + "\"";
-        } else if (value instanceof Boolean || value instanceof Number) {
-            return value.toString();
-        } else {
-            return "null";
+    private ColumnStorage<?>[] storages() {
+        List<Column<?>> columns = df.getColumns();
+        ColumnStorage<?>[] storages = new ColumnStorage<?>[columns.size()];
+        for (int i = 0; i < storages.length; i++) {
+            storages[i] = columns.get(i).getReadOnlyStorage();
         }
+        return storages;
     }
 }
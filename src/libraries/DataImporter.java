@@ -1,15 +1,22 @@
 package libraries;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import exceptions.IndexOutOfBounds;
 import exceptions.InvalidShape;
 import exceptions.LabelAlreadyInUse;
+import exceptions.LabelNotFound;
 import exceptions.TypeDoesNotMatch;
+import performance.Metrics;
 import structures.DataFrame;
 
 /**
@@ -33,48 +40,105 @@ public class DataImporter {
      */
     public static DataFrame readCSV(String path)
             throws IOException, InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse, IndexOutOfBounds {
-        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
-            List<String> headers = parseHeaders(reader.readLine());
-            List<List<?>> rows = parseCSVRows(reader);
-            return new DataFrame(rows, headers);
+        return readCSV(path, ',');
+    }
+
+    /**
+     * Lee un archivo CSV con el delimitador indicado y devuelve un DataFrame con
+     * los datos.
+     *
+     * @param path      Ruta del archivo CSV.
+     * @param delimiter Carácter que separa los campos.
+     * @return Un DataFrame con los datos del archivo CSV.
+     * @throws IOException      Si ocurre un error de entrada/salida.
+     * @throws InvalidShape     Si el archivo CSV tiene un formato inválido.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     */
+    public static DataFrame readCSV(String path, char delimiter)
+            throws IOException, InvalidShape, TypeDoesNotMatch {
+        long start = Metrics.start();
+        try (InputStream input = new FileInputStream(path)) {
+            DataFrame df = new CSVParser(input, delimiter).parse();
+            Metrics.record("readCSV", start, df.countRows(), fileSize(path));
+            return df;
         }
     }
 
     /**
-     * @param headerLine
-     * @return List<String>
+     * Lee un archivo CSV con el delimitador indicado y devuelve un DataFrame con
+     * los datos. En modo paralelo el archivo se mapea en memoria y se lee por
+     * bloques en el pool fork-join común; el resultado es el mismo que el de la
+     * lectura secuencial.
+     *
+     * @param path      Ruta del archivo CSV.
+     * @param delimiter Carácter que separa los campos.
+     * @param parallel  true para leer el archivo en paralelo.
+     * @return Un DataFrame con los datos del archivo CSV.
+     * @throws IOException      Si ocurre un error de entrada/salida.
+     * @throws InvalidShape     Si el archivo CSV tiene un formato inválido.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
      */
-    private static List<String> parseHeaders(String headerLine) {
-        List<String> headers = new ArrayList<>();
-        for (String header : headerLine.split(",")) {
-            headers.add(header.trim());
+    public static DataFrame readCSV(String path, char delimiter, boolean parallel)
+            throws IOException, InvalidShape, TypeDoesNotMatch {
+        try {
+            return readCSV(path, new ImportOptions().delimiter(delimiter).parallel(parallel));
+        } catch (LabelNotFound e) {
+            // Sin columnas ni condiciones no se busca ninguna etiqueta
+            throw new IllegalStateException(e);
         }
-        return headers;
     }
 
-    private static List<List<?>> parseCSVRows(BufferedReader reader) throws IOException {
-        List<List<?>> rows = new ArrayList<>();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            String[] values = line.split(",");
-            List<Object> row = new ArrayList<>();
-            for (String value : values) {
-                row.add(parseCellValue(value.trim()));
+    /**
+     * Lee un archivo CSV según las opciones indicadas: delimitador, lectura en
+     * paralelo, columnas a conservar y condiciones sobre las filas. Las
+     * columnas y condiciones se aplican durante la lectura, por lo que los
+     * campos y filas descartados no se convierten ni ocupan memoria.
+     *
+     * @param path    Ruta del archivo CSV.
+     * @param options Opciones de lectura.
+     * @return Un DataFrame con las columnas y filas seleccionadas.
+     * @throws IOException      Si ocurre un error de entrada/salida.
+     * @throws InvalidShape     Si el archivo CSV tiene un formato inválido.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     * @throws LabelNotFound    Si una columna de las opciones no está en el
+     *                          archivo.
+     */
+    public static DataFrame readCSV(String path, ImportOptions options)
+            throws IOException, InvalidShape, TypeDoesNotMatch, LabelNotFound {
+        long start = Metrics.start();
+        DataFrame df;
+        if (options.isParallel()) {
+            df = new ParallelCSVReader(path, options).read();
+        } else {
+            try (InputStream input = new FileInputStream(path)) {
+                df = new CSVParser(input, options.getDelimiter()).parse(options);
             }
-            rows.add(row);
         }
-        return rows;
+        Metrics.record("readCSV", start, df.countRows(), fileSize(path));
+        return df;
     }
 
-    private static Object parseCellValue(String value) {
-        if (value.matches("-?\\d+")) {
-            return Integer.parseInt(value);
-        } else if (value.matches("-?\\d*\\.\\d+")) {
-            return Double.parseDouble(value);
-        } else if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
-            return Boolean.parseBoolean(value);
-        }
-        return value;
+    /**
+     * Lee contenido CSV en UTF-8 desde un flujo y devuelve un DataFrame con los
+     * datos. El flujo no se cierra.
+     *
+     * @param input     Flujo con el contenido CSV.
+     * @param delimiter Carácter que separa los campos.
+     * @return Un DataFrame con los datos leídos.
+     * @throws IOException      Si ocurre un error de entrada/salida.
+     * @throws InvalidShape     Si el contenido tiene un formato inválido.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     */
+    public static DataFrame readCSV(InputStream input, char delimiter)
+            throws IOException, InvalidShape, TypeDoesNotMatch {
+        long start = Metrics.start();
+        DataFrame df = new CSVParser(input, delimiter).parse();
+        Metrics.record("readCSV", start, df.countRows(), 0);
+        return df;
     }
 
     /**
@@ -92,54 +156,58 @@ public class DataImporter {
      */
     public static DataFrame readJSON(String path)
             throws IOException, InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse, IndexOutOfBounds {
-        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
-            String jsonContent = readEntireFile(reader);
-            List<String> headers = new ArrayList<>();
-            List<List<?>> rows = parseJSONRows(jsonContent, headers);
-            return new DataFrame(rows, headers);
+        long start = Metrics.start();
+        try (Reader reader = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)) {
+            DataFrame df = new JSONParser(reader).parse();
+            Metrics.record("readJSON", start, df.countRows(), fileSize(path));
+            return df;
         }
     }
 
-    private static String readEntireFile(BufferedReader reader) throws IOException {
-        StringBuilder content = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            content.append(line.trim());
-        }
-        return content.toString();
+    /**
+     * Lee contenido JSON desde un flujo de caracteres y devuelve un DataFrame con
+     * los datos. El contenido puede ser un arreglo de objetos o un objeto por
+     * línea (JSON delimitado por líneas). El flujo no se cierra.
+     *
+     * @param reader Flujo con el contenido JSON.
+     * @return Un DataFrame con los datos leídos.
+     * @throws IOException      Si ocurre un error de entrada/salida.
+     * @throws InvalidShape     Si el contenido no es JSON válido o no es una
+     *                          lista de objetos.
+     * @throws TypeDoesNotMatch Si los valores de una clave son de tipos distintos.
+     */
+    public static DataFrame readJSON(Reader reader) throws IOException, InvalidShape, TypeDoesNotMatch {
+        long start = Metrics.start();
+        DataFrame df = new JSONParser(reader).parse();
+        Metrics.record("readJSON", start, df.countRows(), 0);
+        return df;
     }
 
-    private static List<List<?>> parseJSONRows(String jsonContent, List<String> headers) {
-        List<List<?>> rows = new ArrayList<>();
-
-        if (jsonContent.length() <= 2) {
-            return rows;
-        }
-
-        String[] jsonRows = jsonContent.substring(1, jsonContent.length() - 1).split("\\},\\{");
-
-        for (String jsonRow : jsonRows) {
-            List<Object> row = parseJSONRow(jsonRow, headers);
-            rows.add(row);
+    /**
+     * Lee un archivo en el formato binario que escribe DataExporter.toBinary. Los
+     * bloques de cada columna se mapean en memoria y se copian directamente en
+     * su almacenamiento, sin interpretar valores.
+     *
+     * @param path Ruta del archivo.
+     * @return Un DataFrame con los datos del archivo.
+     * @throws IOException  Si ocurre un error de entrada/salida o el archivo no
+     *                      está en formato binario.
+     * @throws InvalidShape Si el contenido del archivo es inconsistente.
+     */
+    public static DataFrame readBinary(String path) throws IOException, InvalidShape {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long start = Metrics.start();
+            DataFrame df = BinaryFormat.read(channel);
+            Metrics.record("readBinary", start, df.countRows(), Metrics.isEnabled() ? channel.size() : 0);
+            return df;
         }
-
-        return rows;
     }
 
-    private static List<Object> parseJSONRow(String jsonRow, List<String> headers) {
-        List<Object> row = new ArrayList<>();
-        String[] jsonCells = jsonRow.replace("{", "").replace("}", "").split(",");
-
-        for (String cell : jsonCells) {
-            String[] parts = cell.split(":");
-            String header = parts[0].replace("\"", "").trim();
-            String value = parts[1].replace("\"", "").trim();
-
-            if (!headers.contains(header)) {
-                headers.add(header);
-            }
-            row.add(parseCellValue(value));
-        }
-        return row;
+    /**
+     * Obtiene el tamaño de un archivo para las métricas (ver Metrics). El
+     * archivo solo se consulta si el registro está activado.
+     */
+    private static long fileSize(String path) {
+        return Metrics.isEnabled() ? new File(path).length() : 0;
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,14 @@
 package libraries;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 import exceptions.IndexOutOfBounds;
@@ -15,16 +17,27 @@ import exceptions.LabelAlreadyInUse;
 import exceptions.LabelDoesNotMatch;
 import exceptions.LabelNotFound;
 import exceptions.TypeDoesNotMatch;
+import performance.Metrics;
 import structures.Cell;
+import structures.ChunkedStorage;
 import structures.Column;
+import structures.ColumnStorage;
 import structures.DataFrame;
 import structures.GroupedDataFrame;
+import structures.JoinType;
+import structures.LongStorage;
 import structures.Row;
 
 /**
  * La clase DataManipulator proporciona métodos para manipular y transformar
  */
 public class DataManipulator {
+    /**
+     * Cantidad de filas a partir de la cual sortBy ordena en paralelo cuando
+     * se le pide.
+     */
+    public static final int PARALLEL_SORT_ROWS = 1 << 20;
+
     private DataFrame df;
 
     /**
@@ -37,7 +50,8 @@ public class DataManipulator {
     }
 
     /**
-     * Ordena el DataFrame por una lista de etiquetas.
+     * Ordena el DataFrame por una lista de etiquetas. El DataFrame original no
+     * se modifica.
      * 
      * @param labels     Lista de etiquetas por las que se ordenará el DataFrame.
      * @param descending Indica si el orden es descendente.
@@ -50,47 +64,252 @@ public class DataManipulator {
      * @throws IndexOutOfBounds Si se intenta acceder a un índice fuera de los
      *                          límites.
      */
-    @SuppressWarnings("unchecked")
     public DataFrame sortBy(List<? extends Object> labels, boolean descending)
             throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        boolean[] directions = new boolean[labels.size()];
+        Arrays.fill(directions, descending);
+        return sortBy(labels, directions);
+    }
 
-        if (!this.df.getColumnLabels().containsAll(labels)) {
-            throw new LabelNotFound();
-        }
+    /**
+     * Ordena el DataFrame por una lista de etiquetas, cada una en su propio
+     * sentido. Las filas empatadas en todas las columnas conservan su orden, y
+     * los nulos quedan primero en orden ascendente y últimos en orden
+     * descendente (ver RowSorter). El DataFrame original no se modifica.
+     * 
+     * @param labels     Lista de etiquetas por las que se ordenará el DataFrame.
+     * @param descending Para cada etiqueta, true si el orden es descendente.
+     * @return Un nuevo DataFrame ordenado.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws InvalidShape     Si el DataFrame tiene una forma inválida.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     * @throws IndexOutOfBounds Si se intenta acceder a un índice fuera de los
+     *                          límites.
+     */
+    public DataFrame sortBy(List<? extends Object> labels, boolean[] descending)
+            throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        long start = Metrics.start();
+        DataFrame result = sorted(sorter(labels, descending).sort());
+        Metrics.record("sortBy", start, result.countRows(), 0);
+        return result;
+    }
 
-        List<List<?>> rows = new ArrayList<>();
+    /**
+     * Ordena el DataFrame por una lista de etiquetas, cada una en su propio
+     * sentido, en paralelo en el pool fork-join común si el DataFrame tiene al
+     * menos PARALLEL_SORT_ROWS filas (ver sortBy con un pool).
+     * 
+     * @param labels     Lista de etiquetas por las que se ordenará el DataFrame.
+     * @param descending Para cada etiqueta, true si el orden es descendente.
+     * @param parallel   true para ordenar en paralelo.
+     * @return Un nuevo DataFrame ordenado.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws InvalidShape     Si la cantidad de sentidos no coincide con la de
+     *                          etiquetas.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     * @throws IndexOutOfBounds Si se intenta acceder a un índice fuera de los
+     *                          límites.
+     */
+    public DataFrame sortBy(List<? extends Object> labels, boolean[] descending, boolean parallel)
+            throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        return parallel ? sortBy(labels, descending, ForkJoinPool.commonPool(), PARALLEL_SORT_ROWS)
+                : sortBy(labels, descending);
+    }
 
-        this.df.getRows().sort((row1, row2) -> {
-            for (Object label : labels) {
-                int index = this.df.getColumnLabels().indexOf(label);
-                Cell<?> cell1 = row1.getCell(index);
-                Cell<?> cell2 = row2.getCell(index);
+    /**
+     * Ordena el DataFrame en paralelo si tiene al menos la cantidad de filas
+     * indicada. Cada bloque de filas se ordena por separado y los bloques se
+     * mezclan en el pool; el orden resultante es exactamente el mismo que el
+     * de la versión secuencial, incluido el de las filas empatadas.
+     * 
+     * @param labels     Lista de etiquetas por las que se ordenará el DataFrame.
+     * @param descending Para cada etiqueta, true si el orden es descendente.
+     * @param pool       Pool en el que se ordena.
+     * @param minRows    Cantidad de filas a partir de la cual se ordena en
+     *                   paralelo; con menos filas se ordena en el hilo actual.
+     * @return Un nuevo DataFrame ordenado.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws InvalidShape     Si la cantidad de sentidos no coincide con la de
+     *                          etiquetas.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     * @throws IndexOutOfBounds Si se intenta acceder a un índice fuera de los
+     *                          límites.
+     */
+    public DataFrame sortBy(List<? extends Object> labels, boolean[] descending, ForkJoinPool pool, int minRows)
+            throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        long start = Metrics.start();
+        RowSorter sorter = sorter(labels, descending);
+        DataFrame result = sorted(this.df.countRows() >= minRows ? sorter.sort(pool) : sorter.sort());
+        Metrics.record("sortBy", start, result.countRows(), 0);
+        return result;
+    }
 
-                if (cell1.isEmpty() && cell2.isEmpty()) {
-                    continue;
-                } else if (cell1.isEmpty()) {
-                    return descending ? 1 : -1;
-                } else if (cell2.isEmpty()) {
-                    return descending ? -1 : 1;
-                }
+    /**
+     * Obtiene las n filas con los valores más grandes según una lista de
+     * etiquetas, sin ordenar todo el DataFrame (ver RowSorter.top). El
+     * resultado es el mismo que el de sortBy(labels, true).head(n), incluido el
+     * orden de las filas empatadas.
+     * 
+     * @param n      Cantidad de filas.
+     * @param labels Lista de etiquetas por las que se comparan las filas.
+     * @return Un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws IndexOutOfBounds Si n es negativo.
+     * @throws InvalidShape     Si el DataFrame tiene una forma inválida.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     */
+    public DataFrame nlargest(int n, List<? extends Object> labels)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return top(n, labels, true, null);
+    }
 
-                int comparison = ((Comparable<Object>) cell1.getValue()).compareTo(cell2.getValue());
-                if (comparison != 0) {
-                    return descending ? -comparison : comparison;
-                }
-            }
-            return 0;
-        });
+    /**
+     * Obtiene las n filas con los valores más chicos según una lista de
+     * etiquetas, sin ordenar todo el DataFrame. El resultado es el mismo que el
+     * de sortBy(labels, false).head(n).
+     * 
+     * @param n      Cantidad de filas.
+     * @param labels Lista de etiquetas por las que se comparan las filas.
+     * @return Un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws IndexOutOfBounds Si n es negativo.
+     * @throws InvalidShape     Si el DataFrame tiene una forma inválida.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     */
+    public DataFrame nsmallest(int n, List<? extends Object> labels)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return top(n, labels, false, null);
+    }
 
-        for (Row row : this.df.getRows()) {
-            List<Object> cells = new ArrayList<>();
-            for (Cell<?> cell : row.getCells()) {
-                cells.add(cell.getValue());
-            }
-            rows.add(cells);
+    /**
+     * Obtiene las n filas con los valores más grandes, en paralelo en el pool
+     * fork-join común si se indica (ver nlargest con un pool).
+     * 
+     * @param n        Cantidad de filas.
+     * @param labels   Lista de etiquetas por las que se comparan las filas.
+     * @param parallel true para buscar las filas en paralelo.
+     * @return Un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws IndexOutOfBounds Si n es negativo.
+     * @throws InvalidShape     Si el DataFrame tiene una forma inválida.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     */
+    public DataFrame nlargest(int n, List<? extends Object> labels, boolean parallel)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return top(n, labels, true, parallel ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Obtiene las n filas con los valores más chicos, en paralelo en el pool
+     * fork-join común si se indica (ver nsmallest con un pool).
+     * 
+     * @param n        Cantidad de filas.
+     * @param labels   Lista de etiquetas por las que se comparan las filas.
+     * @param parallel true para buscar las filas en paralelo.
+     * @return Un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws IndexOutOfBounds Si n es negativo.
+     * @throws InvalidShape     Si el DataFrame tiene una forma inválida.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     */
+    public DataFrame nsmallest(int n, List<? extends Object> labels, boolean parallel)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return top(n, labels, false, parallel ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Obtiene las n filas con los valores más grandes en paralelo: cada bloque
+     * de filas busca sus n mejores y luego se combinan los candidatos. Da el
+     * mismo resultado que nlargest(n, labels).
+     * 
+     * @param n      Cantidad de filas.
+     * @param labels Lista de etiquetas por las que se comparan las filas.
+     * @param pool   Pool en el que se buscan las filas.
+     * @return Un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws IndexOutOfBounds Si n es negativo.
+     * @throws InvalidShape     Si el DataFrame tiene una forma inválida.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     */
+    public DataFrame nlargest(int n, List<? extends Object> labels, ForkJoinPool pool)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return top(n, labels, true, pool);
+    }
+
+    /**
+     * Obtiene las n filas con los valores más chicos en paralelo. Da el mismo
+     * resultado que nsmallest(n, labels).
+     * 
+     * @param n      Cantidad de filas.
+     * @param labels Lista de etiquetas por las que se comparan las filas.
+     * @param pool   Pool en el que se buscan las filas.
+     * @return Un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    Si alguna de las etiquetas no existe en el
+     *                          DataFrame.
+     * @throws IndexOutOfBounds Si n es negativo.
+     * @throws InvalidShape     Si el DataFrame tiene una forma inválida.
+     * @throws TypeDoesNotMatch Si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     */
+    public DataFrame nsmallest(int n, List<? extends Object> labels, ForkJoinPool pool)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return top(n, labels, false, pool);
+    }
+
+    private DataFrame top(int n, List<? extends Object> labels, boolean descending, ForkJoinPool pool)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        if (n < 0) {
+            throw new IndexOutOfBounds();
+        }
+        boolean[] directions = new boolean[labels.size()];
+        Arrays.fill(directions, descending);
+        long start = Metrics.start();
+        RowSorter sorter = sorter(labels, directions);
+        DataFrame result = sorted(pool != null ? sorter.top(n, pool) : sorter.top(n));
+        Metrics.record(descending ? "nlargest" : "nsmallest", start, this.df.countRows(), 0);
+        return result;
+    }
+
+    private RowSorter sorter(List<? extends Object> labels, boolean[] descending)
+            throws LabelNotFound, InvalidShape {
+        if (descending.length != labels.size()) {
+            throw new InvalidShape();
+        }
+        int[] indices = new int[labels.size()];
+        for (int i = 0; i < labels.size(); i++) {
+            indices[i] = this.df.getColumnIndex(labels.get(i));
         }
+        return new RowSorter(this.df, indices, descending);
+    }
 
-        return new DataFrame(rows, this.df.getColumnLabels());
+    /**
+     * Crea un DataFrame con las filas en el orden indicado.
+     *
+     * @param order posiciones de las filas.
+     * @return el nuevo DataFrame.
+     */
+    private DataFrame sorted(int[] order) throws InvalidShape, IndexOutOfBounds, TypeDoesNotMatch {
+        List<Column<?>> columns = new ArrayList<>();
+        for (Column<?> column : this.df.getColumns()) {
+            columns.add(new Column<>(column.getLabel(), column.getReadOnlyStorage().select(order)));
+        }
+        return new DataFrame(columns);
     }
 
     /**
@@ -109,6 +328,7 @@ public class DataManipulator {
     @SuppressWarnings("unchecked")
     public <T> DataFrame fillna(Object label, T value)
             throws InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse, IndexOutOfBounds, LabelNotFound {
+        long start = Metrics.start();
         DataFrame df = this.df.copy();
         Column<T> column = (Column<T>) df.getColumn(label);
         for (Cell<T> cell : column.getCells()) {
@@ -116,51 +336,60 @@ public class DataManipulator {
                 cell.setValue(value);
             }
         }
+        Metrics.record("fillna", start, df.countRows(), 0);
         return df;
     }
 
     /**
-     * Filtra las filas del DataFrame basado en una o más condiciones.
+     * Filtra las filas del DataFrame basado en una o más condiciones. Cada
+     * condición recibe el valor de su columna como objeto, incluidos los nulos
+     * (ver RowFilter.values).
      * 
-     * @param conditions
-     * @return
-     * @throws LabelNotFound
-     * @throws InvalidShape
-     * @throws TypeDoesNotMatch
-     * @throws IndexOutOfBounds
+     * @param conditions condiciones por etiqueta de columna; la fila debe
+     *                   cumplir todas.
+     * @return un nuevo DataFrame con las filas que cumplen las condiciones.
+     * @throws LabelNotFound    si una etiqueta no existe en el DataFrame.
+     * @throws InvalidShape     si el DataFrame tiene una forma inválida.
+     * @throws TypeDoesNotMatch si el tipo de dato de una celda no coincide con el
+     *                          tipo de la columna.
+     * @throws IndexOutOfBounds si se intenta acceder a un índice fuera de los
+     *                          límites.
      */
     public DataFrame filter(Map<Object, Predicate<Object>> conditions)
             throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
-        List<Integer> indices = new ArrayList<>();
-        for (Object label : conditions.keySet()) {
-            int index = this.df.getColumnLabels().indexOf(label);
-            if (index == -1) {
-                throw new LabelNotFound("Label not found: " + label);
-            }
-            indices.add(index);
+        RowFilter filter = RowFilter.all();
+        for (Map.Entry<Object, Predicate<Object>> condition : conditions.entrySet()) {
+            filter = filter.and(RowFilter.values(condition.getKey(), condition.getValue()));
         }
-        List<List<?>> rows = new ArrayList<>();
-        for (Row row : this.df.getRows()) {
-            boolean match = true;
-
-            for (int i = 0; i < indices.size(); i++) {
-                int index = indices.get(i);
-                Object label = conditions.keySet().toArray()[i];
-                Predicate<Object> condition = conditions.get(label);
-                if (!condition.test(row.getCell(index).getValue())) {
-                    match = false;
-                    break;
-                }
-            }
-            if (match) {
-                List<Object> cells = new ArrayList<>();
-                for (Cell<?> cell : row.getCells()) {
-                    cells.add(cell.getValue());
-                }
-                rows.add(cells);
-            }
+        return filter(filter);
+    }
+
+    /**
+     * Filtra las filas del DataFrame según una condición evaluada columna por
+     * columna (ver RowFilter). Las columnas del resultado son vistas que
+     * comparten los valores de las filas seleccionadas (ver Column.view); todas
+     * comparten el mismo vector de selección.
+     * 
+     * @param filter condición que deben cumplir las filas.
+     * @return un nuevo DataFrame con las filas que cumplen la condición.
+     * @throws LabelNotFound    si una columna de la condición no existe en el
+     *                          DataFrame.
+     * @throws TypeDoesNotMatch si una condición no se puede aplicar al tipo de
+     *                          su columna.
+     * @throws InvalidShape     si el DataFrame tiene una forma inválida.
+     * @throws IndexOutOfBounds si se intenta acceder a un índice fuera de los
+     *                          límites.
+     */
+    public DataFrame filter(RowFilter filter)
+            throws LabelNotFound, TypeDoesNotMatch, InvalidShape, IndexOutOfBounds {
+        long start = Metrics.start();
+        int[] indices = RowFilter.indices(filter.evaluate(this.df));
+        List<Column<?>> columns = new ArrayList<>();
+        for (Column<?> column : this.df.getColumns()) {
+            columns.add(column.view(indices));
         }
-        return new DataFrame(rows, this.df.getColumnLabels());
+        Metrics.record("filter", start, this.df.countRows(), 0);
+        return new DataFrame(columns);
     }
 
     /**
@@ -205,7 +434,8 @@ public class DataManipulator {
      * Devuelve un subconjunto de columnas del DataFrame.
      * 
      * @param labels lista de etiquetas de las columnas.
-     * @return un nuevo DataFrame con las columnas seleccionadas.
+     * @return un nuevo DataFrame con las columnas seleccionadas, que comparten
+     *         los valores de las originales (ver Column.view).
      * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
      * @throws InvalidShape     si las dimensiones del nuevo DataFrame no son
      *                          válidas.
@@ -214,11 +444,17 @@ public class DataManipulator {
      */
     public DataFrame slice(int start, int end)
             throws InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse, IndexOutOfBounds {
-        return new DataFrame(this.df.getColumns().subList(start, end));
+        List<Column<?>> columns = new ArrayList<>();
+        for (Column<?> column : this.df.getColumns().subList(start, end)) {
+            columns.add(column.view(0, column.size()));
+        }
+        return new DataFrame(columns);
     }
 
     /**
-     * Agrupa las filas del DataFrame basado en una o más columnas.
+     * Agrupa las filas del DataFrame basado en una o más columnas. Dos filas
+     * quedan en el mismo grupo solo si todos sus valores en esas columnas son
+     * iguales (ver HashGrouper).
      * 
      * @param label lista de etiquetas de las columnas.
      * @return un nuevo DataFrame agrupado.
@@ -226,28 +462,166 @@ public class DataManipulator {
      * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
      */
     public GroupedDataFrame groupBy(List<Object> labels) throws LabelNotFound, IndexOutOfBounds {
-        Map<String, List<Row>> rows = new HashMap<String, List<Row>>();
+        int[] indices = new int[labels.size()];
+        for (int i = 0; i < labels.size(); i++) {
+            indices[i] = this.df.getColumnIndex(labels.get(i));
+        }
+        long start = Metrics.start();
+        int[][] groups = new HashGrouper(this.df, indices).group();
+        Metrics.record("groupBy", start, this.df.countRows(), 0);
+        return new GroupedDataFrame(this.df, indices, groups);
+    }
 
-        for (Row row : this.df.getRows()) {
-            StringBuilder groupName = new StringBuilder();
-            for (Object label : labels) {
-                int index = this.df.getColumnLabels().indexOf(label);
-                groupName.append(row.getCell(index).getValue()).append("_");
-            }
+    /**
+     * Agrupa las filas del DataFrame basado en una o más columnas, en paralelo
+     * si se indica (ver groupBy con un pool).
+     * 
+     * @param labels   lista de etiquetas de las columnas.
+     * @param parallel true para agrupar y agregar en el pool fork-join común.
+     * @return un nuevo DataFrame agrupado.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public GroupedDataFrame groupBy(List<Object> labels, boolean parallel) throws LabelNotFound, IndexOutOfBounds {
+        return parallel ? groupBy(labels, ForkJoinPool.commonPool()) : groupBy(labels);
+    }
 
-            String group = groupName.substring(0, groupName.length() - 1);
+    /**
+     * Agrupa las filas del DataFrame en paralelo. Cada bloque de filas se
+     * agrupa por separado y los grupos de los bloques se unen por particiones
+     * de su clave; las agregaciones del resultado también se calculan en el
+     * pool, con resultados parciales por bloque. Los grupos y sus filas son
+     * los mismos que en la versión secuencial, y las agregaciones coinciden
+     * salvo por el redondeo de las sumas.
+     * 
+     * @param labels lista de etiquetas de las columnas.
+     * @param pool   pool en el que se agrupa y se agrega.
+     * @return un nuevo DataFrame agrupado.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public GroupedDataFrame groupBy(List<Object> labels, ForkJoinPool pool) throws LabelNotFound, IndexOutOfBounds {
+        int[] indices = new int[labels.size()];
+        for (int i = 0; i < labels.size(); i++) {
+            indices[i] = this.df.getColumnIndex(labels.get(i));
+        }
+        long start = Metrics.start();
+        int[][] groups = new HashGrouper(this.df, indices).group(pool);
+        Metrics.record("groupBy", start, this.df.countRows(), 0);
+        return new GroupedDataFrame(this.df, indices, groups, pool);
+    }
 
-            if (!rows.containsKey(group)) {
-                rows.put(group, new ArrayList<Row>());
+    /**
+     * Une las filas de este DataFrame con las de otro según los valores de
+     * sus columnas de clave (ver Joiner). El resultado tiene todas las
+     * columnas de este DataFrame seguidas de las del otro; las columnas de
+     * clave del otro con la misma etiqueta que su par de este DataFrame no se
+     * repiten, y las demás columnas del otro cuya etiqueta ya está en uso
+     * reciben el sufijo "_right". En las filas sin pareja, las columnas del
+     * lado que falta quedan nulas, salvo las columnas de clave compartidas,
+     * que toman el valor del lado presente (como long si una es de int y la
+     * otra de long).
+     * 
+     * @param other   DataFrame con el que se une (lado derecho).
+     * @param leftOn  etiquetas de las columnas de clave de este DataFrame.
+     * @param rightOn etiquetas de las columnas de clave del otro, en el mismo
+     *                orden.
+     * @param how     tipo de unión.
+     * @return un nuevo DataFrame con las filas unidas.
+     * @throws LabelNotFound    si una etiqueta no existe en su DataFrame.
+     * @throws InvalidShape     si las listas de claves están vacías o tienen
+     *                          distinto largo.
+     * @throws TypeDoesNotMatch si dos columnas de clave tienen tipos
+     *                          distintos que no se pueden comparar.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public DataFrame join(DataFrame other, List<? extends Object> leftOn, List<? extends Object> rightOn,
+            JoinType how) throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        if (leftOn.isEmpty() || leftOn.size() != rightOn.size()) {
+            throw new InvalidShape();
+        }
+        int[] leftKeys = new int[leftOn.size()];
+        int[] rightKeys = new int[rightOn.size()];
+        for (int i = 0; i < leftKeys.length; i++) {
+            leftKeys[i] = this.df.getColumnIndex(leftOn.get(i));
+            rightKeys[i] = other.getColumnIndex(rightOn.get(i));
+        }
+        long start = Metrics.start();
+        int[][] rows = new Joiner(this.df, leftKeys, other, rightKeys, how).join();
+
+        // Columnas de clave del otro DataFrame que se funden con las de este
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (int i = 0; i < leftKeys.length; i++) {
+            Object label = this.df.getColumns().get(leftKeys[i]).getLabel();
+            if (label.equals(other.getColumns().get(rightKeys[i]).getLabel())) {
+                shared.put(leftKeys[i], rightKeys[i]);
+            }
+        }
+
+        List<Column<?>> columns = new ArrayList<>();
+        Set<Object> labels = new HashSet<>();
+        for (int i = 0; i < this.df.countColumns(); i++) {
+            Column<?> column = this.df.getColumns().get(i);
+            Integer key = shared.get(i);
+            ColumnStorage<?> storage = key != null && how != JoinType.INNER && how != JoinType.LEFT
+                    ? mergeKeys(column.getReadOnlyStorage(), other.getColumns().get(key).getReadOnlyStorage(), rows)
+                    : column.getReadOnlyStorage().selectOrNull(rows[0]);
+            columns.add(new Column<>(column.getLabel(), storage));
+            labels.add(column.getLabel());
+        }
+        for (int i = 0; i < other.countColumns(); i++) {
+            if (shared.containsValue(i)) {
+                continue;
             }
-            rows.get(group).add(row);
+            Column<?> column = other.getColumns().get(i);
+            Object label = labels.contains(column.getLabel()) ? column.getLabel() + "_right" : column.getLabel();
+            columns.add(new Column<>(label, column.getReadOnlyStorage().selectOrNull(rows[1])));
         }
+        Metrics.record("join", start, this.df.countRows() + other.countRows(), 0);
+        return new DataFrame(columns);
+    }
 
-        return new GroupedDataFrame(this.df, rows);
+    /**
+     * Funde una columna de clave de este DataFrame con su par del otro: cada
+     * fila toma el valor izquierdo o, si no tiene fila izquierda, el derecho.
+     * Si una de las dos columnas no tiene tipo se usan los valores de la otra,
+     * y si una es de int y la otra de long el resultado es de long.
+     */
+    @SuppressWarnings("unchecked")
+    private static ColumnStorage<?> mergeKeys(ColumnStorage<?> left, ColumnStorage<?> right, int[][] rows) {
+        if (right.getValueType() == null) {
+            return left.selectOrNull(rows[0]);
+        }
+        if (left.getValueType() == null) {
+            return right.selectOrNull(rows[1]);
+        }
+        if (left.getKind() != right.getKind()) {
+            LongStorage merged = new LongStorage(rows[0].length);
+            for (int row = 0; row < rows[0].length; row++) {
+                ColumnStorage<?> side = rows[0][row] == -1 ? right : left;
+                int index = rows[0][row] == -1 ? rows[1][row] : rows[0][row];
+                if (side.isNull(index)) {
+                    merged.addNull();
+                } else {
+                    merged.addLong(side.getLong(index));
+                }
+            }
+            return merged;
+        }
+        ColumnStorage<Object> merged = (ColumnStorage<Object>) left.selectOrNull(rows[0]);
+        for (int row = 0; row < rows[0].length; row++) {
+            if (rows[0][row] == -1) {
+                merged.set(row, right.get(rows[1][row]));
+            }
+        }
+        return merged;
     }
 
     /**
-     * Concatena dos DataFrames.
+     * Concatena dos DataFrames. Cada columna del resultado recibe los valores
+     * de ambas columnas con una copia en bloque de su almacenamiento, sin pasar
+     * por filas ni celdas; si supera un bloque, se guarda en bloques (ver
+     * ChunkedStorage) en lugar de reservar un único arreglo del tamaño final.
      * 
      * @param other DataFrame a concatenar.
      * @return un nuevo DataFrame con las filas concatenadas.
@@ -255,31 +629,28 @@ public class DataManipulator {
      *                           válidas.
      * @throws TypeDoesNotMatch  si los tipos de datos no coinciden.
      * @throws IndexOutOfBounds  si hay índices fuera del rango permitido.
-     * @throws LabelDoesNotMatch
+     * @throws LabelDoesNotMatch si las etiquetas de las columnas no coinciden.
      */
+    @SuppressWarnings("unchecked")
     public DataFrame concat(DataFrame other)
             throws InvalidShape, TypeDoesNotMatch, IndexOutOfBounds, LabelDoesNotMatch {
-        System.out.println(this.df.getColumnLabels());
-        System.out.println(other.getColumnLabels());
-        if (this.df.getColumnLabels().equals(other.getColumnLabels())) {
-            List<List<?>> rows = new ArrayList<>();
-            for (Row row : this.df.getRows()) {
-                List<Object> cells = new ArrayList<>();
-                for (Cell<?> cell : row.getCells()) {
-                    cells.add(cell.getValue());
-                }
-                rows.add(cells);
-            }
-            for (Row row : other.getRows()) {
-                List<Object> cells = new ArrayList<>();
-                for (Cell<?> cell : row.getCells()) {
-                    cells.add(cell.getValue());
-                }
-                rows.add(cells);
-            }
-            return new DataFrame(rows, this.df.getColumnLabels());
-        } else {
+        if (!this.df.getColumnLabels().equals(other.getColumnLabels())) {
             throw new LabelDoesNotMatch();
         }
+        long start = Metrics.start();
+        int rows = this.df.countRows() + other.countRows();
+        List<Column<?>> columns = new ArrayList<>();
+        for (int i = 0; i < this.df.countColumns(); i++) {
+            Column<Object> first = (Column<Object>) this.df.getColumns().get(i);
+            Column<Object> second = (Column<Object>) other.getColumns().get(i);
+            Class<?> type = first.getType() != null ? first.getType() : second.getType();
+            Column<Object> column = new Column<>(first.getLabel(),
+                    (ColumnStorage<Object>) ColumnStorage.forType(type, Math.min(rows, ChunkedStorage.CHUNK_ROWS)));
+            column.appendAll(first);
+            column.appendAll(second);
+            columns.add(column);
+        }
+        Metrics.record("concat", start, rows, 0);
+        return new DataFrame(columns);
     }
 }
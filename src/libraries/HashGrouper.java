@@ -0,0 +1,497 @@
+package libraries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import structures.ColumnStorage;
+import structures.DataFrame;
+
+/**
+ * Agrupa las filas de un DataFrame según los valores de una o más columnas.
+ *
+ * Cada columna de la clave se codifica primero con un número de grupo por
+ * fila, tomado directamente del almacenamiento: el valor primitivo en las
+ * columnas numéricas y booleanas, el código de diccionario en las de cadenas.
+ * Las columnas siguientes se combinan con los números ya calculados en una
+ * clave long exacta, de modo que dos filas quedan en el mismo grupo solo si
+ * todos sus valores son iguales (según equals, y los nulos iguales entre sí).
+ * No se crean objetos por fila salvo en columnas de tipos genéricos.
+ *
+ * Los grupos se numeran en el orden en que aparece su primera fila.
+ *
+ * En paralelo, cada bloque de filas se agrupa por separado y luego los grupos
+ * locales se unen por particiones del hash de su clave, comparando los valores
+ * de la primera fila de cada grupo para descartar colisiones. El resultado es
+ * el mismo que el de la versión secuencial.
+ */
+class HashGrouper {
+    private static final int MIN_CHUNK_ROWS = 1 << 16;
+
+    private final ColumnStorage<?>[] keys;
+    private final int rows;
+
+    /**
+     * Crea un agrupador sobre las columnas indicadas.
+     *
+     * @param df      DataFrame a agrupar.
+     * @param columns posiciones de las columnas de la clave.
+     */
+    HashGrouper(DataFrame df, int[] columns) {
+        this.keys = new ColumnStorage<?>[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keys[i] = df.getColumns().get(columns[i]).getReadOnlyStorage();
+        }
+        this.rows = df.countRows();
+    }
+
+    /**
+     * Agrupa las filas.
+     *
+     * @return para cada grupo, las posiciones de sus filas en orden ascendente.
+     */
+    int[][] group() {
+        int[] ids = new int[rows];
+        int count = groupRange(0, rows, ids);
+        return members(ids, count);
+    }
+
+    /**
+     * Agrupa las filas repartiendo el trabajo en un pool fork-join. Si hay
+     * pocas filas se agrupan de forma secuencial.
+     *
+     * @param pool pool en el que se procesan los bloques.
+     * @return para cada grupo, las posiciones de sus filas en orden ascendente.
+     */
+    int[][] group(ForkJoinPool pool) {
+        int chunkCount = (int) Math.min(pool.getParallelism() * 4L, rows / MIN_CHUNK_ROWS);
+        if (chunkCount < 2 || keys.length == 0) {
+            return group();
+        }
+
+        // Cada bloque agrupa sus filas con números locales
+        List<Chunk> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(new Chunk((int) ((long) rows * i / chunkCount), (int) ((long) rows * (i + 1) / chunkCount)));
+        }
+        int partitionCount = Integer.highestOneBit(pool.getParallelism() * 2);
+        run(pool, chunks, chunk -> chunk.group(partitionCount));
+
+        // Cada partición une los grupos locales cuyo hash le corresponde
+        List<Partition> partitions = new ArrayList<>(partitionCount);
+        for (int p = 0; p < partitionCount; p++) {
+            partitions.add(new Partition(p, chunks));
+        }
+        run(pool, partitions, Partition::merge);
+
+        // Los grupos se renumeran en el orden de su primera fila
+        int[] offsets = new int[partitionCount + 1];
+        for (int p = 0; p < partitionCount; p++) {
+            offsets[p + 1] = offsets[p] + partitions.get(p).count;
+        }
+        int[] ids = new int[rows];
+        for (Partition partition : partitions) {
+            for (int id = 0; id < partition.count; id++) {
+                ids[partition.firstRows[id]] = offsets[partition.index] + id + 1;
+            }
+        }
+        int[] order = new int[offsets[partitionCount]];
+        int next = 0;
+        for (int row = 0; row < rows; row++) {
+            if (ids[row] != 0) {
+                order[ids[row] - 1] = next++;
+            }
+        }
+
+        run(pool, chunks, chunk -> chunk.resolve(ids, offsets, order));
+        return members(ids, next);
+    }
+
+    /**
+     * Agrupa las filas de un rango con números locales al rango, en orden de
+     * aparición.
+     *
+     * @param ids número de grupo de cada fila, indexado desde el inicio del
+     *            rango.
+     * @return la cantidad de grupos.
+     */
+    private int groupRange(int start, int end, int[] ids) {
+        if (keys.length == 0) {
+            return end > start ? 1 : 0;
+        }
+        int count = encode(keys[0], start, end, ids);
+        if (keys.length > 1) {
+            int[] codes = new int[end - start];
+            for (int i = 1; i < keys.length; i++) {
+                int cardinality = encode(keys[i], start, end, codes);
+                count = combine(ids, count, codes, cardinality);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calcula el número de grupo de cada fila de un rango según una sola
+     * columna.
+     *
+     * @return la cantidad de valores distintos.
+     */
+    private int encode(ColumnStorage<?> storage, int start, int end, int[] codes) {
+        switch (storage.getKind()) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+                return encodeNumbers(storage, start, end, codes);
+            case BOOLEAN:
+                return encodeBooleans(storage, start, end, codes);
+            case STRING:
+                return encodeStrings(storage, start, end, codes);
+            default:
+                return encodeObjects(storage, start, end, codes);
+        }
+    }
+
+    private int encodeNumbers(ColumnStorage<?> storage, int start, int end, int[] codes) {
+        LongIntHashMap map = new LongIntHashMap(1024);
+        boolean doubles = storage.getKind() == ColumnStorage.Kind.DOUBLE;
+        int nullCode = -1;
+        int count = 0;
+        for (int row = start; row < end; row++) {
+            if (storage.isNull(row)) {
+                if (nullCode < 0) {
+                    nullCode = count++;
+                }
+                codes[row - start] = nullCode;
+            } else {
+                int code = map.putIfAbsent(bits(storage, row, doubles), count);
+                if (code == count) {
+                    count++;
+                }
+                codes[row - start] = code;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Obtiene el valor numérico de una fila como long. En los double son los
+     * mismos bits que compara Double.equals.
+     */
+    private static long bits(ColumnStorage<?> storage, int row, boolean doubles) {
+        return doubles ? Double.doubleToLongBits(storage.getDouble(row)) : storage.getLong(row);
+    }
+
+    private int encodeBooleans(ColumnStorage<?> storage, int start, int end, int[] codes) {
+        // Posición 0 para nulo, 1 para false y 2 para true
+        int[] table = { -1, -1, -1 };
+        int count = 0;
+        for (int row = start; row < end; row++) {
+            int value = storage.isNull(row) ? 0 : storage.getBoolean(row) ? 2 : 1;
+            if (table[value] < 0) {
+                table[value] = count++;
+            }
+            codes[row - start] = table[value];
+        }
+        return count;
+    }
+
+    private int encodeStrings(ColumnStorage<?> storage, int start, int end, int[] codes) {
+        // Posición 0 para nulo y código + 1 para cada valor del diccionario
+        int[] table = new int[storage.dictionarySize() + 1];
+        Arrays.fill(table, -1);
+        int count = 0;
+        for (int row = start; row < end; row++) {
+            int value = storage.getCode(row) + 1;
+            if (table[value] < 0) {
+                table[value] = count++;
+            }
+            codes[row - start] = table[value];
+        }
+        return count;
+    }
+
+    private int encodeObjects(ColumnStorage<?> storage, int start, int end, int[] codes) {
+        Map<Object, Integer> map = new HashMap<>();
+        for (int row = start; row < end; row++) {
+            Integer code = map.putIfAbsent(storage.get(row), map.size());
+            codes[row - start] = code == null ? map.size() - 1 : code;
+        }
+        return map.size();
+    }
+
+    /**
+     * Combina los números de grupo acumulados con los de una columna más y los
+     * renumera en orden de aparición. Si la cantidad de combinaciones
+     * posibles es pequeña se usa una tabla directa en lugar de una tabla hash.
+     *
+     * @return la cantidad de grupos combinados.
+     */
+    private int combine(int[] ids, int count, int[] codes, int cardinality) {
+        int length = codes.length;
+        long combinations = (long) count * cardinality;
+        int next = 0;
+        if (combinations <= Math.max(length, 1 << 16)) {
+            int[] table = new int[(int) combinations];
+            Arrays.fill(table, -1);
+            for (int i = 0; i < length; i++) {
+                int key = ids[i] * cardinality + codes[i];
+                if (table[key] < 0) {
+                    table[key] = next++;
+                }
+                ids[i] = table[key];
+            }
+            return next;
+        }
+        LongIntHashMap map = new LongIntHashMap(1024);
+        for (int i = 0; i < length; i++) {
+            int id = map.putIfAbsent((long) ids[i] * cardinality + codes[i], next);
+            if (id == next) {
+                next++;
+            }
+            ids[i] = id;
+        }
+        return next;
+    }
+
+    /**
+     * Calcula un hash de los valores de la clave de una fila. Usa los mismos
+     * valores que la codificación por columna, así que filas con la misma
+     * clave tienen el mismo hash.
+     */
+    private long hash(int row) {
+        long hash = 0;
+        for (ColumnStorage<?> key : keys) {
+            long value;
+            if (key.isNull(row)) {
+                value = 0x5bd1e995L;
+            } else {
+                switch (key.getKind()) {
+                    case INT:
+                    case LONG:
+                    case DOUBLE:
+                        value = bits(key, row, key.getKind() == ColumnStorage.Kind.DOUBLE);
+                        break;
+                    case BOOLEAN:
+                        value = key.getBoolean(row) ? 1 : 2;
+                        break;
+                    case STRING:
+                        value = key.getCode(row);
+                        break;
+                    default:
+                        value = key.get(row).hashCode();
+                }
+            }
+            hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+
+    /**
+     * Verifica si dos filas tienen los mismos valores en todas las columnas de
+     * la clave.
+     */
+    private boolean sameKey(int a, int b) {
+        for (ColumnStorage<?> key : keys) {
+            boolean nullA = key.isNull(a);
+            if (nullA != key.isNull(b)) {
+                return false;
+            }
+            if (nullA) {
+                continue;
+            }
+            boolean same;
+            switch (key.getKind()) {
+                case INT:
+                case LONG:
+                case DOUBLE:
+                    boolean doubles = key.getKind() == ColumnStorage.Kind.DOUBLE;
+                    same = bits(key, a, doubles) == bits(key, b, doubles);
+                    break;
+                case BOOLEAN:
+                    same = key.getBoolean(a) == key.getBoolean(b);
+                    break;
+                case STRING:
+                    same = key.getCode(a) == key.getCode(b);
+                    break;
+                default:
+                    same = Objects.equals(key.get(a), key.get(b));
+            }
+            if (!same) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reparte las posiciones de las filas en un arreglo por grupo.
+     */
+    private int[][] members(int[] ids, int count) {
+        int[] sizes = new int[count];
+        for (int id : ids) {
+            sizes[id]++;
+        }
+        int[][] groups = new int[count][];
+        for (int group = 0; group < count; group++) {
+            groups[group] = new int[sizes[group]];
+            sizes[group] = 0;
+        }
+        for (int row = 0; row < rows; row++) {
+            int id = ids[row];
+            groups[id][sizes[id]++] = row;
+        }
+        return groups;
+    }
+
+    private static int partition(long hash, int partitionCount) {
+        return (int) (hash >>> 40) & (partitionCount - 1);
+    }
+
+    /**
+     * Ejecuta una tarea por elemento en el pool y espera a que terminen todas.
+     */
+    private static <T> void run(ForkJoinPool pool, List<T> items, Consumer<T> task) {
+        List<Callable<Void>> calls = new ArrayList<>(items.size());
+        for (T item : items) {
+            calls.add(() -> {
+                task.accept(item);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : pool.invokeAll(calls)) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Bloque de filas que se agrupa por separado.
+     */
+    private class Chunk {
+        private final int start;
+        private final int end;
+        private int[] ids;
+        private int count;
+        private int[] firstRows;
+        private long[] hashes;
+        // Grupos locales ordenados por partición, y dónde empieza cada una
+        private int[] byPartition;
+        private int[] partitionStarts;
+        // Número de cada grupo local dentro de su partición
+        private int[] merged;
+
+        Chunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void group(int partitionCount) {
+            ids = new int[end - start];
+            count = groupRange(start, end, ids);
+            firstRows = new int[count];
+            Arrays.fill(firstRows, -1);
+            for (int i = 0; i < ids.length; i++) {
+                if (firstRows[ids[i]] < 0) {
+                    firstRows[ids[i]] = start + i;
+                }
+            }
+            hashes = new long[count];
+            partitionStarts = new int[partitionCount + 1];
+            for (int group = 0; group < count; group++) {
+                hashes[group] = hash(firstRows[group]);
+                partitionStarts[partition(hashes[group], partitionCount) + 1]++;
+            }
+            for (int p = 0; p < partitionCount; p++) {
+                partitionStarts[p + 1] += partitionStarts[p];
+            }
+            byPartition = new int[count];
+            int[] positions = Arrays.copyOf(partitionStarts, partitionCount);
+            for (int group = 0; group < count; group++) {
+                byPartition[positions[partition(hashes[group], partitionCount)]++] = group;
+            }
+            merged = new int[count];
+        }
+
+        void resolve(int[] ids, int[] offsets, int[] order) {
+            int[] finals = new int[count];
+            for (int p = 0; p < offsets.length - 1; p++) {
+                for (int i = partitionStarts[p]; i < partitionStarts[p + 1]; i++) {
+                    int group = byPartition[i];
+                    finals[group] = order[offsets[p] + merged[group]];
+                }
+            }
+            for (int row = start; row < end; row++) {
+                ids[row] = finals[this.ids[row - start]];
+            }
+        }
+    }
+
+    /**
+     * Partición del espacio de hashes en la que se unen los grupos locales de
+     * todos los bloques, en el orden de los bloques.
+     */
+    private class Partition {
+        private final int index;
+        private final List<Chunk> chunks;
+        private int count;
+        private int[] firstRows = new int[16];
+        // Siguiente grupo con el mismo hash, o -1
+        private int[] collisions = new int[16];
+
+        Partition(int index, List<Chunk> chunks) {
+            this.index = index;
+            this.chunks = chunks;
+        }
+
+        void merge() {
+            LongIntHashMap heads = new LongIntHashMap(1024);
+            for (Chunk chunk : chunks) {
+                for (int i = chunk.partitionStarts[index]; i < chunk.partitionStarts[index + 1]; i++) {
+                    int group = chunk.byPartition[i];
+                    int row = chunk.firstRows[group];
+                    int id = heads.putIfAbsent(chunk.hashes[group], count);
+                    if (id == count) {
+                        add(row);
+                    } else {
+                        while (!sameKey(firstRows[id], row)) {
+                            if (collisions[id] < 0) {
+                                collisions[id] = count;
+                                add(row);
+                            }
+                            id = collisions[id];
+                        }
+                    }
+                    chunk.merged[group] = id;
+                }
+            }
+        }
+
+        private void add(int row) {
+            if (count == firstRows.length) {
+                firstRows = Arrays.copyOf(firstRows, count * 2);
+                collisions = Arrays.copyOf(collisions, count * 2);
+            }
+            firstRows[count] = row;
+            collisions[count] = -1;
+            count++;
+        }
+    }
+}
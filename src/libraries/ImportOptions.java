@@ -0,0 +1,128 @@
+package libraries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Opciones de lectura de un archivo CSV: delimitador, lectura en paralelo,
+ * columnas a conservar y condiciones sobre las filas.
+ *
+ * Las columnas y condiciones se aplican mientras se lee el archivo: los campos
+ * de las columnas que no se conservan ni se evalúan no se convierten, y las
+ * filas que no cumplen las condiciones no se agregan al DataFrame. Las
+ * condiciones tienen la misma forma que las de DataManipulator.filter.
+ *
+ * Cada condición recibe el valor del campo convertido según su propio texto,
+ * con las reglas del importador (Integer, Long, Double, Boolean o String). Un
+ * campo vacío llega como "" si la columna es de texto y como null si no. Es el
+ * mismo valor que tendría en el DataFrame, salvo en una columna de enteros que
+ * termina guardándose como long, donde los valores que entran en un int llegan
+ * como Integer.
+ */
+public class ImportOptions {
+    private char delimiter = ',';
+    private boolean parallel;
+    private List<Object> columns;
+    private final Map<Object, Predicate<Object>> conditions = new LinkedHashMap<>();
+
+    /**
+     * Establece el delimitador de campos. Por defecto es la coma.
+     *
+     * @param delimiter carácter que separa los campos.
+     * @return estas opciones.
+     */
+    public ImportOptions delimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Indica si el archivo se lee en paralelo (ver DataImporter.readCSV). En
+     * ese caso las condiciones se evalúan desde varios hilos.
+     *
+     * @param parallel true para leer en paralelo.
+     * @return estas opciones.
+     */
+    public ImportOptions parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Establece las columnas a conservar, en el orden en que quedarán en el
+     * DataFrame. Por defecto se conservan todas.
+     *
+     * @param labels etiquetas de las columnas.
+     * @return estas opciones.
+     * @throws IllegalArgumentException si una etiqueta está repetida.
+     */
+    public ImportOptions columns(Object... labels) {
+        return columns(Arrays.asList(labels));
+    }
+
+    /**
+     * Establece las columnas a conservar, en el orden en que quedarán en el
+     * DataFrame. Por defecto se conservan todas.
+     *
+     * @param labels etiquetas de las columnas.
+     * @return estas opciones.
+     * @throws IllegalArgumentException si una etiqueta está repetida.
+     */
+    public ImportOptions columns(List<?> labels) {
+        Set<String> seen = new HashSet<>();
+        for (Object label : labels) {
+            if (!seen.add(String.valueOf(label))) {
+                throw new IllegalArgumentException("Duplicate column label: " + label);
+            }
+        }
+        this.columns = new ArrayList<>(labels);
+        return this;
+    }
+
+    /**
+     * Agrega una condición sobre una columna. Solo se conservan las filas que
+     * cumplen todas las condiciones. La columna no necesita estar entre las
+     * columnas conservadas.
+     *
+     * @param label     etiqueta de la columna.
+     * @param condition condición que debe cumplir el valor.
+     * @return estas opciones.
+     */
+    public ImportOptions where(Object label, Predicate<Object> condition) {
+        conditions.put(label, condition);
+        return this;
+    }
+
+    /**
+     * Agrega varias condiciones, una por columna.
+     *
+     * @param conditions condiciones por etiqueta de columna.
+     * @return estas opciones.
+     */
+    public ImportOptions where(Map<Object, Predicate<Object>> conditions) {
+        this.conditions.putAll(conditions);
+        return this;
+    }
+
+    char getDelimiter() {
+        return delimiter;
+    }
+
+    boolean isParallel() {
+        return parallel;
+    }
+
+    List<Object> getColumns() {
+        return columns;
+    }
+
+    Map<Object, Predicate<Object>> getConditions() {
+        return conditions;
+    }
+}
@@ -0,0 +1,407 @@
+package libraries;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import exceptions.InvalidShape;
+import exceptions.TypeDoesNotMatch;
+import structures.DataFrame;
+
+/**
+ * Lector de JSON en una sola pasada. Acepta un arreglo de objetos o JSON
+ * delimitado por líneas (un objeto por línea) y agrega cada valor directamente
+ * en la columna de su clave, sin guardar el contenido completo en memoria.
+ *
+ * Las cadenas, números, booleanos y null se guardan con su tipo: los números
+ * sin parte decimal ni exponente son enteros (int o long) y el resto son
+ * decimales. Como JSON tiene un solo tipo de número, una clave con enteros y
+ * decimales (o con enteros que no entran en un long) queda como columna de
+ * double. Los objetos y arreglos anidados se guardan como su texto JSON.
+ * Una clave que falta en un objeto es un valor nulo, y una clave nueva agrega
+ * una columna con valores nulos en las filas anteriores.
+ */
+class JSONParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int END_OF_INPUT = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long offset;
+
+    private char[] text = new char[64];
+    private int textLength;
+
+    private final List<ColumnBuilder> builders = new ArrayList<>();
+    private final Map<String, Integer> builderIndex = new HashMap<>();
+    private int rows;
+
+    /**
+     * Crea un lector de JSON.
+     *
+     * @param reader fuente del contenido.
+     */
+    JSONParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Lee todo el contenido y construye el DataFrame. Las columnas quedan en el
+     * orden en que aparece cada clave por primera vez.
+     *
+     * @return el DataFrame con los datos leídos.
+     * @throws IOException      si ocurre un error de entrada/salida.
+     * @throws InvalidShape     si el contenido no es JSON válido o no es una
+     *                          lista de objetos.
+     * @throws TypeDoesNotMatch si los valores de una clave son de tipos
+     *                          distintos.
+     */
+    DataFrame parse() throws IOException, InvalidShape, TypeDoesNotMatch {
+        int c = skipWhitespace();
+        if (c == '[') {
+            position++;
+            c = skipWhitespace();
+            if (c == ']') {
+                position++;
+            } else {
+                while (true) {
+                    readObject();
+                    c = skipWhitespace();
+                    position++;
+                    if (c == ']') {
+                        break;
+                    } else if (c != ',') {
+                        throw unexpected(c, "',' or ']'");
+                    }
+                    skipWhitespace();
+                }
+            }
+            c = skipWhitespace();
+        } else {
+            while (c == '{') {
+                readObject();
+                c = skipWhitespace();
+            }
+        }
+        if (c != END_OF_INPUT) {
+            throw unexpected(c, "end of input");
+        }
+        return CSVParser.build(builders);
+    }
+
+    /**
+     * Lee un objeto y agrega sus valores como una fila.
+     */
+    private void readObject() throws IOException, InvalidShape, TypeDoesNotMatch {
+        expect('{');
+        int c = skipWhitespace();
+        int expectedColumn = 0;
+        if (c == '}') {
+            position++;
+        } else {
+            while (true) {
+                expect('"');
+                readString();
+                int column = columnFor(expectedColumn);
+                ColumnBuilder builder = builders.get(column);
+                if (builder.size() > rows) {
+                    throw new InvalidShape("Duplicate JSON key: " + builder.getLabel());
+                }
+                expectedColumn = column + 1;
+                expect(':');
+                readValue(builder);
+                c = skipWhitespace();
+                position++;
+                if (c == '}') {
+                    break;
+                } else if (c != ',') {
+                    throw unexpected(c, "',' or '}'");
+                }
+                skipWhitespace();
+            }
+        }
+        rows++;
+        for (ColumnBuilder builder : builders) {
+            if (builder.size() < rows) {
+                builder.appendEmpty();
+            }
+        }
+    }
+
+    /**
+     * Busca la columna de la clave leída, creándola si es nueva. Como los
+     * objetos suelen repetir el orden de las claves, primero compara con la
+     * columna que sigue a la anterior y solo si no coincide crea un String para
+     * buscarla.
+     *
+     * @return la posición de la columna.
+     */
+    private int columnFor(int expectedColumn) {
+        if (expectedColumn < builders.size() && textEquals((String) builders.get(expectedColumn).getLabel())) {
+            return expectedColumn;
+        }
+        String key = new String(text, 0, textLength);
+        Integer index = builderIndex.get(key);
+        if (index != null) {
+            return index;
+        }
+        ColumnBuilder builder = new ColumnBuilder(key, BUFFER_SIZE, false, true);
+        for (int i = 0; i < rows; i++) {
+            builder.appendEmpty();
+        }
+        builderIndex.put(key, builders.size());
+        builders.add(builder);
+        return builders.size() - 1;
+    }
+
+    private boolean textEquals(String value) {
+        if (value.length() != textLength) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (value.charAt(i) != text[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readValue(ColumnBuilder builder) throws IOException, InvalidShape, TypeDoesNotMatch {
+        int c = skipWhitespace();
+        if (c == '"') {
+            position++;
+            readString();
+            builder.appendString(new String(text, 0, textLength));
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            readNumber(builder);
+        } else if (c == 't') {
+            expectWord("true");
+            builder.appendBoolean(true);
+        } else if (c == 'f') {
+            expectWord("false");
+            builder.appendBoolean(false);
+        } else if (c == 'n') {
+            expectWord("null");
+            builder.appendEmpty();
+        } else if (c == '{' || c == '[') {
+            textLength = 0;
+            copyNested();
+            builder.appendString(new String(text, 0, textLength));
+        } else {
+            throw unexpected(c, "a value");
+        }
+    }
+
+    /**
+     * Lee una cadena (la comilla inicial ya fue consumida) y deja su contenido,
+     * sin escapes, en text.
+     */
+    private void readString() throws IOException, InvalidShape {
+        textLength = 0;
+        while (true) {
+            if (position == limit && !fill()) {
+                throw new InvalidShape("Unterminated JSON string");
+            }
+            char c = buffer[position++];
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                appendText(readEscape());
+            } else {
+                appendText(c);
+            }
+        }
+    }
+
+    private char readEscape() throws IOException, InvalidShape {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw new InvalidShape("Invalid unicode escape in JSON string at offset " + currentOffset());
+                    }
+                    value = value * 16 + digit;
+                }
+                return (char) value;
+            default:
+                throw unexpected(c, "an escape character");
+        }
+    }
+
+    /**
+     * Lee un número. Los enteros se acumulan sin crear cadenas; los decimales,
+     * los exponentes y los enteros que no entran en un long se convierten con
+     * Double.parseDouble.
+     */
+    private void readNumber(ColumnBuilder builder) throws IOException, InvalidShape, TypeDoesNotMatch {
+        textLength = 0;
+        boolean integer = true;
+        boolean overflow = false;
+        long value = 0;
+        int c = peek();
+        boolean negative = c == '-';
+        if (negative) {
+            appendText('-');
+            position++;
+            c = peek();
+        }
+        if (c < '0' || c > '9') {
+            throw unexpected(c, "a digit");
+        }
+        while (c != END_OF_INPUT) {
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if (value < (Long.MIN_VALUE + digit) / 10) {
+                    overflow = true;
+                }
+                value = value * 10 - digit;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                integer = false;
+            } else {
+                break;
+            }
+            appendText((char) c);
+            position++;
+            c = peek();
+        }
+
+        if (integer && !overflow && (negative || value != Long.MIN_VALUE)) {
+            builder.appendLong(negative ? value : -value);
+            return;
+        }
+        try {
+            builder.appendDouble(Double.parseDouble(new String(text, 0, textLength)));
+        } catch (NumberFormatException e) {
+            throw new InvalidShape("Invalid JSON number: " + new String(text, 0, textLength));
+        }
+    }
+
+    /**
+     * Copia en text un objeto o arreglo anidado completo, respetando las cadenas.
+     */
+    private void copyNested() throws IOException, InvalidShape {
+        int depth = 0;
+        boolean inString = false;
+        do {
+            int c = read();
+            if (c == END_OF_INPUT) {
+                throw new InvalidShape("Unterminated JSON value");
+            }
+            appendText((char) c);
+            if (inString) {
+                if (c == '\\') {
+                    appendText((char) read());
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private void appendText(char c) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, text.length * 2);
+        }
+        text[textLength++] = c;
+    }
+
+    private void expect(char expected) throws IOException, InvalidShape {
+        int c = skipWhitespace();
+        if (c != expected) {
+            throw unexpected(c, "'" + expected + "'");
+        }
+        position++;
+    }
+
+    private void expectWord(String word) throws IOException, InvalidShape {
+        for (int i = 0; i < word.length(); i++) {
+            int c = read();
+            if (c != word.charAt(i)) {
+                throw unexpected(c, word);
+            }
+        }
+    }
+
+    private InvalidShape unexpected(int c, String expected) {
+        String found = c == END_OF_INPUT ? "end of input" : "'" + (char) c + "'";
+        return new InvalidShape("Invalid JSON at offset " + currentOffset() + ": expected " + expected
+                + " but found " + found);
+    }
+
+    private long currentOffset() {
+        return offset + position;
+    }
+
+    /**
+     * Avanza sobre los espacios en blanco.
+     *
+     * @return el próximo carácter sin consumirlo, o END_OF_INPUT.
+     */
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return END_OF_INPUT;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return END_OF_INPUT;
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        offset += limit;
+        position = 0;
+        limit = 0;
+        int read = reader.read(buffer, 0, buffer.length);
+        while (read == 0) {
+            read = reader.read(buffer, 0, buffer.length);
+        }
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+}
@@ -0,0 +1,422 @@
+package libraries;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import exceptions.TypeDoesNotMatch;
+import structures.ColumnStorage;
+import structures.DataFrame;
+import structures.JoinType;
+
+/**
+ * Calcula qué filas de dos DataFrames se unen según los valores de sus
+ * columnas de clave. El resultado son dos arreglos paralelos con la posición
+ * de la fila izquierda y de la fila derecha de cada fila del resultado, donde
+ * -1 indica que ese lado no tiene fila.
+ *
+ * Por defecto se arma una tabla hash con las claves del DataFrame derecho
+ * (que se espera sea el más chico) y se recorren las filas del izquierdo. Cada
+ * columna de la clave se codifica como en HashGrouper: el valor primitivo, el
+ * código de diccionario (traducido entre los dos diccionarios) o un número
+ * por objeto distinto, y las columnas se combinan en un número de clave por
+ * fila. No se crean objetos por fila salvo en columnas de tipos genéricos.
+ *
+ * Si los dos DataFrames ya están ordenados en forma ascendente por la clave y
+ * sus columnas de clave no tienen nulos ni son de tipos genéricos, las filas
+ * se unen recorriendo los dos en paralelo (merge join), sin tabla hash.
+ *
+ * Las columnas de clave de int y de long se comparan como long. Una columna
+ * de clave que todavía no tiene tipo (sin valores no nulos, por ejemplo la de
+ * un DataFrame vacío) no se une con ninguna fila.
+ *
+ * Los dos caminos dan el mismo resultado: las filas siguen el orden del
+ * DataFrame izquierdo (del derecho en RIGHT), cada fila se repite una vez por
+ * cada pareja en el orden del otro DataFrame, y en OUTER las filas derechas
+ * sin pareja van al final, en su orden.
+ */
+class Joiner {
+    private final ColumnStorage<?>[] leftKeys;
+    private final ColumnStorage<?>[] rightKeys;
+    private final int leftRows;
+    private final int rightRows;
+    private final JoinType how;
+    private final boolean untyped;
+
+    /**
+     * Crea un joiner sobre las columnas de clave indicadas.
+     *
+     * @param left    DataFrame izquierdo.
+     * @param leftOn  posiciones de las columnas de clave del izquierdo.
+     * @param right   DataFrame derecho.
+     * @param rightOn posiciones de las columnas de clave del derecho, en el
+     *                mismo orden.
+     * @param how     tipo de unión.
+     * @throws TypeDoesNotMatch si dos columnas de clave tienen tipos
+     *                          distintos que no se pueden comparar.
+     */
+    Joiner(DataFrame left, int[] leftOn, DataFrame right, int[] rightOn, JoinType how) throws TypeDoesNotMatch {
+        this.leftKeys = new ColumnStorage<?>[leftOn.length];
+        this.rightKeys = new ColumnStorage<?>[rightOn.length];
+        boolean untyped = false;
+        for (int i = 0; i < leftOn.length; i++) {
+            leftKeys[i] = left.getColumns().get(leftOn[i]).getReadOnlyStorage();
+            rightKeys[i] = right.getColumns().get(rightOn[i]).getReadOnlyStorage();
+            if (leftKeys[i].getValueType() == null || rightKeys[i].getValueType() == null) {
+                untyped = true;
+            } else if (leftKeys[i].getKind() != rightKeys[i].getKind()
+                    && !(isIntegral(leftKeys[i]) && isIntegral(rightKeys[i]))) {
+                throw new TypeDoesNotMatch();
+            }
+        }
+        this.untyped = untyped;
+        this.leftRows = left.countRows();
+        this.rightRows = right.countRows();
+        this.how = how;
+    }
+
+    /**
+     * Une las filas.
+     *
+     * @return dos arreglos del mismo largo: las posiciones de las filas
+     *         izquierdas y las de las filas derechas, con -1 donde falta una.
+     */
+    int[][] join() {
+        // En RIGHT se recorre el lado derecho y se indexa el izquierdo
+        boolean right = how == JoinType.RIGHT;
+        boolean keepProbe = how != JoinType.INNER;
+        boolean keepBuild = how == JoinType.OUTER;
+        int[][] pairs;
+        if (untyped) {
+            // Ninguna fila tiene pareja
+            int[] leftIds = new int[leftRows];
+            int[] rightIds = new int[rightRows];
+            Arrays.fill(leftIds, -1);
+            Arrays.fill(rightIds, -1);
+            pairs = right ? pairs(rightIds, leftIds, 0, keepProbe, keepBuild)
+                    : pairs(leftIds, rightIds, 0, keepProbe, keepBuild);
+        } else if (mergeable()) {
+            pairs = right ? merge(rightKeys, rightRows, leftKeys, leftRows, keepProbe, keepBuild)
+                    : merge(leftKeys, leftRows, rightKeys, rightRows, keepProbe, keepBuild);
+        } else {
+            int[] leftIds = new int[leftRows];
+            int[] rightIds = new int[rightRows];
+            int idCount = assignIds(leftIds, rightIds);
+            pairs = right ? pairs(rightIds, leftIds, idCount, keepProbe, keepBuild)
+                    : pairs(leftIds, rightIds, idCount, keepProbe, keepBuild);
+        }
+        return right ? new int[][] { pairs[1], pairs[0] } : pairs;
+    }
+
+    /**
+     * Asigna a cada fila un número de clave: dos filas de lados distintos
+     * tienen el mismo número solo si sus claves son iguales. Las filas
+     * derechas reciben números en la tabla de cada columna; las izquierdas
+     * solo los buscan, así que las tablas crecen con las claves del lado
+     * derecho. Una fila que no se puede unir con ninguna recibe -1.
+     *
+     * @return la cantidad de números de clave distintos.
+     */
+    private int assignIds(int[] leftIds, int[] rightIds) {
+        int idCount = 0;
+        for (int key = 0; key < leftKeys.length; key++) {
+            ColumnStorage<?> left = leftKeys[key];
+            ColumnStorage<?> right = rightKeys[key];
+            int[] rightToLeft = left.getKind() == ColumnStorage.Kind.STRING
+                    ? translate(right, left)
+                    : null;
+            Map<Object, Integer> objects = left.getKind() == ColumnStorage.Kind.OBJECT ? new HashMap<>() : null;
+            LongIntHashMap values = new LongIntHashMap(Math.min(rightRows, 1 << 20));
+            LongIntHashMap combined = key == 0 ? null : new LongIntHashMap(Math.min(rightRows, 1 << 20));
+
+            for (int row = 0; row < rightRows; row++) {
+                if (key > 0 && rightIds[row] == -1) {
+                    continue;
+                }
+                if (right.isNull(row)) {
+                    rightIds[row] = -1;
+                    continue;
+                }
+                long code = encode(right, row, rightToLeft, objects, true);
+                if (code == -1 && isCoded(right)) {
+                    rightIds[row] = -1;
+                    continue;
+                }
+                int id = values.putIfAbsent(code, values.size());
+                rightIds[row] = key == 0 ? id : combined.putIfAbsent(((long) rightIds[row] << 32) | id, combined.size());
+            }
+            for (int row = 0; row < leftRows; row++) {
+                if (key > 0 && leftIds[row] == -1) {
+                    continue;
+                }
+                if (left.isNull(row)) {
+                    leftIds[row] = -1;
+                    continue;
+                }
+                long code = encode(left, row, null, objects, false);
+                int id = code == -1 && isCoded(left) ? -1 : values.get(code);
+                if (id != -1 && key > 0) {
+                    id = combined.get(((long) leftIds[row] << 32) | id);
+                }
+                leftIds[row] = id;
+            }
+            idCount = key == 0 ? values.size() : combined.size();
+        }
+        return idCount;
+    }
+
+    /**
+     * Indica si la columna es de int o de long. Los valores de las dos se
+     * codifican y se comparan como long.
+     */
+    private static boolean isIntegral(ColumnStorage<?> storage) {
+        return storage.getKind() == ColumnStorage.Kind.INT || storage.getKind() == ColumnStorage.Kind.LONG;
+    }
+
+    /**
+     * Indica si los valores de la columna se codifican con números no
+     * negativos (cadenas y objetos), en cuyo caso -1 marca un valor sin
+     * pareja. En las demás columnas cualquier long es un valor válido.
+     */
+    private static boolean isCoded(ColumnStorage<?> storage) {
+        return storage.getKind() == ColumnStorage.Kind.STRING || storage.getKind() == ColumnStorage.Kind.OBJECT;
+    }
+
+    /**
+     * Codifica el valor no nulo de una fila. Las cadenas se codifican con el
+     * código del diccionario izquierdo y los objetos con un número por objeto
+     * distinto, que solo se agrega desde el lado derecho.
+     */
+    private static long encode(ColumnStorage<?> storage, int row, int[] rightToLeft, Map<Object, Integer> objects,
+            boolean right) {
+        switch (storage.getKind()) {
+            case INT:
+                return storage.getInt(row);
+            case LONG:
+                return storage.getLong(row);
+            case DOUBLE:
+                return Double.doubleToLongBits(storage.getDouble(row));
+            case BOOLEAN:
+                return storage.getBoolean(row) ? 1 : 0;
+            case STRING:
+                int code = storage.getCode(row);
+                return right ? rightToLeft[code] : code;
+            default:
+                Object value = storage.get(row);
+                if (right) {
+                    return objects.computeIfAbsent(value, unused -> objects.size());
+                }
+                Integer known = objects.get(value);
+                return known != null ? known : -1;
+        }
+    }
+
+    /**
+     * Traduce los códigos de un diccionario a los de otro.
+     *
+     * @return para cada código de from, el código del mismo valor en to, o -1
+     *         si to no lo tiene.
+     */
+    private static int[] translate(ColumnStorage<?> from, ColumnStorage<?> to) {
+        Map<String, Integer> codes = new HashMap<>(to.dictionarySize() * 2);
+        for (int code = 0; code < to.dictionarySize(); code++) {
+            codes.put(to.decode(code), code);
+        }
+        int[] translated = new int[from.dictionarySize()];
+        for (int code = 0; code < translated.length; code++) {
+            translated[code] = codes.getOrDefault(from.decode(code), -1);
+        }
+        return translated;
+    }
+
+    /**
+     * Une las filas de un lado que recorre (probe) con las de un lado indexado
+     * (build) según sus números de clave.
+     *
+     * @param probeIds   números de clave del lado que se recorre.
+     * @param buildIds   números de clave del lado indexado.
+     * @param idCount    cantidad de números de clave.
+     * @param keepProbe  true para conservar las filas recorridas sin pareja.
+     * @param keepBuild  true para agregar al final las filas indexadas sin
+     *                   pareja.
+     * @return las filas recorridas y las indexadas de cada fila del resultado.
+     */
+    private static int[][] pairs(int[] probeIds, int[] buildIds, int idCount, boolean keepProbe,
+            boolean keepBuild) {
+        // Listas enlazadas por número de clave, en el orden de las filas
+        int[] first = new int[idCount];
+        int[] counts = new int[idCount];
+        int[] next = new int[buildIds.length];
+        Arrays.fill(first, -1);
+        for (int row = buildIds.length - 1; row >= 0; row--) {
+            int id = buildIds[row];
+            if (id != -1) {
+                next[row] = first[id];
+                first[id] = row;
+                counts[id]++;
+            }
+        }
+
+        long total = 0;
+        for (int id : probeIds) {
+            int matches = id == -1 ? 0 : counts[id];
+            total += matches > 0 ? matches : keepProbe ? 1 : 0;
+        }
+        boolean[] matched = keepBuild ? new boolean[buildIds.length] : null;
+        int[] probeRows = new int[checkedSize(total)];
+        int[] buildRows = new int[probeRows.length];
+        int output = 0;
+        for (int row = 0; row < probeIds.length; row++) {
+            int id = probeIds[row];
+            int match = id == -1 ? -1 : first[id];
+            if (match == -1) {
+                if (keepProbe) {
+                    probeRows[output] = row;
+                    buildRows[output++] = -1;
+                }
+                continue;
+            }
+            for (; match != -1; match = next[match]) {
+                probeRows[output] = row;
+                buildRows[output++] = match;
+                if (matched != null) {
+                    matched[match] = true;
+                }
+            }
+        }
+        return keepBuild ? appendUnmatched(probeRows, buildRows, matched) : new int[][] { probeRows, buildRows };
+    }
+
+    /**
+     * Agrega al final las filas indexadas que no tuvieron pareja.
+     */
+    private static int[][] appendUnmatched(int[] probeRows, int[] buildRows, boolean[] matched) {
+        int unmatched = 0;
+        for (boolean found : matched) {
+            if (!found) {
+                unmatched++;
+            }
+        }
+        int output = probeRows.length;
+        probeRows = Arrays.copyOf(probeRows, checkedSize((long) output + unmatched));
+        buildRows = Arrays.copyOf(buildRows, probeRows.length);
+        for (int row = 0; row < matched.length; row++) {
+            if (!matched[row]) {
+                probeRows[output] = -1;
+                buildRows[output++] = row;
+            }
+        }
+        return new int[][] { probeRows, buildRows };
+    }
+
+    private static int checkedSize(long size) {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Join result has too many rows: " + size);
+        }
+        return (int) size;
+    }
+
+    /**
+     * Indica si se puede usar el merge join: las columnas de clave no son de
+     * tipos genéricos, no tienen nulos y los dos DataFrames están ordenados en
+     * forma ascendente por la clave.
+     */
+    private boolean mergeable() {
+        for (int key = 0; key < leftKeys.length; key++) {
+            if (leftKeys[key].getKind() == ColumnStorage.Kind.OBJECT || leftKeys[key].hasNulls()
+                    || rightKeys[key].hasNulls()) {
+                return false;
+            }
+        }
+        return leftKeys.length > 0 && isSorted(leftKeys, leftRows) && isSorted(rightKeys, rightRows);
+    }
+
+    private static boolean isSorted(ColumnStorage<?>[] keys, int rows) {
+        for (int row = 1; row < rows; row++) {
+            if (compare(keys, row - 1, keys, row) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compara las claves de dos filas, que pueden ser de DataFrames
+     * distintos. Dos claves son iguales en las mismas condiciones que en la
+     * tabla hash.
+     */
+    private static int compare(ColumnStorage<?>[] a, int rowA, ColumnStorage<?>[] b, int rowB) {
+        for (int key = 0; key < a.length; key++) {
+            int comparison;
+            switch (a[key].getKind()) {
+                case INT:
+                case LONG:
+                    comparison = Long.compare(a[key].getLong(rowA), b[key].getLong(rowB));
+                    break;
+                case DOUBLE:
+                    comparison = Double.compare(a[key].getDouble(rowA), b[key].getDouble(rowB));
+                    break;
+                case BOOLEAN:
+                    comparison = Boolean.compare(a[key].getBoolean(rowA), b[key].getBoolean(rowB));
+                    break;
+                default:
+                    comparison = ((String) a[key].get(rowA)).compareTo((String) b[key].get(rowB));
+                    break;
+            }
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Une las filas de dos lados ordenados por la clave recorriéndolos en
+     * paralelo. Cada fila del lado que se recorre se une con el tramo de filas
+     * del otro lado que tienen su misma clave.
+     */
+    private static int[][] merge(ColumnStorage<?>[] probe, int probeCount, ColumnStorage<?>[] build, int buildCount,
+            boolean keepProbe, boolean keepBuild) {
+        int[] probeRows = new int[Math.max(probeCount, 16)];
+        int[] buildRows = new int[probeRows.length];
+        boolean[] matched = keepBuild ? new boolean[buildCount] : null;
+        int output = 0;
+        int start = 0;
+        int end = 0;
+        for (int row = 0; row < probeCount; row++) {
+            if (row == 0 || compare(probe, row - 1, probe, row) != 0) {
+                while (start < buildCount && compare(probe, row, build, start) > 0) {
+                    start++;
+                }
+                end = start;
+                while (end < buildCount && compare(probe, row, build, end) == 0) {
+                    end++;
+                }
+            }
+            int matches = end - start;
+            if (matches == 0 && !keepProbe) {
+                continue;
+            }
+            if (output + Math.max(matches, 1) > probeRows.length) {
+                int capacity = checkedSize(Math.max((long) probeRows.length * 2, (long) output + matches));
+                probeRows = Arrays.copyOf(probeRows, capacity);
+                buildRows = Arrays.copyOf(buildRows, capacity);
+            }
+            if (matches == 0) {
+                probeRows[output] = row;
+                buildRows[output++] = -1;
+                continue;
+            }
+            for (int match = start; match < end; match++) {
+                probeRows[output] = row;
+                buildRows[output++] = match;
+                if (matched != null) {
+                    matched[match] = true;
+                }
+            }
+        }
+        probeRows = Arrays.copyOf(probeRows, output);
+        buildRows = Arrays.copyOf(buildRows, output);
+        return keepBuild ? appendUnmatched(probeRows, buildRows, matched) : new int[][] { probeRows, buildRows };
+    }
+}
@@ -0,0 +1,103 @@
+package libraries;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto que asocia claves long con valores
+ * int no negativos, sin crear un objeto por entrada.
+ */
+class LongIntHashMap {
+    private static final int EMPTY = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Crea una tabla con capacidad para la cantidad de entradas indicada antes
+     * de crecer.
+     *
+     * @param expected cantidad de entradas esperada.
+     */
+    LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave, o lo agrega si la clave no está.
+     *
+     * @param key   clave a buscar.
+     * @param value valor a asociar si la clave no está; no puede ser negativo.
+     * @return el valor ya asociado, o el valor indicado si se agregó la clave.
+     */
+    int putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > values.length) {
+            rehash();
+        }
+        return value;
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     *
+     * @param key clave a buscar.
+     * @return el valor, o -1 si la clave no está.
+     */
+    int get(long key) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Obtiene la cantidad de entradas.
+     *
+     * @return la cantidad de entradas.
+     */
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, EMPTY);
+        mask = values.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package libraries;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffer de salida en bytes que escribe en un OutputStream o en un
+ * WritableByteChannel. Los enteros y decimales se escriben directamente en el
+ * buffer, sin crear cadenas intermedias, y el texto se codifica en UTF-8.
+ */
+class OutputBuffer {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_NUMBER_LENGTH = 24;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6 };
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    private final OutputStream stream;
+    private final WritableByteChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+    private int position;
+    private long written;
+
+    /**
+     * Crea un buffer que escribe en un flujo de salida.
+     *
+     * @param stream flujo de destino.
+     */
+    OutputBuffer(OutputStream stream) {
+        this.stream = stream;
+        this.channel = null;
+    }
+
+    /**
+     * Crea un buffer que escribe en un canal.
+     *
+     * @param channel canal de destino.
+     */
+    OutputBuffer(WritableByteChannel channel) {
+        this.stream = null;
+        this.channel = channel;
+    }
+
+    /**
+     * Escribe un byte.
+     *
+     * @param b byte a escribir.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    /**
+     * Escribe una cadena que solo contiene caracteres ASCII.
+     *
+     * @param text cadena a escribir.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    /**
+     * Escribe un rango de una cadena codificado en UTF-8.
+     *
+     * @param text  cadena a escribir.
+     * @param start posición inicial (inclusiva).
+     * @param end   posición final (exclusiva).
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    void writeString(String text, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xc0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                writeByte(0xf0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+                writeByte(0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                writeByte('?');
+            } else {
+                writeByte(0xe0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3f));
+                writeByte(0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    /**
+     * Escribe un entero en decimal.
+     *
+     * @param value valor a escribir.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            for (byte b : MIN_LONG) {
+                writeByte(b);
+            }
+            return;
+        }
+        reserve(MAX_NUMBER_LENGTH);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    /**
+     * Escribe un decimal con el mismo formato que Double.toString. Los valores
+     * entre 0.001 y 10^7 con hasta seis decimales se escriben sin crear una
+     * cadena; el resto usa Double.toString.
+     *
+     * @param value valor a escribir.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    void writeDouble(double value) throws IOException {
+        double magnitude = Math.abs(value);
+        if (magnitude >= 1e-3 && magnitude < 1e7) {
+            for (int decimals = 0; decimals < POWERS_OF_TEN.length; decimals++) {
+                double scaled = magnitude * POWERS_OF_TEN[decimals];
+                long mantissa = (long) scaled;
+                if (mantissa == scaled && mantissa / POWERS_OF_TEN[decimals] == magnitude) {
+                    while (decimals > 0 && mantissa % 10 == 0) {
+                        mantissa /= 10;
+                        decimals--;
+                    }
+                    writeDecimal(value < 0, mantissa, decimals);
+                    return;
+                }
+            }
+        }
+        writeAscii(Double.toString(value));
+    }
+
+    private void writeDecimal(boolean negative, long mantissa, int decimals) throws IOException {
+        if (negative) {
+            writeByte('-');
+        }
+        long divisor = (long) POWERS_OF_TEN[decimals];
+        writeLong(mantissa / divisor);
+        writeByte('.');
+        if (decimals == 0) {
+            writeByte('0');
+            return;
+        }
+        long fraction = mantissa % divisor;
+        for (long digit = divisor / 10; digit > 0; digit /= 10) {
+            writeByte((int) ('0' + fraction / digit % 10));
+        }
+    }
+
+    /**
+     * Escribe el contenido pendiente en el destino. No cierra el destino.
+     *
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    void flush() throws IOException {
+        flushBuffer();
+        if (stream != null) {
+            stream.flush();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de bytes ya escritos en el destino.
+     *
+     * @return la cantidad de bytes escritos hasta el último vaciado del buffer.
+     */
+    long written() {
+        return written;
+    }
+
+    private void reserve(int length) throws IOException {
+        if (buffer.length - position < length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        if (stream != null) {
+            stream.write(buffer, 0, position);
+        } else {
+            wrapper.clear().limit(position);
+            while (wrapper.hasRemaining()) {
+                channel.write(wrapper);
+            }
+        }
+        written += position;
+        position = 0;
+    }
+}
@@ -0,0 +1,347 @@
+package libraries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import exceptions.InvalidShape;
+import exceptions.LabelNotFound;
+import exceptions.TypeDoesNotMatch;
+import structures.DataFrame;
+
+/**
+ * Lector de CSV que procesa un archivo en paralelo. El archivo se mapea en
+ * memoria y se divide en bloques que comienzan después de un salto de línea;
+ * cada bloque se lee en el pool fork-join con sus propios constructores de
+ * columnas y luego los bloques se unen en orden, de modo que el resultado es el
+ * mismo que el de la lectura secuencial.
+ *
+ * Los cortes se eligen sin interpretar las comillas. Si al contar las comillas
+ * de cada bloque resulta que un corte cayó dentro de un campo entre comillas
+ * (un campo con saltos de línea), el archivo se vuelve a leer de forma
+ * secuencial. El conteo supone que las comillas solo delimitan campos, como en
+ * RFC 4180.
+ *
+ * Las columnas y condiciones de las opciones de lectura se aplican en cada
+ * bloque, por lo que las condiciones se evalúan desde varios hilos.
+ */
+class ParallelCSVReader {
+    private static final long MIN_CHUNK_SIZE = 1L << 22;
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+    private static final int SCAN_SIZE = 1 << 13;
+    private static final int CHUNK_CAPACITY = 1 << 12;
+
+    private final Path path;
+    private final ImportOptions options;
+    private final char delimiter;
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea un lector para el archivo indicado que usa el pool fork-join común.
+     *
+     * @param path    ruta del archivo CSV.
+     * @param options opciones de lectura.
+     */
+    ParallelCSVReader(String path, ImportOptions options) {
+        this(path, options, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un lector para el archivo indicado.
+     *
+     * @param path    ruta del archivo CSV.
+     * @param options opciones de lectura.
+     * @param pool    pool en el que se procesan los bloques.
+     */
+    ParallelCSVReader(String path, ImportOptions options, ForkJoinPool pool) {
+        this.path = Paths.get(path);
+        this.options = options;
+        this.delimiter = options.getDelimiter();
+        this.pool = pool;
+    }
+
+    /**
+     * Lee el archivo y construye el DataFrame.
+     *
+     * @return el DataFrame con los datos leídos.
+     * @throws IOException      si ocurre un error de entrada/salida.
+     * @throws InvalidShape     si una fila no tiene tantos campos como
+     *                          encabezados.
+     * @throws TypeDoesNotMatch si los valores de una columna son de tipos
+     *                          distintos.
+     * @throws LabelNotFound    si una columna de las opciones no está en los
+     *                          encabezados.
+     */
+    DataFrame read() throws IOException, InvalidShape, TypeDoesNotMatch, LabelNotFound {
+        List<Chunk> chunks = new ArrayList<>();
+        CSVSelection selection;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = findHeaderEnd(channel, size);
+            List<String> headers = new CSVParser(map(channel, 0, dataStart), delimiter).readHeaders();
+            if (headers.isEmpty()) {
+                return CSVParser.build(new ArrayList<>());
+            }
+            selection = CSVSelection.of(headers, options);
+
+            long[] bounds = split(channel, dataStart, size);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                chunks.add(new Chunk(map(channel, bounds[i], bounds[i + 1]), selection));
+            }
+        }
+
+        List<Future<Chunk>> results = pool.invokeAll(chunks);
+        boolean insideQuotes = false;
+        for (int i = 0; i < chunks.size(); i++) {
+            join(results.get(i));
+            if (insideQuotes) {
+                return readSequentially();
+            }
+            insideQuotes ^= chunks.get(i).oddQuotes;
+        }
+        return stitch(selection, chunks);
+    }
+
+    /**
+     * Une los bloques en orden, columna por columna. Antes quita de cada bloque
+     * las filas iniciales cuyas condiciones sobre campos vacíos se evalúan con
+     * el tipo de la columna en todo el archivo.
+     */
+    private DataFrame stitch(CSVSelection selection, List<Chunk> chunks) throws InvalidShape, TypeDoesNotMatch {
+        List<String> headers = selection.getLabels();
+        for (Chunk chunk : chunks) {
+            chunk.rethrow();
+        }
+        if (selection.hasConditions()) {
+            Boolean[] text = new Boolean[selection.conditionCount()];
+            for (Chunk chunk : chunks) {
+                Boolean[] chunkText = chunk.parser.conditionText();
+                for (int c = 0; c < text.length; c++) {
+                    if (text[c] == null) {
+                        text[c] = chunkText[c];
+                    }
+                }
+            }
+            for (Chunk chunk : chunks) {
+                chunk.parser.removeRejectedRows(chunk.builders, selection, text);
+            }
+        }
+        List<ColumnBuilder> columns = new ArrayList<>(headers.size());
+        for (int column = 0; column < headers.size(); column++) {
+            int rows = 0;
+            for (Chunk chunk : chunks) {
+                rows += chunk.builders.get(column).size();
+            }
+            ColumnBuilder merged = new ColumnBuilder(headers.get(column), rows);
+            for (Chunk chunk : chunks) {
+                merged.appendAll(chunk.builders.get(column));
+                chunk.builders.set(column, null);
+            }
+            columns.add(merged);
+        }
+        return CSVParser.build(columns);
+    }
+
+    private DataFrame readSequentially() throws IOException, InvalidShape, TypeDoesNotMatch, LabelNotFound {
+        try (InputStream input = Files.newInputStream(path)) {
+            return new CSVParser(input, delimiter).parse(options);
+        }
+    }
+
+    /**
+     * Busca el final de la línea de encabezados, salteando las líneas vacías
+     * iniciales y respetando los campos entre comillas.
+     *
+     * @return la posición del primer byte después de los encabezados.
+     */
+    private static long findHeaderEnd(FileChannel channel, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(SCAN_SIZE);
+        boolean started = false;
+        boolean insideQuotes = false;
+        long position = 0;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = window.get(i);
+                boolean newline = b == '\n' || b == '\r';
+                if (!started) {
+                    started = !newline;
+                }
+                if (b == '"') {
+                    insideQuotes = !insideQuotes;
+                } else if (started && newline && !insideQuotes) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Divide el rango de datos en bloques que comienzan después de un salto de
+     * línea.
+     *
+     * @return las posiciones de corte, incluyendo el comienzo y el final.
+     */
+    private long[] split(FileChannel channel, long start, long end) throws IOException {
+        long length = end - start;
+        long count = Math.min(length / MIN_CHUNK_SIZE, pool.getParallelism() * 4L);
+        count = Math.max(count, (length + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        count = Math.max(count, 1);
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+        for (long i = 1; i < count; i++) {
+            long cut = nextLineStart(channel, start + length * i / count, end);
+            if (cut > bounds.get(bounds.size() - 1) && cut < end) {
+                bounds.add(cut);
+            }
+        }
+        bounds.add(end);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene la posición siguiente al primer salto de línea desde la posición
+     * indicada.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long end) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(SCAN_SIZE);
+        while (position < end) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = window.get(i);
+                if (b == '\n' || b == '\r') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    private static ByteBufferInputStream map(FileChannel channel, long start, long end) throws IOException {
+        return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+    }
+
+    private static void join(Future<Chunk> result) throws IOException {
+        try {
+            result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Bloque del archivo junto con las columnas leídas de él. Los errores de
+     * lectura se guardan en lugar de lanzarse, porque solo son válidos si los
+     * cortes no cayeron dentro de un campo entre comillas.
+     */
+    private class Chunk implements Callable<Chunk> {
+        private final ByteBufferInputStream input;
+        private final CSVSelection selection;
+        private final List<ColumnBuilder> builders;
+        private CSVParser parser;
+        private boolean oddQuotes;
+        private Exception error;
+
+        Chunk(ByteBufferInputStream input, CSVSelection selection) {
+            this.input = input;
+            this.selection = selection;
+            this.builders = selection.newBuilders(CHUNK_CAPACITY);
+        }
+
+        @Override
+        public Chunk call() throws IOException {
+            oddQuotes = input.countQuotes() % 2 != 0;
+            try {
+                parser = new CSVParser(input, delimiter);
+                parser.readRows(builders, selection);
+            } catch (InvalidShape | TypeDoesNotMatch e) {
+                error = e;
+            }
+            return this;
+        }
+
+        void rethrow() throws InvalidShape, TypeDoesNotMatch {
+            if (error instanceof InvalidShape) {
+                throw (InvalidShape) error;
+            } else if (error instanceof TypeDoesNotMatch) {
+                throw (TypeDoesNotMatch) error;
+            }
+        }
+    }
+
+    /**
+     * Flujo de entrada sobre un ByteBuffer (por ejemplo, una región mapeada).
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Cuenta las comillas del contenido sin consumirlo.
+         */
+        long countQuotes() {
+            long quotes = 0;
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                if (buffer.get(i) == '"') {
+                    quotes++;
+                }
+            }
+            return quotes;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package libraries;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import exceptions.LabelNotFound;
+import exceptions.TypeDoesNotMatch;
+import structures.ChunkStatistics;
+import structures.ColumnStorage;
+import structures.DataFrame;
+
+/**
+ * Condición sobre las filas de un DataFrame que se evalúa columna por columna.
+ *
+ * Cada condición simple recorre el almacenamiento de una columna y marca en un
+ * mapa de bits las filas que la cumplen, 64 filas por palabra, sin crear
+ * objetos por fila. Las condiciones se combinan con and, or y not operando
+ * sobre las palabras de los mapas.
+ *
+ * Las condiciones tipadas (ints, doubles, strings, comparaciones, equalTo, in)
+ * nunca seleccionan filas nulas, salvo que in o equalTo incluyan null. Las
+ * condiciones sobre cadenas se evalúan una vez por valor distinto del
+ * diccionario, no por fila. La condición values recibe cada valor como objeto,
+ * incluidos los nulos.
+ */
+public abstract class RowFilter {
+
+    /**
+     * Evalúa la condición sobre un DataFrame.
+     *
+     * @param df DataFrame a evaluar.
+     * @return mapa de bits con una palabra cada 64 filas; el bit i de la
+     *         palabra i / 64 indica si la fila i cumple la condición.
+     * @throws LabelNotFound    si una columna no se encuentra en el DataFrame.
+     * @throws TypeDoesNotMatch si una condición no se puede aplicar al tipo de
+     *                          su columna.
+     */
+    abstract long[] evaluate(DataFrame df) throws LabelNotFound, TypeDoesNotMatch;
+
+    /**
+     * Combina esta condición con otra: la fila debe cumplir ambas.
+     *
+     * @param other otra condición.
+     * @return la condición combinada.
+     */
+    public RowFilter and(RowFilter other) {
+        RowFilter self = this;
+        return new RowFilter() {
+            @Override
+            long[] evaluate(DataFrame df) throws LabelNotFound, TypeDoesNotMatch {
+                long[] words = self.evaluate(df);
+                long[] others = other.evaluate(df);
+                for (int i = 0; i < words.length; i++) {
+                    words[i] &= others[i];
+                }
+                return words;
+            }
+        };
+    }
+
+    /**
+     * Combina esta condición con otra: la fila debe cumplir al menos una.
+     *
+     * @param other otra condición.
+     * @return la condición combinada.
+     */
+    public RowFilter or(RowFilter other) {
+        RowFilter self = this;
+        return new RowFilter() {
+            @Override
+            long[] evaluate(DataFrame df) throws LabelNotFound, TypeDoesNotMatch {
+                long[] words = self.evaluate(df);
+                long[] others = other.evaluate(df);
+                for (int i = 0; i < words.length; i++) {
+                    words[i] |= others[i];
+                }
+                return words;
+            }
+        };
+    }
+
+    /**
+     * Niega esta condición: selecciona las filas que no la cumplen.
+     *
+     * @return la condición negada.
+     */
+    public RowFilter not() {
+        RowFilter self = this;
+        return new RowFilter() {
+            @Override
+            long[] evaluate(DataFrame df) throws LabelNotFound, TypeDoesNotMatch {
+                long[] words = self.evaluate(df);
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = ~words[i];
+                }
+                clearTail(words, df.countRows());
+                return words;
+            }
+        };
+    }
+
+    /**
+     * Selecciona todas las filas.
+     *
+     * @return la condición.
+     */
+    public static RowFilter all() {
+        return new RowFilter() {
+            @Override
+            long[] evaluate(DataFrame df) {
+                long[] words = new long[wordCount(df.countRows())];
+                Arrays.fill(words, -1L);
+                clearTail(words, df.countRows());
+                return words;
+            }
+        };
+    }
+
+    /**
+     * Condición sobre una columna de enteros (Integer).
+     *
+     * @param label     etiqueta de la columna.
+     * @param predicate condición sobre cada valor no nulo.
+     * @return la condición.
+     */
+    public static RowFilter ints(Object label, IntPredicate predicate) {
+        return new ColumnFilter(label,
+                (storage, rows) -> intWords(typed(storage, ColumnStorage.Kind.INT), rows, predicate));
+    }
+
+    private static long[] intWords(ColumnStorage<?> ints, int rows, IntPredicate predicate) {
+        long[] words = new long[wordCount(rows)];
+        for (int base = 0; base < rows; base += 64) {
+            int end = Math.min(base + 64, rows);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                if (predicate.test(ints.getInt(i))) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+        return words;
+    }
+
+    /**
+     * Condición sobre una columna de enteros (Integer o Long).
+     *
+     * @param label     etiqueta de la columna.
+     * @param predicate condición sobre cada valor no nulo.
+     * @return la condición.
+     */
+    public static RowFilter longs(Object label, LongPredicate predicate) {
+        return new ColumnFilter(label, (storage, rows) -> {
+            if (storage.getKind() == ColumnStorage.Kind.INT) {
+                return intWords(storage, rows, value -> predicate.test(value));
+            }
+            ColumnStorage<?> longs = typed(storage, ColumnStorage.Kind.LONG);
+            long[] words = new long[wordCount(rows)];
+            for (int base = 0; base < rows; base += 64) {
+                int end = Math.min(base + 64, rows);
+                long word = 0;
+                for (int i = base; i < end; i++) {
+                    if (predicate.test(longs.getLong(i))) {
+                        word |= 1L << i;
+                    }
+                }
+                words[base >>> 6] = word;
+            }
+            return words;
+        });
+    }
+
+    /**
+     * Condición sobre una columna numérica (Integer, Long o Double).
+     *
+     * @param label     etiqueta de la columna.
+     * @param predicate condición sobre cada valor no nulo, como double.
+     * @return la condición.
+     */
+    public static RowFilter doubles(Object label, DoublePredicate predicate) {
+        return new ColumnFilter(label, (storage, rows) -> {
+            if (storage.getKind() != ColumnStorage.Kind.DOUBLE) {
+                numeric(storage);
+                long[] words = new long[wordCount(rows)];
+                for (int i = 0; i < rows; i++) {
+                    if (!storage.isNull(i) && predicate.test(storage.getDouble(i))) {
+                        words[i >>> 6] |= 1L << i;
+                    }
+                }
+                return words;
+            }
+            long[] words = new long[wordCount(rows)];
+            for (int base = 0; base < rows; base += 64) {
+                int end = Math.min(base + 64, rows);
+                long word = 0;
+                for (int i = base; i < end; i++) {
+                    if (predicate.test(storage.getDouble(i))) {
+                        word |= 1L << i;
+                    }
+                }
+                words[base >>> 6] = word;
+            }
+            return words;
+        });
+    }
+
+    /**
+     * Condición sobre una columna de cadenas. La condición se evalúa una sola
+     * vez por cada valor distinto de la columna.
+     *
+     * @param label     etiqueta de la columna.
+     * @param predicate condición sobre cada valor no nulo.
+     * @return la condición.
+     */
+    public static RowFilter strings(Object label, Predicate<String> predicate) {
+        return new ColumnFilter(label, (storage, rows) -> {
+            ColumnStorage<?> strings = typed(storage, ColumnStorage.Kind.STRING);
+            boolean[] accepted = new boolean[strings.dictionarySize()];
+            for (int code = 0; code < accepted.length; code++) {
+                accepted[code] = predicate.test(strings.decode(code));
+            }
+            return byCode(strings, rows, accepted);
+        });
+    }
+
+    /**
+     * Selecciona las filas cuyo valor es mayor que el indicado.
+     *
+     * @param label etiqueta de una columna numérica.
+     * @param value valor de comparación.
+     * @return la condición.
+     */
+    public static RowFilter greaterThan(Object label, double value) {
+        return between(label, Math.nextUp(value), Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Selecciona las filas cuyo valor es mayor o igual que el indicado.
+     *
+     * @param label etiqueta de una columna numérica.
+     * @param value valor de comparación.
+     * @return la condición.
+     */
+    public static RowFilter greaterOrEqual(Object label, double value) {
+        return between(label, value, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Selecciona las filas cuyo valor es menor que el indicado.
+     *
+     * @param label etiqueta de una columna numérica.
+     * @param value valor de comparación.
+     * @return la condición.
+     */
+    public static RowFilter lessThan(Object label, double value) {
+        return between(label, Double.NEGATIVE_INFINITY, Math.nextDown(value));
+    }
+
+    /**
+     * Selecciona las filas cuyo valor es menor o igual que el indicado.
+     *
+     * @param label etiqueta de una columna numérica.
+     * @param value valor de comparación.
+     * @return la condición.
+     */
+    public static RowFilter lessOrEqual(Object label, double value) {
+        return between(label, Double.NEGATIVE_INFINITY, value);
+    }
+
+    /**
+     * Selecciona las filas cuyo valor está en un rango. En las columnas de
+     * enteros la comparación es exacta aunque los valores no entren en un
+     * double. Las estadísticas por bloques de la columna (ChunkStatistics)
+     * permiten saltar los bloques que quedan enteros fuera o dentro del rango.
+     *
+     * @param label etiqueta de una columna numérica.
+     * @param low   límite inferior (inclusivo).
+     * @param high  límite superior (inclusivo).
+     * @return la condición.
+     */
+    public static RowFilter between(Object label, double low, double high) {
+        return new ColumnFilter(label, (storage, rows) -> {
+            long[] words = new long[wordCount(rows)];
+            ChunkStatistics statistics = storage.statistics();
+            if (statistics == null) {
+                numeric(storage);
+                for (int i = 0; i < rows; i++) {
+                    if (storage.isNull(i)) {
+                        continue;
+                    }
+                    double value = storage.getDouble(i);
+                    if (value >= low && value <= high) {
+                        words[i >>> 6] |= 1L << i;
+                    }
+                }
+            } else {
+                // Los bloques cuyos extremos quedan fuera del rango se descartan
+                // y los que quedan dentro se aceptan sin recorrer sus valores
+                long min = (long) Math.ceil(low);
+                long max = (long) Math.floor(high);
+                boolean doubles = storage.getKind() == ColumnStorage.Kind.DOUBLE;
+                for (int chunk = 0; chunk < statistics.chunks(); chunk++) {
+                    int from = chunk * ChunkStatistics.CHUNK_ROWS;
+                    int to = Math.min(from + ChunkStatistics.CHUNK_ROWS, rows);
+                    if (statistics.isEmpty(chunk)) {
+                        continue;
+                    }
+                    if (doubles ? statistics.max(chunk) < low || statistics.min(chunk) > high
+                            : statistics.maxLong(chunk) < min || statistics.minLong(chunk) > max) {
+                        continue;
+                    }
+                    if (doubles ? statistics.min(chunk) >= low && statistics.max(chunk) <= high
+                            && statistics.nanCount(chunk) == 0
+                            : statistics.minLong(chunk) >= min && statistics.maxLong(chunk) <= max) {
+                        Arrays.fill(words, from >>> 6, wordCount(to), -1L);
+                        clearTail(words, to);
+                        continue;
+                    }
+                    switch (storage.getKind()) {
+                        case INT:
+                            betweenInts(storage, from, to, min, max, words);
+                            break;
+                        case LONG:
+                            betweenLongs(storage, from, to, min, max, words);
+                            break;
+                        default:
+                            betweenDoubles(storage, from, to, low, high, words);
+                    }
+                }
+            }
+            if (Double.isNaN(low) || Double.isNaN(high)) {
+                Arrays.fill(words, 0);
+            }
+            return words;
+        });
+    }
+
+    private static void betweenInts(ColumnStorage<?> ints, int from, int to, long min, long max, long[] words) {
+        for (int base = from; base < to; base += 64) {
+            int end = Math.min(base + 64, to);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                int value = ints.getInt(i);
+                if (value >= min && value <= max) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    private static void betweenLongs(ColumnStorage<?> longs, int from, int to, long min, long max, long[] words) {
+        for (int base = from; base < to; base += 64) {
+            int end = Math.min(base + 64, to);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                long value = longs.getLong(i);
+                if (value >= min && value <= max) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    private static void betweenDoubles(ColumnStorage<?> doubles, int from, int to, double low, double high,
+            long[] words) {
+        for (int base = from; base < to; base += 64) {
+            int end = Math.min(base + 64, to);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                double value = doubles.getDouble(i);
+                if (value >= low && value <= high) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    /**
+     * Selecciona las filas cuyo valor es igual al indicado, según equals.
+     *
+     * @param label etiqueta de la columna.
+     * @param value valor a buscar; null selecciona las filas nulas.
+     * @return la condición.
+     */
+    public static RowFilter equalTo(Object label, Object value) {
+        return in(label, Collections.singleton(value));
+    }
+
+    /**
+     * Selecciona las filas cuyo valor es igual a alguno de los indicados,
+     * según equals.
+     *
+     * @param label  etiqueta de la columna.
+     * @param values valores a buscar; si incluye null se seleccionan también
+     *               las filas nulas.
+     * @return la condición.
+     */
+    public static RowFilter in(Object label, Collection<?> values) {
+        Set<Object> set = new HashSet<>(values);
+        return new ColumnFilter(label, (storage, rows) -> {
+            long[] words;
+            switch (storage.getKind()) {
+                case STRING: {
+                    boolean[] accepted = new boolean[storage.dictionarySize()];
+                    for (int code = 0; code < accepted.length; code++) {
+                        accepted[code] = set.contains(storage.decode(code));
+                    }
+                    words = byCode(storage, rows, accepted);
+                    break;
+                }
+                case INT:
+                case LONG:
+                case DOUBLE: {
+                    // Solo los valores de la misma clase que la columna son iguales
+                    LongIntHashMap keys = new LongIntHashMap(set.size());
+                    for (Object element : set) {
+                        if (element != null && element.getClass() == storage.getValueType()) {
+                            keys.putIfAbsent(element instanceof Double
+                                    ? Double.doubleToLongBits((Double) element)
+                                    : ((Number) element).longValue(), 0);
+                        }
+                    }
+                    boolean doubles = storage.getKind() == ColumnStorage.Kind.DOUBLE;
+                    words = new long[wordCount(rows)];
+                    for (int i = 0; i < rows; i++) {
+                        long key = doubles ? Double.doubleToLongBits(storage.getDouble(i)) : storage.getLong(i);
+                        if (keys.get(key) >= 0) {
+                            words[i >>> 6] |= 1L << i;
+                        }
+                    }
+                    break;
+                }
+                case BOOLEAN: {
+                    boolean acceptTrue = set.contains(Boolean.TRUE);
+                    boolean acceptFalse = set.contains(Boolean.FALSE);
+                    words = new long[wordCount(rows)];
+                    for (int i = 0; i < rows; i++) {
+                        if (storage.getBoolean(i) ? acceptTrue : acceptFalse) {
+                            words[i >>> 6] |= 1L << i;
+                        }
+                    }
+                    break;
+                }
+                default:
+                    words = new long[wordCount(rows)];
+                    for (int i = 0; i < rows; i++) {
+                        if (set.contains(storage.get(i))) {
+                            words[i >>> 6] |= 1L << i;
+                        }
+                    }
+                    return words;
+            }
+            clearNulls(storage, rows, words);
+            if (set.contains(null)) {
+                setNulls(storage, rows, words);
+            }
+            return words;
+        }, true);
+    }
+
+    /**
+     * Selecciona las filas cuyo valor es nulo.
+     *
+     * @param label etiqueta de la columna.
+     * @return la condición.
+     */
+    public static RowFilter isNull(Object label) {
+        return new ColumnFilter(label, (storage, rows) -> {
+            long[] words = new long[wordCount(rows)];
+            setNulls(storage, rows, words);
+            return words;
+        }, true);
+    }
+
+    /**
+     * Selecciona las filas cuyo valor no es nulo.
+     *
+     * @param label etiqueta de la columna.
+     * @return la condición.
+     */
+    public static RowFilter notNull(Object label) {
+        return isNull(label).not();
+    }
+
+    /**
+     * Condición sobre cualquier columna que recibe cada valor como objeto,
+     * incluidos los nulos. Es la forma más general y la más lenta.
+     *
+     * @param label     etiqueta de la columna.
+     * @param predicate condición sobre cada valor.
+     * @return la condición.
+     */
+    public static RowFilter values(Object label, Predicate<Object> predicate) {
+        return new ColumnFilter(label, (storage, rows) -> {
+            long[] words = new long[wordCount(rows)];
+            for (int i = 0; i < rows; i++) {
+                if (predicate.test(storage.get(i))) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+            return words;
+        }, true);
+    }
+
+    /**
+     * Convierte un mapa de bits en las posiciones de las filas seleccionadas.
+     *
+     * @param words mapa de bits.
+     * @return las posiciones, en orden ascendente.
+     */
+    static int[] indices(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        int[] indices = new int[count];
+        int next = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                indices[next++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return indices;
+    }
+
+    private static int wordCount(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    private static void clearTail(long[] words, int rows) {
+        if ((rows & 63) != 0) {
+            words[words.length - 1] &= (1L << rows) - 1;
+        }
+    }
+
+    private static long[] byCode(ColumnStorage<?> strings, int rows, boolean[] accepted) {
+        long[] words = new long[wordCount(rows)];
+        for (int base = 0; base < rows; base += 64) {
+            int end = Math.min(base + 64, rows);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                int code = strings.getCode(i);
+                if (code >= 0 && accepted[code]) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+        return words;
+    }
+
+    private static void clearNulls(ColumnStorage<?> storage, int rows, long[] words) {
+        if (!storage.hasNulls()) {
+            return;
+        }
+        for (int i = 0; i < rows; i++) {
+            if (storage.isNull(i)) {
+                words[i >>> 6] &= ~(1L << i);
+            }
+        }
+    }
+
+    private static void setNulls(ColumnStorage<?> storage, int rows, long[] words) {
+        if (!storage.hasNulls()) {
+            return;
+        }
+        for (int i = 0; i < rows; i++) {
+            if (storage.isNull(i)) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Verifica que el almacenamiento sea del tipo indicado.
+     */
+    private static ColumnStorage<?> typed(ColumnStorage<?> storage, ColumnStorage.Kind kind) throws TypeDoesNotMatch {
+        if (storage.getKind() != kind) {
+            throw new TypeDoesNotMatch();
+        }
+        return storage;
+    }
+
+    /**
+     * Verifica que el almacenamiento sea numérico. Los genéricos se aceptan si
+     * su tipo es numérico.
+     */
+    private static void numeric(ColumnStorage<?> storage) throws TypeDoesNotMatch {
+        switch (storage.getKind()) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+                return;
+            case OBJECT:
+                if (storage.getValueType() != null && Number.class.isAssignableFrom(storage.getValueType())) {
+                    return;
+                }
+                throw new TypeDoesNotMatch();
+            default:
+                throw new TypeDoesNotMatch();
+        }
+    }
+
+    /**
+     * Evaluación de una condición sobre el almacenamiento de una columna.
+     */
+    private interface ColumnTest {
+        long[] test(ColumnStorage<?> storage, int rows) throws TypeDoesNotMatch;
+    }
+
+    /**
+     * Condición sobre una sola columna.
+     */
+    private static class ColumnFilter extends RowFilter {
+        private final Object label;
+        private final ColumnTest test;
+        private final boolean handlesNulls;
+
+        ColumnFilter(Object label, ColumnTest test) {
+            this(label, test, false);
+        }
+
+        /**
+         * @param handlesNulls true si la evaluación decide sobre las filas
+         *                     nulas; si no, las filas nulas se descartan.
+         */
+        ColumnFilter(Object label, ColumnTest test, boolean handlesNulls) {
+            this.label = label;
+            this.test = test;
+            this.handlesNulls = handlesNulls;
+        }
+
+        @Override
+        long[] evaluate(DataFrame df) throws LabelNotFound, TypeDoesNotMatch {
+            ColumnStorage<?> storage = df.getColumn(label).getReadOnlyStorage();
+            int rows = df.countRows();
+            if (!handlesNulls && storage.getKind() == ColumnStorage.Kind.OBJECT && storage.getValueType() == null) {
+                // Una columna sin valores no nulos no cumple ninguna condición tipada
+                return new long[wordCount(rows)];
+            }
+            long[] words = test.test(storage, rows);
+            if (!handlesNulls) {
+                clearNulls(storage, rows, words);
+            }
+            return words;
+        }
+    }
+}
@@ -0,0 +1,712 @@
+package libraries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import structures.ColumnStorage;
+import structures.DataFrame;
+
+/**
+ * Calcula el orden de las filas de un DataFrame según una o más columnas, sin
+ * modificarlo: el resultado es una permutación de las posiciones de las
+ * filas.
+ *
+ * Las columnas se procesan de la última a la primera con un ordenamiento
+ * estable por columna, de modo que al final las filas quedan ordenadas por la
+ * primera columna, las empatadas por la segunda, y así sucesivamente. Las
+ * filas empatadas en todas las columnas conservan su orden original.
+ *
+ * Las columnas numéricas, booleanas y de cadenas se ordenan por radix (LSD)
+ * sobre una clave entera por fila: el valor primitivo, los bits del double
+ * ajustados para que se ordenen como enteros, o el rango del código de
+ * diccionario de cada cadena. Solo se usan los bits necesarios para el rango
+ * de claves presente, así que una columna con pocos valores distintos se
+ * ordena en una sola pasada de conteo. Las columnas de tipos genéricos se
+ * ordenan por mezcla (merge sort) comparando sus valores con compareTo.
+ *
+ * Los nulos quedan primero en orden ascendente y últimos en orden
+ * descendente.
+ *
+ * En paralelo, cada bloque de filas se ordena por separado de la misma forma y
+ * luego los bloques se mezclan de a pares, comparando las filas por todas las
+ * columnas a la vez. Cada mezcla se reparte entre varias tareas buscando en el
+ * bloque derecho dónde cae cada punto de corte del izquierdo. Como los dos
+ * ordenamientos son estables, el resultado es exactamente el mismo que el de
+ * la versión secuencial.
+ *
+ * Para obtener solo las primeras n filas del orden (top) no se ordena todo:
+ * se recorren las filas manteniendo un heap con las n mejores vistas hasta el
+ * momento, desempatando por posición para respetar el orden estable, y al
+ * final se ordenan solo esas n. En paralelo, cada bloque arma su propio heap y
+ * los candidatos de todos los bloques se ordenan juntos.
+ */
+class RowSorter {
+    private static final int DIGIT_BITS = 11;
+    private static final int INSERTION_SORT_ROWS = 32;
+    private static final int MIN_CHUNK_ROWS = 1 << 16;
+
+    private final ColumnStorage<?>[] keys;
+    private final boolean[] descending;
+    private final int[][] ranks;
+    private final int rows;
+
+    /**
+     * Crea un ordenador sobre las columnas indicadas.
+     *
+     * @param df         DataFrame a ordenar.
+     * @param columns    posiciones de las columnas, de la más a la menos
+     *                   significativa.
+     * @param descending para cada columna, true si se ordena de forma
+     *                   descendente.
+     */
+    RowSorter(DataFrame df, int[] columns, boolean[] descending) {
+        this.keys = new ColumnStorage<?>[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keys[i] = df.getColumns().get(columns[i]).getReadOnlyStorage();
+        }
+        this.descending = descending.clone();
+        this.ranks = new int[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            if (keys[i].getKind() == ColumnStorage.Kind.STRING) {
+                ranks[i] = ranks(keys[i]);
+            }
+        }
+        this.rows = df.countRows();
+    }
+
+    /**
+     * Calcula el orden de las filas.
+     *
+     * @return las posiciones de las filas en el orden resultante.
+     */
+    int[] sort() {
+        int[] order = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            order[i] = i;
+        }
+        for (int key = keys.length - 1; key >= 0; key--) {
+            sortBy(order, key);
+        }
+        return order;
+    }
+
+    /**
+     * Obtiene las primeras filas del orden sin ordenar todas las filas. Da el
+     * mismo resultado que las primeras n posiciones de sort().
+     *
+     * @param n cantidad de filas.
+     * @return las posiciones de las primeras min(n, filas) filas, en orden.
+     */
+    int[] top(int n) {
+        if (n >= rows) {
+            return sort();
+        }
+        RowComparator comparator = stableComparator();
+        int[] candidates = top(0, rows, n, comparator);
+        mergeSort(candidates, comparator);
+        return candidates;
+    }
+
+    /**
+     * Obtiene las primeras filas del orden en paralelo. Da el mismo resultado
+     * que top(int).
+     *
+     * @param n    cantidad de filas.
+     * @param pool pool en el que se buscan las filas.
+     * @return las posiciones de las primeras min(n, filas) filas, en orden.
+     */
+    int[] top(int n, ForkJoinPool pool) {
+        int chunkCount = (int) Math.min(pool.getParallelism() * 4L, rows / MIN_CHUNK_ROWS);
+        if (chunkCount < 2 || n >= rows / chunkCount) {
+            return n >= rows ? sort(pool) : top(n);
+        }
+        RowComparator comparator = stableComparator();
+        int[][] heaps = new int[chunkCount][];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < chunkCount; i++) {
+            int chunk = i;
+            int start = (int) ((long) rows * i / chunkCount);
+            int end = (int) ((long) rows * (i + 1) / chunkCount);
+            tasks.add(() -> {
+                heaps[chunk] = top(start, end, n, comparator);
+                return null;
+            });
+        }
+        run(pool, tasks);
+
+        int[] candidates = new int[chunkCount * n];
+        for (int i = 0; i < chunkCount; i++) {
+            System.arraycopy(heaps[i], 0, candidates, i * n, n);
+        }
+        mergeSort(candidates, comparator);
+        return Arrays.copyOf(candidates, n);
+    }
+
+    /**
+     * Busca las n primeras filas de un rango con un heap cuya raíz es la peor
+     * de las filas guardadas; cada fila nueva solo entra si es mejor que la
+     * raíz.
+     *
+     * @param from       primera fila del rango (inclusiva).
+     * @param to         última fila del rango (exclusiva), con to - from >= n.
+     * @param n          cantidad de filas.
+     * @param comparator comparación sin empates entre filas distintas.
+     * @return las n filas, sin ordenar.
+     */
+    private static int[] top(int from, int to, int n, RowComparator comparator) {
+        int[] heap = new int[n];
+        for (int i = 0; i < n; i++) {
+            heap[i] = from + i;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, comparator);
+        }
+        for (int row = from + n; row < to; row++) {
+            if (n > 0 && comparator.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, 0, comparator);
+            }
+        }
+        return heap;
+    }
+
+    private static void siftDown(int[] heap, int index, RowComparator comparator) {
+        int row = heap[index];
+        int half = heap.length / 2;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < heap.length && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(heap[child], row) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    /**
+     * Crea la comparación por todas las columnas que, ante un empate, ordena
+     * las filas por su posición, igual que el ordenamiento estable.
+     */
+    private RowComparator stableComparator() {
+        RowComparator comparator = comparator();
+        return (a, b) -> {
+            int comparison = comparator.compare(a, b);
+            return comparison != 0 ? comparison : Integer.compare(a, b);
+        };
+    }
+
+    /**
+     * Calcula el orden de las filas en paralelo. Da el mismo resultado que
+     * sort().
+     *
+     * @param pool pool en el que se ordena.
+     * @return las posiciones de las filas en el orden resultante.
+     */
+    int[] sort(ForkJoinPool pool) {
+        int chunkCount = (int) Math.min(pool.getParallelism() * 4L, rows / MIN_CHUNK_ROWS);
+        if (chunkCount < 2 || keys.length == 0) {
+            return sort();
+        }
+        int[] bounds = new int[chunkCount + 1];
+        for (int i = 0; i <= chunkCount; i++) {
+            bounds[i] = (int) ((long) rows * i / chunkCount);
+        }
+
+        int[] order = new int[rows];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < chunkCount; i++) {
+            int start = bounds[i];
+            int end = bounds[i + 1];
+            tasks.add(() -> {
+                int[] chunk = new int[end - start];
+                for (int row = start; row < end; row++) {
+                    chunk[row - start] = row;
+                }
+                for (int key = keys.length - 1; key >= 0; key--) {
+                    sortBy(chunk, key);
+                }
+                System.arraycopy(chunk, 0, order, start, chunk.length);
+                return null;
+            });
+        }
+        run(pool, tasks);
+
+        // Mezcla los bloques de a pares hasta que queda uno solo
+        RowComparator comparator = comparator();
+        int pieceRows = Math.max(MIN_CHUNK_ROWS, rows / (pool.getParallelism() * 4));
+        int[] source = order;
+        int[] target = new int[rows];
+        for (int width = 1; width < chunkCount; width *= 2) {
+            tasks.clear();
+            for (int left = 0; left < chunkCount; left += 2 * width) {
+                int from = bounds[left];
+                int middle = bounds[Math.min(left + width, chunkCount)];
+                int to = bounds[Math.min(left + 2 * width, chunkCount)];
+                addMergeTasks(tasks, source, target, from, middle, to, pieceRows, comparator);
+            }
+            run(pool, tasks);
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        return source;
+    }
+
+    /**
+     * Agrega las tareas que mezclan los rangos ordenados [from, middle) y
+     * [middle, to) de source en target. El rango izquierdo se corta en partes
+     * de pieceRows filas; cada corte se ubica en el rango derecho antes de la
+     * primera fila que no es menor, de modo que las filas empatadas del rango
+     * izquierdo siguen quedando primero.
+     */
+    private static void addMergeTasks(List<Callable<Void>> tasks, int[] source, int[] target, int from,
+            int middle, int to, int pieceRows, RowComparator comparator) {
+        if (middle == to) {
+            tasks.add(() -> {
+                System.arraycopy(source, from, target, from, to - from);
+                return null;
+            });
+            return;
+        }
+        int leftStart = from;
+        int rightStart = middle;
+        while (leftStart < middle) {
+            int leftEnd = Math.min(leftStart + pieceRows, middle);
+            int rightEnd = leftEnd == middle ? to : lowerBound(source, rightStart, to, source[leftEnd], comparator);
+            int pieceLeft = leftStart;
+            int pieceRight = rightStart;
+            int output = leftStart + rightStart - middle;
+            tasks.add(() -> {
+                mergeInto(source, pieceLeft, leftEnd, pieceRight, rightEnd, target, output, comparator);
+                return null;
+            });
+            leftStart = leftEnd;
+            rightStart = rightEnd;
+        }
+    }
+
+    /**
+     * Busca la primera posición de [from, to) cuya fila no es menor que la
+     * indicada.
+     */
+    private static int lowerBound(int[] order, int from, int to, int row, RowComparator comparator) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (comparator.compare(order[middle], row) < 0) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Mezcla de forma estable dos rangos ordenados de source a partir de la
+     * posición output de target.
+     */
+    private static void mergeInto(int[] source, int left, int leftEnd, int right, int rightEnd, int[] target,
+            int output, RowComparator comparator) {
+        while (left < leftEnd && right < rightEnd) {
+            if (comparator.compare(source[left], source[right]) <= 0) {
+                target[output++] = source[left++];
+            } else {
+                target[output++] = source[right++];
+            }
+        }
+        System.arraycopy(source, left, target, output, leftEnd - left);
+        System.arraycopy(source, right, target, output + leftEnd - left, rightEnd - right);
+    }
+
+    /**
+     * Ejecuta las tareas en el pool y espera a que terminen todas.
+     */
+    private static void run(ForkJoinPool pool, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Crea la comparación entre filas por todas las columnas del ordenador,
+     * coherente con el orden que da sort().
+     *
+     * @return la comparación.
+     */
+    RowComparator comparator() {
+        RowComparator[] comparators = new RowComparator[keys.length];
+        for (int key = 0; key < keys.length; key++) {
+            comparators[key] = comparator(key);
+        }
+        return (a, b) -> {
+            for (RowComparator comparator : comparators) {
+                int comparison = comparator.compare(a, b);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Crea la comparación entre filas por una columna, sobre los valores
+     * primitivos (o el rango de las cadenas) para no crear objetos.
+     */
+    private RowComparator comparator(int key) {
+        ColumnStorage<?> storage = keys[key];
+        int[] keyRanks = ranks[key];
+        RowComparator values;
+        switch (storage.getKind()) {
+            case INT:
+                values = (a, b) -> Integer.compare(storage.getInt(a), storage.getInt(b));
+                break;
+            case LONG:
+                values = (a, b) -> Long.compare(storage.getLong(a), storage.getLong(b));
+                break;
+            case DOUBLE:
+                values = (a, b) -> Double.compare(storage.getDouble(a), storage.getDouble(b));
+                break;
+            case BOOLEAN:
+                values = (a, b) -> Boolean.compare(storage.getBoolean(a), storage.getBoolean(b));
+                break;
+            case STRING:
+                values = (a, b) -> Integer.compare(keyRanks[storage.getCode(a)], keyRanks[storage.getCode(b)]);
+                break;
+            default:
+                return comparator(storage, descending[key]);
+        }
+        boolean reverse = descending[key];
+        return (a, b) -> {
+            boolean firstNull = storage.isNull(a);
+            boolean secondNull = storage.isNull(b);
+            int comparison;
+            if (firstNull || secondNull) {
+                comparison = firstNull ? (secondNull ? 0 : -1) : 1;
+            } else {
+                comparison = values.compare(a, b);
+            }
+            return reverse ? -comparison : comparison;
+        };
+    }
+
+    /**
+     * Ordena de forma estable una permutación según una sola columna.
+     *
+     * @param order permutación a ordenar.
+     * @param key   posición de la columna entre las columnas del ordenador.
+     */
+    private void sortBy(int[] order, int key) {
+        ColumnStorage<?> storage = keys[key];
+        if (storage.getKind() == ColumnStorage.Kind.OBJECT) {
+            mergeSort(order, comparator(storage, descending[key]));
+        } else {
+            radixSort(order, storage, ranks[key], descending[key]);
+        }
+    }
+
+    /**
+     * Comparación entre dos filas, por su posición, sin crear objetos.
+     */
+    interface RowComparator {
+        /**
+         * Compara dos filas.
+         *
+         * @param a posición de la primera fila.
+         * @param b posición de la segunda fila.
+         * @return un número negativo, cero o positivo si la primera fila va
+         *         antes, empata o va después de la segunda.
+         */
+        int compare(int a, int b);
+    }
+
+    /**
+     * Crea la comparación entre filas según los valores de una columna, con
+     * los nulos primero en orden ascendente.
+     *
+     * @param storage    almacenamiento de la columna.
+     * @param descending true si se ordena de forma descendente.
+     * @return la comparación.
+     */
+    @SuppressWarnings("unchecked")
+    static RowComparator comparator(ColumnStorage<?> storage, boolean descending) {
+        return (a, b) -> {
+            Object first = storage.get(a);
+            Object second = storage.get(b);
+            int comparison;
+            if (first == null || second == null) {
+                comparison = first == null ? (second == null ? 0 : -1) : 1;
+            } else {
+                comparison = ((Comparable<Object>) first).compareTo(second);
+            }
+            return descending ? -comparison : comparison;
+        };
+    }
+
+    /**
+     * Ordena de forma estable una permutación por mezcla.
+     *
+     * @param order      permutación a ordenar.
+     * @param comparator comparación entre filas.
+     */
+    static void mergeSort(int[] order, RowComparator comparator) {
+        int[] buffer = order.clone();
+        mergeSort(buffer, order, 0, order.length, comparator);
+    }
+
+    /**
+     * Ordena el rango [from, to) de source y deja el resultado en target. Los
+     * dos arreglos deben tener los mismos valores en el rango.
+     */
+    static void mergeSort(int[] source, int[] target, int from, int to, RowComparator comparator) {
+        if (to - from <= INSERTION_SORT_ROWS) {
+            for (int i = from + 1; i < to; i++) {
+                int row = target[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(target[j], row) > 0) {
+                    target[j + 1] = target[j];
+                    j--;
+                }
+                target[j + 1] = row;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(target, source, from, middle, comparator);
+        mergeSort(target, source, middle, to, comparator);
+        merge(source, target, from, middle, to, comparator);
+    }
+
+    /**
+     * Mezcla los rangos ordenados [from, middle) y [middle, to) de source en el
+     * mismo rango de target. Ante empates toma primero la fila del rango
+     * izquierdo, lo que mantiene el orden estable.
+     */
+    static void merge(int[] source, int[] target, int from, int middle, int to, RowComparator comparator) {
+        if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+            System.arraycopy(source, from, target, from, to - from);
+            return;
+        }
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(source[left], source[right]) <= 0)) {
+                target[i] = source[left++];
+            } else {
+                target[i] = source[right++];
+            }
+        }
+    }
+
+    /**
+     * Ordena de forma estable una permutación por radix según los valores de
+     * una columna no genérica.
+     *
+     * @param order      permutación a ordenar.
+     * @param storage    almacenamiento de la columna.
+     * @param ranks      rango de cada código, si la columna es de cadenas.
+     * @param descending true si se ordena de forma descendente.
+     */
+    private static void radixSort(int[] order, ColumnStorage<?> storage, int[] ranks, boolean descending) {
+        ColumnStorage.Kind kind = storage.getKind();
+        // Las claves de enteros, booleanos y cadenas entran en un int
+        boolean wide = kind == ColumnStorage.Kind.LONG || kind == ColumnStorage.Kind.DOUBLE;
+        int[] present = new int[order.length];
+        long[] values = wide ? new long[order.length] : null;
+        int[] small = wide ? null : new int[order.length];
+        int count = 0;
+        int nulls = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int row : order) {
+            if (storage.isNull(row)) {
+                // Los nulos se guardan al principio de order, en posiciones
+                // que ya se recorrieron
+                order[nulls++] = row;
+                continue;
+            }
+            long value = encode(storage, ranks, row);
+            if (descending) {
+                value = ~value;
+            }
+            present[count] = row;
+            if (wide) {
+                values[count++] = value;
+            } else {
+                small[count++] = (int) value;
+            }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (count > 1 && min != max) {
+            int bits = 64 - Long.numberOfLeadingZeros(max - min);
+            if (!wide) {
+                for (int i = 0; i < count; i++) {
+                    small[i] -= (int) min;
+                }
+                present = radixSort(present, small, count, bits);
+            } else if (bits <= 32) {
+                small = new int[count];
+                for (int i = 0; i < count; i++) {
+                    small[i] = (int) (values[i] - min);
+                }
+                values = null;
+                present = radixSort(present, small, count, bits);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    values[i] -= min;
+                }
+                present = radixSort(present, values, count, bits);
+            }
+        }
+        int[] nullRows = Arrays.copyOf(order, nulls);
+        if (descending) {
+            System.arraycopy(present, 0, order, 0, count);
+            System.arraycopy(nullRows, 0, order, count, nulls);
+        } else {
+            System.arraycopy(nullRows, 0, order, 0, nulls);
+            System.arraycopy(present, 0, order, nulls, count);
+        }
+    }
+
+    /**
+     * Obtiene la clave entera de un valor no nulo. El orden de las claves como
+     * long con signo coincide con el orden de los valores.
+     */
+    private static long encode(ColumnStorage<?> storage, int[] ranks, int row) {
+        switch (storage.getKind()) {
+            case INT:
+                return storage.getInt(row);
+            case LONG:
+                return storage.getLong(row);
+            case DOUBLE:
+                // Los negativos invierten sus bits (salvo el signo) para que
+                // un valor más chico tenga una clave más chica, igual que
+                // Double.compare
+                long bits = Double.doubleToLongBits(storage.getDouble(row));
+                return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+            case BOOLEAN:
+                return storage.getBoolean(row) ? 1 : 0;
+            default:
+                return ranks[storage.getCode(row)];
+        }
+    }
+
+    /**
+     * Calcula la posición de cada cadena del diccionario en orden
+     * lexicográfico (compareTo).
+     *
+     * @param storage almacenamiento de cadenas.
+     * @return el rango de cada código.
+     */
+    private static int[] ranks(ColumnStorage<?> storage) {
+        int size = storage.dictionarySize();
+        Integer[] codes = new Integer[size];
+        for (int code = 0; code < size; code++) {
+            codes[code] = code;
+        }
+        Arrays.sort(codes, (a, b) -> storage.decode(a).compareTo(storage.decode(b)));
+        int[] ranks = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            ranks[codes[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Ordena filas por claves no negativas de hasta 32 bits, con pasadas de
+     * conteo estables de a lo sumo DIGIT_BITS bits.
+     *
+     * @return las filas ordenadas (puede ser el mismo arreglo recibido).
+     */
+    private static int[] radixSort(int[] rows, int[] keys, int count, int bits) {
+        int passes = (bits + DIGIT_BITS - 1) / DIGIT_BITS;
+        int digitBits = (bits + passes - 1) / passes;
+        int mask = (1 << digitBits) - 1;
+        int[] otherRows = new int[count];
+        int[] otherKeys = new int[count];
+        int[] counts = new int[mask + 2];
+        for (int shift = 0; shift < bits; shift += digitBits) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < count; i++) {
+                counts[((keys[i] >>> shift) & mask) + 1]++;
+            }
+            if (counts[((keys[0] >>> shift) & mask) + 1] == count) {
+                // Todas las claves tienen el mismo dígito en esta pasada
+                continue;
+            }
+            for (int digit = 1; digit < counts.length; digit++) {
+                counts[digit] += counts[digit - 1];
+            }
+            for (int i = 0; i < count; i++) {
+                int position = counts[(keys[i] >>> shift) & mask]++;
+                otherRows[position] = rows[i];
+                otherKeys[position] = keys[i];
+            }
+            int[] swap = rows;
+            rows = otherRows;
+            otherRows = swap;
+            swap = keys;
+            keys = otherKeys;
+            otherKeys = swap;
+        }
+        return rows;
+    }
+
+    /**
+     * Ordena filas por claves no negativas de hasta 64 bits (ver
+     * radixSort(int[], int[], int, int)).
+     */
+    private static int[] radixSort(int[] rows, long[] keys, int count, int bits) {
+        int passes = (bits + DIGIT_BITS - 1) / DIGIT_BITS;
+        int digitBits = (bits + passes - 1) / passes;
+        int mask = (1 << digitBits) - 1;
+        int[] otherRows = new int[count];
+        long[] otherKeys = new long[count];
+        int[] counts = new int[mask + 2];
+        for (int shift = 0; shift < bits; shift += digitBits) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < count; i++) {
+                counts[(int) ((keys[i] >>> shift) & mask) + 1]++;
+            }
+            if (counts[(int) ((keys[0] >>> shift) & mask) + 1] == count) {
+                // Todas las claves tienen el mismo dígito en esta pasada
+                continue;
+            }
+            for (int digit = 1; digit < counts.length; digit++) {
+                counts[digit] += counts[digit - 1];
+            }
+            for (int i = 0; i < count; i++) {
+                int position = counts[(int) ((keys[i] >>> shift) & mask)]++;
+                otherRows[position] = rows[i];
+                otherKeys[position] = keys[i];
+            }
+            int[] swapRows = rows;
+            rows = otherRows;
+            otherRows = swapRows;
+            long[] swapKeys = keys;
+            keys = otherKeys;
+            otherKeys = swapKeys;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,79 @@
+package performance;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Mide los bytes que reserva en el heap el hilo actual, con el contador por
+ * hilo de la JVM (com.sun.management.ThreadMXBean), disponible en HotSpot y
+ * OpenJ9.
+ *
+ * Solo se cuentan las reservas del hilo que llama: las operaciones que
+ * reparten su trabajo en otros hilos (por ejemplo, las versiones paralelas
+ * de sortBy o groupBy) informan únicamente la parte del hilo actual. Las
+ * reservas se cuentan aunque el recolector de basura libere los objetos
+ * antes de terminar la medición.
+ */
+public final class AllocationTracker {
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private AllocationTracker() {
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        try {
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            if (!threads.isThreadAllocatedMemoryEnabled()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+            return threads;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Verifica si la JVM permite medir las reservas de memoria por hilo.
+     *
+     * @return true si la medición está disponible.
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Obtiene los bytes reservados por el hilo actual desde que comenzó.
+     *
+     * @return la cantidad de bytes, o -1 si la medición no está disponible.
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (THREADS == null) {
+            return -1;
+        }
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Ejecuta una operación y mide los bytes que reserva el hilo actual
+     * mientras se ejecuta.
+     *
+     * @param <T>       tipo del resultado.
+     * @param <E>       tipo de la excepción que puede lanzar la operación.
+     * @param operation el código a medir.
+     * @return los bytes reservados, o -1 si la medición no está disponible.
+     * @throws E si la operación falla.
+     */
+    public static <T, E extends Exception> long measure(PerformanceTimer.Task<T, E> operation) throws E {
+        long before = currentThreadAllocatedBytes();
+        operation.run();
+        long after = currentThreadAllocatedBytes();
+        return before < 0 ? -1 : after - before;
+    }
+}
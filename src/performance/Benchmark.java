@@ -0,0 +1,219 @@
+package performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import structures.Column;
+import structures.DataFrame;
+import structures.DoubleStorage;
+import structures.IntStorage;
+import structures.LongStorage;
+import structures.StringStorage;
+
+/**
+ * Mide el tiempo de varias operaciones con iteraciones de calentamiento, para
+ * que el compilador JIT optimice el código antes de medirlo, seguidas de
+ * iteraciones de medición en nanosegundos.
+ *
+ * Las operaciones que tardan menos que la duración mínima de una iteración se
+ * repiten dentro de cada iteración las veces necesarias (calculadas durante
+ * el calentamiento), y el tiempo informado es el de una sola ejecución. El
+ * resultado de cada ejecución se conserva para que el compilador no pueda
+ * eliminar la operación.
+ *
+ * Opcionalmente mide también los bytes que reserva cada ejecución en el heap
+ * (ver AllocationTracker), para detectar operaciones que crean más objetos
+ * de lo necesario.
+ *
+ * Los resultados se devuelven como un DataFrame, que se puede mostrar o
+ * exportar a JSON para comparar las mediciones entre versiones.
+ */
+public class Benchmark {
+
+    /**
+     * Operación a medir. Puede lanzar las excepciones de la biblioteca.
+     */
+    public interface Operation {
+        /**
+         * Ejecuta la operación.
+         *
+         * @return el resultado de la operación, que se conserva para que no se
+         *         elimine su cálculo.
+         * @throws Exception si la operación falla.
+         */
+        Object run() throws Exception;
+    }
+
+    private final Map<String, Operation> operations = new LinkedHashMap<>();
+    private final Map<String, Integer> rows = new LinkedHashMap<>();
+    private int warmupIterations = 5;
+    private int measurementIterations = 10;
+    private long minIterationNanos = 10_000_000L;
+    private boolean trackAllocations;
+    private volatile Object sink;
+
+    /**
+     * Establece la cantidad de iteraciones de calentamiento. Por defecto son 5.
+     *
+     * @param iterations cantidad de iteraciones.
+     * @return este Benchmark.
+     */
+    public Benchmark warmup(int iterations) {
+        this.warmupIterations = iterations;
+        return this;
+    }
+
+    /**
+     * Establece la cantidad de iteraciones medidas. Por defecto son 10.
+     *
+     * @param iterations cantidad de iteraciones.
+     * @return este Benchmark.
+     */
+    public Benchmark iterations(int iterations) {
+        this.measurementIterations = Math.max(iterations, 1);
+        return this;
+    }
+
+    /**
+     * Establece la duración mínima de cada iteración. Por defecto son 10 ms.
+     *
+     * @param nanos duración mínima en nanosegundos.
+     * @return este Benchmark.
+     */
+    public Benchmark minIterationTime(long nanos) {
+        this.minIterationNanos = nanos;
+        return this;
+    }
+
+    /**
+     * Indica si se miden los bytes reservados por cada ejecución. Por defecto
+     * no se miden.
+     *
+     * @param enabled true para medir las reservas de memoria.
+     * @return este Benchmark.
+     */
+    public Benchmark allocations(boolean enabled) {
+        this.trackAllocations = enabled;
+        return this;
+    }
+
+    /**
+     * Agrega una operación a medir.
+     *
+     * @param name      nombre de la operación en los resultados.
+     * @param rows      cantidad de filas que procesa cada ejecución, para
+     *                  calcular las filas por segundo.
+     * @param operation operación a medir.
+     * @return este Benchmark.
+     */
+    public Benchmark add(String name, int rows, Operation operation) {
+        this.operations.put(name, operation);
+        this.rows.put(name, rows);
+        return this;
+    }
+
+    /**
+     * Mide todas las operaciones, en el orden en que se agregaron.
+     *
+     * @return un DataFrame con una fila por operación y las columnas
+     *         benchmark, rows, iterations, batch, mean_ns, median_ns, min_ns,
+     *         max_ns, stddev_ns, rows_per_s y alloc_bytes (bytes reservados
+     *         por ejecución, nulo si no se miden o la JVM no lo permite).
+     * @throws Exception si alguna operación falla.
+     */
+    public DataFrame run() throws Exception {
+        int count = operations.size();
+        StringStorage names = new StringStorage(count);
+        IntStorage rowCounts = new IntStorage(count);
+        IntStorage iterationCounts = new IntStorage(count);
+        IntStorage batches = new IntStorage(count);
+        LongStorage means = new LongStorage(count);
+        LongStorage medians = new LongStorage(count);
+        LongStorage minimums = new LongStorage(count);
+        LongStorage maximums = new LongStorage(count);
+        DoubleStorage deviations = new DoubleStorage(count);
+        DoubleStorage throughputs = new DoubleStorage(count);
+        LongStorage allocations = new LongStorage(count);
+        boolean allocationsSupported = trackAllocations && AllocationTracker.isSupported();
+
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            Operation operation = entry.getValue();
+            int batch = warmup(operation);
+            long[] samples = new long[measurementIterations];
+            long allocatedBefore = AllocationTracker.currentThreadAllocatedBytes();
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = iteration(operation, batch) / batch;
+            }
+            long allocated = AllocationTracker.currentThreadAllocatedBytes() - allocatedBefore;
+            Arrays.sort(samples);
+            double mean = 0;
+            for (long sample : samples) {
+                mean += sample;
+            }
+            mean /= samples.length;
+            double variance = 0;
+            for (long sample : samples) {
+                variance += (sample - mean) * (sample - mean);
+            }
+            int rowCount = rows.get(entry.getKey());
+
+            names.add(entry.getKey());
+            rowCounts.addInt(rowCount);
+            iterationCounts.addInt(samples.length);
+            batches.addInt(batch);
+            means.addLong(Math.round(mean));
+            medians.addLong(samples[samples.length / 2]);
+            minimums.addLong(samples[0]);
+            maximums.addLong(samples[samples.length - 1]);
+            deviations.addDouble(Math.sqrt(variance / samples.length));
+            throughputs.addDouble(mean > 0 ? rowCount * 1e9 / mean : 0);
+            if (allocationsSupported) {
+                allocations.addLong(allocated / ((long) samples.length * batch));
+            } else {
+                allocations.addNull();
+            }
+        }
+
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("benchmark", names));
+        columns.add(new Column<>("rows", rowCounts));
+        columns.add(new Column<>("iterations", iterationCounts));
+        columns.add(new Column<>("batch", batches));
+        columns.add(new Column<>("mean_ns", means));
+        columns.add(new Column<>("median_ns", medians));
+        columns.add(new Column<>("min_ns", minimums));
+        columns.add(new Column<>("max_ns", maximums));
+        columns.add(new Column<>("stddev_ns", deviations));
+        columns.add(new Column<>("rows_per_s", throughputs));
+        columns.add(new Column<>("alloc_bytes", allocations));
+        return new DataFrame(columns);
+    }
+
+    /**
+     * Ejecuta las iteraciones de calentamiento y calcula cuántas veces hay que
+     * repetir la operación para que cada iteración dure al menos la duración
+     * mínima.
+     */
+    private int warmup(Operation operation) throws Exception {
+        int batch = 1;
+        for (int i = 0; i < warmupIterations || i == 0; i++) {
+            long elapsed = iteration(operation, batch);
+            if (elapsed < minIterationNanos) {
+                long perRun = Math.max(elapsed / batch, 1);
+                batch = (int) Math.min(Integer.MAX_VALUE, (minIterationNanos + perRun - 1) / perRun);
+            }
+        }
+        return batch;
+    }
+
+    private long iteration(Operation operation, int batch) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < batch; i++) {
+            sink = operation.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
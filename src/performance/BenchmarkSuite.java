@@ -0,0 +1,110 @@
+package performance;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import libraries.DataExporter;
+import libraries.DataImporter;
+import libraries.RowFilter;
+import structures.Aggregation;
+import structures.DataFrame;
+
+/**
+ * Mide las operaciones principales de la biblioteca sobre un DataFrame
+ * sintético (ver FrameGenerator): lectura y exportación CSV y JSON, filtros,
+ * ordenamiento, agrupación con agregaciones, concatenación, copia, head,
+ * tail, show y toString.
+ *
+ * Uso: BenchmarkSuite [filas] [archivo.json]. La memoria que ocupa el
+ * DataFrame y los resultados, con los bytes reservados por cada operación, se
+ * muestran en la consola y, si se indica un archivo, los resultados se
+ * exportan a JSON para comparar versiones.
+ */
+public class BenchmarkSuite {
+
+    /**
+     * @param args cantidad de filas (por defecto 200.000) y ruta opcional del
+     *             archivo JSON con los resultados.
+     * @throws Exception si alguna operación falla.
+     */
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        FrameGenerator generator = new FrameGenerator().rows(rows).nullRatio(0.01);
+        System.out.println(generator.generate().memoryUsage());
+        DataFrame results = run(generator, new Benchmark().allocations(true));
+        System.out.println(results);
+        if (args.length > 1) {
+            results.exportToJSON(args[1]);
+        }
+    }
+
+    /**
+     * Mide todas las operaciones sobre el DataFrame generado. Las columnas
+     * deben ser las del generador por defecto: int, long, double, String y
+     * boolean.
+     *
+     * @param generator generador del DataFrame.
+     * @param benchmark Benchmark con la configuración de las iteraciones.
+     * @return los resultados de Benchmark.run.
+     * @throws Exception si alguna operación falla.
+     */
+    public static DataFrame run(FrameGenerator generator, Benchmark benchmark) throws Exception {
+        DataFrame df = generator.generate();
+        int rows = df.countRows();
+        File directory = Files.createTempDirectory("benchmark").toFile();
+        File csv = new File(directory, "frame.csv");
+        File json = new File(directory, "frame.json");
+        df.exportToCSV(csv.getPath());
+        df.exportToJSON(json.getPath());
+        DataExporter exporter = new DataExporter(df);
+        DataFrame sample = df.head(Math.min(rows, 1000));
+        Map<Object, List<Aggregation>> aggregations = new LinkedHashMap<>();
+        aggregations.put("c0", Arrays.asList(Aggregation.SUM, Aggregation.MEAN));
+        aggregations.put("c2", Arrays.asList(Aggregation.MIN, Aggregation.MAX, Aggregation.STD));
+        PrintStream console = System.out;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+
+        benchmark
+                .add("readCSV", rows, () -> DataImporter.readCSV(csv.getPath()))
+                .add("readJSON", rows, () -> DataImporter.readJSON(json.getPath()))
+                .add("toCSV", rows, () -> {
+                    exporter.toCSV(OutputStream.nullOutputStream());
+                    return exporter;
+                })
+                .add("toJSON", rows, () -> {
+                    exporter.toJSON(OutputStream.nullOutputStream());
+                    return exporter;
+                })
+                .add("filter", rows, () -> df.filter(RowFilter.between("c0", 0, 99)
+                        .and(RowFilter.strings("c3", value -> value.endsWith("7")))))
+                .add("sortBy", rows, () -> df.sortBy(Arrays.asList("c3", "c2"), false))
+                .add("groupBy", rows, () -> df.groupBy(Arrays.asList("c3")).agg(aggregations))
+                .add("concat", rows * 2, () -> df.concat(df))
+                .add("copy", rows, () -> df.copy())
+                .add("head", 10, () -> df.head(10))
+                .add("tail", 10, () -> df.tail(10))
+                .add("show", 5, () -> {
+                    System.setOut(discard);
+                    try {
+                        df.show();
+                    } finally {
+                        System.setOut(console);
+                    }
+                    return df;
+                })
+                .add("toString", sample.countRows(), () -> sample.toString());
+        try {
+            return benchmark.run();
+        } finally {
+            csv.delete();
+            json.delete();
+            directory.delete();
+        }
+    }
+}
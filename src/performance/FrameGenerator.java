@@ -0,0 +1,164 @@
+package performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import exceptions.IndexOutOfBounds;
+import exceptions.InvalidShape;
+import exceptions.TypeDoesNotMatch;
+import structures.BooleanStorage;
+import structures.Column;
+import structures.ColumnStorage;
+import structures.DataFrame;
+import structures.DoubleStorage;
+import structures.IntStorage;
+import structures.LongStorage;
+import structures.StringStorage;
+
+/**
+ * Genera DataFrames sintéticos para medir el rendimiento: cantidad de filas,
+ * tipos de las columnas, cantidad de valores distintos por columna y
+ * proporción de nulos configurables. Con la misma semilla se genera siempre
+ * el mismo DataFrame.
+ *
+ * Las columnas se etiquetan "c0", "c1", etc. Los valores de cada columna se
+ * eligen al azar entre cardinality valores distintos: enteros de 0 a
+ * cardinality - 1, sus cuartos en las columnas de double y cadenas "v0",
+ * "v1", etc.
+ */
+public class FrameGenerator {
+    private int rows = 100_000;
+    private List<Class<?>> types = Arrays.asList(Integer.class, Long.class, Double.class, String.class,
+            Boolean.class);
+    private int cardinality = 1000;
+    private double nullRatio;
+    private long seed = 42;
+
+    /**
+     * Establece la cantidad de filas. Por defecto son 100.000.
+     *
+     * @param rows cantidad de filas.
+     * @return este generador.
+     */
+    public FrameGenerator rows(int rows) {
+        this.rows = rows;
+        return this;
+    }
+
+    /**
+     * Establece el tipo de cada columna: Integer, Long, Double, String o
+     * Boolean. Por defecto hay una columna de cada tipo.
+     *
+     * @param types tipos de las columnas, en orden.
+     * @return este generador.
+     */
+    public FrameGenerator columns(Class<?>... types) {
+        this.types = Arrays.asList(types);
+        return this;
+    }
+
+    /**
+     * Establece la cantidad de valores distintos de cada columna. Por defecto
+     * son 1000.
+     *
+     * @param cardinality cantidad de valores distintos.
+     * @return este generador.
+     */
+    public FrameGenerator cardinality(int cardinality) {
+        this.cardinality = cardinality;
+        return this;
+    }
+
+    /**
+     * Establece la proporción de valores nulos. Por defecto no hay nulos.
+     *
+     * @param nullRatio proporción entre 0 y 1.
+     * @return este generador.
+     */
+    public FrameGenerator nullRatio(double nullRatio) {
+        this.nullRatio = nullRatio;
+        return this;
+    }
+
+    /**
+     * Establece la semilla de los valores aleatorios.
+     *
+     * @param seed semilla.
+     * @return este generador.
+     */
+    public FrameGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Genera el DataFrame.
+     *
+     * @return un nuevo DataFrame con los valores generados.
+     * @throws InvalidShape     si las columnas no tienen la misma cantidad de
+     *                          filas.
+     * @throws TypeDoesNotMatch si algún tipo no está soportado.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public DataFrame generate() throws InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        Random random = new Random(seed);
+        List<Column<?>> columns = new ArrayList<>();
+        for (int c = 0; c < types.size(); c++) {
+            columns.add(new Column<>("c" + c, generate(types.get(c), random)));
+        }
+        return new DataFrame(columns);
+    }
+
+    private ColumnStorage<?> generate(Class<?> type, Random random) throws TypeDoesNotMatch {
+        if (type == Integer.class) {
+            IntStorage storage = new IntStorage(rows);
+            for (int i = 0; i < rows; i++) {
+                if (isNull(random)) {
+                    storage.addNull();
+                } else {
+                    storage.addInt(random.nextInt(cardinality));
+                }
+            }
+            return storage;
+        } else if (type == Long.class) {
+            LongStorage storage = new LongStorage(rows);
+            for (int i = 0; i < rows; i++) {
+                if (isNull(random)) {
+                    storage.addNull();
+                } else {
+                    storage.addLong(random.nextInt(cardinality) * 1_000_000_007L);
+                }
+            }
+            return storage;
+        } else if (type == Double.class) {
+            DoubleStorage storage = new DoubleStorage(rows);
+            for (int i = 0; i < rows; i++) {
+                if (isNull(random)) {
+                    storage.addNull();
+                } else {
+                    storage.addDouble(random.nextInt(cardinality) / 4.0);
+                }
+            }
+            return storage;
+        } else if (type == String.class) {
+            StringStorage storage = new StringStorage(rows);
+            for (int i = 0; i < rows; i++) {
+                storage.add(isNull(random) ? null : "v" + random.nextInt(cardinality));
+            }
+            return storage;
+        } else if (type == Boolean.class) {
+            BooleanStorage storage = new BooleanStorage(rows);
+            for (int i = 0; i < rows; i++) {
+                storage.add(isNull(random) ? null : random.nextBoolean());
+            }
+            return storage;
+        }
+        throw new TypeDoesNotMatch();
+    }
+
+    private boolean isNull(Random random) {
+        return nullRatio > 0 && random.nextDouble() < nullRatio;
+    }
+}
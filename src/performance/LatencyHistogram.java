@@ -0,0 +1,138 @@
+package performance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas logarítmicas, al estilo
+ * de HdrHistogram: cada potencia de dos se divide en 32 cubetas iguales, por
+ * lo que cualquier percentil se obtiene con un error relativo menor al 3,2%
+ * sin guardar las mediciones. Los valores menores a 32 ns se guardan exactos.
+ *
+ * Se puede registrar desde varios hilos a la vez sin bloqueos.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra una medición.
+     *
+     * @param nanos duración en nanosegundos; los valores negativos cuentan
+     *              como 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de mediciones.
+     *
+     * @return la cantidad de mediciones.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Obtiene la suma de todas las mediciones.
+     *
+     * @return la suma en nanosegundos.
+     */
+    public long totalNanos() {
+        return total.sum();
+    }
+
+    /**
+     * Obtiene la medición más larga.
+     *
+     * @return la duración máxima en nanosegundos, o 0 si no hay mediciones.
+     */
+    public long maxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Obtiene el promedio de las mediciones.
+     *
+     * @return el promedio en nanosegundos, o 0 si no hay mediciones.
+     */
+    public double meanNanos() {
+        long n = count();
+        return n == 0 ? 0 : (double) totalNanos() / n;
+    }
+
+    /**
+     * Obtiene un percentil de las mediciones.
+     *
+     * @param percentile percentil entre 0 y 100.
+     * @return el límite superior de la cubeta que contiene el percentil, sin
+     *         superar la medición máxima, o 0 si no hay mediciones.
+     */
+    public long percentile(double percentile) {
+        long n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target) {
+                return Math.min(upperBound(bucket), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    /**
+     * Borra todas las mediciones.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * Calcula la cubeta de un valor: los valores menores a SUB_BUCKETS tienen
+     * una cubeta cada uno y el resto se ubica por su bit más alto y los
+     * SUB_BUCKET_BITS bits siguientes.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Calcula el mayor valor que cae en una cubeta.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
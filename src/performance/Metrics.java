@@ -0,0 +1,253 @@
+package performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import exceptions.IndexOutOfBounds;
+import exceptions.InvalidShape;
+import exceptions.TypeDoesNotMatch;
+import structures.Column;
+import structures.DataFrame;
+import structures.DoubleStorage;
+import structures.LongStorage;
+import structures.StringStorage;
+
+/**
+ * Registro global de métricas de la biblioteca: contadores con nombre y, por
+ * cada operación, un histograma de latencias (ver LatencyHistogram) y la
+ * cantidad de filas y bytes procesados.
+ *
+ * DataImporter, DataExporter, DataManipulator y GroupedDataFrame registran sus
+ * operaciones principales cuando el registro está activado. Mientras está
+ * desactivado (el estado inicial), cada punto de medición se reduce a leer un
+ * campo y comparar un valor, sin llamar al reloj ni crear objetos.
+ *
+ * Uso en un punto de medición:
+ *
+ * <pre>
+ * long start = Metrics.start();
+ * ...
+ * Metrics.record("sortBy", start, rows, 0);
+ * </pre>
+ */
+public final class Metrics {
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled;
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    /**
+     * Latencias y volumen procesado por una operación.
+     */
+    private static final class Operation {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Activa el registro de métricas.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Desactiva el registro de métricas. Las métricas registradas se conservan.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Verifica si el registro está activado.
+     *
+     * @return true si se registran métricas.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Borra todas las métricas registradas.
+     */
+    public static void reset() {
+        counters.clear();
+        operations.clear();
+    }
+
+    /**
+     * Suma uno a un contador, si el registro está activado.
+     *
+     * @param name nombre del contador.
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Suma una cantidad a un contador, si el registro está activado.
+     *
+     * @param name  nombre del contador.
+     * @param delta cantidad a sumar.
+     */
+    public static void add(String name, long delta) {
+        if (enabled) {
+            counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * Obtiene el valor de un contador.
+     *
+     * @param name nombre del contador.
+     * @return el valor, o 0 si el contador no existe.
+     */
+    public static long counter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Obtiene el histograma de latencias de una operación.
+     *
+     * @param operation nombre de la operación.
+     * @return el histograma, o null si la operación no se registró.
+     */
+    public static LatencyHistogram histogram(String operation) {
+        Operation metrics = operations.get(operation);
+        return metrics == null ? null : metrics.latency;
+    }
+
+    /**
+     * Marca el comienzo de una operación.
+     *
+     * @return el instante actual en nanosegundos, o un valor que indica a
+     *         record que no registre nada si el registro está desactivado.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Registra el fin de una operación iniciada con start.
+     *
+     * @param operation nombre de la operación.
+     * @param start     valor devuelto por start.
+     * @param rows      filas procesadas.
+     * @param bytes     bytes leídos o escritos, o 0 si no aplica.
+     */
+    public static void record(String operation, long start, long rows, long bytes) {
+        if (start == DISABLED) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        Operation metrics = operations.computeIfAbsent(operation, key -> new Operation());
+        metrics.latency.record(elapsed);
+        metrics.rows.add(rows);
+        metrics.bytes.add(bytes);
+    }
+
+    /**
+     * Crea un DataFrame con el estado actual de las métricas, una fila por
+     * operación o contador, ordenadas por nombre. Las columnas son metric,
+     * count (ejecuciones o valor del contador), total_ns, mean_ns, p50_ns,
+     * p90_ns, p99_ns, max_ns, rows, bytes, rows_per_s y bytes_per_s; en los
+     * contadores solo count tiene valor.
+     *
+     * @return un nuevo DataFrame con las métricas.
+     * @throws InvalidShape     si las columnas no tienen la misma cantidad de
+     *                          filas.
+     * @throws TypeDoesNotMatch si el tipo de datos de una columna no coincide.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public static DataFrame snapshot() throws InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        TreeSet<String> names = new TreeSet<>(operations.keySet());
+        names.addAll(counters.keySet());
+        int size = names.size();
+        StringStorage metric = new StringStorage(size);
+        LongStorage[] longs = new LongStorage[9];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = new LongStorage(size);
+        }
+        DoubleStorage rowsPerSecond = new DoubleStorage(size);
+        DoubleStorage bytesPerSecond = new DoubleStorage(size);
+
+        for (String name : names) {
+            metric.add(name);
+            Operation operation = operations.get(name);
+            if (operation == null) {
+                longs[0].addLong(counter(name));
+                for (int i = 1; i < longs.length; i++) {
+                    longs[i].addNull();
+                }
+                rowsPerSecond.addNull();
+                bytesPerSecond.addNull();
+                continue;
+            }
+            LatencyHistogram latency = operation.latency;
+            long total = latency.totalNanos();
+            long rows = operation.rows.sum();
+            long bytes = operation.bytes.sum();
+            longs[0].addLong(latency.count());
+            longs[1].addLong(total);
+            longs[2].addLong(Math.round(latency.meanNanos()));
+            longs[3].addLong(latency.percentile(50));
+            longs[4].addLong(latency.percentile(90));
+            longs[5].addLong(latency.percentile(99));
+            longs[6].addLong(latency.maxNanos());
+            longs[7].addLong(rows);
+            longs[8].addLong(bytes);
+            rowsPerSecond.addDouble(total > 0 ? rows * 1e9 / total : 0);
+            bytesPerSecond.addDouble(total > 0 ? bytes * 1e9 / total : 0);
+        }
+
+        String[] labels = { "count", "total_ns", "mean_ns", "p50_ns", "p90_ns", "p99_ns", "max_ns", "rows",
+                "bytes" };
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("metric", metric));
+        for (int i = 0; i < labels.length; i++) {
+            columns.add(new Column<>(labels[i], longs[i]));
+        }
+        columns.add(new Column<>("rows_per_s", rowsPerSecond));
+        columns.add(new Column<>("bytes_per_s", bytesPerSecond));
+        return new DataFrame(columns);
+    }
+
+    /**
+     * Crea un informe de texto con el estado actual de las métricas, una línea
+     * por operación o contador, ordenadas por nombre. Las duraciones se
+     * muestran en milisegundos.
+     *
+     * @return el informe.
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        TreeSet<String> names = new TreeSet<>(operations.keySet());
+        names.addAll(counters.keySet());
+        for (String name : names) {
+            Operation operation = operations.get(name);
+            if (operation == null) {
+                sb.append(String.format("%-24s count=%d%n", name, counter(name)));
+                continue;
+            }
+            LatencyHistogram latency = operation.latency;
+            double seconds = latency.totalNanos() / 1e9;
+            sb.append(String.format(
+                    "%-24s count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms rows/s=%.0f bytes/s=%.0f%n",
+                    name, latency.count(), latency.meanNanos() / 1e6, latency.percentile(50) / 1e6,
+                    latency.percentile(90) / 1e6, latency.percentile(99) / 1e6, latency.maxNanos() / 1e6,
+                    seconds > 0 ? operation.rows.sum() / seconds : 0,
+                    seconds > 0 ? operation.bytes.sum() / seconds : 0));
+        }
+        return sb.toString();
+    }
+}
@@ -8,6 +8,22 @@ package performance;
  */
 public class PerformanceTimer {
 
+    /**
+     * Operación a medir que puede lanzar excepciones verificadas.
+     *
+     * @param <T> tipo del resultado.
+     * @param <E> tipo de la excepción que puede lanzar.
+     */
+    public interface Task<T, E extends Exception> {
+        /**
+         * Ejecuta la operación.
+         *
+         * @return el resultado de la operación.
+         * @throws E si la operación falla.
+         */
+        T run() throws E;
+    }
+
     private long startTime;
     private long endTime;
 
@@ -27,6 +43,16 @@ public class PerformanceTimer {
         endTime = System.nanoTime();
     }
 
+    /**
+     * Devuelve el tiempo transcurrido en nanosegundos entre las últimas llamadas a
+     * start y stop, sin truncar.
+     *
+     * @return Tiempo transcurrido en nanosegundos como un valor long.
+     */
+    public long getElapsedTimeNanos() {
+        return endTime - startTime;
+    }
+
     /**
      * Devuelve el tiempo transcurrido en milisegundos entre las últimas llamadas a
      * start y stop.
@@ -63,4 +89,26 @@ public class PerformanceTimer {
         long endTime = System.nanoTime();
         return (endTime - startTime) / 1_000_000;
     }
+
+    /**
+     * Ejecuta una operación que puede lanzar las excepciones de la biblioteca y,
+     * si el registro de métricas está activado, registra su duración en
+     * nanosegundos bajo el nombre indicado (ver Metrics).
+     *
+     * @param <T>       tipo del resultado.
+     * @param <E>       tipo de la excepción que puede lanzar la operación.
+     * @param name      nombre de la operación en Metrics.
+     * @param rows      filas que procesa la operación.
+     * @param operation el código a medir.
+     * @return el resultado de la operación.
+     * @throws E si la operación falla; la duración se registra igual.
+     */
+    public static <T, E extends Exception> T measure(String name, long rows, Task<T, E> operation) throws E {
+        long start = Metrics.start();
+        try {
+            return operation.run();
+        } finally {
+            Metrics.record(name, start, rows, 0);
+        }
+    }
 }
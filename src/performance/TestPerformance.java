@@ -1,5 +1,7 @@
 package performance;
 
+import java.io.File;
+
 import libraries.DataImporter;
 
 public class TestPerformance {
@@ -8,11 +10,17 @@ public class TestPerformance {
      * @throws Exception
      */
     public static void main(String[] args) throws Exception {
-        PerformanceTimer timer = new PerformanceTimer();
-        timer.start();
-        DataImporter.readCSV("data/benchmark/dummy_10000.csv");
-        timer.stop();
+        File csv = File.createTempFile("dummy_10000", ".csv");
+        try {
+            new FrameGenerator().rows(10000).generate().exportToCSV(csv.getPath());
+            long nanos = new Benchmark()
+                    .add("readCSV", 10000, () -> DataImporter.readCSV(csv.getPath()))
+                    .run()
+                    .getColumn("mean_ns").getReadOnlyStorage().getLong(0);
 
-        System.out.println("Tiempo de carga de archivo CSV: " + timer.getElapsedTimeMillis() + " ms");
+            System.out.println("Tiempo de carga de archivo CSV: " + nanos / 1e6 + " ms");
+        } finally {
+            csv.delete();
+        }
     }
 }
@@ -0,0 +1,179 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Acumula los valores de una columna por grupo para calcular varias
+ * agregaciones en una sola pasada. Cada estadística se guarda en un arreglo
+ * indexado por número de grupo, y solo se crean los arreglos que necesitan las
+ * agregaciones pedidas.
+ *
+ * La varianza se calcula con el método de Welford (media y suma de cuadrados
+ * de las desviaciones, actualizadas con cada valor), que no necesita una
+ * segunda pasada ni guardar los valores. Dos acumuladores de los mismos grupos
+ * se pueden combinar con la fórmula de Chan.
+ */
+class Accumulator {
+    private final long[] counts;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+    private final double[] means;
+    private final double[] squares;
+
+    /**
+     * Crea un acumulador vacío.
+     *
+     * @param groups       cantidad de grupos.
+     * @param aggregations agregaciones que se van a calcular.
+     */
+    Accumulator(int groups, Set<Aggregation> aggregations) {
+        counts = new long[groups];
+        sums = aggregations.contains(Aggregation.SUM) || aggregations.contains(Aggregation.MEAN)
+                ? new double[groups]
+                : null;
+        mins = aggregations.contains(Aggregation.MIN) ? filled(groups, Double.POSITIVE_INFINITY) : null;
+        maxs = aggregations.contains(Aggregation.MAX) ? filled(groups, Double.NEGATIVE_INFINITY) : null;
+        boolean variance = aggregations.contains(Aggregation.STD) || aggregations.contains(Aggregation.VAR);
+        means = variance ? new double[groups] : null;
+        squares = variance ? new double[groups] : null;
+    }
+
+    private static double[] filled(int groups, double value) {
+        double[] values = new double[groups];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    /**
+     * Indica si las agregaciones necesitan el valor numérico, o si alcanza con
+     * contar.
+     *
+     * @param aggregations agregaciones a calcular.
+     * @return true si hay que leer los valores.
+     */
+    static boolean needsValues(Set<Aggregation> aggregations) {
+        for (Aggregation aggregation : aggregations) {
+            if (aggregation != Aggregation.COUNT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cuenta un valor no nulo sin leerlo. Se usa cuando no se necesitan los
+     * valores (ver needsValues).
+     *
+     * @param group número del grupo.
+     */
+    void count(int group) {
+        counts[group]++;
+    }
+
+    /**
+     * Agrega un valor no nulo a un grupo.
+     *
+     * @param group número del grupo.
+     * @param value valor a agregar.
+     */
+    void add(int group, double value) {
+        long count = ++counts[group];
+        if (sums != null) {
+            sums[group] += value;
+        }
+        if (mins != null) {
+            mins[group] = Math.min(mins[group], value);
+        }
+        if (maxs != null) {
+            maxs[group] = Math.max(maxs[group], value);
+        }
+        if (means != null) {
+            double delta = value - means[group];
+            means[group] += delta / count;
+            squares[group] += delta * (value - means[group]);
+        }
+    }
+
+    /**
+     * Combina en este acumulador los valores de otro con los mismos grupos y
+     * agregaciones.
+     *
+     * @param other acumulador a combinar.
+     */
+    void merge(Accumulator other) {
+        merge(other, 0, counts.length);
+    }
+
+    /**
+     * Combina en este acumulador los valores de un rango de grupos de otro
+     * acumulador con los mismos grupos y agregaciones. Rangos distintos se
+     * pueden combinar desde hilos distintos.
+     *
+     * @param other acumulador a combinar.
+     * @param from  primer grupo del rango (inclusivo).
+     * @param to    último grupo del rango (exclusivo).
+     */
+    void merge(Accumulator other, int from, int to) {
+        for (int group = from; group < to; group++) {
+            long count = counts[group];
+            long otherCount = other.counts[group];
+            if (otherCount == 0) {
+                continue;
+            }
+            long total = count + otherCount;
+            if (sums != null) {
+                sums[group] += other.sums[group];
+            }
+            if (mins != null) {
+                mins[group] = Math.min(mins[group], other.mins[group]);
+            }
+            if (maxs != null) {
+                maxs[group] = Math.max(maxs[group], other.maxs[group]);
+            }
+            if (means != null) {
+                double delta = other.means[group] - means[group];
+                means[group] += delta * otherCount / total;
+                squares[group] += other.squares[group] + delta * delta * count * otherCount / total;
+            }
+            counts[group] = total;
+        }
+    }
+
+    /**
+     * Obtiene el resultado de una agregación para un grupo.
+     *
+     * @param aggregation agregación a calcular; debe estar entre las pedidas al
+     *                    crear el acumulador.
+     * @param group       número del grupo.
+     * @return el resultado, o null si el grupo no tiene valores y la
+     *         agregación no está definida en ese caso.
+     */
+    Double result(Aggregation aggregation, int group) {
+        long count = counts[group];
+        switch (aggregation) {
+            case SUM:
+                return sums[group];
+            case COUNT:
+                return (double) count;
+            default:
+                break;
+        }
+        if (count == 0) {
+            return null;
+        }
+        switch (aggregation) {
+            case MEAN:
+                return sums[group] / count;
+            case MIN:
+                return mins[group];
+            case MAX:
+                return maxs[group];
+            case VAR:
+                return squares[group] / count;
+            default:
+                return Math.sqrt(squares[group] / count);
+        }
+    }
+}
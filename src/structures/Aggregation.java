@@ -0,0 +1,32 @@
+package structures;
+
+/**
+ * Agregaciones que se pueden calcular sobre una columna en cada grupo de un
+ * GroupedDataFrame. Todas ignoran los valores nulos.
+ */
+public enum Aggregation {
+    /** Suma de los valores, 0 si el grupo no tiene valores. */
+    SUM,
+    /** Promedio de los valores. */
+    MEAN,
+    /** Valor mínimo. */
+    MIN,
+    /** Valor máximo. */
+    MAX,
+    /** Cantidad de valores no nulos. */
+    COUNT,
+    /** Desviación estándar poblacional. */
+    STD,
+    /** Varianza poblacional. */
+    VAR;
+
+    /**
+     * Obtiene el nombre de la agregación, que se usa como sufijo de la
+     * etiqueta de la columna en el resultado de GroupedDataFrame.agg.
+     *
+     * @return el nombre en minúsculas.
+     */
+    public String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,133 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Almacenamiento de valores Boolean como mapa de bits.
+ */
+public class BooleanStorage extends ColumnStorage<Boolean> {
+    private long[] bits;
+
+    /**
+     * Crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacity capacidad inicial.
+     */
+    public BooleanStorage(int capacity) {
+        this.bits = new long[Math.max((capacity + 63) >>> 6, 1)];
+    }
+
+    /**
+     * Crea un almacenamiento a partir de un mapa de bits, sin copiarlo. El bit
+     * i de la palabra i / 64 es el valor de la posición i.
+     *
+     * @param bits mapa de bits; pasa a pertenecer al almacenamiento.
+     * @param size cantidad de valores.
+     */
+    public BooleanStorage(long[] bits, int size) {
+        this.bits = bits.length == 0 ? new long[1] : bits;
+        this.size = size;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.BOOLEAN;
+    }
+
+    @Override
+    public Class<?> getValueType() {
+        return Boolean.class;
+    }
+
+    @Override
+    public Boolean get(int index) {
+        return isNull(index) ? null : getBoolean(index);
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void set(int index, Boolean value) {
+        setBit(index, value != null && value);
+        setNull(index, value == null);
+    }
+
+    @Override
+    public void add(Boolean value) {
+        if (value == null) {
+            addNull();
+        } else {
+            addBoolean(value);
+        }
+    }
+
+    /**
+     * Agrega un valor primitivo al final del almacenamiento.
+     *
+     * @param value valor a agregar.
+     */
+    public void addBoolean(boolean value) {
+        ensureCapacity();
+        setBit(size++, value);
+    }
+
+    @Override
+    public void addNull() {
+        ensureCapacity();
+        setNull(size, true);
+        setBit(size++, false);
+    }
+
+    @Override
+    protected long valuesMemoryUsage(boolean deep) {
+        return MemoryEstimator.array(bits.length, 8);
+    }
+
+    @Override
+    public BooleanStorage copy() {
+        BooleanStorage copy = new BooleanStorage(0);
+        copy.bits = bits.clone();
+        copy.size = size;
+        copy.copyNullsFrom(this);
+        return copy;
+    }
+
+    @Override
+    public BooleanStorage slice(int start, int end) {
+        BooleanStorage slice = new BooleanStorage(end - start);
+        for (int i = start; i < end; i++) {
+            slice.setBit(slice.size++, getBoolean(i));
+        }
+        slice.copyNullsFrom(this, start, end);
+        return slice;
+    }
+
+    @Override
+    protected void appendRange(ColumnStorage<Boolean> other, int start, int end) {
+        BooleanStorage source = (BooleanStorage) other;
+        for (int i = start; i < end; i++) {
+            if (source.isNull(i)) {
+                addNull();
+            } else {
+                addBoolean(source.getBoolean(i));
+            }
+        }
+    }
+
+    private void setBit(int index, boolean value) {
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private void ensureCapacity() {
+        if ((size >>> 6) == bits.length) {
+            bits = Arrays.copyOf(bits, grow(bits.length));
+        }
+    }
+}
@@ -31,6 +31,7 @@ public class Cell<T> implements Comparable<Cell<T>>, CopyableStructure<Cell<T>>
      * @return true si la celda está vacía, false en caso contrario.
      */
     public boolean isEmpty() {
+        T value = getValue();
         if (value instanceof String) {
             return value.equals("");
         }
@@ -52,7 +53,7 @@ public class Cell<T> implements Comparable<Cell<T>>, CopyableStructure<Cell<T>>
      * @return la clase del valor almacenado en la celda.
      */
     public Class<?> getType() {
-        return value.getClass();
+        return getValue().getClass();
     }
 
     /**
@@ -64,7 +65,7 @@ public class Cell<T> implements Comparable<Cell<T>>, CopyableStructure<Cell<T>>
      *                          actual.
      */
     public void setValue(T value) throws TypeDoesNotMatch {
-        if (value.getClass() != this.value.getClass()) {
+        if (value.getClass() != getValue().getClass()) {
             throw new TypeDoesNotMatch();
         }
         this.value = value;
@@ -77,7 +78,7 @@ public class Cell<T> implements Comparable<Cell<T>>, CopyableStructure<Cell<T>>
      */
     @Override
     public Cell<T> copy() {
-        return new Cell<>(value);
+        return new Cell<>(getValue());
     }
 
     /**
@@ -89,7 +90,7 @@ public class Cell<T> implements Comparable<Cell<T>>, CopyableStructure<Cell<T>>
      */
     @Override
     public String toString() {
-        return isEmpty() ? "" : value.toString();
+        return isEmpty() ? "" : getValue().toString();
     }
 
     /**
@@ -112,8 +113,8 @@ public class Cell<T> implements Comparable<Cell<T>>, CopyableStructure<Cell<T>>
             return -1;
         } else if (o.isEmpty()) {
             return 1;
-        } else if (value instanceof Comparable) {
-            return ((Comparable) value).compareTo(o.value);
+        } else if (getValue() instanceof Comparable) {
+            return ((Comparable) getValue()).compareTo(o.getValue());
         } else {
             throw new UnsupportedOperationException("Imposible to compare values of this type");
         }
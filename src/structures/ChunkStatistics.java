@@ -0,0 +1,227 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Estadísticas de una columna numérica por bloques de CHUNK_ROWS filas
+ * consecutivas: cantidad de nulos y valores mínimo y máximo de cada bloque.
+ * Permiten que los filtros descarten o acepten un bloque entero sin recorrer
+ * sus valores.
+ *
+ * Las estadísticas de cada bloque se calculan la primera vez que se solicitan
+ * y se conservan hasta que cambia alguno de sus valores; agregar filas al
+ * final solo obliga a recalcular el último bloque.
+ */
+public final class ChunkStatistics {
+    /** Cantidad de filas de cada bloque. */
+    public static final int CHUNK_ROWS = 1 << 16;
+    static final int CHUNK_SHIFT = 16;
+
+    private final boolean doubles;
+    private int chunks;
+    private int[] rows = new int[0];
+    private int[] nullCounts = new int[0];
+    private int[] nanCounts = new int[0];
+    private long[] minimums = new long[0];
+    private long[] maximums = new long[0];
+
+    /**
+     * @param doubles true si los valores son double; si no, son enteros y los
+     *                extremos se guardan como long exactos.
+     */
+    ChunkStatistics(boolean doubles) {
+        this.doubles = doubles;
+    }
+
+    /**
+     * Obtiene la cantidad de bloques.
+     *
+     * @return la cantidad de bloques.
+     */
+    public int chunks() {
+        return chunks;
+    }
+
+    /**
+     * Obtiene la cantidad de valores nulos de un bloque.
+     *
+     * @param chunk número de bloque.
+     * @return la cantidad de nulos.
+     */
+    public int nullCount(int chunk) {
+        return nullCounts[chunk];
+    }
+
+    /**
+     * Obtiene la cantidad de valores NaN de un bloque, que no cuentan para el
+     * mínimo ni el máximo.
+     *
+     * @param chunk número de bloque.
+     * @return la cantidad de NaN; siempre 0 en las columnas de enteros.
+     */
+    public int nanCount(int chunk) {
+        return nanCounts[chunk];
+    }
+
+    /**
+     * Verifica si un bloque no tiene ningún valor comparable, es decir, si
+     * todos sus valores son nulos (o NaN, en las columnas de double).
+     *
+     * @param chunk número de bloque.
+     * @return true si el bloque no tiene mínimo ni máximo.
+     */
+    public boolean isEmpty(int chunk) {
+        return doubles ? !(min(chunk) <= max(chunk)) : minimums[chunk] > maximums[chunk];
+    }
+
+    /**
+     * Obtiene el valor mínimo de un bloque de enteros.
+     *
+     * @param chunk número de bloque.
+     * @return el mínimo exacto, o Long.MAX_VALUE si el bloque no tiene valores.
+     */
+    public long minLong(int chunk) {
+        return minimums[chunk];
+    }
+
+    /**
+     * Obtiene el valor máximo de un bloque de enteros.
+     *
+     * @param chunk número de bloque.
+     * @return el máximo exacto, o Long.MIN_VALUE si el bloque no tiene valores.
+     */
+    public long maxLong(int chunk) {
+        return maximums[chunk];
+    }
+
+    /**
+     * Obtiene el valor mínimo de un bloque como double.
+     *
+     * @param chunk número de bloque.
+     * @return el mínimo, o infinito positivo si el bloque no tiene valores.
+     */
+    public double min(int chunk) {
+        if (doubles) {
+            return Double.longBitsToDouble(minimums[chunk]);
+        }
+        return minimums[chunk] > maximums[chunk] ? Double.POSITIVE_INFINITY : minimums[chunk];
+    }
+
+    /**
+     * Obtiene el valor máximo de un bloque como double.
+     *
+     * @param chunk número de bloque.
+     * @return el máximo, o infinito negativo si el bloque no tiene valores.
+     */
+    public double max(int chunk) {
+        if (doubles) {
+            return Double.longBitsToDouble(maximums[chunk]);
+        }
+        return minimums[chunk] > maximums[chunk] ? Double.NEGATIVE_INFINITY : maximums[chunk];
+    }
+
+    /**
+     * Estima la memoria que ocupan las estadísticas (ver MemoryEstimator).
+     *
+     * @return la cantidad estimada de bytes.
+     */
+    long memoryUsage() {
+        return MemoryEstimator.object(4 + 1 + 5 * MemoryEstimator.REFERENCE)
+                + 3 * MemoryEstimator.array(rows.length, 4)
+                + 2 * MemoryEstimator.array(minimums.length, 8);
+    }
+
+    /**
+     * Marca un bloque para que se recalcule la próxima vez.
+     *
+     * @param chunk número de bloque.
+     */
+    void invalidate(int chunk) {
+        if (chunk < rows.length) {
+            rows[chunk] = -1;
+        }
+    }
+
+    /**
+     * Calcula los bloques nuevos y los que cambiaron desde la última vez.
+     *
+     * @param storage almacenamiento numérico al que pertenecen las
+     *                estadísticas.
+     */
+    void update(ColumnStorage<?> storage) {
+        int size = storage.size();
+        chunks = (size + CHUNK_ROWS - 1) >>> CHUNK_SHIFT;
+        if (chunks > rows.length) {
+            int capacity = Math.max(chunks, rows.length * 2);
+            int previous = rows.length;
+            rows = Arrays.copyOf(rows, capacity);
+            Arrays.fill(rows, previous, capacity, -1);
+            nullCounts = Arrays.copyOf(nullCounts, capacity);
+            nanCounts = Arrays.copyOf(nanCounts, capacity);
+            minimums = Arrays.copyOf(minimums, capacity);
+            maximums = Arrays.copyOf(maximums, capacity);
+        }
+        boolean nulls = storage.hasNulls();
+        ChunkedStorage<?> chunked = storage instanceof ChunkedStorage ? (ChunkedStorage<?>) storage : null;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = chunk << CHUNK_SHIFT;
+            int to = Math.min(from + CHUNK_ROWS, size);
+            if (rows[chunk] != to - from) {
+                // Los bloques de un ChunkedStorage coinciden con estos y se
+                // recorren directamente
+                if (chunked != null) {
+                    compute(chunked.chunk(chunk), nulls, chunk, 0, to - from);
+                } else {
+                    compute(storage, nulls, chunk, from, to);
+                }
+                rows[chunk] = to - from;
+            }
+        }
+    }
+
+    private void compute(ColumnStorage<?> storage, boolean nulls, int chunk, int from, int to) {
+        int nullCount = 0;
+        int nanCount = 0;
+        if (doubles) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                if (nulls && storage.isNull(i)) {
+                    nullCount++;
+                    continue;
+                }
+                double value = storage.getDouble(i);
+                if (value != value) {
+                    nanCount++;
+                } else if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+            }
+            minimums[chunk] = Double.doubleToLongBits(min);
+            maximums[chunk] = Double.doubleToLongBits(max);
+        } else {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                if (nulls && storage.isNull(i)) {
+                    nullCount++;
+                    continue;
+                }
+                long value = storage.getLong(i);
+                if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+            }
+            minimums[chunk] = min;
+            maximums[chunk] = max;
+        }
+        nullCounts[chunk] = nullCount;
+        nanCounts[chunk] = nanCount;
+    }
+}
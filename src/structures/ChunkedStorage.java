@@ -0,0 +1,451 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Almacenamiento de una columna en bloques de CHUNK_ROWS valores, cada uno un
+ * almacenamiento contiguo del mismo tipo. Agregar valores cuesta O(1)
+ * amortizado y no copia los anteriores: cuando el último bloque se llena se
+ * crea otro, en lugar de reubicar un arreglo cada vez más grande.
+ *
+ * Todos los bloques salvo el último están llenos, así que la posición i está en
+ * el bloque i / CHUNK_ROWS. Los bloques coinciden con los de ChunkStatistics,
+ * cuyas estadísticas se calculan sobre cada bloque contiguo. Los bloques de
+ * cadenas comparten un mismo diccionario, de modo que los códigos valen para
+ * todo el almacenamiento.
+ *
+ * Al congelarse se congelan también los bloques, y la copia modificable (ver
+ * writableCopy) los comparte: escribir copia solo el bloque que cambia, y el
+ * diccionario solo si se agrega un valor nuevo. Así las versiones de una
+ * columna congelada (ver ConcurrentDataFrame) cuestan O(CHUNK_ROWS) por
+ * escritura en lugar de O(filas).
+ *
+ * Las columnas pasan a este almacenamiento cuando superan un bloque (ver
+ * Column.addValue y Column.appendAll); las más chicas siguen en uno contiguo,
+ * que se lee sin pasar por el bloque.
+ *
+ * @param <T> Tipo de dato de los valores almacenados.
+ */
+public final class ChunkedStorage<T> extends ColumnStorage<T> {
+    /** Cantidad de valores de cada bloque. */
+    public static final int CHUNK_ROWS = ChunkStatistics.CHUNK_ROWS;
+    private static final int CHUNK_SHIFT = ChunkStatistics.CHUNK_SHIFT;
+    private static final int MASK = CHUNK_ROWS - 1;
+
+    private ColumnStorage<T>[] chunks;
+    private int count;
+    private StringStorage dictionary;
+    private boolean dictionaryShared;
+
+    /**
+     * @param chunks     bloques, todos llenos salvo el último.
+     * @param count      cantidad de bloques en uso.
+     * @param size       cantidad de valores.
+     * @param dictionary en los bloques de cadenas, almacenamiento vacío con el
+     *                   diccionario que comparten; null en el resto.
+     */
+    private ChunkedStorage(ColumnStorage<T>[] chunks, int count, int size, StringStorage dictionary) {
+        this.chunks = chunks;
+        this.count = count;
+        this.size = size;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Pasa un almacenamiento contiguo a bloques. Si no supera un bloque, pasa a
+     * ser el primero sin copiarse; si no, sus valores se copian una vez a
+     * bloques nuevos.
+     *
+     * @param <T>     tipo de los valores.
+     * @param storage almacenamiento contiguo (no una vista), que ya no debe
+     *                usarse por separado.
+     * @return el almacenamiento en bloques; el mismo si ya lo era.
+     */
+    public static <T> ChunkedStorage<T> of(ColumnStorage<T> storage) {
+        if (storage instanceof ChunkedStorage) {
+            return (ChunkedStorage<T>) storage;
+        }
+        ColumnStorage<T> first = storage.size() <= CHUNK_ROWS ? storage : storage.slice(0, CHUNK_ROWS);
+        ColumnStorage<T>[] chunks = newChunks(4);
+        chunks[0] = first;
+        StringStorage dictionary = first instanceof StringStorage ? new StringStorage((StringStorage) first, 0) : null;
+        ChunkedStorage<T> chunked = new ChunkedStorage<>(chunks, 1, first.size(), dictionary);
+        chunked.appendRange(storage, first.size(), storage.size());
+        return chunked;
+    }
+
+    /**
+     * Obtiene el almacenamiento con menos indirecciones que guarda los mismos
+     * valores.
+     *
+     * @return el único bloque si hay uno solo, o este almacenamiento.
+     */
+    public ColumnStorage<T> unwrap() {
+        return count == 1 ? chunks[0] : this;
+    }
+
+    /**
+     * Obtiene la cantidad de bloques.
+     *
+     * @return la cantidad de bloques.
+     */
+    public int chunks() {
+        return count;
+    }
+
+    /**
+     * Obtiene un bloque, que no debe modificarse por separado.
+     *
+     * @param index número de bloque.
+     * @return el almacenamiento contiguo del bloque.
+     */
+    ColumnStorage<T> chunk(int index) {
+        return chunks[index];
+    }
+
+    @Override
+    public Kind getKind() {
+        return chunks[0].getKind();
+    }
+
+    @Override
+    public Class<?> getValueType() {
+        return chunks[0].getValueType();
+    }
+
+    @Override
+    public T get(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & MASK);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getInt(index & MASK);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getLong(index & MASK);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble(index & MASK);
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getBoolean(index & MASK);
+    }
+
+    @Override
+    public int getCode(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getCode(index & MASK);
+    }
+
+    @Override
+    public String decode(int code) {
+        return dictionary != null ? dictionary.decode(code) : super.decode(code);
+    }
+
+    @Override
+    public int dictionarySize() {
+        return dictionary != null ? dictionary.dictionarySize() : super.dictionarySize();
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return chunks[index >>> CHUNK_SHIFT].isNull(index & MASK);
+    }
+
+    @Override
+    public boolean hasNulls() {
+        for (int i = 0; i < count; i++) {
+            if (chunks[i].hasNulls()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void set(int index, T value) {
+        prepareDictionary(value);
+        writable(index >>> CHUNK_SHIFT).set(index & MASK, value);
+        changed(index);
+    }
+
+    @Override
+    public void add(T value) {
+        prepareDictionary(value);
+        tail().add(value);
+        size++;
+    }
+
+    @Override
+    public void addNull() {
+        tail().addNull();
+        size++;
+    }
+
+    /**
+     * Agrega un valor primitivo al final. Solo válido para bloques de int.
+     *
+     * @param value valor a agregar.
+     */
+    public void addInt(int value) {
+        ((IntStorage) tail()).addInt(value);
+        size++;
+    }
+
+    /**
+     * Agrega un valor primitivo al final. Solo válido para bloques de long.
+     *
+     * @param value valor a agregar.
+     */
+    public void addLong(long value) {
+        ((LongStorage) tail()).addLong(value);
+        size++;
+    }
+
+    /**
+     * Agrega un valor primitivo al final. Solo válido para bloques de double.
+     *
+     * @param value valor a agregar.
+     */
+    public void addDouble(double value) {
+        ((DoubleStorage) tail()).addDouble(value);
+        size++;
+    }
+
+    /**
+     * Agrega un valor primitivo al final. Solo válido para bloques booleanos.
+     *
+     * @param value valor a agregar.
+     */
+    public void addBoolean(boolean value) {
+        ((BooleanStorage) tail()).addBoolean(value);
+        size++;
+    }
+
+    /**
+     * Agrega un valor a partir de su código de diccionario. Solo válido para
+     * bloques de cadenas.
+     *
+     * @param code código de un valor ya presente en el diccionario.
+     */
+    public void addCode(int code) {
+        ((StringStorage) tail()).addCode(code);
+        size++;
+    }
+
+    @Override
+    protected void appendRange(ColumnStorage<T> other, int start, int end) {
+        if (other instanceof ChunkedStorage) {
+            ((ChunkedStorage<T>) other).appendTo(this, start, end);
+            return;
+        }
+        if (dictionaryShared && start < end) {
+            ownDictionary();
+        }
+        for (int from = start; from < end;) {
+            ColumnStorage<T> last = tail();
+            int length = Math.min(end - from, CHUNK_ROWS - last.size());
+            last.appendRange(other, from, from + length);
+            size += length;
+            from += length;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ChunkedStorage<T> copy() {
+        StringStorage owner = dictionary != null ? dictionary.copyDictionary() : null;
+        ColumnStorage<T>[] copies = newChunks(chunks.length);
+        for (int i = 0; i < count; i++) {
+            copies[i] = owner != null ? (ColumnStorage<T>) ((StringStorage) chunks[i]).copySharing(owner)
+                    : chunks[i].copy();
+        }
+        return new ChunkedStorage<>(copies, count, size, owner);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ColumnStorage<T> slice(int start, int end) {
+        ColumnStorage<T> slice = (ColumnStorage<T>) forType(getValueType(), Math.min(end - start, CHUNK_ROWS));
+        if (end - start > CHUNK_ROWS) {
+            slice = of(slice);
+        }
+        appendTo(slice, start, end);
+        return slice;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ColumnStorage<T> select(int[] indices) {
+        int length = indices.length;
+        ColumnStorage<T> selection;
+        switch (getKind()) {
+            case INT:
+                int[] ints = new int[Math.max(length, 1)];
+                for (int i = 0; i < length; i++) {
+                    ints[i] = getInt(indices[i]);
+                }
+                selection = (ColumnStorage<T>) new IntStorage(ints, length);
+                break;
+            case LONG:
+                long[] longs = new long[Math.max(length, 1)];
+                for (int i = 0; i < length; i++) {
+                    longs[i] = getLong(indices[i]);
+                }
+                selection = (ColumnStorage<T>) new LongStorage(longs, length);
+                break;
+            case DOUBLE:
+                double[] doubles = new double[Math.max(length, 1)];
+                for (int i = 0; i < length; i++) {
+                    doubles[i] = getDouble(indices[i]);
+                }
+                selection = (ColumnStorage<T>) new DoubleStorage(doubles, length);
+                break;
+            case STRING:
+                // Los nulos tienen su propio código
+                int[] codes = new int[Math.max(length, 1)];
+                for (int i = 0; i < length; i++) {
+                    codes[i] = getCode(indices[i]);
+                }
+                return (ColumnStorage<T>) dictionary.withCodes(codes, length);
+            default:
+                return super.select(indices);
+        }
+        if (hasNulls()) {
+            for (int i = 0; i < length; i++) {
+                if (isNull(indices[i])) {
+                    selection.set(i, null);
+                }
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    protected long valuesMemoryUsage(boolean deep) {
+        long bytes = MemoryEstimator.array(chunks.length, MemoryEstimator.REFERENCE);
+        for (int i = 0; i < count; i++) {
+            bytes += chunks[i].memoryUsage(deep);
+        }
+        return dictionary != null ? bytes + dictionary.memoryUsage(deep) : bytes;
+    }
+
+    /**
+     * Congela también los bloques, que desde ahora pueden compartirse con las
+     * copias modificables (ver writableCopy).
+     */
+    @Override
+    void freeze() {
+        super.freeze();
+        for (int i = 0; i < count; i++) {
+            chunks[i].freeze();
+        }
+    }
+
+    /**
+     * Crea un almacenamiento que comparte los bloques congelados de este, en
+     * O(bloques). Al escribir en él se copia el bloque afectado, y el
+     * diccionario si hace falta agregarle un valor.
+     */
+    @Override
+    ChunkedStorage<T> writableCopy() {
+        ChunkedStorage<T> shared = new ChunkedStorage<>(chunks.clone(), count, size, dictionary);
+        shared.dictionaryShared = dictionary != null;
+        return shared;
+    }
+
+    /**
+     * Además de las vistas de este almacenamiento, desprende las de sus
+     * bloques: el primero puede ser un almacenamiento contiguo que ya tenía
+     * vistas antes de pasar a bloques.
+     */
+    @Override
+    void detachViews() {
+        super.detachViews();
+        for (int i = 0; i < count; i++) {
+            chunks[i].detachViews();
+        }
+    }
+
+    /**
+     * Agrega a otro almacenamiento los valores de un rango, de a un bloque por
+     * vez.
+     */
+    private void appendTo(ColumnStorage<T> target, int start, int end) {
+        for (int from = start; from < end;) {
+            int offset = from & MASK;
+            int length = Math.min(end - from, CHUNK_ROWS - offset);
+            target.appendRange(chunks[from >>> CHUNK_SHIFT], offset, offset + length);
+            from += length;
+        }
+    }
+
+    /**
+     * Obtiene el bloque que recibe el próximo valor, creando uno nuevo si el
+     * último está lleno.
+     */
+    @SuppressWarnings("unchecked")
+    private ColumnStorage<T> tail() {
+        if (chunks[count - 1].size() < CHUNK_ROWS) {
+            return writable(count - 1);
+        }
+        if (count == chunks.length) {
+            chunks = Arrays.copyOf(chunks, count * 2);
+        }
+        ColumnStorage<T> last = dictionary != null ? (ColumnStorage<T>) new StringStorage(dictionary, CHUNK_ROWS)
+                : (ColumnStorage<T>) forType(getValueType(), CHUNK_ROWS);
+        chunks[count++] = last;
+        return last;
+    }
+
+    /**
+     * Obtiene un bloque para modificarlo, reemplazándolo por una copia si está
+     * congelado (compartido con otra versión).
+     */
+    @SuppressWarnings("unchecked")
+    private ColumnStorage<T> writable(int index) {
+        ColumnStorage<T> chunk = chunks[index];
+        if (chunk.isFrozen()) {
+            chunk = dictionary != null ? (ColumnStorage<T>) ((StringStorage) chunk).copySharing(dictionary)
+                    : chunk.copy();
+            chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    /**
+     * Antes de escribir un valor, copia el diccionario si está compartido con
+     * otra versión y el valor no está en él.
+     */
+    private void prepareDictionary(T value) {
+        if (dictionaryShared && value != null && !dictionary.contains((String) value)) {
+            ownDictionary();
+        }
+    }
+
+    /**
+     * Reemplaza el diccionario compartido con otras versiones por una copia,
+     * que pasan a usar los bloques propios; los congelados conservan el
+     * anterior, que tiene los mismos códigos para sus valores.
+     */
+    private void ownDictionary() {
+        dictionary = dictionary.copyDictionary();
+        for (int i = 0; i < count; i++) {
+            if (!chunks[i].isFrozen()) {
+                ((StringStorage) chunks[i]).shareDictionary(dictionary);
+            }
+        }
+        dictionaryShared = false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ColumnStorage<T>[] newChunks(int length) {
+        return (ColumnStorage<T>[]) new ColumnStorage<?>[length];
+    }
+}
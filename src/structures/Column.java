@@ -1,5 +1,6 @@
 package structures;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,13 +11,17 @@ import interfaces.CopyableStructure;
 /**
  * La clase Column representa una columna que contiene una lista de celdas
  * (Cell) con un mismo tipo de datos.
+ * Los valores se guardan en un almacenamiento contiguo especializado según su
+ * tipo (ColumnStorage), que al crecer más allá de un bloque pasa a bloques de
+ * tamaño fijo (ChunkedStorage), y las celdas se crean solo cuando se
+ * solicitan; dichas celdas leen y escriben directamente sobre la columna.
  * Además, permite realizar operaciones como agregar, eliminar, y ordenar las
  * celdas.
  *
  * @param <T> Tipo de dato que almacenan las celdas de la columna.
  */
 public class Column<T> implements CopyableStructure<Column<T>> {
-    private List<Cell<T>> cells;
+    private ColumnStorage<T> storage;
     private Object label;
 
     /**
@@ -26,8 +31,11 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      * @param cells Lista de celdas que forman la columna.
      */
     public Column(Object label, List<Cell<T>> cells) {
-        this.cells = cells;
-        this.label = label;
+        this(label, cells.size());
+        for (Cell<T> cell : cells) {
+            prepareFor(cell.getValue());
+            storage.add(cell.getValue());
+        }
     }
 
     /**
@@ -36,21 +44,44 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      * @param label Etiqueta de la columna.
      */
     public Column(Object label) {
-        this.cells = new ArrayList<>();
-        this.label = label;
+        this(label, ColumnStorage.DEFAULT_CAPACITY);
     }
 
+    /**
+     * Constructor que inicializa la columna con una etiqueta, sin celdas, y
+     * reserva espacio para la cantidad de valores indicada.
+     *
+     * @param label    Etiqueta de la columna.
+     * @param capacity Cantidad de valores esperada.
+     */
     @SuppressWarnings("unchecked")
-    public Column(int numberOfRows, Object label, String cellFiller){
-        this.cells = new ArrayList<>();
+    public Column(Object label, int capacity) {
+        this(label, (ColumnStorage<T>) new ObjectStorage(null, capacity));
+    }
+
+    /**
+     * Constructor que inicializa la columna con una etiqueta y un almacenamiento
+     * ya construido.
+     *
+     * @param label   Etiqueta de la columna.
+     * @param storage Almacenamiento con los valores de la columna.
+     */
+    public Column(Object label, ColumnStorage<T> storage) {
+        this.storage = storage;
         this.label = label;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Column(int numberOfRows, Object label, String cellFiller) {
+        this(label, (ColumnStorage<T>) new StringStorage(numberOfRows));
         for (int i = 0; i < numberOfRows; i++) {
-            this.cells.add((Cell<T>) new Cell<>(cellFiller));
+            ((StringStorage) storage).add(cellFiller);
         }
     }
 
     /**
-     * Obtiene la celda en el índice especificado.
+     * Obtiene la celda en el índice especificado. La celda devuelta refleja el
+     * valor almacenado en la columna y sus modificaciones se aplican sobre ella.
      *
      * @param index Índice de la celda.
      * @return La celda en el índice especificado.
@@ -58,7 +89,7 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      */
     public Cell<?> getCell(int index) throws IndexOutOfBounds {
         checkIndexBounds(index);
-        return cells.get(index);
+        return new ColumnCell<>(this, index);
     }
 
     /**
@@ -72,24 +103,74 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      */
     public void setCell(int index, T value) throws IndexOutOfBounds, TypeDoesNotMatch {
         checkIndexBounds(index);
-        Cell<T> cell = (Cell<T>) cells.get(index);
-        typeMatchCheck(value, cell);
-        cell.setValue(value);
+        prepareFor(value);
+        typeMatchCheck(value);
+        own();
+        storage.detachViews();
+        storage.set(index, value);
+    }
+
+    /**
+     * Si la columna es una vista de otra, copia los valores que muestra a un
+     * almacenamiento propio (copia al escribir).
+     */
+    private void detach() {
+        if (storage instanceof StorageView) {
+            storage = ((StorageView<T>) storage).detach();
+        }
+    }
+
+    /**
+     * Prepara el almacenamiento para escribir en él: si es una vista o está
+     * congelado (ver ColumnStorage.freeze), lo reemplaza por una copia propia,
+     * que en un almacenamiento en bloques comparte los bloques sin modificar.
+     */
+    private void own() {
+        detach();
+        if (storage.isFrozen()) {
+            storage = storage.writableCopy();
+        }
+    }
+
+    /**
+     * Congela el almacenamiento de la columna (ver ColumnStorage.freeze). Si la
+     * columna es una vista, primero copia los valores que muestra.
+     */
+    void freeze() {
+        detach();
+        storage.freeze();
     }
 
     /**
-     * Verifica si el tipo de valor proporcionado coincide con el de la celda.
+     * Verifica si el tipo de valor proporcionado coincide con el de la columna.
      *
      * @param value Valor a verificar.
-     * @param cell  Celda cuyo tipo se va a comparar.
      * @throws TypeDoesNotMatch si el tipo no coincide.
      */
-    private void typeMatchCheck(T value, Cell<T> cell) throws TypeDoesNotMatch {
-        if (!cell.getValue().getClass().isInstance(value)) {
+    private void typeMatchCheck(T value) throws TypeDoesNotMatch {
+        if (!storage.accepts(value)) {
             throw new TypeDoesNotMatch();
         }
     }
 
+    /**
+     * Si la columna todavía no conoce su tipo y recibe su primer valor no nulo,
+     * reemplaza el almacenamiento genérico por uno especializado para ese tipo.
+     *
+     * @param value Valor que se va a almacenar.
+     */
+    @SuppressWarnings("unchecked")
+    private void prepareFor(T value) {
+        if (value == null || storage.getValueType() != null) {
+            return;
+        }
+        ColumnStorage<T> typed = (ColumnStorage<T>) ColumnStorage.forType(value.getClass(), storage.size() + 1);
+        for (int i = 0; i < storage.size(); i++) {
+            typed.addNull();
+        }
+        storage = typed;
+    }
+
     /**
      * Verifica si el índice proporcionado está dentro de los límites de la columna.
      *
@@ -97,7 +178,7 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      * @throws IndexOutOfBounds si el índice está fuera de los límites.
      */
     private void checkIndexBounds(int index) throws IndexOutOfBounds {
-        if (index < 0 || index >= cells.size()) {
+        if (index < 0 || index >= storage.size()) {
             throw new IndexOutOfBounds();
         }
     }
@@ -121,12 +202,61 @@ public class Column<T> implements CopyableStructure<Column<T>> {
     }
 
     /**
-     * Obtiene la lista de celdas de la columna.
+     * Obtiene la lista de celdas de la columna. La lista es una vista sobre la
+     * columna: sus celdas se crean al accederlas.
      *
      * @return La lista de celdas.
      */
     public List<Cell<T>> getCells() {
-        return cells;
+        return new AbstractList<Cell<T>>() {
+            @Override
+            public Cell<T> get(int index) {
+                return new ColumnCell<>(Column.this, index);
+            }
+
+            @Override
+            public int size() {
+                return storage.size();
+            }
+        };
+    }
+
+    /**
+     * Obtiene el almacenamiento de la columna para leer los valores primitivos
+     * sin crear celdas y sin copiarlos. Si la columna es una vista de otra, el
+     * almacenamiento devuelto es esa vista (StorageView), que responde las
+     * mismas lecturas que el original.
+     *
+     * El almacenamiento devuelto no debe modificarse: puede estar compartido
+     * con otras columnas o congelado (ver ColumnStorage.freeze). Para
+     * modificar los valores se usan los métodos de la columna.
+     *
+     * @return El almacenamiento de la columna.
+     */
+    public ColumnStorage<T> getReadOnlyStorage() {
+        return storage;
+    }
+
+    /**
+     * Obtiene el almacenamiento de la columna con su tipo concreto: si la
+     * columna es una vista de otra, primero copia los valores que muestra.
+     *
+     * @return El almacenamiento de la columna.
+     */
+    ColumnStorage<T> getStorage() {
+        detach();
+        return storage;
+    }
+
+    /**
+     * Obtiene el valor en la posición indicada sin crear una celda y, si la
+     * columna es una vista, sin copiar sus valores.
+     *
+     * @param index Índice del valor.
+     * @return El valor, o null si la posición es nula.
+     */
+    T get(int index) {
+        return storage.get(index);
     }
 
     /**
@@ -137,21 +267,89 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      *                          columna.
      */
     public void addCell(Cell<T> value) throws TypeDoesNotMatch {
-        if (!isSameType(value)) {
+        addValue(value.getValue());
+    }
+
+    /**
+     * Agrega un nuevo valor a la columna sin crear una celda.
+     *
+     * @param value El valor a agregar.
+     * @throws TypeDoesNotMatch si el tipo del valor no coincide con el tipo de la
+     *                          columna.
+     */
+    public void addValue(T value) throws TypeDoesNotMatch {
+        own();
+        prepareFor(value);
+        typeMatchCheck(value);
+        reserve(1);
+        storage.add(value);
+    }
+
+    /**
+     * Agrega al final todos los valores de otra columna con una sola copia de
+     * su almacenamiento, sin crear celdas. Una columna sin valores no nulos
+     * acepta los de cualquier tipo.
+     *
+     * @param other La columna cuyos valores se agregan.
+     * @throws TypeDoesNotMatch si el tipo de la otra columna no coincide con el
+     *                          tipo de la columna.
+     */
+    @SuppressWarnings("unchecked")
+    public void appendAll(Column<T> other) throws TypeDoesNotMatch {
+        if (!canAppend(other)) {
             throw new TypeDoesNotMatch();
         }
-        cells.add(value);
+        ColumnStorage<T> source = other.storage instanceof StorageView ? other.storage.copy() : other.storage;
+        Class<?> type = storage.getValueType();
+        own();
+        if (source == storage) {
+            source = storage.copy();
+        }
+        if (source.getValueType() == null) {
+            reserve(source.size());
+            for (int i = 0; i < source.size(); i++) {
+                storage.addNull();
+            }
+            return;
+        }
+        if (type == null) {
+            ColumnStorage<T> typed = (ColumnStorage<T>) ColumnStorage.forType(source.getValueType(),
+                    Math.min(storage.size() + source.size(), ChunkedStorage.CHUNK_ROWS));
+            for (int i = 0; i < storage.size(); i++) {
+                typed.addNull();
+            }
+            storage = typed;
+        }
+        if (source instanceof ChunkedStorage) {
+            storage = ChunkedStorage.of(storage);
+        }
+        reserve(source.size());
+        storage.appendAll(source);
+    }
+
+    /**
+     * Si al agregar valores el almacenamiento contiguo va a superar un bloque,
+     * lo pasa a bloques (ver ChunkedStorage) para que seguir creciendo no copie
+     * los valores anteriores.
+     *
+     * @param count cantidad de valores que se van a agregar.
+     */
+    private void reserve(int count) {
+        if (!(storage instanceof ChunkedStorage) && storage.size() + count > ChunkedStorage.CHUNK_ROWS) {
+            storage = ChunkedStorage.of(storage);
+        }
     }
 
     /**
-     * Verifica si el tipo de la nueva celda coincide con el tipo de las celdas
-     * existentes.
+     * Comprueba, sin modificar la columna, si appendAll aceptaría los valores
+     * de otra columna.
      *
-     * @param cell Celda a verificar.
-     * @return true si el tipo coincide, false en caso contrario.
+     * @param other La columna a comprobar.
+     * @return true si los tipos de ambas columnas son compatibles.
      */
-    private boolean isSameType(Cell<T> cell) {
-        return cells.isEmpty() || cell.getValue().getClass().equals(cells.get(0).getValue().getClass());
+    boolean canAppend(Column<?> other) {
+        Class<?> type = storage.getValueType();
+        return type == null || other.getType() == null || type == other.getType();
     }
 
     /**
@@ -161,20 +359,67 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      */
     @Override
     public Column<T> copy() {
-        List<Cell<T>> copiedCells = new ArrayList<>();
-        for (Cell<T> cell : cells) {
-            copiedCells.add(cell.copy());
-        }
-        return new Column<>(label, copiedCells);
+        return new Column<>(label, storage.copy());
+    }
+
+    /**
+     * Crea una nueva columna con los valores de un rango de filas.
+     *
+     * @param start Índice inicial (inclusivo).
+     * @param end   Índice final (exclusivo).
+     * @return Una nueva instancia de Column con los valores del rango.
+     */
+    public Column<T> slice(int start, int end) {
+        return new Column<>(label, storage.slice(start, end));
+    }
+
+    /**
+     * Crea una columna que muestra un rango de filas de esta columna sin copiar
+     * sus valores. Las dos columnas son independientes: la primera que se
+     * modifique copia los valores que necesita.
+     *
+     * @param start Índice inicial (inclusivo).
+     * @param end   Índice final (exclusivo).
+     * @return Una nueva instancia de Column que comparte los valores del rango.
+     */
+    public Column<T> view(int start, int end) {
+        return new Column<>(label, StorageView.range(storage, start, end));
+    }
+
+    /**
+     * Crea una columna que muestra las filas indicadas de esta columna, en ese
+     * orden, sin copiar sus valores (ver view(int, int)).
+     *
+     * @param rows Índices de las filas; el arreglo no se copia y no debe
+     *             modificarse después.
+     * @return Una nueva instancia de Column que comparte los valores de las
+     *         filas.
+     */
+    public Column<T> view(int[] rows) {
+        return new Column<>(label, StorageView.rows(storage, rows));
+    }
+
+    /**
+     * Estima la memoria que ocupa la columna sin copiar sus valores si es una
+     * vista (ver ColumnStorage.memoryUsage). Las celdas no ocupan memoria
+     * mientras no se soliciten.
+     *
+     * @param deep true para incluir los objetos a los que apuntan los valores
+     *             y, si la columna es una vista, la columna que muestra.
+     * @return la cantidad estimada de bytes.
+     */
+    public long memoryUsage(boolean deep) {
+        return MemoryEstimator.object(2 * MemoryEstimator.REFERENCE) + storage.memoryUsage(deep);
     }
 
     /**
      * Obtiene el tipo de datos de las celdas en la columna.
      *
-     * @return La clase del tipo de datos de las celdas.
+     * @return La clase del tipo de datos de las celdas, o null si la columna no
+     *         tiene valores no nulos.
      */
     public Class<?> getType() {
-        return this.cells.get(0).getClass();
+        return storage.getValueType();
     }
 
     /**
@@ -183,7 +428,7 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      * @return Tamaño de la columna.
      */
     public int size() {
-        return this.cells.size();
+        return storage.size();
     }
 
     /**
@@ -195,9 +440,9 @@ public class Column<T> implements CopyableStructure<Column<T>> {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < cells.size(); i++) {
-            sb.append(cells.get(i).getValue());
-            if (i < cells.size() - 1) {
+        for (int i = 0; i < storage.size(); i++) {
+            sb.append(storage.get(i));
+            if (i < storage.size() - 1) {
                 sb.append(", ");
             }
         }
@@ -210,10 +455,39 @@ public class Column<T> implements CopyableStructure<Column<T>> {
      * @return Lista de valores en la columna.
      */
     public List<T> getValue() {
-        List<T> values = new ArrayList<>();
-        for (Cell<T> cell : cells) {
-            values.add(cell.getValue());
+        List<T> values = new ArrayList<>(storage.size());
+        for (int i = 0; i < storage.size(); i++) {
+            values.add(storage.get(i));
         }
         return values;
     }
-}
\ No newline at end of file
+
+    /**
+     * Celda que no guarda su valor, sino que lo lee y lo escribe en una posición
+     * de la columna.
+     */
+    private static class ColumnCell<T> extends Cell<T> {
+        private final Column<T> column;
+        private final int index;
+
+        ColumnCell(Column<T> column, int index) {
+            super(null);
+            this.column = column;
+            this.index = index;
+        }
+
+        @Override
+        public T getValue() {
+            return column.storage.get(index);
+        }
+
+        @Override
+        public void setValue(T value) throws TypeDoesNotMatch {
+            try {
+                column.setCell(index, value);
+            } catch (IndexOutOfBounds e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
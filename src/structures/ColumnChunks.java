@@ -0,0 +1,241 @@
+package structures;
+
+import java.util.Arrays;
+
+import exceptions.IndexOutOfBounds;
+import exceptions.TypeDoesNotMatch;
+
+/**
+ * Valores inmutables de una columna de ImmutableDataFrame, divididos en bloques
+ * de CHUNK_ROWS filas congelados (ver ColumnStorage.freeze).
+ *
+ * Cada modificación devuelve una nueva instancia que comparte con la original
+ * todos los bloques que no cambian: modificar un valor copia un solo bloque y
+ * el arreglo de bloques, en O(CHUNK_ROWS + filas / CHUNK_ROWS).
+ *
+ * Las operaciones de la biblioteca necesitan los valores en un almacenamiento
+ * contiguo; flatten lo construye la primera vez que se pide y lo conserva,
+ * así que las columnas que no cambian entre versiones no se vuelven a copiar.
+ *
+ * @param <T> Tipo de dato de los valores almacenados.
+ */
+final class ColumnChunks<T> {
+    /**
+     * Cantidad de filas de cada bloque, como potencia de dos. Con bloques más
+     * chicos una modificación copia menos valores pero un arreglo de bloques
+     * más largo; 4096 filas mantiene las dos copias cortas hasta decenas de
+     * millones de filas.
+     */
+    static final int CHUNK_SHIFT = 12;
+    static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int MASK = CHUNK_ROWS - 1;
+
+    private final ColumnStorage<T>[] chunks;
+    private final int size;
+    private ColumnStorage<T> flat;
+
+    private ColumnChunks(ColumnStorage<T>[] chunks, int size, ColumnStorage<T> flat) {
+        this.chunks = chunks;
+        this.size = size;
+        this.flat = flat;
+    }
+
+    /**
+     * Divide los valores de una columna en bloques sin copiarlos: congela el
+     * almacenamiento de la columna y cada bloque es una vista de un rango de
+     * él, de modo que la columna copia sus valores la próxima vez que se
+     * modifique (ver Column.freeze).
+     *
+     * @param column columna con los valores.
+     * @return los bloques.
+     */
+    static <T> ColumnChunks<T> of(Column<T> column) {
+        column.freeze();
+        ColumnStorage<T> storage = column.getStorage();
+        int size = storage.size();
+        ColumnStorage<T>[] chunks = newChunks((size + MASK) >>> CHUNK_SHIFT);
+        for (int i = 0; i < chunks.length; i++) {
+            int start = i << CHUNK_SHIFT;
+            chunks[i] = StorageView.range(storage, start, Math.min(start + CHUNK_ROWS, size));
+        }
+        return new ColumnChunks<>(chunks, size, storage);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ColumnStorage<T>[] newChunks(int length) {
+        // No se pueden crear arreglos de un tipo genérico; el arreglo solo
+        // recibe bloques de tipo T
+        return (ColumnStorage<T>[]) new ColumnStorage<?>[length];
+    }
+
+    /**
+     * Obtiene la cantidad de valores.
+     *
+     * @return la cantidad de valores.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Obtiene el valor en la posición indicada.
+     *
+     * @param index posición del valor.
+     * @return el valor, o null si la posición es nula.
+     */
+    T get(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & MASK);
+    }
+
+    /**
+     * Obtiene el tipo de los valores.
+     *
+     * @return la clase de los valores, o null si todos son nulos.
+     */
+    Class<?> getValueType() {
+        return chunks.length == 0 ? flat.getValueType() : chunks[0].getValueType();
+    }
+
+    /**
+     * Devuelve los valores con un valor reemplazado. Copia solo el bloque que
+     * contiene la posición.
+     *
+     * @param index posición del valor.
+     * @param value nuevo valor.
+     * @return los nuevos bloques.
+     * @throws IndexOutOfBounds si la posición está fuera de los límites.
+     * @throws TypeDoesNotMatch si el tipo del valor no coincide con el de la
+     *                          columna.
+     */
+    ColumnChunks<T> set(int index, T value) throws IndexOutOfBounds, TypeDoesNotMatch {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBounds();
+        }
+        if (value != null && getValueType() == null) {
+            Column<T> column = toColumn();
+            column.setCell(index, value);
+            return of(column);
+        }
+        ColumnStorage<T> chunk = chunks[index >>> CHUNK_SHIFT];
+        if (!chunk.accepts(value)) {
+            throw new TypeDoesNotMatch();
+        }
+        ColumnStorage<T> copy = chunk.copy();
+        copy.set(index & MASK, value);
+        return replace(index >>> CHUNK_SHIFT, copy);
+    }
+
+    /**
+     * Devuelve los valores con las posiciones nulas reemplazadas por un valor.
+     * Los bloques sin nulos se comparten.
+     *
+     * @param value valor con el que se rellenan los nulos.
+     * @return los nuevos bloques, o esta instancia si no hay nulos.
+     * @throws TypeDoesNotMatch si el tipo del valor no coincide con el de la
+     *                          columna.
+     */
+    ColumnChunks<T> fill(T value) throws TypeDoesNotMatch {
+        if (value == null) {
+            return this;
+        }
+        if (getValueType() == null) {
+            if (size == 0) {
+                return this;
+            }
+            Column<T> column = new Column<>(null, size);
+            for (int i = 0; i < size; i++) {
+                column.addValue(value);
+            }
+            return of(column);
+        }
+        if (!chunks[0].accepts(value)) {
+            throw new TypeDoesNotMatch();
+        }
+        ColumnChunks<T> result = this;
+        for (int i = 0; i < chunks.length; i++) {
+            if (!chunks[i].hasNulls()) {
+                continue;
+            }
+            ColumnStorage<T> copy = chunks[i].copy();
+            for (int row = 0; row < copy.size(); row++) {
+                if (copy.isNull(row)) {
+                    copy.set(row, value);
+                }
+            }
+            result = result.replace(i, copy);
+        }
+        return result;
+    }
+
+    /**
+     * Devuelve los valores con uno más al final. Copia solo el último bloque,
+     * o crea uno nuevo si está lleno.
+     *
+     * @param value valor a agregar.
+     * @return los nuevos bloques.
+     * @throws TypeDoesNotMatch si el tipo del valor no coincide con el de la
+     *                          columna.
+     */
+    ColumnChunks<T> append(T value) throws TypeDoesNotMatch {
+        if (chunks.length == 0 || (value != null && getValueType() == null)) {
+            Column<T> column = toColumn();
+            column.addValue(value);
+            return of(column);
+        }
+        ColumnStorage<T> last = chunks[chunks.length - 1];
+        if (!last.accepts(value)) {
+            throw new TypeDoesNotMatch();
+        }
+        ColumnStorage<T>[] next;
+        ColumnStorage<T> chunk;
+        if ((size & MASK) == 0) {
+            next = Arrays.copyOf(chunks, chunks.length + 1);
+            chunk = last.slice(0, 0);
+        } else {
+            next = chunks.clone();
+            chunk = last.copy();
+        }
+        if (value == null) {
+            chunk.addNull();
+        } else {
+            chunk.add(value);
+        }
+        chunk.freeze();
+        next[next.length - 1] = chunk;
+        return new ColumnChunks<>(next, size + 1, null);
+    }
+
+    /**
+     * Obtiene los valores en un almacenamiento contiguo y congelado. Se
+     * construye una sola vez por instancia.
+     *
+     * @return el almacenamiento.
+     */
+    synchronized ColumnStorage<T> flatten() {
+        if (flat == null) {
+            ColumnStorage<T> result = chunks[0].copy();
+            for (int i = 1; i < chunks.length; i++) {
+                ColumnStorage<T> chunk = chunks[i];
+                result.appendAll(chunk instanceof StorageView ? chunk.copy() : chunk);
+            }
+            result.freeze();
+            flat = result;
+        }
+        return flat;
+    }
+
+    /**
+     * Crea una columna que comparte los valores contiguos (ver flatten); la
+     * columna los copia antes de modificarlos.
+     */
+    private Column<T> toColumn() {
+        return new Column<>(null, flatten());
+    }
+
+    private ColumnChunks<T> replace(int index, ColumnStorage<T> chunk) {
+        chunk.freeze();
+        ColumnStorage<T>[] next = chunks.clone();
+        next[index] = chunk;
+        return new ColumnChunks<>(next, size, null);
+    }
+}
@@ -0,0 +1,527 @@
+package structures;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * La clase ColumnStorage representa el almacenamiento contiguo de los valores
+ * de una columna.
+ * Cada implementación guarda sus valores en un arreglo de tipo primitivo (o en
+ * un diccionario en el caso de las cadenas) junto con un mapa de bits que
+ * indica qué posiciones son nulas, evitando crear un objeto por valor.
+ *
+ * @param <T> Tipo de dato de los valores almacenados.
+ */
+public abstract class ColumnStorage<T> {
+
+    /**
+     * Tipos de almacenamiento soportados.
+     */
+    public enum Kind {
+        INT, LONG, DOUBLE, BOOLEAN, STRING, OBJECT
+    }
+
+    protected static final int DEFAULT_CAPACITY = 16;
+
+    protected int size;
+    private long[] nulls;
+    private List<WeakReference<StorageView<?>>> views;
+    private ChunkStatistics statistics;
+    private boolean frozen;
+
+    /**
+     * Crea el almacenamiento adecuado para un tipo de dato.
+     *
+     * @param type     clase de los valores a almacenar.
+     * @param capacity capacidad inicial.
+     * @return un almacenamiento especializado, o uno genérico si el tipo no tiene
+     *         representación primitiva.
+     */
+    public static ColumnStorage<?> forType(Class<?> type, int capacity) {
+        if (type == Integer.class) {
+            return new IntStorage(capacity);
+        } else if (type == Long.class) {
+            return new LongStorage(capacity);
+        } else if (type == Double.class) {
+            return new DoubleStorage(capacity);
+        } else if (type == Boolean.class) {
+            return new BooleanStorage(capacity);
+        } else if (type == String.class) {
+            return new StringStorage(capacity);
+        }
+        return new ObjectStorage(type, capacity);
+    }
+
+    /**
+     * Obtiene el tipo de almacenamiento.
+     *
+     * @return el tipo de almacenamiento.
+     */
+    public abstract Kind getKind();
+
+    /**
+     * Obtiene la clase de los valores almacenados.
+     *
+     * @return la clase de los valores, o null si todavía no se conoce.
+     */
+    public abstract Class<?> getValueType();
+
+    /**
+     * Obtiene el valor en la posición indicada.
+     *
+     * @param index posición del valor.
+     * @return el valor, o null si la posición es nula.
+     */
+    public abstract T get(int index);
+
+    /**
+     * Reemplaza el valor en la posición indicada.
+     *
+     * @param index posición del valor.
+     * @param value nuevo valor, puede ser null.
+     */
+    public abstract void set(int index, T value);
+
+    /**
+     * Agrega un valor al final del almacenamiento.
+     *
+     * @param value valor a agregar, puede ser null.
+     */
+    public abstract void add(T value);
+
+    /**
+     * Agrega un valor nulo al final del almacenamiento.
+     */
+    public abstract void addNull();
+
+    /**
+     * Crea una copia independiente del almacenamiento.
+     *
+     * @return la copia.
+     */
+    public abstract ColumnStorage<T> copy();
+
+    /**
+     * Crea un almacenamiento independiente con los valores de un rango.
+     *
+     * @param start posición inicial (inclusiva).
+     * @param end   posición final (exclusiva).
+     * @return el almacenamiento con los valores del rango.
+     */
+    public abstract ColumnStorage<T> slice(int start, int end);
+
+    /**
+     * Crea un almacenamiento independiente con los valores de las posiciones
+     * indicadas, en ese orden.
+     *
+     * @param indices posiciones de los valores.
+     * @return el almacenamiento con los valores seleccionados.
+     */
+    public ColumnStorage<T> select(int[] indices) {
+        ColumnStorage<T> selection = slice(0, 0);
+        for (int index : indices) {
+            selection.add(get(index));
+        }
+        return selection;
+    }
+
+    /**
+     * Crea un almacenamiento independiente con los valores de las posiciones
+     * indicadas, en ese orden, donde una posición negativa produce un nulo.
+     *
+     * @param indices posiciones de los valores, o -1 para un nulo.
+     * @return el almacenamiento con los valores seleccionados.
+     */
+    public ColumnStorage<T> selectOrNull(int[] indices) {
+        if (size() == 0) {
+            ColumnStorage<T> nulls = slice(0, 0);
+            for (int i = 0; i < indices.length; i++) {
+                nulls.addNull();
+            }
+            return nulls;
+        }
+        int[] valid = indices;
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] < 0) {
+                if (valid == indices) {
+                    valid = indices.clone();
+                }
+                valid[i] = 0;
+            }
+        }
+        ColumnStorage<T> selection = select(valid);
+        if (valid != indices) {
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] < 0) {
+                    selection.set(i, null);
+                }
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Agrega al final todos los valores de otro almacenamiento del mismo tipo.
+     *
+     * @param other almacenamiento cuyos valores se agregan.
+     */
+    public void appendAll(ColumnStorage<T> other) {
+        appendRange(other, 0, other.size());
+    }
+
+    /**
+     * Agrega al final los valores de un rango de otro almacenamiento del mismo
+     * tipo.
+     *
+     * @param other almacenamiento cuyos valores se agregan.
+     * @param start posición inicial (inclusiva) en el origen.
+     * @param end   posición final (exclusiva) en el origen.
+     */
+    protected abstract void appendRange(ColumnStorage<T> other, int start, int end);
+
+    /**
+     * Obtiene la cantidad de valores almacenados.
+     *
+     * @return la cantidad de valores.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifica si el valor es compatible con el tipo del almacenamiento.
+     *
+     * @param value valor a verificar.
+     * @return true si el valor es null o es exactamente del tipo almacenado.
+     */
+    public boolean accepts(Object value) {
+        return value == null || value.getClass() == getValueType();
+    }
+
+    /**
+     * Verifica si la posición indicada es nula.
+     *
+     * @param index posición a verificar.
+     * @return true si el valor es nulo.
+     */
+    public boolean isNull(int index) {
+        return nulls != null && (index >>> 6) < nulls.length && (nulls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Verifica si el almacenamiento tiene al menos un valor nulo.
+     *
+     * @return true si hay valores nulos.
+     */
+    public boolean hasNulls() {
+        if (nulls == null) {
+            return false;
+        }
+        for (long word : nulls) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estima la memoria que ocupa el almacenamiento (ver MemoryEstimator): el
+     * objeto, sus arreglos, el mapa de nulos y las estadísticas por bloques.
+     *
+     * @param deep true para sumar también los objetos a los que apuntan los
+     *             valores: las cadenas del diccionario, los objetos de un
+     *             almacenamiento genérico o, en una vista, el almacenamiento
+     *             que muestra.
+     * @return la cantidad estimada de bytes.
+     */
+    public long memoryUsage(boolean deep) {
+        long bytes = MemoryEstimator.object(4 + 1 + 5 * MemoryEstimator.REFERENCE) + valuesMemoryUsage(deep);
+        if (nulls != null) {
+            bytes += MemoryEstimator.array(nulls.length, 8);
+        }
+        if (statistics != null) {
+            bytes += statistics.memoryUsage();
+        }
+        return bytes;
+    }
+
+    /**
+     * Estima la memoria que ocupan los valores (ver memoryUsage).
+     *
+     * @param deep true para incluir los objetos a los que apuntan los valores.
+     * @return la cantidad estimada de bytes.
+     */
+    protected abstract long valuesMemoryUsage(boolean deep);
+
+    /**
+     * Obtiene las estadísticas por bloques (nulos, mínimo y máximo) de un
+     * almacenamiento numérico. Se calculan solo los bloques nuevos o
+     * modificados desde la última llamada.
+     *
+     * @return las estadísticas, o null si el almacenamiento no es de int, long
+     *         ni double.
+     */
+    public synchronized ChunkStatistics statistics() {
+        Kind kind = getKind();
+        if (kind != Kind.INT && kind != Kind.LONG && kind != Kind.DOUBLE) {
+            return null;
+        }
+        if (statistics == null) {
+            statistics = new ChunkStatistics(kind == Kind.DOUBLE);
+        }
+        statistics.update(this);
+        return statistics;
+    }
+
+    /**
+     * Avisa que cambió el valor de una posición existente, para que se
+     * recalculen las estadísticas de su bloque.
+     *
+     * @param index posición modificada.
+     */
+    void changed(int index) {
+        if (statistics != null) {
+            statistics.invalidate(index >>> ChunkStatistics.CHUNK_SHIFT);
+        }
+    }
+
+    /**
+     * Obtiene el valor como int. Solo válido para almacenamientos enteros.
+     *
+     * @param index posición del valor.
+     * @return el valor primitivo.
+     */
+    public int getInt(int index) {
+        throw new UnsupportedOperationException("Storage of kind " + getKind() + " does not hold ints");
+    }
+
+    /**
+     * Obtiene el valor como long. Solo válido para almacenamientos enteros.
+     *
+     * @param index posición del valor.
+     * @return el valor primitivo.
+     */
+    public long getLong(int index) {
+        throw new UnsupportedOperationException("Storage of kind " + getKind() + " does not hold longs");
+    }
+
+    /**
+     * Obtiene el valor como double. Válido para almacenamientos numéricos.
+     *
+     * @param index posición del valor.
+     * @return el valor primitivo.
+     */
+    public double getDouble(int index) {
+        throw new UnsupportedOperationException("Storage of kind " + getKind() + " is not numeric");
+    }
+
+    /**
+     * Obtiene el valor como boolean. Solo válido para almacenamientos booleanos.
+     *
+     * @param index posición del valor.
+     * @return el valor primitivo.
+     */
+    public boolean getBoolean(int index) {
+        throw new UnsupportedOperationException("Storage of kind " + getKind() + " does not hold booleans");
+    }
+
+    /**
+     * Obtiene el código de diccionario de una posición. Solo válido para
+     * almacenamientos de cadenas.
+     *
+     * @param index posición del valor.
+     * @return el código, o -1 si la posición es nula.
+     */
+    public int getCode(int index) {
+        throw new UnsupportedOperationException("Storage of kind " + getKind() + " has no dictionary");
+    }
+
+    /**
+     * Obtiene el valor asociado a un código de diccionario. Solo válido para
+     * almacenamientos de cadenas.
+     *
+     * @param code código del valor.
+     * @return el valor.
+     */
+    public String decode(int code) {
+        throw new UnsupportedOperationException("Storage of kind " + getKind() + " has no dictionary");
+    }
+
+    /**
+     * Obtiene la cantidad de valores distintos del diccionario. Solo válido
+     * para almacenamientos de cadenas.
+     *
+     * @return el tamaño del diccionario.
+     */
+    public int dictionarySize() {
+        throw new UnsupportedOperationException("Storage of kind " + getKind() + " has no dictionary");
+    }
+
+    /**
+     * Registra una vista que muestra valores de este almacenamiento. Las
+     * referencias son débiles para que las vistas que ya no se usan no se
+     * mantengan vivas ni se copien al desprenderlas.
+     *
+     * @param view vista a registrar.
+     */
+    void addView(StorageView<?> view) {
+        if (frozen) {
+            return;
+        }
+        if (views == null) {
+            views = new ArrayList<>();
+        } else if (views.size() >= 16 && Integer.bitCount(views.size()) == 1) {
+            views.removeIf(reference -> reference.get() == null);
+        }
+        views.add(new WeakReference<>(view));
+    }
+
+    /**
+     * Congela el almacenamiento: a partir de ahora no se modifica, y las
+     * columnas que lo contienen lo reemplazan por writableCopy antes de
+     * escribir (ver Column.setCell). Un almacenamiento congelado se puede leer
+     * desde varios hilos a la vez; sus vistas no se registran, porque nunca hay
+     * que desprenderlas.
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * Crea un almacenamiento modificable con los valores de este, que está
+     * congelado. Por defecto es una copia; un almacenamiento en bloques
+     * comparte los bloques y copia solo los que se modifican.
+     *
+     * @return el almacenamiento modificable.
+     */
+    ColumnStorage<T> writableCopy() {
+        return copy();
+    }
+
+    /**
+     * Verifica si el almacenamiento está congelado (ver freeze).
+     *
+     * @return true si no debe modificarse.
+     */
+    boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Desprende las vistas de este almacenamiento antes de modificar un valor
+     * existente: cada vista todavía viva copia los valores que muestra, de modo
+     * que no ve la modificación. Agregar valores al final no necesita
+     * desprender las vistas, porque no cambia las posiciones que muestran.
+     */
+    void detachViews() {
+        if (views == null) {
+            return;
+        }
+        for (WeakReference<StorageView<?>> reference : views) {
+            StorageView<?> view = reference.get();
+            if (view != null && view.isViewOf(this)) {
+                view.detach();
+            }
+        }
+        views = null;
+    }
+
+    /**
+     * Marca o desmarca una posición como nula.
+     *
+     * @param index  posición a marcar.
+     * @param isNull true si la posición debe quedar nula.
+     */
+    protected void setNull(int index, boolean isNull) {
+        int word = index >>> 6;
+        if (nulls == null || word >= nulls.length) {
+            if (!isNull) {
+                return;
+            }
+            nulls = nulls == null ? new long[Math.max(word + 1, 4)]
+                    : Arrays.copyOf(nulls, Math.max(word + 1, nulls.length * 2));
+        }
+        if (isNull) {
+            nulls[word] |= 1L << index;
+        } else {
+            nulls[word] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Copia el mapa de nulos de otro almacenamiento.
+     *
+     * @param other almacenamiento de origen.
+     */
+    protected void copyNullsFrom(ColumnStorage<?> other) {
+        this.nulls = other.nulls == null ? null : other.nulls.clone();
+    }
+
+    /**
+     * Copia el mapa de nulos de un rango de otro almacenamiento.
+     *
+     * @param other almacenamiento de origen.
+     * @param start posición inicial (inclusiva) en el origen.
+     * @param end   posición final (exclusiva) en el origen.
+     */
+    protected void copyNullsFrom(ColumnStorage<?> other, int start, int end) {
+        if (other.nulls == null) {
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            if (other.isNull(i)) {
+                setNull(i - start, true);
+            }
+        }
+    }
+
+    /**
+     * Copia el mapa de nulos de las posiciones indicadas de otro
+     * almacenamiento, en ese orden.
+     *
+     * @param other   almacenamiento de origen.
+     * @param indices posiciones en el origen.
+     */
+    protected void selectNullsFrom(ColumnStorage<?> other, int[] indices) {
+        if (other.nulls == null) {
+            return;
+        }
+        for (int i = 0; i < indices.length; i++) {
+            if (other.isNull(indices[i])) {
+                setNull(i, true);
+            }
+        }
+    }
+
+    /**
+     * Copia el mapa de nulos de un rango de otro almacenamiento a continuación
+     * de los valores actuales. Debe llamarse antes de actualizar el tamaño.
+     *
+     * @param other almacenamiento de origen.
+     * @param start posición inicial (inclusiva) en el origen.
+     * @param end   posición final (exclusiva) en el origen.
+     */
+    protected void appendNullsFrom(ColumnStorage<?> other, int start, int end) {
+        if (other.nulls == null) {
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            if (other.isNull(i)) {
+                setNull(size + i - start, true);
+            }
+        }
+    }
+
+    /**
+     * Calcula la nueva capacidad de un arreglo que debe alojar un elemento más.
+     *
+     * @param current capacidad actual.
+     * @return la nueva capacidad.
+     */
+    protected static int grow(int current) {
+        return Math.max(DEFAULT_CAPACITY, current + (current >> 1) + 1);
+    }
+}
@@ -0,0 +1,203 @@
+package structures;
+
+import java.util.List;
+
+import exceptions.IndexOutOfBounds;
+import exceptions.InvalidShape;
+import exceptions.LabelAlreadyInUse;
+import exceptions.LabelDoesNotMatch;
+import exceptions.TypeDoesNotMatch;
+
+/**
+ * DataFrame compartido entre hilos para servir consultas: muchos hilos leen
+ * mientras otros modifican los datos.
+ *
+ * Los datos se guardan como una sucesión de versiones inmutables. Cada lector
+ * obtiene con snapshot un DataFrame propio con la versión actual, que comparte
+ * los valores de la versión sin copiarlos y no cambia aunque se publiquen
+ * versiones nuevas. Los lectores nunca esperan a los escritores ni ven una
+ * modificación a medias.
+ *
+ * Las escrituras se ejecutan de a una. Cada escritura trabaja sobre un
+ * borrador que comparte todo con la versión actual y copia solo lo que
+ * modifica (copia al escribir, ver ColumnStorage.freeze); al terminar, el
+ * borrador se publica como nueva versión con una sola escritura volátil. Si la
+ * escritura falla, la versión actual no cambia.
+ *
+ * Las columnas de más de un bloque se guardan en bloques (ver ChunkedStorage)
+ * que las versiones comparten, y una escritura copia solo los bloques que
+ * cambia: setCell uno, insertRow el último de cada columna. Así cada escritura
+ * cuesta O(ChunkedStorage.CHUNK_ROWS) por columna modificada, sin importar la
+ * cantidad de filas, y agregar filas de a una no es cuadrático. Las columnas
+ * más chicas que un bloque se copian enteras, y las etiquetas de fila, si el
+ * DataFrame las tiene, también se copian en cada insertRow.
+ */
+public class ConcurrentDataFrame {
+
+    /**
+     * Modificación que se aplica sobre un borrador de la versión actual.
+     *
+     * @param <E> tipo de la excepción que puede lanzar.
+     */
+    public interface Update<E extends Exception> {
+        /**
+         * Modifica el borrador, que no debe usarse después de que termine este
+         * método.
+         *
+         * @param draft borrador de la nueva versión.
+         * @throws E si la modificación falla; en ese caso no se publica nada.
+         */
+        void apply(DataFrame draft) throws E;
+    }
+
+    /**
+     * Versión publicada: un DataFrame congelado y su número.
+     */
+    private static final class Version {
+        final DataFrame frame;
+        final long number;
+
+        Version(DataFrame frame, long number) {
+            this.frame = frame;
+            this.number = number;
+        }
+    }
+
+    private volatile Version current;
+
+    /**
+     * Crea un DataFrame concurrente vacío.
+     */
+    public ConcurrentDataFrame() {
+        publish(new DataFrame(), 0);
+    }
+
+    /**
+     * Crea un DataFrame concurrente con una copia de los datos del DataFrame
+     * indicado, que después se puede seguir modificando sin afectar a este.
+     *
+     * @param initial datos iniciales.
+     * @throws InvalidShape      si las dimensiones del DataFrame no son válidas.
+     * @throws TypeDoesNotMatch  si los tipos de datos no coinciden.
+     * @throws LabelAlreadyInUse si hay etiquetas repetidas.
+     * @throws IndexOutOfBounds  si hay índices fuera del rango permitido.
+     */
+    public ConcurrentDataFrame(DataFrame initial)
+            throws InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse, IndexOutOfBounds {
+        publish(initial.copy(), 0);
+    }
+
+    /**
+     * Obtiene un DataFrame con la versión actual. Cuesta O(columnas) y no
+     * copia valores; el DataFrame pertenece al lector, que puede modificarlo
+     * sin afectar a la versión publicada ni a otros lectores.
+     *
+     * @return la versión actual.
+     */
+    public DataFrame snapshot() {
+        return current.frame.share();
+    }
+
+    /**
+     * Obtiene el número de la versión actual, que aumenta en uno con cada
+     * escritura publicada.
+     *
+     * @return el número de versión.
+     */
+    public long version() {
+        return current.number;
+    }
+
+    /**
+     * Obtiene el número de filas de la versión actual.
+     *
+     * @return el número de filas.
+     */
+    public int countRows() {
+        return current.frame.countRows();
+    }
+
+    /**
+     * Aplica una modificación sobre un borrador de la versión actual y lo
+     * publica como nueva versión. Las modificaciones de una misma llamada se
+     * publican juntas.
+     *
+     * @param <E>    tipo de la excepción que puede lanzar la modificación.
+     * @param update modificación a aplicar.
+     * @throws E si la modificación falla; la versión actual no cambia.
+     */
+    public synchronized <E extends Exception> void update(Update<E> update) throws E {
+        DataFrame draft = current.frame.share();
+        update.apply(draft);
+        publish(draft, current.number + 1);
+    }
+
+    /**
+     * Inserta una fila al final y publica una nueva versión.
+     *
+     * @param row valores de la fila.
+     * @throws InvalidShape      si la forma de la fila no coincide.
+     * @throws TypeDoesNotMatch  si los tipos de los valores no coinciden.
+     * @throws LabelAlreadyInUse si la etiqueta de la fila ya está en uso.
+     */
+    public synchronized void insertRow(List<?> row) throws InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse {
+        DataFrame draft = current.frame.share();
+        draft.insertRow(row);
+        publish(draft, current.number + 1);
+    }
+
+    /**
+     * Agrega al final las filas de otro DataFrame (ver DataFrame.append) y
+     * publica una nueva versión.
+     *
+     * @param other DataFrame cuyas filas se agregan.
+     * @throws LabelDoesNotMatch si las etiquetas de las columnas no coinciden.
+     * @throws TypeDoesNotMatch  si los tipos de alguna columna no coinciden.
+     */
+    public synchronized void append(DataFrame other) throws LabelDoesNotMatch, TypeDoesNotMatch {
+        DataFrame draft = current.frame.share();
+        draft.append(other);
+        publish(draft, current.number + 1);
+    }
+
+    /**
+     * Agrega una copia de la columna indicada y publica una nueva versión.
+     *
+     * @param column columna a agregar.
+     * @throws InvalidShape si la columna no tiene la cantidad de filas del
+     *                      DataFrame.
+     */
+    public synchronized void insertColumn(Column<?> column) throws InvalidShape {
+        DataFrame draft = current.frame.share();
+        if (draft.countColumns() > 0 && column.size() != draft.countRows()) {
+            throw new InvalidShape();
+        }
+        draft.insertColumn(column.copy());
+        publish(draft, current.number + 1);
+    }
+
+    /**
+     * Establece el valor de una celda y publica una nueva versión.
+     *
+     * @param rowIndex    índice de la fila.
+     * @param columnIndex índice de la columna.
+     * @param value       nuevo valor.
+     * @throws IndexOutOfBounds si los índices están fuera de los límites.
+     * @throws TypeDoesNotMatch si el tipo del valor no coincide con el de la
+     *                          columna.
+     */
+    public synchronized void setCell(int rowIndex, int columnIndex, Object value)
+            throws IndexOutOfBounds, TypeDoesNotMatch {
+        DataFrame draft = current.frame.share();
+        draft.setCell(rowIndex, columnIndex, value);
+        publish(draft, current.number + 1);
+    }
+
+    /**
+     * Congela un DataFrame y lo publica como versión actual.
+     */
+    private void publish(DataFrame frame, long number) {
+        frame.freeze();
+        current = new Version(frame, number);
+    }
+}
@@ -1,8 +1,10 @@
 package structures;
 
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
@@ -17,6 +19,7 @@ import interfaces.CopyableStructure;
 import interfaces.Visualizer;
 import libraries.DataExporter;
 import libraries.DataManipulator;
+import libraries.RowFilter;
 
 /**
  * Representa un marco de datos (DataFrame) que organiza datos en filas y
@@ -25,10 +28,16 @@ import libraries.DataManipulator;
  * formato tabular.
  * Este marco de datos utiliza filas y columnas dinámicas para almacenar
  * diferentes tipos de datos.
+ * Las columnas son la única fuente de datos: las filas (Row) son vistas que se
+ * crean al solicitarlas.
  */
 public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataFrame> {
     private List<Column<?>> columns;
-    private List<Row> rows;
+    private Map<Object, Integer> columnIndex;
+    private List<Object> rowLabels;
+    private Map<Object, Integer> rowIndex;
+    private boolean duplicateRowLabels;
+    private boolean rowLabelsShared;
     private final DataManipulator manipulator;
     private final DataExporter exporter;
 
@@ -37,7 +46,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      */
     public DataFrame() {
         this.columns = new ArrayList<>();
-        this.rows = new ArrayList<>();
+        this.columnIndex = new HashMap<>();
         this.exporter = new DataExporter(this);
         this.manipulator = new DataManipulator(this);
     }
@@ -58,9 +67,12 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     }
 
     /**
-     * Crea un DataFrame con las filas proporcionadas.
+     * Crea un DataFrame con las filas proporcionadas. Si la lista contiene
+     * columnas (Column), el DataFrame se construye directamente con ellas, sin
+     * copiar sus valores.
      *
-     * @param rows lista de filas que representan los datos iniciales.
+     * @param rows lista de filas (o de columnas) que representan los datos
+     *             iniciales.
      * @throws IndexOutOfBounds si los índices exceden el rango permitido.
      * @throws InvalidShape     si las dimensiones de las filas no coinciden con la
      * @throws TypeDoesNotMatch si el tipo de datos en una celda no coincide con el
@@ -68,10 +80,36 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      */
     public DataFrame(List<?> rows) throws IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
         this();
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (rows.get(0) instanceof Column) {
+            initializeFromColumns(rows);
+            return;
+        }
         List<String> headers = generateHeaders(rows);
         initializeDataFrame(rows, headers);
     }
 
+    /**
+     * Inicializa un DataFrame con columnas ya construidas.
+     *
+     * @param columns lista de columnas.
+     * @throws InvalidShape si las columnas no tienen todas la misma cantidad de
+     *                      celdas.
+     */
+    private void initializeFromColumns(List<?> columns) throws InvalidShape {
+        int size = ((Column<?>) columns.get(0)).size();
+        for (Object column : columns) {
+            if (((Column<?>) column).size() != size) {
+                throw new InvalidShape();
+            }
+        }
+        for (Object column : columns) {
+            addColumn((Column<?>) column);
+        }
+    }
+
     /**
      * Inicializa un DataFrame con las filas y encabezados proporcionados.
      *
@@ -85,15 +123,13 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
             throws InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
         if (rows.isEmpty()) {
             for (int i = 0; i < headers.size(); i++) {
-                columns.add(new Column<>(headers.get(i)));
+                addColumn(new Column<>(headers.get(i)));
             }
-            populateRowsWithCells(columns);
             return;
         }
 
         validateRowShapes(rows, headers.size());
         initializeColumns(rows, headers);
-        populateRowsWithCells(columns);
     }
 
     /**
@@ -118,33 +154,16 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      * @param headers lista de encabezados de columna.
      * @throws TypeDoesNotMatch si los tipos de datos en las celdas no coinciden.
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     private void initializeColumns(List<?> rows, List<?> headers) throws TypeDoesNotMatch {
         for (int i = 0; i < headers.size(); i++) {
-            Column<?> column = new Column<>(headers.get(i).toString());
+            Column<Object> column = new Column<>(headers.get(i).toString(), rows.size());
             for (Object row : rows) {
                 Object cellValue = (row instanceof Row)
-                        ? ((Row) row).getCell(i).getValue()
+                        ? ((Row) row).getValue(i)
                         : ((List<?>) row).get(i);
-                column.addCell(new Cell(cellValue));
+                column.addValue(cellValue);
             }
-            columns.add(column);
-        }
-    }
-
-    /**
-     * Rellena las filas con celdas basadas en las columnas proporcionadas.
-     *
-     * @param columns lista de columnas.
-     * @throws IndexOutOfBounds si los índices exceden el rango permitido.
-     */
-    private void populateRowsWithCells(List<Column<?>> columns) throws IndexOutOfBounds {
-        for (int i = 0; i < countRows(); i++) {
-            List<Cell<?>> cells = new ArrayList<>();
-            for (Column<?> column : columns) {
-                cells.add(column.getCell(i));
-            }
-            rows.add(new Row(i, cells));
+            addColumn(column);
         }
     }
 
@@ -167,7 +186,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     }
 
     private enum ExportFormat {
-        CSV, JSON
+        CSV, JSON, BINARY
     }
 
     /**
@@ -184,7 +203,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     public DataFrame insertRow(List<?> row) throws InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse {
         if (columns.isEmpty()) {
             for (int i = 0; i < row.size(); i++) {
-                columns.add(new Column<>("Column " + i));
+                addColumn(new Column<>("Column " + i));
             }
         }
 
@@ -202,15 +221,21 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
 
     private void insertCells(Object label, List<Cell<?>> cells)
             throws InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse {
+        if (findRowIndex(label) != -1) {
+            throw new LabelAlreadyInUse();
+        }
+
+        int index = countRows();
         assignCellsToColumns(cells);
 
-        for (Row row : rows) {
-            if (row.getLabel().equals(label)) {
-                throw new LabelAlreadyInUse();
-            }
+        if (rowLabels != null) {
+            ownRowLabels();
+            rowLabels.add(label);
+            rowIndex.put(label, index);
+        } else if (!label.equals(index)) {
+            materializeRowLabels();
+            setRowLabel(index, label);
         }
-
-        rows.add(new Row(label, cells));
     }
 
     @SuppressWarnings("unchecked")
@@ -233,7 +258,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      */
     public DataFrame insertColumn(Object label) throws InvalidShape, TypeDoesNotMatch {
         Column<?> column = new Column<>(label);
-        columns.add(column);
+        addColumn(column);
         return this;
     }
 
@@ -249,15 +274,14 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     public DataFrame insertColumn(Object label, List<?> data) throws InvalidShape, TypeDoesNotMatch {
         validateColumnShape(data);
         Column<?> column = createColumnWithData(label, data);
-        columns.add(column);
+        addColumn(column);
         return this;
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     private Column<?> createColumnWithData(Object label, List<?> data) throws TypeDoesNotMatch {
-        Column<?> column = new Column<>(label);
+        Column<Object> column = new Column<>(label, data.size());
         for (int i = 0; i < data.size(); i++) {
-            column.addCell(new Cell(data.get(i)));
+            column.addValue(data.get(i));
         }
         return column;
     }
@@ -273,7 +297,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     public DataFrame insertColumn(List<?> data) throws InvalidShape, TypeDoesNotMatch {
         validateColumnShape(data);
         Column<?> column = createColumnWithData("Column " + countColumns(), data);
-        columns.add(column);
+        addColumn(column);
         return this;
     }
 
@@ -283,7 +307,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      * @return el número de filas.
      */
     public DataFrame insertColumn(Column<?> column) throws InvalidShape {
-        columns.add(column);
+        addColumn(column);
         return this;
     }
 
@@ -293,7 +317,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      * @return el número de filas.
      */
     public int countRows() {
-        return columns.isEmpty() ? 0 : columns.get(0).getCells().size();
+        return columns.isEmpty() ? 0 : columns.get(0).size();
     }
 
     /**
@@ -313,10 +337,58 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      * @throws IndexOutOfBounds si el índice está fuera de los límites.
      */
     public Column<?> getColumn(Object label) throws LabelNotFound {
-        return columns.stream()
-                .filter(column -> column.getLabel().equals(label))
-                .findFirst()
-                .orElseThrow(LabelNotFound::new);
+        int index = findColumnIndex(label);
+        if (index == -1) {
+            throw new LabelNotFound();
+        }
+        return columns.get(index);
+    }
+
+    /**
+     * Obtiene la posición de una columna a partir de su etiqueta.
+     *
+     * @param label etiqueta de la columna.
+     * @return la posición de la columna.
+     * @throws LabelNotFound si la etiqueta no se encuentra.
+     */
+    public int getColumnIndex(Object label) throws LabelNotFound {
+        int index = findColumnIndex(label);
+        if (index == -1) {
+            throw new LabelNotFound("Label not found: " + label);
+        }
+        return index;
+    }
+
+    /**
+     * Agrega una columna al final del DataFrame y la registra en el índice de
+     * etiquetas.
+     *
+     * @param column columna a agregar.
+     */
+    private void addColumn(Column<?> column) {
+        columnIndex.putIfAbsent(column.getLabel(), columns.size());
+        columns.add(column);
+    }
+
+    /**
+     * Busca la posición de la columna con la etiqueta indicada usando el índice
+     * de etiquetas. Como las etiquetas de las columnas pueden cambiar desde
+     * afuera (Column.setLabel), el índice se reconstruye cuando no coincide.
+     *
+     * @param label etiqueta de la columna.
+     * @return la posición de la columna, o -1 si no existe.
+     */
+    private int findColumnIndex(Object label) {
+        Integer index = columnIndex.get(label);
+        if (index != null && index < columns.size() && columns.get(index).getLabel().equals(label)) {
+            return index;
+        }
+        columnIndex.clear();
+        for (int i = 0; i < columns.size(); i++) {
+            columnIndex.putIfAbsent(columns.get(i).getLabel(), i);
+        }
+        index = columnIndex.get(label);
+        return index != null ? index : -1;
     }
 
     /**
@@ -330,7 +402,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
         if (!isValidRowIndex(index)) {
             throw new IndexOutOfBounds();
         }
-        return rows.get(index);
+        return new Row(this, index);
     }
 
     /**
@@ -341,10 +413,141 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      * @throws LabelNotFound si la etiqueta no se encuentra.
      */
     public Row getRow(Object label) throws LabelNotFound {
-        return rows.stream()
-                .filter(row -> row.getLabel().equals(label))
-                .findFirst()
-                .orElseThrow(LabelNotFound::new);
+        int index = findRowIndex(label);
+        if (index == -1) {
+            throw new LabelNotFound();
+        }
+        return new Row(this, index);
+    }
+
+    /**
+     * Indica si se asignaron etiquetas propias a las filas. Mientras no se
+     * asignen, la etiqueta de cada fila es su posición y no se guarda ninguna
+     * lista de etiquetas.
+     *
+     * @return true si las filas tienen etiquetas propias.
+     */
+    public boolean hasRowLabels() {
+        return rowLabels != null;
+    }
+
+    /**
+     * Obtiene la etiqueta de la fila en la posición indicada. Mientras no se
+     * asignen etiquetas propias, la etiqueta de cada fila es su posición.
+     *
+     * @param index posición de la fila.
+     * @return la etiqueta de la fila.
+     */
+    Object getRowLabel(int index) {
+        return rowLabels != null ? rowLabels.get(index) : index;
+    }
+
+    /**
+     * Asigna la etiqueta de la fila en la posición indicada.
+     *
+     * @param index posición de la fila.
+     * @param label nueva etiqueta.
+     */
+    void setRowLabel(int index, Object label) {
+        if (rowLabels == null && label.equals(index)) {
+            return;
+        }
+        materializeRowLabels();
+        ownRowLabels();
+        Object previous = rowLabels.set(index, label);
+        if (Integer.valueOf(index).equals(rowIndex.get(previous))) {
+            rowIndex.remove(previous);
+            if (duplicateRowLabels) {
+                int other = rowLabels.indexOf(previous);
+                if (other != -1) {
+                    rowIndex.put(previous, other);
+                }
+            }
+        }
+        Integer existing = rowIndex.get(label);
+        if (existing != null && existing != index) {
+            duplicateRowLabels = true;
+        }
+        if (existing == null || existing > index) {
+            rowIndex.put(label, index);
+        }
+    }
+
+    /**
+     * Busca la posición de la fila con la etiqueta indicada.
+     *
+     * @param label etiqueta de la fila.
+     * @return la posición de la fila, o -1 si no existe.
+     */
+    private int findRowIndex(Object label) {
+        if (rowLabels == null) {
+            return label instanceof Integer && isValidRowIndex((Integer) label) ? (Integer) label : -1;
+        }
+        Integer index = rowIndex.get(label);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Crea la lista explícita de etiquetas de fila a partir de las etiquetas
+     * implícitas (la posición de cada fila).
+     */
+    private void materializeRowLabels() {
+        if (rowLabels != null) {
+            return;
+        }
+        rowLabels = new ArrayList<>(countRows());
+        rowIndex = new HashMap<>();
+        for (int i = 0; i < countRows(); i++) {
+            rowLabels.add(i);
+            rowIndex.put(i, i);
+        }
+    }
+
+    /**
+     * Si las etiquetas de las filas se comparten con otro DataFrame (ver
+     * share), las reemplaza por una copia propia antes de modificarlas.
+     */
+    private void ownRowLabels() {
+        if (rowLabelsShared) {
+            rowLabels = new ArrayList<>(rowLabels);
+            rowIndex = new HashMap<>(rowIndex);
+            rowLabelsShared = false;
+        }
+    }
+
+    /**
+     * Congela el DataFrame para compartirlo entre hilos: congela el
+     * almacenamiento de cada columna (ver Column.freeze) y marca las etiquetas
+     * de las filas como compartidas, de modo que cualquier modificación
+     * posterior trabaje sobre copias.
+     */
+    void freeze() {
+        for (Column<?> column : columns) {
+            column.freeze();
+        }
+        rowLabelsShared = true;
+    }
+
+    /**
+     * Crea un DataFrame con columnas nuevas que comparten el almacenamiento
+     * congelado de las de este (ver freeze) y con las mismas etiquetas de
+     * filas, sin copiar valores ni etiquetas. Cuesta O(columnas); cada
+     * DataFrame copia lo que modifica.
+     *
+     * @return el nuevo DataFrame.
+     */
+    DataFrame share() {
+        DataFrame shared = new DataFrame();
+        for (Column<?> column : columns) {
+            shared.addColumn(new Column<>(column.getLabel(), column.getStorage()));
+        }
+        if (rowLabels != null) {
+            shared.rowLabels = rowLabels;
+            shared.rowIndex = rowIndex;
+            shared.duplicateRowLabels = duplicateRowLabels;
+            shared.rowLabelsShared = true;
+        }
+        return shared;
     }
 
     /**
@@ -370,10 +573,11 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      * @throws LabelNotFound
      */
     public Cell<?> getCell(Object rowLabel, Object columnLabel) throws IndexOutOfBounds, LabelNotFound {
-        int columnIndex = columns.indexOf(this.getColumn(columnLabel));
-        int rowIndex = rows.indexOf(this.getRow(rowLabel));
-
-        return columns.get(columnIndex).getCell(rowIndex);
+        int rowIndex = findRowIndex(rowLabel);
+        if (rowIndex == -1) {
+            throw new LabelNotFound();
+        }
+        return this.getColumn(columnLabel).getCell(rowIndex);
     }
 
     /**
@@ -394,7 +598,10 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     }
 
     /**
-     * Crea y devuelve una copia del DataFrame actual.
+     * Crea y devuelve una copia del DataFrame actual sin copiar valores: cada
+     * columna de la copia es una vista de la original (ver Column.view), y la
+     * primera de las dos que se modifique copia los valores que necesita. Las
+     * etiquetas propias de las filas, si las hay, se copian.
      * 
      * @return
      * @throws InvalidShape
@@ -404,18 +611,24 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      */
     @Override
     public DataFrame copy() throws InvalidShape, TypeDoesNotMatch, LabelAlreadyInUse, IndexOutOfBounds {
-        List<Row> rows = new ArrayList<>();
-        for (Row row : this.rows) {
-            rows.add(row.copy());
+        DataFrame copy = new DataFrame();
+        for (Column<?> column : columns) {
+            copy.addColumn(column.view(0, column.size()));
+        }
+        if (rowLabels != null) {
+            copy.rowLabels = new ArrayList<>(rowLabels);
+            copy.rowIndex = new HashMap<>(rowIndex);
+            copy.duplicateRowLabels = duplicateRowLabels;
         }
-        return new DataFrame(rows, this.getColumnLabels());
+        return copy;
     }
 
     /**
      * Obtiene las primeras n filas del DataFrame.
      *
      * @param n número de filas a obtener.
-     * @return un nuevo DataFrame con las primeras n filas.
+     * @return un nuevo DataFrame con las primeras n filas, cuyas columnas son
+     *         vistas de las columnas originales (ver Column.view).
      * @throws IndexOutOfBounds si el número de filas a obtener es mayor que el
      *                          número de filas en el DataFrame.
      * @throws InvalidShape     si las dimensiones del nuevo DataFrame no son
@@ -430,7 +643,8 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
      * Obtiene las últimas n filas del DataFrame.
      *
      * @param n número de filas a obtener.
-     * @return un nuevo DataFrame con las últimas n filas.
+     * @return un nuevo DataFrame con las últimas n filas, cuyas columnas son
+     *         vistas de las columnas originales (ver Column.view).
      * @throws IndexOutOfBounds si el número de filas a obtener es mayor que el
      *                          número de filas en el DataFrame.
      * @throws InvalidShape     si las dimensiones del nuevo DataFrame no son
@@ -461,12 +675,24 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
         exportData(path, ExportFormat.JSON);
     }
 
+    /**
+     * Exporta los datos del DataFrame a un archivo en formato binario, que se
+     * puede volver a cargar con DataImporter.readBinary.
+     *
+     * @param path ruta del archivo.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public void exportToBinary(String path) throws IndexOutOfBounds {
+        exportData(path, ExportFormat.BINARY);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("\n");
-        appendColumnHeaders(sb);
-        appendRowData(sb);
+        List<Integer> columnWidths = calculateColumnWidths(getColumnLabels());
+        appendColumnHeaders(sb, columnWidths);
+        appendRowData(sb, columnWidths);
         return sb.toString();
     }
 
@@ -532,12 +758,23 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     }
 
     /**
-     * Obtiene las filas del DataFrame.
+     * Obtiene las filas del DataFrame. La lista es una vista de solo lectura:
+     * cada fila se crea al accederla y refleja los valores de las columnas.
      *
      * @return lista de filas.
      */
     public List<Row> getRows() {
-        return rows;
+        return new AbstractList<Row>() {
+            @Override
+            public Row get(int index) {
+                return new Row(DataFrame.this, index);
+            }
+
+            @Override
+            public int size() {
+                return countRows();
+            }
+        };
     }
 
     /**
@@ -553,6 +790,77 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
         return labels;
     }
 
+    /**
+     * Estima la memoria que ocupa el DataFrame, con una fila por columna y una
+     * primera fila "Index" con el propio DataFrame, la lista y el índice de
+     * columnas y, si existen, las etiquetas de las filas y su índice.
+     * Las columnas del resultado son column, type, rows, shallow_bytes (los
+     * arreglos y estructuras propios de cada columna) y deep_bytes (además, las
+     * cadenas y objetos a los que apuntan y, en las vistas, la columna que
+     * muestran; por eso dos vistas de una misma columna la cuentan dos veces).
+     * Las filas (Row) y celdas (Cell) son vistas que se crean al solicitarlas,
+     * por lo que no ocupan memoria mientras no se usen.
+     * Las estimaciones suponen una JVM de 64 bits con referencias comprimidas.
+     *
+     * @return un nuevo DataFrame con las estimaciones en bytes.
+     * @throws InvalidShape     si las columnas no tienen la misma cantidad de
+     *                          filas.
+     * @throws TypeDoesNotMatch si el tipo de datos de una columna no coincide.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public DataFrame memoryUsage() throws InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        int size = columns.size() + 1;
+        StringStorage labels = new StringStorage(size);
+        StringStorage types = new StringStorage(size);
+        IntStorage rows = new IntStorage(size);
+        LongStorage shallow = new LongStorage(size);
+        LongStorage deep = new LongStorage(size);
+
+        long index = MemoryEstimator.object(6 * MemoryEstimator.REFERENCE + 1)
+                + 2 * MemoryEstimator.object(MemoryEstimator.REFERENCE)
+                + MemoryEstimator.list(columns) + MemoryEstimator.map(columnIndex);
+        long indexDeep = index;
+        for (Map.Entry<Object, Integer> entry : columnIndex.entrySet()) {
+            indexDeep += MemoryEstimator.value(entry.getKey()) + MemoryEstimator.value(entry.getValue());
+        }
+        if (rowLabels != null) {
+            index += MemoryEstimator.list(rowLabels) + MemoryEstimator.map(rowIndex);
+            indexDeep += MemoryEstimator.list(rowLabels) + MemoryEstimator.map(rowIndex);
+            for (Map.Entry<Object, Integer> entry : rowIndex.entrySet()) {
+                // Las posiciones mayores a 127 no están en la caché de Integer
+                long position = entry.getValue() > 127 ? MemoryEstimator.value(entry.getValue()) : 0;
+                index += position;
+                indexDeep += position + MemoryEstimator.value(entry.getKey());
+            }
+        }
+        labels.add("Index");
+        types.addNull();
+        rows.addInt(countRows());
+        shallow.addLong(index);
+        deep.addLong(indexDeep);
+
+        for (Column<?> column : columns) {
+            labels.add(String.valueOf(column.getLabel()));
+            Class<?> type = column.getType();
+            if (type == null) {
+                types.addNull();
+            } else {
+                types.add(type.getSimpleName());
+            }
+            rows.addInt(column.size());
+            shallow.addLong(column.memoryUsage(false));
+            deep.addLong(column.memoryUsage(true));
+        }
+
+        List<Column<?>> result = new ArrayList<>();
+        result.add(new Column<>("column", labels));
+        result.add(new Column<>("type", types));
+        result.add(new Column<>("rows", rows));
+        result.add(new Column<>("shallow_bytes", shallow));
+        result.add(new Column<>("deep_bytes", deep));
+        return new DataFrame(result);
+    }
+
     private void validateShape(List<Cell<?>> cells) throws InvalidShape {
         if (cells.size() != columns.size()) {
             throw new InvalidShape();
@@ -561,7 +869,7 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
 
     private void validateColumnShape(List<?> column) throws InvalidShape {
         if (column instanceof Column) {
-            if (!columns.isEmpty() && ((Column<?>) column).getCells().size() != countRows()) {
+            if (!columns.isEmpty() && ((Column<?>) column).size() != countRows()) {
                 throw new InvalidShape();
             }
         } else {
@@ -582,11 +890,16 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     }
 
     private DataFrame createSubDataFrame(int start, int end) throws IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
-        List<Row> newRows = new ArrayList<>();
-        for (int i = start; i < end; i++) {
-            newRows.add(rows.get(i));
+        start = Math.max(start, 0);
+        end = Math.min(end, countRows());
+        if (start > end) {
+            throw new IndexOutOfBounds();
         }
-        return new DataFrame(newRows, getColumnLabels());
+        DataFrame subDataFrame = new DataFrame();
+        for (Column<?> column : columns) {
+            subDataFrame.addColumn(column.view(start, end));
+        }
+        return subDataFrame;
     }
 
     private void exportData(String path, ExportFormat format) throws IndexOutOfBounds {
@@ -595,15 +908,17 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
                 exporter.toCSV(path);
             } else if (format == ExportFormat.JSON) {
                 exporter.toJSON(path);
+            } else if (format == ExportFormat.BINARY) {
+                exporter.toBinary(path);
             }
         } catch (IOException error) {
             error.printStackTrace();
         }
     }
 
-    private void appendColumnHeaders(StringBuilder sb) {
+    private void appendColumnHeaders(StringBuilder sb, List<Integer> widths) {
         List<Object> columnLabels = getColumnLabels();
-        List<Integer> columnWidths = calculateColumnWidths(columnLabels);
+        List<Integer> columnWidths = new ArrayList<>(widths);
 
         columnLabels.add(0, "Label");
         columnWidths.add(0, 5);
@@ -636,12 +951,11 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     private List<Integer> calculateColumnWidths(List<Object> columnLabels) {
         List<Integer> columnWidths = new ArrayList<>();
 
-        for (Object columnLabel : columnLabels) {
-            int maxWidth = columnLabel.toString().length();
+        for (int j = 0; j < columnLabels.size(); j++) {
+            int maxWidth = columnLabels.get(j).toString().length();
             for (int i = 0; i < countRows(); i++) {
                 try {
-                    int cellWidth = columns.get(columnLabels.indexOf(columnLabel)).getCell(i).getValue().toString()
-                            .length();
+                    int cellWidth = columns.get(j).getCell(i).toString().length();
                     if (cellWidth > maxWidth) {
                         maxWidth = cellWidth;
                     }
@@ -658,18 +972,19 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     /**
      * Añade los datos de las filas al StringBuilder.
      * 
-     * @param sb StringBuilder para añadir los datos de las filas.
+     * @param sb           StringBuilder para añadir los datos de las filas.
+     * @param columnWidths ancho de cada columna.
      */
-    private void appendRowData(StringBuilder sb) {
+    private void appendRowData(StringBuilder sb, List<Integer> columnWidths) {
         for (int i = 0; i < countRows(); i++) {
             sb.append("| ");
-            sb.append(String.format("%-" + 5 + "s", rows.get(i).getLabel()));
+            sb.append(String.format("%-" + 5 + "s", getRowLabel(i)));
             sb.append(" | ");
             for (int j = 0; j < countColumns(); j++) {
                 Column<?> column = columns.get(j);
                 try {
-                    String cellValue = column.getCell(i).getValue().toString();
-                    sb.append(String.format("%-" + calculateColumnWidths(getColumnLabels()).get(j) + "s", cellValue));
+                    String cellValue = column.getCell(i).toString();
+                    sb.append(String.format("%-" + columnWidths.get(j) + "s", cellValue));
                     sb.append(" | ");
                 } catch (IndexOutOfBounds e) {
                     e.printStackTrace();
@@ -694,6 +1009,46 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
         return manipulator.filter(conditions);
     }
 
+    /**
+     * Filtra las filas del DataFrame según una condición evaluada columna por
+     * columna.
+     * 
+     * @param filter condición que deben cumplir las filas.
+     * @return un nuevo DataFrame con las filas que cumplen la condición.
+     * @throws LabelNotFound    si una columna de la condición no se encuentra.
+     * @throws TypeDoesNotMatch si una condición no se puede aplicar al tipo de
+     *                          su columna.
+     * @throws InvalidShape     si las dimensiones no son válidas.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public DataFrame filter(RowFilter filter)
+            throws LabelNotFound, TypeDoesNotMatch, InvalidShape, IndexOutOfBounds {
+        return manipulator.filter(filter);
+    }
+
+    /**
+     * Une las filas del DataFrame con las de otro según los valores de sus
+     * columnas de clave, con una tabla hash sobre las claves del otro
+     * DataFrame, o recorriendo los dos en paralelo si ya están ordenados por
+     * la clave.
+     * 
+     * @param other   DataFrame con el que se une (lado derecho).
+     * @param leftOn  etiquetas de las columnas de clave de este DataFrame.
+     * @param rightOn etiquetas de las columnas de clave del otro.
+     * @param how     tipo de unión.
+     * @return un nuevo DataFrame con las filas unidas.
+     * @throws LabelNotFound    si una etiqueta no se encuentra.
+     * @throws InvalidShape     si las listas de claves están vacías o tienen
+     *                          distinto largo.
+     * @throws TypeDoesNotMatch si dos columnas de clave tienen tipos
+     *                          distintos.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public DataFrame join(DataFrame other, List<Object> leftOn, List<Object> rightOn, JoinType how)
+            throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        return manipulator.join(other, leftOn, rightOn, how);
+    }
+
     /**
      * Llena los valores nulos en una columna con un valor específico.
      * 
@@ -743,6 +1098,118 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
         return manipulator.sortBy(labels, descending);
     }
 
+    /**
+     * Ordena las filas del DataFrame basado en una o más columnas, cada una en
+     * su propio sentido.
+     * 
+     * @param labels     lista de etiquetas de las columnas.
+     * @param descending para cada etiqueta, true si se ordena de forma
+     *                   descendente.
+     * @return un nuevo DataFrame con las filas ordenadas.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws InvalidShape     si la cantidad de sentidos no coincide con la de
+     *                          etiquetas.
+     * @throws TypeDoesNotMatch si los tipos de datos no coinciden.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public DataFrame sortBy(List<Object> labels, boolean[] descending)
+            throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        return manipulator.sortBy(labels, descending);
+    }
+
+    /**
+     * Ordena las filas del DataFrame basado en una o más columnas, en paralelo
+     * si se indica y el DataFrame es grande. El resultado es el mismo que el
+     * del ordenamiento secuencial.
+     * 
+     * @param labels     lista de etiquetas de las columnas.
+     * @param descending para cada etiqueta, true si se ordena de forma
+     *                   descendente.
+     * @param parallel   true para ordenar en paralelo.
+     * @return un nuevo DataFrame con las filas ordenadas.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws InvalidShape     si la cantidad de sentidos no coincide con la de
+     *                          etiquetas.
+     * @throws TypeDoesNotMatch si los tipos de datos no coinciden.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public DataFrame sortBy(List<Object> labels, boolean[] descending, boolean parallel)
+            throws LabelNotFound, InvalidShape, TypeDoesNotMatch, IndexOutOfBounds {
+        return manipulator.sortBy(labels, descending, parallel);
+    }
+
+    /**
+     * Obtiene las n filas con los valores más grandes en las columnas
+     * indicadas, sin ordenar todo el DataFrame. Equivale a
+     * sortBy(labels, true).head(n).
+     * 
+     * @param n      cantidad de filas.
+     * @param labels lista de etiquetas de las columnas.
+     * @return un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws IndexOutOfBounds si n es negativo.
+     * @throws InvalidShape     si las dimensiones no son válidas.
+     * @throws TypeDoesNotMatch si los tipos de datos no coinciden.
+     */
+    public DataFrame nlargest(int n, List<Object> labels)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return manipulator.nlargest(n, labels);
+    }
+
+    /**
+     * Obtiene las n filas con los valores más chicos en las columnas
+     * indicadas, sin ordenar todo el DataFrame. Equivale a
+     * sortBy(labels, false).head(n).
+     * 
+     * @param n      cantidad de filas.
+     * @param labels lista de etiquetas de las columnas.
+     * @return un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws IndexOutOfBounds si n es negativo.
+     * @throws InvalidShape     si las dimensiones no son válidas.
+     * @throws TypeDoesNotMatch si los tipos de datos no coinciden.
+     */
+    public DataFrame nsmallest(int n, List<Object> labels)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return manipulator.nsmallest(n, labels);
+    }
+
+    /**
+     * Obtiene las n filas con los valores más grandes, buscándolas en paralelo
+     * si se indica. El resultado es el mismo que el de nlargest(n, labels).
+     * 
+     * @param n        cantidad de filas.
+     * @param labels   lista de etiquetas de las columnas.
+     * @param parallel true para buscar en el pool fork-join común.
+     * @return un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws IndexOutOfBounds si n es negativo.
+     * @throws InvalidShape     si las dimensiones no son válidas.
+     * @throws TypeDoesNotMatch si los tipos de datos no coinciden.
+     */
+    public DataFrame nlargest(int n, List<Object> labels, boolean parallel)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return manipulator.nlargest(n, labels, parallel);
+    }
+
+    /**
+     * Obtiene las n filas con los valores más chicos, buscándolas en paralelo
+     * si se indica. El resultado es el mismo que el de nsmallest(n, labels).
+     * 
+     * @param n        cantidad de filas.
+     * @param labels   lista de etiquetas de las columnas.
+     * @param parallel true para buscar en el pool fork-join común.
+     * @return un nuevo DataFrame con hasta n filas.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws IndexOutOfBounds si n es negativo.
+     * @throws InvalidShape     si las dimensiones no son válidas.
+     * @throws TypeDoesNotMatch si los tipos de datos no coinciden.
+     */
+    public DataFrame nsmallest(int n, List<Object> labels, boolean parallel)
+            throws LabelNotFound, IndexOutOfBounds, InvalidShape, TypeDoesNotMatch {
+        return manipulator.nsmallest(n, labels, parallel);
+    }
+
     /**
      * Devuelve un subconjunto de columnas del DataFrame.
      * 
@@ -772,8 +1239,64 @@ public class DataFrame implements Visualizer<DataFrame>, CopyableStructure<DataF
     }
 
     /**
-     * Concatena dos DataFrames.
+     * Agrupa las filas del DataFrame basado en una o más columnas, en paralelo
+     * si se indica. En ese caso tanto el agrupamiento como las agregaciones
+     * del resultado se calculan en el pool fork-join común.
      * 
+     * @param label    lista de etiquetas de las columnas.
+     * @param parallel true para agrupar y agregar en paralelo.
+     * @return un nuevo DataFrame agrupado.
+     * @throws LabelNotFound    si la etiqueta de la columna no se encuentra.
+     * @throws IndexOutOfBounds si hay índices fuera del rango permitido.
+     */
+    public GroupedDataFrame groupBy(List<Object> label, boolean parallel) throws LabelNotFound, IndexOutOfBounds {
+        return manipulator.groupBy(label, parallel);
+    }
+
+    /**
+     * Agrega al final de este DataFrame las filas de otro con las mismas
+     * columnas, copiando los valores de cada columna de una sola vez. El espacio
+     * de las columnas crece de forma geométrica, así que agregar muchos lotes
+     * pequeños cuesta lo mismo que copiar todas sus filas una vez. Las filas
+     * agregadas toman su posición como etiqueta.
+     *
+     * @param other DataFrame cuyas filas se agregan.
+     * @return la instancia del DataFrame.
+     * @throws LabelDoesNotMatch si las etiquetas de las columnas no coinciden.
+     * @throws TypeDoesNotMatch  si los tipos de alguna columna no coinciden; en
+     *                           ese caso el DataFrame no se modifica.
+     */
+    @SuppressWarnings("unchecked")
+    public DataFrame append(DataFrame other) throws LabelDoesNotMatch, TypeDoesNotMatch {
+        if (!getColumnLabels().equals(other.getColumnLabels())) {
+            throw new LabelDoesNotMatch();
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            if (!columns.get(i).canAppend(other.columns.get(i))) {
+                throw new TypeDoesNotMatch();
+            }
+        }
+        int start = countRows();
+        int added = other.countRows();
+        for (int i = 0; i < columns.size(); i++) {
+            ((Column<Object>) columns.get(i)).appendAll((Column<Object>) other.columns.get(i));
+        }
+        if (rowLabels != null) {
+            ownRowLabels();
+            for (int index = start; index < start + added; index++) {
+                rowLabels.add(index);
+                if (rowIndex.putIfAbsent(index, index) != null) {
+                    duplicateRowLabels = true;
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Concatena dos DataFrames en uno nuevo, con una sola copia de los valores
+     * de cada columna (ver append).
+     *
      * @param other DataFrame a concatenar.
      * @return un nuevo DataFrame con las filas concatenadas.
      * @throws InvalidShape      si las dimensiones de los DataFrames no coinciden.
@@ -0,0 +1,136 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Almacenamiento de valores Double sobre un arreglo de double.
+ */
+public class DoubleStorage extends ColumnStorage<Double> {
+    private double[] values;
+
+    /**
+     * Crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacity capacidad inicial.
+     */
+    public DoubleStorage(int capacity) {
+        this.values = new double[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Crea un almacenamiento con los valores de un arreglo, sin copiarlo.
+     *
+     * @param values arreglo con los valores; pasa a pertenecer al
+     *               almacenamiento.
+     * @param size   cantidad de valores válidos del arreglo.
+     */
+    public DoubleStorage(double[] values, int size) {
+        this.values = values.length == 0 ? new double[1] : values;
+        this.size = size;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.DOUBLE;
+    }
+
+    @Override
+    public Class<?> getValueType() {
+        return Double.class;
+    }
+
+    @Override
+    public Double get(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void set(int index, Double value) {
+        values[index] = value == null ? 0.0 : value;
+        setNull(index, value == null);
+        changed(index);
+    }
+
+    @Override
+    public void add(Double value) {
+        if (value == null) {
+            addNull();
+        } else {
+            addDouble(value);
+        }
+    }
+
+    /**
+     * Agrega un valor primitivo al final del almacenamiento.
+     *
+     * @param value valor a agregar.
+     */
+    public void addDouble(double value) {
+        ensureCapacity();
+        values[size++] = value;
+    }
+
+    @Override
+    public void addNull() {
+        ensureCapacity();
+        setNull(size, true);
+        values[size++] = 0.0;
+    }
+
+    @Override
+    protected long valuesMemoryUsage(boolean deep) {
+        return MemoryEstimator.array(values.length, 8);
+    }
+
+    @Override
+    public DoubleStorage copy() {
+        DoubleStorage copy = new DoubleStorage(0);
+        copy.values = Arrays.copyOf(values, Math.max(size, 1));
+        copy.size = size;
+        copy.copyNullsFrom(this);
+        return copy;
+    }
+
+    @Override
+    public DoubleStorage slice(int start, int end) {
+        DoubleStorage slice = new DoubleStorage(0);
+        slice.values = Arrays.copyOfRange(values, start, Math.max(end, start + 1));
+        slice.size = end - start;
+        slice.copyNullsFrom(this, start, end);
+        return slice;
+    }
+
+    @Override
+    public DoubleStorage select(int[] indices) {
+        double[] selected = new double[Math.max(indices.length, 1)];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        DoubleStorage selection = new DoubleStorage(selected, indices.length);
+        selection.selectNullsFrom(this, indices);
+        return selection;
+    }
+
+    @Override
+    protected void appendRange(ColumnStorage<Double> other, int start, int end) {
+        DoubleStorage source = (DoubleStorage) other;
+        int length = end - start;
+        if (size + length > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + length, grow(values.length)));
+        }
+        System.arraycopy(source.values, start, values, size, length);
+        appendNullsFrom(source, start, end);
+        size += length;
+    }
+
+    private void ensureCapacity() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+    }
+}
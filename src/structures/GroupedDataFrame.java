@@ -1,44 +1,133 @@
 package structures;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import exceptions.IndexOutOfBounds;
 import exceptions.InvalidShape;
 import exceptions.LabelNotFound;
 import exceptions.TypeDoesNotMatch;
+import performance.Metrics;
 
 /**
  * La clase GroupedDataFrame representa un DataFrame agrupado por una o más
  * columnas.
  * 
  * Permite realizar operaciones de agregación como sum, mean, min, max, count,
+ * std y var.
+ *
+ * Cada grupo se guarda como un arreglo con las posiciones de sus filas en el
+ * DataFrame original, y los grupos se numeran en el orden en que aparece su
+ * primera fila. Los métodos sum, mean, etc. indexan sus resultados por el
+ * nombre del grupo, que une con "_" el texto de cada valor de la clave, y
+ * lanzan IllegalStateException si dos grupos distintos dan el mismo nombre
+ * (por ejemplo ("a_b", "c") y ("a", "b_c"), o null y "null"); agg calcula
+ * varias agregaciones a la vez y devuelve un DataFrame con los valores
+ * originales de la clave, sin esa ambigüedad.
  */
 public class GroupedDataFrame {
+    private static final int MIN_CHUNK_ROWS = 1 << 16;
+    private static final int MIN_MERGE_GROUPS = 1 << 12;
+
     private final DataFrame df;
-    private final Map<String, List<Row>> groupedData;
+    private final int[] keyColumns;
+    private final int[][] groups;
+    private final ForkJoinPool pool;
+    private int[] rowGroups;
 
     /**
-     * Constructor para GroupedDataFrame con DataFrame original.
+     * Constructor para GroupedDataFrame con DataFrame original, sin grupos.
      *
      * @param df DataFrame original
      */
     public GroupedDataFrame(DataFrame df) {
-        this.df = df;
-        this.groupedData = new HashMap<>();
+        this(df, new int[0], new int[0][]);
     }
 
     /**
      * Constructor para GroupedDataFrame con DataFrame original y datos agrupados.
      *
-     * @param df          DataFrame original
-     * @param groupedData Datos agrupados
+     * @param df         DataFrame original
+     * @param keyColumns Posiciones de las columnas por las que se agrupó
+     * @param groups     Posiciones de las filas de cada grupo
      */
-    public GroupedDataFrame(DataFrame df, Map<String, List<Row>> groupedData) {
+    public GroupedDataFrame(DataFrame df, int[] keyColumns, int[][] groups) {
+        this(df, keyColumns, groups, null);
+    }
+
+    /**
+     * Constructor para GroupedDataFrame que calcula las agregaciones en
+     * paralelo. Las filas se reparten en bloques, cada bloque acumula sus
+     * propios resultados parciales por grupo y al final se combinan en el
+     * orden de los bloques, por lo que el resultado no depende de la
+     * planificación de los hilos.
+     *
+     * @param df         DataFrame original
+     * @param keyColumns Posiciones de las columnas por las que se agrupó
+     * @param groups     Posiciones de las filas de cada grupo
+     * @param pool       Pool en el que se calculan las agregaciones, o null
+     *                   para calcularlas en el hilo actual
+     */
+    public GroupedDataFrame(DataFrame df, int[] keyColumns, int[][] groups, ForkJoinPool pool) {
         this.df = df;
-        this.groupedData = groupedData;
+        this.keyColumns = keyColumns;
+        this.groups = groups;
+        this.pool = pool;
+    }
+
+    /**
+     * Obtiene la cantidad de grupos.
+     *
+     * @return la cantidad de grupos
+     */
+    public int countGroups() {
+        return groups.length;
+    }
+
+    /**
+     * Obtiene los valores de la clave de un grupo, uno por columna de
+     * agrupación.
+     *
+     * @param group número del grupo
+     * @return los valores de la clave
+     */
+    public List<Object> getGroupKey(int group) {
+        List<Object> key = new ArrayList<>(keyColumns.length);
+        int row = groups[group][0];
+        for (int column : keyColumns) {
+            key.add(df.getColumns().get(column).getReadOnlyStorage().get(row));
+        }
+        return key;
+    }
+
+    /**
+     * Obtiene las posiciones de las filas de un grupo en el DataFrame original.
+     *
+     * @param group número del grupo
+     * @return las posiciones, en orden ascendente
+     */
+    public int[] getGroupRows(int group) {
+        return groups[group].clone();
+    }
+
+    private String groupName(int group) {
+        StringBuilder name = new StringBuilder();
+        for (Object value : getGroupKey(group)) {
+            if (name.length() > 0) {
+                name.append("_");
+            }
+            name.append(value);
+        }
+        return name.toString();
     }
 
     /**
@@ -57,7 +146,7 @@ public class GroupedDataFrame {
      * @throws IndexOutOfBounds si el índice está fuera de los límites
      */
     public Map<String, Double> sum(Object label) throws LabelNotFound, IndexOutOfBounds {
-        return aggregate(label, "sum");
+        return aggregate(label, Aggregation.SUM);
     }
 
     /**
@@ -69,7 +158,7 @@ public class GroupedDataFrame {
      * @throws IndexOutOfBounds si el índice está fuera de los límites
      */
     public Map<String, Double> mean(Object label) throws LabelNotFound, IndexOutOfBounds {
-        return aggregate(label, "mean");
+        return aggregate(label, Aggregation.MEAN);
     }
 
     /**
@@ -81,7 +170,7 @@ public class GroupedDataFrame {
      * @throws IndexOutOfBounds si el índice está fuera de los límites
      */
     public Map<String, Double> min(Object label) throws LabelNotFound, IndexOutOfBounds {
-        return aggregate(label, "min");
+        return aggregate(label, Aggregation.MIN);
     }
 
     /**
@@ -93,7 +182,7 @@ public class GroupedDataFrame {
      * @throws IndexOutOfBounds si el índice está fuera de los límites
      */
     public Map<String, Double> max(Object label) throws LabelNotFound, IndexOutOfBounds {
-        return aggregate(label, "max");
+        return aggregate(label, Aggregation.MAX);
     }
 
     /**
@@ -106,7 +195,7 @@ public class GroupedDataFrame {
      */
     public Map<String, Integer> count(Object label) throws LabelNotFound, IndexOutOfBounds {
         Map<String, Integer> results = new HashMap<>();
-        for (Map.Entry<String, Double> entry : aggregate(label, "count").entrySet()) {
+        for (Map.Entry<String, Double> entry : aggregate(label, Aggregation.COUNT).entrySet()) {
             results.put(entry.getKey(), entry.getValue().intValue());
         }
         return results;
@@ -121,67 +210,233 @@ public class GroupedDataFrame {
      * @throws IndexOutOfBounds si el índice está fuera de los límites
      */
     public Map<String, Double> std(Object label) throws LabelNotFound, IndexOutOfBounds {
-        return aggregate(label, "std");
+        return aggregate(label, Aggregation.STD);
     }
 
     /**
      * Calculates the variance for a specified label in each group.
      */
     public Map<String, Double> var(Object label) throws LabelNotFound, IndexOutOfBounds {
-        return aggregate(label, "var");
+        return aggregate(label, Aggregation.VAR);
+    }
+
+    /**
+     * Calcula varias agregaciones sobre una o más columnas en cada grupo. Cada
+     * columna se recorre una sola vez, acumulando a la vez todas las
+     * agregaciones pedidas para ella (ver Aggregation).
+     *
+     * El resultado tiene una fila por grupo, en el orden de los grupos, con
+     * las columnas de la clave seguidas de una columna por cada agregación,
+     * etiquetada como "columna_agregación" (por ejemplo "salary_mean"). Las
+     * cuentas son enteras y el resto de los resultados son double; las
+     * agregaciones que no están definidas para un grupo sin valores quedan
+     * nulas.
+     *
+     * @param aggregations agregaciones a calcular por etiqueta de columna.
+     * @return un DataFrame con los resultados por grupo.
+     * @throws LabelNotFound    si una etiqueta no se encuentra en el DataFrame.
+     * @throws TypeDoesNotMatch si se pide una agregación distinta de COUNT sobre
+     *                          una columna que no es numérica.
+     * @throws InvalidShape     si las columnas del resultado no tienen la misma
+     *                          cantidad de filas.
+     * @throws IndexOutOfBounds si el índice está fuera de los límites.
+     */
+    public DataFrame agg(Map<?, List<Aggregation>> aggregations)
+            throws LabelNotFound, TypeDoesNotMatch, InvalidShape, IndexOutOfBounds {
+        List<Column<?>> columns = new ArrayList<>();
+        int[] firstRows = new int[groups.length];
+        for (int group = 0; group < groups.length; group++) {
+            firstRows[group] = groups[group][0];
+        }
+        for (int index : keyColumns) {
+            Column<?> key = df.getColumns().get(index);
+            columns.add(new Column<>(key.getLabel(), key.getReadOnlyStorage().select(firstRows)));
+        }
+
+        for (Map.Entry<?, List<Aggregation>> entry : aggregations.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            ColumnStorage<?> storage = df.getColumn(entry.getKey()).getReadOnlyStorage();
+            Accumulator accumulator = accumulate(storage, EnumSet.copyOf(entry.getValue()));
+            if (accumulator == null) {
+                throw new TypeDoesNotMatch();
+            }
+            for (Aggregation aggregation : entry.getValue()) {
+                columns.add(new Column<>(entry.getKey() + "_" + aggregation.label(),
+                        results(accumulator, aggregation)));
+            }
+        }
+        return new DataFrame(columns);
+    }
+
+    private ColumnStorage<?> results(Accumulator accumulator, Aggregation aggregation) {
+        if (aggregation == Aggregation.COUNT) {
+            IntStorage counts = new IntStorage(groups.length);
+            for (int group = 0; group < groups.length; group++) {
+                counts.addInt(accumulator.result(aggregation, group).intValue());
+            }
+            return counts;
+        }
+        DoubleStorage values = new DoubleStorage(groups.length);
+        for (int group = 0; group < groups.length; group++) {
+            values.add(accumulator.result(aggregation, group));
+        }
+        return values;
     }
 
-    private Map<String, Double> aggregate(Object label, String operation)
+    private Map<String, Double> aggregate(Object label, Aggregation aggregation)
             throws LabelNotFound, IndexOutOfBounds {
+        ColumnStorage<?> storage = df.getColumns().get(df.getColumnIndex(label)).getReadOnlyStorage();
+        Accumulator accumulator = accumulate(storage, EnumSet.of(aggregation));
+        if (accumulator == null) {
+            throw new ClassCastException("Column " + label + " is not numeric");
+        }
         Map<String, Double> results = new HashMap<>();
-        int columnIndex = df.getColumnLabels().indexOf(label);
-        if (columnIndex < 0)
-            throw new LabelNotFound("Label " + label + " not found.");
-
-        for (Map.Entry<String, List<Row>> entry : groupedData.entrySet()) {
-            String groupKey = entry.getKey();
-            List<Row> rows = entry.getValue();
-
-            double result = operation.equals("min") ? Double.MAX_VALUE : operation.equals("max") ? Double.MIN_VALUE : 0;
-
-            int count = 0;
-            List<Cell<?>> values = new ArrayList<>();
-
-            for (Row row : rows) {
-                Cell<?> cell = row.getCell(columnIndex);
-                if (cell != null && cell.getValue() != null) {
-                    if (!"count".equals(operation)) {
-                        double value = ((Number) cell.getValue()).doubleValue();
-                        if ("sum".equals(operation) || "mean".equals(operation)) {
-                            result += value;
-                        } else if ("min".equals(operation))
-                            result = Math.min(result, value);
-                        else if ("max".equals(operation))
-                            result = Math.max(result, value);
-                        else if ("std".equals(operation) || "var".equals(operation)) {
-                            result += value;
-                            values.add(cell);
-                        }
-                    }
-
-                    count++;
+        for (int group = 0; group < groups.length; group++) {
+            String name = groupName(group);
+            results.put(name, accumulator.result(aggregation, group));
+            if (results.size() <= group) {
+                throw new IllegalStateException("Group " + getGroupKey(group) + " repeats the name " + name
+                        + "; use agg to aggregate by the key values");
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Recorre una columna y acumula sus valores no nulos en el grupo de cada
+     * fila.
+     *
+     * @return el acumulador, o null si las agregaciones necesitan valores
+     *         numéricos y la columna tiene otros.
+     */
+    private Accumulator accumulate(ColumnStorage<?> storage, Set<Aggregation> aggregations) {
+        long start = Metrics.start();
+        Accumulator accumulator = accumulateChunks(storage, aggregations);
+        Metrics.record("agg", start, storage.size(), 0);
+        return accumulator;
+    }
+
+    private Accumulator accumulateChunks(ColumnStorage<?> storage, Set<Aggregation> aggregations) {
+        ColumnStorage.Kind kind = storage.getKind();
+        if (Accumulator.needsValues(aggregations)
+                && (kind == ColumnStorage.Kind.BOOLEAN || kind == ColumnStorage.Kind.STRING)) {
+            return null;
+        }
+        int[] rowGroups = rowGroups();
+        int chunkCount = pool == null ? 1 : Math.min(pool.getParallelism(), rowGroups.length / MIN_CHUNK_ROWS);
+        if (chunkCount < 2) {
+            return accumulate(storage, aggregations, rowGroups, 0, rowGroups.length);
+        }
+
+        List<Callable<Accumulator>> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            int start = (int) ((long) rowGroups.length * i / chunkCount);
+            int end = (int) ((long) rowGroups.length * (i + 1) / chunkCount);
+            chunks.add(() -> accumulate(storage, aggregations, rowGroups, start, end));
+        }
+        List<Accumulator> partials = invoke(chunks);
+        if (partials.contains(null)) {
+            return null;
+        }
+
+        // Cada rango de grupos combina los parciales en el orden de los bloques
+        Accumulator result = partials.get(0);
+        int rangeCount = Math.max(1, Math.min(pool.getParallelism(), groups.length / MIN_MERGE_GROUPS));
+        List<Callable<Accumulator>> ranges = new ArrayList<>(rangeCount);
+        for (int i = 0; i < rangeCount; i++) {
+            int from = (int) ((long) groups.length * i / rangeCount);
+            int to = (int) ((long) groups.length * (i + 1) / rangeCount);
+            ranges.add(() -> {
+                for (Accumulator partial : partials.subList(1, partials.size())) {
+                    result.merge(partial, from, to);
                 }
+                return result;
+            });
+        }
+        invoke(ranges);
+        return result;
+    }
+
+    /**
+     * Recorre un rango de filas de una columna y acumula sus valores no nulos
+     * en el grupo de cada fila.
+     *
+     * @return el acumulador, o null si las agregaciones necesitan valores
+     *         numéricos y la columna tiene otros.
+     */
+    private Accumulator accumulate(ColumnStorage<?> storage, Set<Aggregation> aggregations, int[] rowGroups,
+            int start, int end) {
+        Accumulator accumulator = new Accumulator(groups.length, aggregations);
+        boolean values = Accumulator.needsValues(aggregations);
+        boolean objects = storage.getKind() == ColumnStorage.Kind.OBJECT;
+        for (int row = start; row < end; row++) {
+            int group = rowGroups[row];
+            if (group < 0 || storage.isNull(row)) {
+                continue;
+            }
+            if (!values) {
+                accumulator.count(group);
+            } else if (!objects) {
+                accumulator.add(group, storage.getDouble(row));
+            } else if (storage.get(row) instanceof Number) {
+                accumulator.add(group, ((Number) storage.get(row)).doubleValue());
+            } else {
+                return null;
             }
-            if ("count".equals(operation))
-                result = count;
-            if ("mean".equals(operation))
-                result = result / count;
-            if ("std".equals(operation) || "var".equals(operation)) {
-                double mean = result / count;
-                double sum = 0;
-                for (Cell<?> cell : values) {
-                    double value = ((Number) cell.getValue()).doubleValue();
-                    sum += Math.pow(value - mean, 2);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Obtiene el número de grupo de cada fila del DataFrame original, o -1 si
+     * la fila no está en ningún grupo. Se calcula una sola vez.
+     */
+    private int[] rowGroups() {
+        if (rowGroups == null) {
+            int[] ids = new int[df.countRows()];
+            Arrays.fill(ids, -1);
+            int rangeCount = pool == null ? 1 : Math.min(pool.getParallelism(), ids.length / MIN_CHUNK_ROWS);
+            if (rangeCount < 2) {
+                fillRowGroups(ids, 0, groups.length);
+            } else {
+                List<Callable<int[]>> ranges = new ArrayList<>(rangeCount);
+                for (int i = 0; i < rangeCount; i++) {
+                    int from = (int) ((long) groups.length * i / rangeCount);
+                    int to = (int) ((long) groups.length * (i + 1) / rangeCount);
+                    ranges.add(() -> fillRowGroups(ids, from, to));
                 }
-                double variance = sum / count;
-                result = "std".equals(operation) ? Math.sqrt(variance) : variance;
+                invoke(ranges);
             }
-            results.put(groupKey, result);
+            rowGroups = ids;
+        }
+        return rowGroups;
+    }
+
+    private int[] fillRowGroups(int[] ids, int from, int to) {
+        for (int group = from; group < to; group++) {
+            for (int row : groups[group]) {
+                ids[row] = group;
+            }
+        }
+        return ids;
+    }
+
+    private <T> List<T> invoke(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> result : pool.invokeAll(tasks)) {
+                results.add(result.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
         }
         return results;
     }
@@ -192,10 +447,14 @@ public class GroupedDataFrame {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, List<Row>> entry : groupedData.entrySet()) {
-            sb.append(entry.getKey()).append("\n");
+        for (int group = 0; group < groups.length; group++) {
+            sb.append(groupName(group)).append("\n");
             try {
-                sb.append(new DataFrame(entry.getValue(), this.df.getColumnLabels()).toString()).append("\n");
+                List<Row> rows = new ArrayList<>(groups[group].length);
+                for (int row : groups[group]) {
+                    rows.add(this.df.getRows().get(row));
+                }
+                sb.append(new DataFrame(rows, this.df.getColumnLabels()).toString()).append("\n");
             } catch (IndexOutOfBounds | InvalidShape | TypeDoesNotMatch e) {
                 e.printStackTrace();
             }
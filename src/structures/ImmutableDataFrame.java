@@ -0,0 +1,291 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import exceptions.IndexOutOfBounds;
+import exceptions.InvalidShape;
+import exceptions.LabelNotFound;
+import exceptions.TypeDoesNotMatch;
+
+/**
+ * DataFrame inmutable y persistente: las operaciones que modifican los datos
+ * (setCell, fillna, insertColumn e insertRow) devuelven un nuevo
+ * ImmutableDataFrame y dejan el original sin cambios.
+ *
+ * Las versiones comparten todo lo que no cambia. Cada columna se guarda en
+ * bloques de ColumnChunks.CHUNK_ROWS filas (ver ColumnChunks): modificar
+ * una celda copia un solo bloque de una columna, fillna copia solo los
+ * bloques que tienen nulos, e insertRow solo el último bloque de cada
+ * columna. Como nada se modifica, copiar un ImmutableDataFrame no tiene
+ * sentido, y se puede leer desde varios hilos a la vez.
+ *
+ * Las filas se identifican por su posición. Para usar el resto de las
+ * operaciones (filtros, ordenamiento, agrupación, exportación), toDataFrame
+ * devuelve un DataFrame común que comparte los valores.
+ */
+public final class ImmutableDataFrame {
+    private final List<Object> labels;
+    private final Map<Object, Integer> columnIndex;
+    private final List<ColumnChunks<?>> columns;
+    private final int rows;
+
+    private ImmutableDataFrame(List<Object> labels, Map<Object, Integer> columnIndex, List<ColumnChunks<?>> columns,
+            int rows) {
+        this.labels = labels;
+        this.columnIndex = columnIndex;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Crea un DataFrame inmutable vacío.
+     */
+    public ImmutableDataFrame() {
+        this(Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(), 0);
+    }
+
+    /**
+     * Crea un DataFrame inmutable con los valores de un DataFrame, sin
+     * copiarlos: los almacenamientos de sus columnas quedan congelados (ver
+     * ColumnStorage.freeze) y el DataFrame original copia cada columna la
+     * próxima vez que la modifica.
+     *
+     * @param df DataFrame con los valores.
+     */
+    public ImmutableDataFrame(DataFrame df) {
+        List<Object> labels = new ArrayList<>();
+        Map<Object, Integer> columnIndex = new HashMap<>();
+        List<ColumnChunks<?>> columns = new ArrayList<>();
+        for (Column<?> column : df.getColumns()) {
+            columnIndex.putIfAbsent(column.getLabel(), labels.size());
+            labels.add(column.getLabel());
+            columns.add(ColumnChunks.of(column));
+        }
+        this.labels = Collections.unmodifiableList(labels);
+        this.columnIndex = columnIndex;
+        this.columns = Collections.unmodifiableList(columns);
+        this.rows = df.countRows();
+    }
+
+    /**
+     * Obtiene el número de filas.
+     *
+     * @return el número de filas.
+     */
+    public int countRows() {
+        return rows;
+    }
+
+    /**
+     * Obtiene el número de columnas.
+     *
+     * @return el número de columnas.
+     */
+    public int countColumns() {
+        return columns.size();
+    }
+
+    /**
+     * Obtiene las etiquetas de las columnas.
+     *
+     * @return lista de solo lectura con las etiquetas.
+     */
+    public List<Object> getColumnLabels() {
+        return labels;
+    }
+
+    /**
+     * Obtiene la posición de una columna a partir de su etiqueta.
+     *
+     * @param label etiqueta de la columna.
+     * @return la posición de la columna.
+     * @throws LabelNotFound si la etiqueta no se encuentra.
+     */
+    public int getColumnIndex(Object label) throws LabelNotFound {
+        Integer index = columnIndex.get(label);
+        if (index == null) {
+            throw new LabelNotFound("Label not found: " + label);
+        }
+        return index;
+    }
+
+    /**
+     * Obtiene el valor de una celda.
+     *
+     * @param rowIndex    índice de la fila.
+     * @param columnIndex índice de la columna.
+     * @return el valor, o null si la celda está vacía.
+     * @throws IndexOutOfBounds si los índices están fuera de los límites.
+     */
+    public Object getValue(int rowIndex, int columnIndex) throws IndexOutOfBounds {
+        checkIndices(rowIndex, columnIndex);
+        return columns.get(columnIndex).get(rowIndex);
+    }
+
+    /**
+     * Obtiene el valor de una celda, indicando la columna por su etiqueta.
+     *
+     * @param rowIndex    índice de la fila.
+     * @param columnLabel etiqueta de la columna.
+     * @return el valor, o null si la celda está vacía.
+     * @throws IndexOutOfBounds si el índice está fuera de los límites.
+     * @throws LabelNotFound    si la columna no existe.
+     */
+    public Object getValue(int rowIndex, Object columnLabel) throws IndexOutOfBounds, LabelNotFound {
+        return getValue(rowIndex, getColumnIndex(columnLabel));
+    }
+
+    /**
+     * Devuelve un DataFrame con el valor de una celda reemplazado. Copia un
+     * solo bloque de la columna; el resto se comparte.
+     *
+     * @param rowIndex    índice de la fila.
+     * @param columnIndex índice de la columna.
+     * @param value       nuevo valor.
+     * @return el nuevo DataFrame.
+     * @throws IndexOutOfBounds si los índices están fuera de los límites.
+     * @throws TypeDoesNotMatch si el tipo del valor no coincide con el de la
+     *                          columna.
+     */
+    @SuppressWarnings("unchecked")
+    public ImmutableDataFrame setCell(int rowIndex, int columnIndex, Object value)
+            throws IndexOutOfBounds, TypeDoesNotMatch {
+        checkIndices(rowIndex, columnIndex);
+        ColumnChunks<Object> column = (ColumnChunks<Object>) columns.get(columnIndex);
+        return replace(columnIndex, column.set(rowIndex, value));
+    }
+
+    /**
+     * Devuelve un DataFrame con los valores faltantes de una columna
+     * reemplazados por un valor. Solo se copian los bloques que tienen nulos.
+     *
+     * @param label etiqueta de la columna.
+     * @param value valor con el que se rellenan los nulos.
+     * @return el nuevo DataFrame, o este si la columna no tiene nulos.
+     * @throws LabelNotFound    si la columna no existe.
+     * @throws TypeDoesNotMatch si el tipo del valor no coincide con el de la
+     *                          columna.
+     */
+    @SuppressWarnings("unchecked")
+    public ImmutableDataFrame fillna(Object label, Object value) throws LabelNotFound, TypeDoesNotMatch {
+        int index = getColumnIndex(label);
+        ColumnChunks<Object> column = (ColumnChunks<Object>) columns.get(index);
+        ColumnChunks<Object> filled = column.fill(value);
+        return filled == column ? this : replace(index, filled);
+    }
+
+    /**
+     * Devuelve un DataFrame con una columna más al final. Las demás columnas
+     * se comparten.
+     *
+     * @param label etiqueta de la nueva columna.
+     * @param data  valores de la nueva columna.
+     * @return el nuevo DataFrame.
+     * @throws InvalidShape     si la cantidad de valores no coincide con la de
+     *                          filas.
+     * @throws TypeDoesNotMatch si los valores no son todos del mismo tipo.
+     */
+    public ImmutableDataFrame insertColumn(Object label, List<?> data) throws InvalidShape, TypeDoesNotMatch {
+        Column<Object> column = new Column<>(label, data.size());
+        for (Object value : data) {
+            column.addValue(value);
+        }
+        return insert(column);
+    }
+
+    /**
+     * Devuelve un DataFrame con una copia de la columna indicada al final. Las
+     * demás columnas se comparten.
+     *
+     * @param column columna a agregar.
+     * @return el nuevo DataFrame.
+     * @throws InvalidShape si la cantidad de valores no coincide con la de
+     *                      filas.
+     */
+    public ImmutableDataFrame insertColumn(Column<?> column) throws InvalidShape {
+        return insert(column.copy());
+    }
+
+    /**
+     * Agrega una columna que pasa a pertenecer al nuevo DataFrame.
+     */
+    private ImmutableDataFrame insert(Column<?> column) throws InvalidShape {
+        if (!columns.isEmpty() && column.size() != rows) {
+            throw new InvalidShape();
+        }
+        List<Object> nextLabels = new ArrayList<>(labels);
+        nextLabels.add(column.getLabel());
+        Map<Object, Integer> nextIndex = new HashMap<>(columnIndex);
+        nextIndex.putIfAbsent(column.getLabel(), labels.size());
+        List<ColumnChunks<?>> next = new ArrayList<>(columns);
+        next.add(ColumnChunks.of(column));
+        return new ImmutableDataFrame(Collections.unmodifiableList(nextLabels), nextIndex,
+                Collections.unmodifiableList(next), column.size());
+    }
+
+    /**
+     * Devuelve un DataFrame con una fila más al final. De cada columna se
+     * copia solo el último bloque.
+     *
+     * @param row valores de la fila, uno por columna.
+     * @return el nuevo DataFrame.
+     * @throws InvalidShape     si la cantidad de valores no coincide con la de
+     *                          columnas.
+     * @throws TypeDoesNotMatch si el tipo de algún valor no coincide con el de
+     *                          su columna.
+     */
+    @SuppressWarnings("unchecked")
+    public ImmutableDataFrame insertRow(List<?> row) throws InvalidShape, TypeDoesNotMatch {
+        if (row.size() != columns.size()) {
+            throw new InvalidShape();
+        }
+        List<ColumnChunks<?>> next = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            next.add(((ColumnChunks<Object>) columns.get(i)).append(row.get(i)));
+        }
+        return new ImmutableDataFrame(labels, columnIndex, Collections.unmodifiableList(next), rows + 1);
+    }
+
+    /**
+     * Crea un DataFrame común con los valores de este, para usar el resto de
+     * las operaciones. Las columnas que no cambiaron desde que se crearon
+     * desde un DataFrame, o desde la última llamada, se comparten sin copiar;
+     * las demás se unen en un almacenamiento contiguo una sola vez. El
+     * DataFrame devuelto se puede modificar: cada columna se copia la primera
+     * vez que se modifica.
+     *
+     * @return el nuevo DataFrame.
+     */
+    public DataFrame toDataFrame() {
+        DataFrame df = new DataFrame();
+        for (int i = 0; i < columns.size(); i++) {
+            try {
+                df.insertColumn(new Column<>(labels.get(i), columns.get(i).flatten()));
+            } catch (InvalidShape e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return df;
+    }
+
+    @Override
+    public String toString() {
+        return toDataFrame().toString();
+    }
+
+    private ImmutableDataFrame replace(int index, ColumnChunks<?> column) {
+        List<ColumnChunks<?>> next = new ArrayList<>(columns);
+        next.set(index, column);
+        return new ImmutableDataFrame(labels, columnIndex, Collections.unmodifiableList(next), rows);
+    }
+
+    private void checkIndices(int rowIndex, int columnIndex) throws IndexOutOfBounds {
+        if (rowIndex < 0 || rowIndex >= rows || columnIndex < 0 || columnIndex >= columns.size()) {
+            throw new IndexOutOfBounds();
+        }
+    }
+}
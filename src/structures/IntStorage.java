@@ -0,0 +1,146 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Almacenamiento de valores Integer sobre un arreglo de int.
+ */
+public class IntStorage extends ColumnStorage<Integer> {
+    private int[] values;
+
+    /**
+     * Crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacity capacidad inicial.
+     */
+    public IntStorage(int capacity) {
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Crea un almacenamiento con los valores de un arreglo, sin copiarlo.
+     *
+     * @param values arreglo con los valores; pasa a pertenecer al
+     *               almacenamiento.
+     * @param size   cantidad de valores válidos del arreglo.
+     */
+    public IntStorage(int[] values, int size) {
+        this.values = values.length == 0 ? new int[1] : values;
+        this.size = size;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.INT;
+    }
+
+    @Override
+    public Class<?> getValueType() {
+        return Integer.class;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public int getInt(int index) {
+        return values[index];
+    }
+
+    @Override
+    public long getLong(int index) {
+        return values[index];
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void set(int index, Integer value) {
+        values[index] = value == null ? 0 : value;
+        setNull(index, value == null);
+        changed(index);
+    }
+
+    @Override
+    public void add(Integer value) {
+        if (value == null) {
+            addNull();
+        } else {
+            addInt(value);
+        }
+    }
+
+    /**
+     * Agrega un valor primitivo al final del almacenamiento.
+     *
+     * @param value valor a agregar.
+     */
+    public void addInt(int value) {
+        ensureCapacity();
+        values[size++] = value;
+    }
+
+    @Override
+    public void addNull() {
+        ensureCapacity();
+        setNull(size, true);
+        values[size++] = 0;
+    }
+
+    @Override
+    protected long valuesMemoryUsage(boolean deep) {
+        return MemoryEstimator.array(values.length, 4);
+    }
+
+    @Override
+    public IntStorage copy() {
+        IntStorage copy = new IntStorage(0);
+        copy.values = Arrays.copyOf(values, Math.max(size, 1));
+        copy.size = size;
+        copy.copyNullsFrom(this);
+        return copy;
+    }
+
+    @Override
+    public IntStorage slice(int start, int end) {
+        IntStorage slice = new IntStorage(0);
+        slice.values = Arrays.copyOfRange(values, start, Math.max(end, start + 1));
+        slice.size = end - start;
+        slice.copyNullsFrom(this, start, end);
+        return slice;
+    }
+
+    @Override
+    public IntStorage select(int[] indices) {
+        int[] selected = new int[Math.max(indices.length, 1)];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        IntStorage selection = new IntStorage(selected, indices.length);
+        selection.selectNullsFrom(this, indices);
+        return selection;
+    }
+
+    @Override
+    protected void appendRange(ColumnStorage<Integer> other, int start, int end) {
+        IntStorage source = (IntStorage) other;
+        int length = end - start;
+        if (size + length > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + length, grow(values.length)));
+        }
+        System.arraycopy(source.values, start, values, size, length);
+        appendNullsFrom(source, start, end);
+        size += length;
+    }
+
+    private void ensureCapacity() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+    }
+}
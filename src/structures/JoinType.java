@@ -0,0 +1,17 @@
+package structures;
+
+/**
+ * Tipos de unión (join) entre dos DataFrames. Las filas se unen cuando todos
+ * sus valores en las columnas de la clave son iguales; una clave con algún
+ * valor nulo no se une con ninguna fila.
+ */
+public enum JoinType {
+    /** Solo las filas con pareja en los dos DataFrames. */
+    INNER,
+    /** Todas las filas del DataFrame izquierdo, con o sin pareja. */
+    LEFT,
+    /** Todas las filas del DataFrame derecho, con o sin pareja. */
+    RIGHT,
+    /** Todas las filas de los dos DataFrames, con o sin pareja. */
+    OUTER
+}
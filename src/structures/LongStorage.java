@@ -0,0 +1,141 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Almacenamiento de valores Long sobre un arreglo de long.
+ */
+public class LongStorage extends ColumnStorage<Long> {
+    private long[] values;
+
+    /**
+     * Crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacity capacidad inicial.
+     */
+    public LongStorage(int capacity) {
+        this.values = new long[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Crea un almacenamiento con los valores de un arreglo, sin copiarlo.
+     *
+     * @param values arreglo con los valores; pasa a pertenecer al
+     *               almacenamiento.
+     * @param size   cantidad de valores válidos del arreglo.
+     */
+    public LongStorage(long[] values, int size) {
+        this.values = values.length == 0 ? new long[1] : values;
+        this.size = size;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.LONG;
+    }
+
+    @Override
+    public Class<?> getValueType() {
+        return Long.class;
+    }
+
+    @Override
+    public Long get(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public long getLong(int index) {
+        return values[index];
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void set(int index, Long value) {
+        values[index] = value == null ? 0L : value;
+        setNull(index, value == null);
+        changed(index);
+    }
+
+    @Override
+    public void add(Long value) {
+        if (value == null) {
+            addNull();
+        } else {
+            addLong(value);
+        }
+    }
+
+    /**
+     * Agrega un valor primitivo al final del almacenamiento.
+     *
+     * @param value valor a agregar.
+     */
+    public void addLong(long value) {
+        ensureCapacity();
+        values[size++] = value;
+    }
+
+    @Override
+    public void addNull() {
+        ensureCapacity();
+        setNull(size, true);
+        values[size++] = 0L;
+    }
+
+    @Override
+    protected long valuesMemoryUsage(boolean deep) {
+        return MemoryEstimator.array(values.length, 8);
+    }
+
+    @Override
+    public LongStorage copy() {
+        LongStorage copy = new LongStorage(0);
+        copy.values = Arrays.copyOf(values, Math.max(size, 1));
+        copy.size = size;
+        copy.copyNullsFrom(this);
+        return copy;
+    }
+
+    @Override
+    public LongStorage slice(int start, int end) {
+        LongStorage slice = new LongStorage(0);
+        slice.values = Arrays.copyOfRange(values, start, Math.max(end, start + 1));
+        slice.size = end - start;
+        slice.copyNullsFrom(this, start, end);
+        return slice;
+    }
+
+    @Override
+    public LongStorage select(int[] indices) {
+        long[] selected = new long[Math.max(indices.length, 1)];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        LongStorage selection = new LongStorage(selected, indices.length);
+        selection.selectNullsFrom(this, indices);
+        return selection;
+    }
+
+    @Override
+    protected void appendRange(ColumnStorage<Long> other, int start, int end) {
+        LongStorage source = (LongStorage) other;
+        int length = end - start;
+        if (size + length > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + length, grow(values.length)));
+        }
+        System.arraycopy(source.values, start, values, size, length);
+        appendNullsFrom(source, start, end);
+        size += length;
+    }
+
+    private void ensureCapacity() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package structures;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimaciones del tamaño en memoria de objetos y arreglos, para una JVM de 64
+ * bits con referencias comprimidas (la configuración por defecto con menos de
+ * 32 GB de heap): encabezados de 12 bytes en los objetos y de 16 en los
+ * arreglos, referencias de 4 bytes y tamaños alineados a 8 bytes.
+ */
+final class MemoryEstimator {
+    static final int REFERENCE = 4;
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int HASH_MAP = 48;
+    private static final int HASH_MAP_ENTRY = 32;
+    private static final int ARRAY_LIST = 24;
+
+    private MemoryEstimator() {
+    }
+
+    /**
+     * Tamaño de un objeto con campos que ocupan la cantidad de bytes indicada.
+     */
+    static long object(int fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    /**
+     * Tamaño de un arreglo.
+     *
+     * @param length       largo del arreglo.
+     * @param elementBytes bytes de cada elemento (REFERENCE para objetos).
+     */
+    static long array(int length, int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    /**
+     * Tamaño de un ArrayList con los elementos indicados, sin contar los
+     * elementos.
+     */
+    static long list(Collection<?> list) {
+        return ARRAY_LIST + array(list.size(), REFERENCE);
+    }
+
+    /**
+     * Tamaño de un HashMap con las entradas indicadas, sin contar las claves ni
+     * los valores.
+     */
+    static long map(Map<?, ?> map) {
+        int table = 0;
+        if (!map.isEmpty()) {
+            int needed = (int) Math.ceil(map.size() / 0.75);
+            table = Math.max(16, Integer.highestOneBit(Math.max(needed - 1, 1)) << 1);
+        }
+        return HASH_MAP + array(table, REFERENCE) + (long) map.size() * HASH_MAP_ENTRY;
+    }
+
+    /**
+     * Tamaño estimado de un valor de una columna, incluidos sus arreglos
+     * internos en el caso de las cadenas. Las clases desconocidas se estiman
+     * como un objeto con dos campos.
+     */
+    static long value(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return string((String) value);
+        } else if (value instanceof Long || value instanceof Double) {
+            return object(8);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return object(4);
+        } else if (value instanceof LocalDate) {
+            return object(8);
+        }
+        return object(2 * REFERENCE);
+    }
+
+    /**
+     * Tamaño de una cadena y de su arreglo de bytes: un byte por carácter si
+     * todos sus caracteres son Latin-1, dos si no.
+     */
+    static long string(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return object(4 + 4 + REFERENCE) + array(value.length() * bytesPerChar, 1);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,133 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Almacenamiento genérico para valores sin representación primitiva.
+ * También se utiliza mientras una columna no recibió ningún valor no nulo y,
+ * por lo tanto, su tipo todavía es desconocido.
+ */
+public class ObjectStorage extends ColumnStorage<Object> {
+    private Object[] values;
+    private final Class<?> type;
+
+    /**
+     * Crea un almacenamiento vacío para el tipo y la capacidad indicados.
+     *
+     * @param type     clase de los valores, o null si todavía no se conoce.
+     * @param capacity capacidad inicial.
+     */
+    public ObjectStorage(Class<?> type, int capacity) {
+        this.type = type;
+        this.values = new Object[Math.max(capacity, 1)];
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.OBJECT;
+    }
+
+    @Override
+    public Class<?> getValueType() {
+        return type;
+    }
+
+    @Override
+    public boolean accepts(Object value) {
+        return type == null || super.accepts(value);
+    }
+
+    @Override
+    public Object get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return values[index] == null;
+    }
+
+    @Override
+    public boolean hasNulls() {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return ((Number) values[index]).doubleValue();
+    }
+
+    @Override
+    public void set(int index, Object value) {
+        values[index] = value;
+    }
+
+    @Override
+    public void add(Object value) {
+        ensureCapacity();
+        values[size++] = value;
+    }
+
+    @Override
+    public void addNull() {
+        add(null);
+    }
+
+    @Override
+    protected long valuesMemoryUsage(boolean deep) {
+        long bytes = MemoryEstimator.array(values.length, MemoryEstimator.REFERENCE);
+        if (deep) {
+            for (int i = 0; i < size; i++) {
+                bytes += MemoryEstimator.value(values[i]);
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public ObjectStorage copy() {
+        ObjectStorage copy = new ObjectStorage(type, 0);
+        copy.values = Arrays.copyOf(values, Math.max(size, 1));
+        copy.size = size;
+        return copy;
+    }
+
+    @Override
+    public ObjectStorage slice(int start, int end) {
+        ObjectStorage slice = new ObjectStorage(type, 0);
+        slice.values = Arrays.copyOfRange(values, start, Math.max(end, start + 1));
+        slice.size = end - start;
+        return slice;
+    }
+
+    @Override
+    public ObjectStorage select(int[] indices) {
+        ObjectStorage selection = new ObjectStorage(type, indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            selection.values[i] = values[indices[i]];
+        }
+        selection.size = indices.length;
+        return selection;
+    }
+
+    @Override
+    protected void appendRange(ColumnStorage<Object> other, int start, int end) {
+        if (size + end - start > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + end - start, grow(values.length)));
+        }
+        for (int i = start; i < end; i++) {
+            values[size++] = other.get(i);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+    }
+}
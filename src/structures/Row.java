@@ -1,14 +1,23 @@
 package structures;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.List;
 
+import exceptions.IndexOutOfBounds;
+import exceptions.TypeDoesNotMatch;
 import interfaces.CopyableStructure;
 
 /**
  * La clase Row representa una fila que contiene una lista de celdas (Cell) y
  * una etiqueta.
+ * Las filas obtenidas de un DataFrame son vistas livianas: guardan solo la
+ * posición de la fila y una referencia al DataFrame, y sus celdas se leen de
+ * las columnas al momento de accederlas.
  */
 public class Row implements CopyableStructure<Row> {
+    private final DataFrame frame;
+    private final int index;
     private Object label;
     private List<Cell<?>> cells;
 
@@ -19,17 +28,30 @@ public class Row implements CopyableStructure<Row> {
      * @param cells Lista de celdas que forman la fila.
      */
     public Row(Object label, List<Cell<?>> cells) {
+        this.frame = null;
+        this.index = -1;
         this.label = label;
         this.cells = cells;
     }
 
+    /**
+     * Constructor que crea una vista sobre una fila de un DataFrame.
+     *
+     * @param frame DataFrame al que pertenece la fila.
+     * @param index Posición de la fila en el DataFrame.
+     */
+    Row(DataFrame frame, int index) {
+        this.frame = frame;
+        this.index = index;
+    }
+
     /**
      * Obtiene la etiqueta de la fila.
      *
      * @return La etiqueta de la fila.
      */
     public Object getLabel() {
-        return label;
+        return frame != null ? frame.getRowLabel(index) : label;
     }
 
     /**
@@ -38,7 +60,11 @@ public class Row implements CopyableStructure<Row> {
      * @param label Nueva etiqueta para la fila.
      */
     public void setLabel(Object label) {
-        this.label = label;
+        if (frame != null) {
+            frame.setRowLabel(index, label);
+        } else {
+            this.label = label;
+        }
     }
 
     /**
@@ -47,7 +73,20 @@ public class Row implements CopyableStructure<Row> {
      * @return La lista de celdas.
      */
     public List<Cell<?>> getCells() {
-        return cells;
+        if (frame == null) {
+            return cells;
+        }
+        return new AbstractList<Cell<?>>() {
+            @Override
+            public Cell<?> get(int i) {
+                return getCell(i);
+            }
+
+            @Override
+            public int size() {
+                return Row.this.size();
+            }
+        };
     }
 
     /**
@@ -57,17 +96,51 @@ public class Row implements CopyableStructure<Row> {
      * @return La celda en el índice especificado.
      */
     public Cell<?> getCell(int index) {
-        return cells.get(index);
+        if (frame == null) {
+            return cells.get(index);
+        }
+        try {
+            return frame.getColumns().get(index).getCell(this.index);
+        } catch (IndexOutOfBounds e) {
+            throw new IndexOutOfBoundsException(e.getMessage());
+        }
     }
 
     /**
-     * Establece una celda en el índice especificado.
+     * Obtiene el valor de la celda en el índice especificado sin crear la celda.
+     *
+     * @param index Índice de la celda.
+     * @return El valor de la celda.
+     */
+    public Object getValue(int index) {
+        if (frame == null) {
+            return cells.get(index).getValue();
+        }
+        return frame.getColumns().get(index).get(this.index);
+    }
+
+    /**
+     * Establece una celda en el índice especificado. En una fila de un DataFrame,
+     * el valor de la celda se escribe en la columna correspondiente.
      *
      * @param index Índice de la celda a establecer.
      * @param cell  Nueva celda para la posición especificada.
+     * @throws IllegalArgumentException si el tipo de la celda no coincide con el
+     *                                  de la columna.
      */
+    @SuppressWarnings("unchecked")
     public void setCell(int index, Cell<?> cell) {
-        cells.set(index, cell);
+        if (frame == null) {
+            cells.set(index, cell);
+            return;
+        }
+        try {
+            ((Column<Object>) frame.getColumns().get(index)).setCell(this.index, cell.getValue());
+        } catch (IndexOutOfBounds e) {
+            throw new IndexOutOfBoundsException(e.getMessage());
+        } catch (TypeDoesNotMatch e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
     }
 
     /**
@@ -76,17 +149,22 @@ public class Row implements CopyableStructure<Row> {
      * @return El número de celdas en la fila.
      */
     public int size() {
-        return cells.size();
+        return frame != null ? frame.countColumns() : cells.size();
     }
 
     /**
-     * Crea una copia de la fila actual.
+     * Crea una copia de la fila actual con celdas nuevas, independiente de la
+     * fila original y del DataFrame al que pertenece.
      *
      * @return Una copia de la fila.
      */
     @Override
     public Row copy() {
-        return new Row(label, cells);
+        List<Cell<?>> copy = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            copy.add(new Cell<>(getValue(i)));
+        }
+        return new Row(getLabel(), copy);
     }
 
     /**
@@ -98,11 +176,11 @@ public class Row implements CopyableStructure<Row> {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        sb.append("[").append(label);
-        for (Cell<?> cell : cells) {
-            sb.append(", ").append(cell.getValue());
+        sb.append("[").append(getLabel());
+        for (int i = 0; i < size(); i++) {
+            sb.append(", ").append(getValue(i));
         }
         sb.append("]");
         return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Almacenamiento de solo lectura que muestra un rango de posiciones, o una
+ * lista de posiciones (vector de selección), de otro almacenamiento sin copiar
+ * sus valores. Crear una vista cuesta O(1) para un rango y O(k) para una
+ * selección de k filas, sin importar el tamaño del original.
+ *
+ * Las vistas no se modifican: antes de escribir, la columna que la contiene la
+ * reemplaza por una copia (ver Column.setCell). Si el almacenamiento original
+ * se modifica, primero se desprenden sus vistas, que pasan a tener su propia
+ * copia de los valores que muestran (ver ColumnStorage.detachViews).
+ *
+ * @param <T> Tipo de dato de los valores almacenados.
+ */
+final class StorageView<T> extends ColumnStorage<T> {
+    private ColumnStorage<T> source;
+    private int offset;
+    private int[] rows;
+
+    private StorageView(ColumnStorage<T> source, int offset, int[] rows, int size) {
+        this.source = source;
+        this.offset = offset;
+        this.rows = rows;
+        this.size = size;
+        source.addView(this);
+    }
+
+    /**
+     * Crea una vista de un rango de posiciones. Si el almacenamiento ya es una
+     * vista, la nueva vista apunta directamente a su origen.
+     *
+     * @param storage almacenamiento original.
+     * @param start   posición inicial (inclusiva).
+     * @param end     posición final (exclusiva).
+     * @return la vista.
+     */
+    static <T> StorageView<T> range(ColumnStorage<T> storage, int start, int end) {
+        if (storage instanceof StorageView) {
+            StorageView<T> view = (StorageView<T>) storage;
+            if (view.rows != null) {
+                return new StorageView<>(view.source, 0, Arrays.copyOfRange(view.rows, start, end), end - start);
+            }
+            return new StorageView<>(view.source, view.offset + start, null, end - start);
+        }
+        return new StorageView<>(storage, start, null, end - start);
+    }
+
+    /**
+     * Crea una vista de las posiciones indicadas, en ese orden. Si el
+     * almacenamiento ya es una vista, las posiciones se traducen a posiciones
+     * de su origen.
+     *
+     * @param storage almacenamiento original.
+     * @param indices posiciones a mostrar; el arreglo no se copia, así que
+     *                varias vistas pueden compartirlo, y no debe modificarse.
+     * @return la vista.
+     */
+    static <T> StorageView<T> rows(ColumnStorage<T> storage, int[] indices) {
+        if (storage instanceof StorageView) {
+            StorageView<T> view = (StorageView<T>) storage;
+            int[] mapped = new int[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                mapped[i] = view.map(indices[i]);
+            }
+            return new StorageView<>(view.source, 0, mapped, mapped.length);
+        }
+        return new StorageView<>(storage, 0, indices, indices.length);
+    }
+
+    /**
+     * Copia los valores de la vista a un almacenamiento propio y deja de
+     * depender del original.
+     *
+     * @return el almacenamiento con los valores copiados.
+     */
+    ColumnStorage<T> detach() {
+        ColumnStorage<T> copy = copy();
+        source = copy;
+        offset = 0;
+        rows = null;
+        return copy;
+    }
+
+    /**
+     * Verifica si la vista todavía muestra valores del almacenamiento indicado.
+     *
+     * @param storage almacenamiento a verificar.
+     * @return true si la vista depende de ese almacenamiento.
+     */
+    boolean isViewOf(ColumnStorage<?> storage) {
+        return source == storage;
+    }
+
+    private int map(int index) {
+        return rows != null ? rows[index] : offset + index;
+    }
+
+    @Override
+    public Kind getKind() {
+        return source.getKind();
+    }
+
+    @Override
+    public Class<?> getValueType() {
+        return source.getValueType();
+    }
+
+    @Override
+    public T get(int index) {
+        return source.get(map(index));
+    }
+
+    @Override
+    public int getInt(int index) {
+        return source.getInt(map(index));
+    }
+
+    @Override
+    public long getLong(int index) {
+        return source.getLong(map(index));
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return source.getDouble(map(index));
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return source.getBoolean(map(index));
+    }
+
+    @Override
+    public int getCode(int index) {
+        return source.getCode(map(index));
+    }
+
+    @Override
+    public String decode(int code) {
+        return source.decode(code);
+    }
+
+    @Override
+    public int dictionarySize() {
+        return source.dictionarySize();
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return source.isNull(map(index));
+    }
+
+    @Override
+    public boolean hasNulls() {
+        if (!source.hasNulls()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (isNull(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean accepts(Object value) {
+        return source.accepts(value);
+    }
+
+    @Override
+    public void set(int index, T value) {
+        throw new UnsupportedOperationException("Storage views are read-only");
+    }
+
+    @Override
+    public void add(T value) {
+        throw new UnsupportedOperationException("Storage views are read-only");
+    }
+
+    @Override
+    public void addNull() {
+        throw new UnsupportedOperationException("Storage views are read-only");
+    }
+
+    @Override
+    protected void appendRange(ColumnStorage<T> other, int start, int end) {
+        throw new UnsupportedOperationException("Storage views are read-only");
+    }
+
+    @Override
+    protected long valuesMemoryUsage(boolean deep) {
+        // El vector de selección puede estar compartido con otras vistas
+        long bytes = rows == null ? 0 : MemoryEstimator.array(rows.length, 4);
+        return deep ? bytes + source.memoryUsage(true) : bytes;
+    }
+
+    @Override
+    public ColumnStorage<T> copy() {
+        return rows != null ? source.select(rows) : source.slice(offset, offset + size);
+    }
+
+    @Override
+    public ColumnStorage<T> slice(int start, int end) {
+        return rows != null ? source.select(Arrays.copyOfRange(rows, start, end))
+                : source.slice(offset + start, offset + end);
+    }
+
+    @Override
+    public ColumnStorage<T> select(int[] indices) {
+        int[] mapped = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            mapped[i] = map(indices[i]);
+        }
+        return source.select(mapped);
+    }
+}
@@ -0,0 +1,328 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacenamiento de valores String codificados con diccionario.
+ * Cada valor distinto se guarda una única vez y las posiciones de la columna
+ * guardan el código entero de su valor. Los nulos se representan con el código
+ * -1.
+ */
+public class StringStorage extends ColumnStorage<String> {
+    private static final int NULL_CODE = -1;
+
+    private int[] codes;
+    private List<String> dictionary;
+    private Map<String, Integer> lookup;
+    private boolean sharedDictionary;
+
+    /**
+     * Crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacity capacidad inicial.
+     */
+    public StringStorage(int capacity) {
+        this.codes = new int[Math.max(capacity, 1)];
+        this.dictionary = new ArrayList<>();
+        this.lookup = new HashMap<>();
+    }
+
+    /**
+     * Crea un almacenamiento a partir de un diccionario y de los códigos de cada
+     * posición, sin copiar los códigos.
+     *
+     * @param dictionary valores distintos, sin repetidos; el código de cada uno
+     *                   es su posición en la lista.
+     * @param codes      código de cada posición, o -1 para los nulos; pasa a
+     *                   pertenecer al almacenamiento.
+     * @param size       cantidad de posiciones.
+     */
+    public StringStorage(List<String> dictionary, int[] codes, int size) {
+        this.codes = codes.length == 0 ? new int[1] : codes;
+        this.size = size;
+        this.dictionary = new ArrayList<>(dictionary);
+        this.lookup = new HashMap<>(dictionary.size() * 2);
+        for (int code = 0; code < dictionary.size(); code++) {
+            lookup.put(dictionary.get(code), code);
+        }
+    }
+
+    /**
+     * Crea un almacenamiento vacío que comparte el diccionario de otro, de modo
+     * que los códigos de ambos son intercambiables (ver ChunkedStorage).
+     *
+     * @param owner    almacenamiento cuyo diccionario se comparte.
+     * @param capacity capacidad inicial.
+     */
+    StringStorage(StringStorage owner, int capacity) {
+        this.codes = new int[Math.max(capacity, 1)];
+        this.dictionary = owner.dictionary;
+        this.lookup = owner.lookup;
+        this.sharedDictionary = true;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.STRING;
+    }
+
+    @Override
+    public Class<?> getValueType() {
+        return String.class;
+    }
+
+    @Override
+    public String get(int index) {
+        int code = codes[index];
+        return code == NULL_CODE ? null : dictionary.get(code);
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return codes[index] == NULL_CODE;
+    }
+
+    @Override
+    public boolean hasNulls() {
+        for (int i = 0; i < size; i++) {
+            if (codes[i] == NULL_CODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getCode(int index) {
+        return codes[index];
+    }
+
+    @Override
+    public String decode(int code) {
+        return dictionary.get(code);
+    }
+
+    @Override
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+
+    @Override
+    public void set(int index, String value) {
+        codes[index] = encode(value);
+    }
+
+    @Override
+    public void add(String value) {
+        ensureCapacity();
+        codes[size++] = encode(value);
+    }
+
+    /**
+     * Agrega un valor a partir de su código de diccionario, sin buscar la cadena.
+     *
+     * @param code código de un valor ya presente en el diccionario.
+     */
+    public void addCode(int code) {
+        ensureCapacity();
+        codes[size++] = code;
+    }
+
+    @Override
+    public void addNull() {
+        ensureCapacity();
+        codes[size++] = NULL_CODE;
+    }
+
+    @Override
+    protected long valuesMemoryUsage(boolean deep) {
+        if (sharedDictionary) {
+            // El diccionario se cuenta en el almacenamiento que lo creó
+            return MemoryEstimator.array(codes.length, 4);
+        }
+        // Las claves de lookup son las mismas cadenas del diccionario; los
+        // códigos mayores a 127 son Integer propios
+        long bytes = MemoryEstimator.array(codes.length, 4) + MemoryEstimator.list(dictionary)
+                + MemoryEstimator.map(lookup) + Math.max(dictionary.size() - 128, 0) * MemoryEstimator.object(4);
+        if (deep) {
+            for (String value : dictionary) {
+                bytes += MemoryEstimator.string(value);
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public StringStorage copy() {
+        StringStorage copy = new StringStorage(0);
+        copy.codes = Arrays.copyOf(codes, Math.max(size, 1));
+        copy.dictionary = new ArrayList<>(dictionary);
+        copy.lookup = new HashMap<>(lookup);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Crea una copia de los códigos que usa el diccionario de otro
+     * almacenamiento, que debe tener los mismos códigos que el de este (por
+     * ejemplo, una copia de él).
+     *
+     * @param owner almacenamiento cuyo diccionario se comparte.
+     * @return la copia.
+     */
+    StringStorage copySharing(StringStorage owner) {
+        StringStorage copy = new StringStorage(owner, 0);
+        copy.codes = Arrays.copyOf(codes, Math.max(size, 1));
+        copy.size = size;
+        return copy;
+    }
+
+    @Override
+    public StringStorage slice(int start, int end) {
+        StringStorage slice = new StringStorage(end - start);
+        for (int i = start; i < end; i++) {
+            slice.add(get(i));
+        }
+        return slice;
+    }
+
+    @Override
+    public StringStorage select(int[] indices) {
+        int[] selected = new int[Math.max(indices.length, 1)];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = codes[indices[i]];
+        }
+        return withCodes(selected, indices.length);
+    }
+
+    /**
+     * Verifica si el diccionario ya tiene un valor, es decir, si agregarlo no
+     * modificaría el diccionario.
+     *
+     * @param value valor a buscar.
+     * @return true si el valor tiene código.
+     */
+    boolean contains(String value) {
+        return lookup.containsKey(value);
+    }
+
+    /**
+     * Crea un almacenamiento vacío con una copia del diccionario, en la que los
+     * valores conservan sus códigos.
+     *
+     * @return el almacenamiento con el diccionario copiado.
+     */
+    StringStorage copyDictionary() {
+        StringStorage copy = new StringStorage(0);
+        copy.dictionary = new ArrayList<>(dictionary);
+        copy.lookup = new HashMap<>(lookup);
+        return copy;
+    }
+
+    /**
+     * Pasa a usar el diccionario de otro almacenamiento, que debe tener los
+     * mismos códigos que el actual (por ejemplo, una copia de él).
+     *
+     * @param owner almacenamiento cuyo diccionario se comparte.
+     */
+    void shareDictionary(StringStorage owner) {
+        this.dictionary = owner.dictionary;
+        this.lookup = owner.lookup;
+        this.sharedDictionary = true;
+    }
+
+    /**
+     * Crea un almacenamiento con los valores que indican códigos de este
+     * diccionario. El nuevo diccionario tiene solo los valores usados, en el
+     * orden en que aparecen, por lo que el costo depende de la cantidad de
+     * códigos y no del tamaño de este diccionario.
+     *
+     * @param selected código de cada posición en este diccionario; se
+     *                 reemplaza por el código en el nuevo y pasa a pertenecer
+     *                 al almacenamiento.
+     * @param length   cantidad de posiciones.
+     * @return el almacenamiento.
+     */
+    StringStorage withCodes(int[] selected, int length) {
+        StringStorage result = new StringStorage(0);
+        result.codes = selected.length == 0 ? new int[1] : selected;
+        result.size = length;
+        // Como en appendRange, un arreglo del tamaño del diccionario solo
+        // conviene si no es más grande que la cantidad de códigos
+        int[] remap = dictionary.size() <= length ? new int[dictionary.size()] : null;
+        Map<Integer, Integer> sparse = remap == null ? new HashMap<>() : null;
+        for (int i = 0; i < length; i++) {
+            int code = selected[i];
+            if (code == NULL_CODE) {
+                continue;
+            }
+            if (remap != null) {
+                if (remap[code] == 0) {
+                    remap[code] = result.encode(dictionary.get(code)) + 1;
+                }
+                selected[i] = remap[code] - 1;
+            } else {
+                Integer mapped = sparse.get(code);
+                if (mapped == null) {
+                    mapped = result.encode(dictionary.get(code));
+                    sparse.put(code, mapped);
+                }
+                selected[i] = mapped;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected void appendRange(ColumnStorage<String> other, int start, int end) {
+        StringStorage source = (StringStorage) other;
+        if (size + end - start > codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(size + end - start, grow(codes.length)));
+        }
+        if (source.dictionary == dictionary) {
+            System.arraycopy(source.codes, start, codes, size, end - start);
+            size += end - start;
+            return;
+        }
+        // Traducir el diccionario entero solo conviene si no es más grande que
+        // el rango; si no, se busca cada valor
+        int[] remap = null;
+        if (source.dictionary.size() <= end - start) {
+            remap = new int[source.dictionary.size()];
+            for (int code = 0; code < remap.length; code++) {
+                remap[code] = encode(source.dictionary.get(code));
+            }
+        }
+        for (int i = start; i < end; i++) {
+            int code = source.codes[i];
+            if (code == NULL_CODE) {
+                codes[size++] = NULL_CODE;
+            } else {
+                codes[size++] = remap != null ? remap[code] : encode(source.dictionary.get(code));
+            }
+        }
+    }
+
+    private int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = lookup.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            lookup.put(value, code);
+        }
+        return code;
+    }
+
+    private void ensureCapacity() {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, grow(codes.length));
+        }
+    }
+}
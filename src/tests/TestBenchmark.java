@@ -0,0 +1,54 @@
+package tests;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import performance.Benchmark;
+import performance.BenchmarkSuite;
+import performance.FrameGenerator;
+import structures.DataFrame;
+
+public class TestBenchmark {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        // Con la misma semilla se genera el mismo DataFrame
+        FrameGenerator generator = new FrameGenerator().rows(2000).cardinality(7).nullRatio(0.1);
+        DataFrame first = generator.generate();
+        DataFrame second = generator.generate();
+        assert first.getColumnLabels().equals(Arrays.asList("c0", "c1", "c2", "c3", "c4"));
+        for (Object label : first.getColumnLabels()) {
+            assert first.getColumn(label).getValue().equals(second.getColumn(label).getValue());
+        }
+        assert first.getColumn("c2").getType() == Double.class;
+        HashSet<Object> distinct = new HashSet<>(first.getColumn("c3").getValue());
+        assert distinct.size() == 8 && distinct.contains(null);
+        assert !generator.seed(1).generate().getColumn("c0").getValue().equals(first.getColumn("c0").getValue());
+
+        DataFrame custom = new FrameGenerator().rows(10).columns(String.class, Integer.class).generate();
+        assert custom.countColumns() == 2 && custom.countRows() == 10;
+
+        // Todas las operaciones del conjunto se miden sobre un DataFrame pequeño
+        Benchmark benchmark = new Benchmark().warmup(1).iterations(2).minIterationTime(0);
+        DataFrame results = BenchmarkSuite.run(new FrameGenerator().rows(500).nullRatio(0.05), benchmark);
+        assert results.getColumn("benchmark").getValue().equals(Arrays.asList("readCSV", "readJSON", "toCSV",
+                "toJSON", "filter", "sortBy", "groupBy", "concat", "copy", "head", "tail", "show", "toString"));
+        for (int i = 0; i < results.countRows(); i++) {
+            long min = (Long) results.getColumn("min_ns").getValue().get(i);
+            long max = (Long) results.getColumn("max_ns").getValue().get(i);
+            long median = (Long) results.getColumn("median_ns").getValue().get(i);
+            assert min <= median && median <= max;
+            assert (Integer) results.getColumn("iterations").getValue().get(i) == 2;
+        }
+
+        // Las operaciones rápidas se repiten hasta durar el mínimo de la
+        // iteración
+        DataFrame quick = new Benchmark().warmup(2).iterations(3).minIterationTime(2_000_000L)
+                .add("sum", 1, () -> first.countRows() + 1)
+                .run();
+        assert (Integer) quick.getColumn("batch").getValue().get(0) > 1;
+    }
+}
@@ -0,0 +1,63 @@
+package tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import libraries.DataExporter;
+import libraries.DataImporter;
+import structures.DataFrame;
+
+public class TestBinaryFormat {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("dataframe", ".bin");
+        try {
+            // Todos los tipos, con nulos y etiquetas de fila propias
+            List<List<?>> rows = Arrays.asList(
+                    Arrays.asList("Alice", 23, 3000000000L, 1.5, true, null),
+                    Arrays.asList(null, null, null, null, null, null),
+                    Arrays.asList("Bob", -7, -1L, -0.25, false, null),
+                    Arrays.asList("Alice", 0, 0L, 0.0, true, null));
+            DataFrame df = new DataFrame(rows, Arrays.asList("name", "age", "big", "score", "active", "empty"));
+            df.getRow(2).setLabel("b");
+
+            new DataExporter(df).toBinary(file.toString());
+            DataFrame loaded = DataImporter.readBinary(file.toString());
+
+            assert loaded.countRows() == 4;
+            assert loaded.getColumnLabels().equals(df.getColumnLabels());
+            for (int c = 0; c < df.countColumns(); c++) {
+                assert loaded.getColumns().get(c).getType() == df.getColumns().get(c).getType();
+                assert loaded.getColumns().get(c).getValue().equals(df.getColumns().get(c).getValue());
+            }
+            assert loaded.getRow("b").getValue(0).equals("Bob");
+            assert loaded.getRow(3).getLabel().equals(3);
+            assert loaded.hasRowLabels() && !new DataFrame(rows).hasRowLabels();
+
+            // Los valores cargados se pueden modificar
+            loaded.setCell(1, 0, "Carol");
+            assert loaded.getCell(1, 0).getValue().equals("Carol");
+
+            // DataFrame vacío
+            new DataFrame().exportToBinary(file.toString());
+            assert DataImporter.readBinary(file.toString()).countColumns() == 0;
+
+            // Un archivo que no está en formato binario
+            Files.write(file, "name,age\n".getBytes());
+            try {
+                DataImporter.readBinary(file.toString());
+                assert false : "Se esperaba IOException";
+            } catch (IOException e) {
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import exceptions.InvalidShape;
+import exceptions.TypeDoesNotMatch;
+import libraries.DataImporter;
+import structures.DataFrame;
+
+public class TestCSVParser {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        // Delimitador configurable, comillas, saltos de línea CRLF y campos vacíos
+        String csv = "id;price;active;comment\r\n"
+                + "1;2.5;TRUE;\"uno; dos\"\r\n"
+                + "2;-.5;false;\"dice \"\"hola\"\"\"\r\n"
+                + "\r\n"
+                + "3;;false;\"línea\nnueva\"\r\n";
+        DataFrame df = DataImporter.readCSV(stream(csv), ';');
+
+        assert df.countRows() == 3;
+        assert df.countColumns() == 4;
+        assert df.getColumn("id").getType() == Integer.class;
+        assert df.getColumn("price").getType() == Double.class;
+        assert df.getColumn("active").getType() == Boolean.class;
+        assert df.getCell(0, 3).getValue().equals("uno; dos");
+        assert df.getCell(1, 3).getValue().equals("dice \"hola\"");
+        assert df.getCell(2, 3).getValue().equals("línea\nnueva");
+        assert df.getCell(1, 1).getValue().equals(-0.5);
+        assert df.getCell(2, 1).isEmpty();
+        assert df.getCell(0, 2).getValue().equals(true);
+
+        // Los enteros que no entran en un int convierten la columna a long
+        df = DataImporter.readCSV(stream("n\n1\n3000000000\n"), ',');
+        assert df.getColumn("n").getType() == Long.class;
+        assert df.getCell(0, 0).getValue().equals(1L);
+
+        // Una columna sin valores es una columna de cadenas vacías
+        df = DataImporter.readCSV(stream("a,b\n1,\n2,\n"), ',');
+        assert df.getCell(1, 1).getValue().equals("");
+
+        // Contenido vacío
+        df = DataImporter.readCSV(stream("\n"), ',');
+        assert df.countColumns() == 0;
+
+        try {
+            DataImporter.readCSV(stream("a\n1\nuno\n"), ',');
+            assert false : "Se esperaba TypeDoesNotMatch";
+        } catch (TypeDoesNotMatch e) {
+        }
+
+        try {
+            DataImporter.readCSV(stream("a,b\n1,2\n3\n"), ',');
+            assert false : "Se esperaba InvalidShape";
+        } catch (InvalidShape e) {
+        }
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,94 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import libraries.RowFilter;
+import structures.ChunkStatistics;
+import structures.Column;
+import structures.DataFrame;
+import structures.DoubleStorage;
+import structures.IntStorage;
+import structures.LongStorage;
+import structures.StringStorage;
+
+public class TestChunkStatistics {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        // Valores crecientes, para que haya bloques enteros fuera y dentro de
+        // los rangos, con nulos y NaN dispersos
+        int rows = 5 * ChunkStatistics.CHUNK_ROWS + 1234;
+        Random random = new Random(17);
+        IntStorage ints = new IntStorage(rows);
+        LongStorage longs = new LongStorage(rows);
+        DoubleStorage doubles = new DoubleStorage(rows);
+        for (int i = 0; i < rows; i++) {
+            int value = i / 10 + random.nextInt(50);
+            if (i % 997 == 0) {
+                ints.addNull();
+            } else {
+                ints.addInt(value);
+            }
+            longs.addLong(value * 1000000000L);
+            if (i % 1009 == 0) {
+                doubles.addNull();
+            } else {
+                doubles.addDouble(i % 4001 == 0 ? Double.NaN : value / 4.0);
+            }
+        }
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("int", ints));
+        columns.add(new Column<>("long", longs));
+        columns.add(new Column<>("double", doubles));
+        DataFrame df = new DataFrame(columns);
+
+        ChunkStatistics statistics = ints.statistics();
+        assert statistics.chunks() == 6;
+        assert statistics.nullCount(0) == (ChunkStatistics.CHUNK_ROWS + 996) / 997;
+        assert statistics.minLong(0) >= 0 && statistics.maxLong(0) < ChunkStatistics.CHUNK_ROWS / 10 + 50;
+        assert doubles.statistics().nanCount(0) > 0;
+        assert new StringStorage(1).statistics() == null;
+
+        double[][] ranges = { { 0, 100 }, { 9000, 20000 }, { 15000.5, 15000.5 }, { -5, 1e9 }, { 40000, 50000 } };
+        for (double[] range : ranges) {
+            check(df, "int", range[0], range[1]);
+            check(df, "long", range[0] * 1000000000L, range[1] * 1000000000L);
+            check(df, "double", range[0] / 4, range[1] / 4);
+        }
+
+        // Modificar un valor o agregar filas actualiza solo los bloques
+        // afectados
+        ((Column<Integer>) df.getColumn("int")).setCell(70000, -1);
+        ((Column<Integer>) df.getColumn("int")).setCell(1, null);
+        assert ints.statistics().minLong(1) == -1;
+        check(df, "int", -1, -1);
+        for (int i = 0; i < 100; i++) {
+            ints.addInt(1000000);
+            longs.addLong(0);
+            doubles.addDouble(Double.NaN);
+        }
+        assert ints.statistics().maxLong(5) == 1000000;
+        check(df, "int", 999999, 1000000);
+        check(df, "double", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Compara el filtro con la evaluación fila por fila.
+     */
+    private static void check(DataFrame df, String label, double low, double high) throws Exception {
+        List<?> values = df.getColumn(label).getValue();
+        List<Object> expected = new ArrayList<>();
+        for (Object value : values) {
+            if (value != null && ((Number) value).doubleValue() >= low && ((Number) value).doubleValue() <= high) {
+                expected.add(value);
+            }
+        }
+        assert df.filter(RowFilter.between(label, low, high)).getColumn(label).getValue().equals(expected);
+    }
+}
@@ -0,0 +1,109 @@
+package tests;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import libraries.DataImporter;
+import libraries.RowFilter;
+import structures.ChunkStatistics;
+import structures.ChunkedStorage;
+import structures.Column;
+import structures.ColumnStorage;
+import structures.DataFrame;
+import structures.IntStorage;
+
+public class TestChunkedStorage {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        int rows = 2 * ChunkedStorage.CHUNK_ROWS + 100;
+        assert ChunkedStorage.CHUNK_ROWS == ChunkStatistics.CHUNK_ROWS;
+
+        // Una columna pasa a bloques al superar uno, sin cambiar sus valores
+        DataFrame df = new DataFrame(Arrays.asList(Arrays.asList(0, "v0", null)), Arrays.asList("n", "s", "x"));
+        DataFrame head = df.head(1);
+        for (int i = 1; i < rows; i++) {
+            df.insertRow(Arrays.asList(i, "v" + (i % 7), i % 3 == 0 ? null : (double) i));
+        }
+        ColumnStorage<?> numbers = df.getColumn("n").getReadOnlyStorage();
+        ColumnStorage<?> strings = df.getColumn("s").getReadOnlyStorage();
+        assert numbers instanceof ChunkedStorage && ((ChunkedStorage<?>) numbers).chunks() == 3;
+        assert numbers.size() == rows && numbers.getInt(rows - 1) == rows - 1;
+        assert numbers.getInt(ChunkedStorage.CHUNK_ROWS) == ChunkedStorage.CHUNK_ROWS;
+        assert df.getColumn("x").getValue().get(ChunkedStorage.CHUNK_ROWS + 1).equals(ChunkedStorage.CHUNK_ROWS + 1.0);
+        assert df.getColumn("x").getValue().get(ChunkedStorage.CHUNK_ROWS + 2) == null;
+
+        // Los bloques de cadenas comparten el diccionario
+        assert strings.dictionarySize() == 7;
+        assert strings.getCode(7) == strings.getCode(rows - 1 - (rows - 1) % 7);
+        assert strings.decode(strings.getCode(rows - 1)).equals("v" + ((rows - 1) % 7));
+
+        // Las vistas no ven las escrituras, aunque sean anteriores a los bloques
+        DataFrame tail = df.tail(10);
+        df.setCell(0, 0, -1);
+        df.setCell(rows - 1, 1, "otro");
+        assert head.getCell(0, 0).getValue().equals(0);
+        assert tail.getCell(9, 1).getValue().equals("v" + ((rows - 1) % 7));
+        assert df.getCell(rows - 1, 1).getValue().equals("otro") && strings.dictionarySize() == 8;
+
+        // Copiar, recortar y seleccionar a través de los bloques
+        DataFrame copy = df.copy();
+        copy.setCell(ChunkedStorage.CHUNK_ROWS, 0, 5);
+        assert df.getCell(ChunkedStorage.CHUNK_ROWS, 0).getValue().equals(ChunkedStorage.CHUNK_ROWS);
+        assert copy.getCell(ChunkedStorage.CHUNK_ROWS, 0).getValue().equals(5);
+        ColumnStorage<?> slice = numbers.slice(ChunkedStorage.CHUNK_ROWS - 2, ChunkedStorage.CHUNK_ROWS + 2);
+        assert slice.size() == 4 && slice.getInt(2) == ChunkedStorage.CHUNK_ROWS;
+        ColumnStorage<?> selection = df.getColumn("x").getReadOnlyStorage()
+                .select(new int[] { rows - 1, 3, ChunkedStorage.CHUNK_ROWS + 1 });
+        assert selection.isNull(1) && selection.getDouble(2) == ChunkedStorage.CHUNK_ROWS + 1.0;
+        assert strings.select(new int[] { rows - 1, 1 }).get(0).equals("otro");
+
+        // Los filtros usan las estadísticas de cada bloque
+        ChunkStatistics statistics = numbers.statistics();
+        assert statistics.chunks() == 3 && statistics.minLong(0) == -1 && statistics.maxLong(2) == rows - 1;
+        assert df.filter(RowFilter.between("n", ChunkedStorage.CHUNK_ROWS - 5, ChunkedStorage.CHUNK_ROWS + 4))
+                .countRows() == 10;
+
+        // concat y append también agregan en bloques
+        DataFrame twice = df.concat(df);
+        assert twice.countRows() == 2 * rows;
+        assert twice.getColumn("n").getReadOnlyStorage() instanceof ChunkedStorage;
+        assert twice.getCell(rows + 1, 0).getValue().equals(1) && twice.getCell(2 * rows - 1, 1).getValue().equals("otro");
+        List<Column<?>> columns = new ArrayList<>();
+        IntStorage small = new IntStorage(3);
+        small.addInt(1);
+        small.addNull();
+        columns.add(new Column<>("n", small));
+        DataFrame growing = new DataFrame(columns);
+        growing.append(twice.slice(0, 1));
+        assert growing.countRows() == 2 * rows + 2 && growing.getCell(1, 0).isEmpty();
+        assert growing.getCell(2 * rows + 1, 0).getValue().equals(rows - 1);
+
+        // Los importadores construyen las columnas grandes en bloques
+        Path file = Files.createTempFile("chunked", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,name\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write((i == rows - 1 ? "3000000000" : String.valueOf(i)) + ",n" + (i % 5) + "\n");
+            }
+        }
+        try {
+            DataFrame imported = DataImporter.readCSV(file.toString(), ',', false);
+            ColumnStorage<?> ids = imported.getColumn("id").getReadOnlyStorage();
+            assert ids instanceof ChunkedStorage && ids.getKind() == ColumnStorage.Kind.LONG;
+            assert ids.getLong(rows - 2) == rows - 2 && ids.getLong(rows - 1) == 3000000000L;
+            assert imported.getColumn("name").getReadOnlyStorage().dictionarySize() == 5;
+            assert imported.getCell(ChunkedStorage.CHUNK_ROWS + 3, 1).getValue().equals("n" + ((ChunkedStorage.CHUNK_ROWS + 3) % 5));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
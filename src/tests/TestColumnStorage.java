@@ -0,0 +1,75 @@
+package tests;
+
+import java.util.Arrays;
+
+import exceptions.TypeDoesNotMatch;
+import libraries.DataImporter;
+import structures.Cell;
+import structures.Column;
+import structures.ColumnStorage;
+import structures.DataFrame;
+
+public class TestColumnStorage {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        DataFrame df = DataImporter.readCSV("data/dummy.csv");
+
+        // Verificamos que cada columna use el almacenamiento especializado
+        assert df.getColumn("name").getReadOnlyStorage().getKind() == ColumnStorage.Kind.STRING;
+        assert df.getColumn("age").getReadOnlyStorage().getKind() == ColumnStorage.Kind.INT;
+        assert df.getColumn("salary").getReadOnlyStorage().getKind() == ColumnStorage.Kind.INT;
+        assert df.getColumn("age").getType() == Integer.class;
+        assert df.getColumn("age").getReadOnlyStorage().getInt(1) == 30;
+
+        // Las celdas escriben sobre la columna
+        Column<Integer> age = (Column<Integer>) df.getColumn("age");
+        Cell<Integer> cell = age.getCells().get(0);
+        cell.setValue(26);
+        assert age.getReadOnlyStorage().getInt(0) == 26;
+        assert df.getCell(0, 1).getValue().equals(26);
+
+        try {
+            age.setCell(0, null);
+            assert age.getReadOnlyStorage().isNull(0);
+            assert age.getCell(0).isEmpty();
+            age.setCell(0, 25);
+            assert !age.getReadOnlyStorage().isNull(0);
+        } catch (Exception e) {
+            assert false : "Error al asignar un valor nulo";
+        }
+
+        // Una columna sin valores adopta el tipo del primer valor no nulo
+        Column<Object> column = new Column<>("values");
+        column.addValue(null);
+        column.addValue(2.5);
+        column.addValue(3.5);
+        assert column.getReadOnlyStorage().getKind() == ColumnStorage.Kind.DOUBLE;
+        assert column.getValue().equals(Arrays.asList(null, 2.5, 3.5));
+
+        try {
+            column.addValue("4.5");
+            assert false : "Se esperaba TypeDoesNotMatch";
+        } catch (TypeDoesNotMatch e) {
+            assert column.size() == 3;
+        }
+
+        // Las copias son independientes
+        Column<Object> copy = column.copy();
+        copy.setCell(1, 10.0);
+        assert column.getReadOnlyStorage().getDouble(1) == 2.5;
+
+        // Booleanos y diccionario de cadenas
+        DataFrame flags = new DataFrame(Arrays.asList(
+                Arrays.asList("a", true),
+                Arrays.asList("b", false),
+                Arrays.asList("a", true)), Arrays.asList("key", "flag"));
+        assert flags.getColumn("flag").getReadOnlyStorage().getKind() == ColumnStorage.Kind.BOOLEAN;
+        assert flags.getColumn("flag").getValue().equals(Arrays.asList(true, false, true));
+        assert flags.getColumn("key").getReadOnlyStorage().dictionarySize() == 2;
+    }
+}
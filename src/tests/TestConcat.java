@@ -0,0 +1,101 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import exceptions.LabelDoesNotMatch;
+import exceptions.TypeDoesNotMatch;
+import structures.Column;
+import structures.DataFrame;
+import structures.IntStorage;
+import structures.StringStorage;
+
+public class TestConcat {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame first = new DataFrame(Arrays.asList(
+                Arrays.asList("Alice", 30, 70000.0),
+                Arrays.asList("Bob", null, 50000.0)),
+                Arrays.asList("name", "age", "salary"));
+        DataFrame second = new DataFrame(Arrays.asList(
+                Arrays.asList("Carol", 41, null),
+                Arrays.asList("Alice", 25, 60000.0)),
+                Arrays.asList("name", "age", "salary"));
+
+        DataFrame both = first.concat(second);
+        assert both.countRows() == 4;
+        assert both.getColumn("name").getValue().equals(Arrays.asList("Alice", "Bob", "Carol", "Alice"));
+        assert both.getColumn("age").getValue().equals(Arrays.asList(30, null, 41, 25));
+        assert both.getColumn("salary").getValue().equals(Arrays.asList(70000.0, 50000.0, null, 60000.0));
+        assert first.countRows() == 2;
+
+        // Las vistas y las columnas sin valores no nulos también se concatenan
+        DataFrame empty = new DataFrame(Arrays.asList(
+                Arrays.asList(null, null, null)),
+                Arrays.asList("name", "age", "salary"));
+        DataFrame mixed = empty.concat(second.tail(1));
+        assert mixed.getColumn("name").getValue().equals(Arrays.asList(null, "Alice"));
+        assert mixed.getColumn("age").getType() == Integer.class;
+
+        try {
+            first.concat(new DataFrame(Arrays.asList(Arrays.asList("Dan", "old", 1.0)),
+                    Arrays.asList("name", "age", "salary")));
+            assert false;
+        } catch (TypeDoesNotMatch e) {
+            // Los tipos de las columnas deben coincidir
+        }
+        try {
+            first.concat(new DataFrame(Arrays.asList(Arrays.asList("Dan", 1, 1.0)),
+                    Arrays.asList("name", "years", "salary")));
+            assert false;
+        } catch (LabelDoesNotMatch e) {
+            // Las etiquetas de las columnas deben coincidir
+        }
+
+        // append modifica el DataFrame y no cambia nada si falla
+        DataFrame day = first.copy();
+        day.append(second).append(day.head(1));
+        assert day.getColumn("name").getValue().equals(Arrays.asList("Alice", "Bob", "Carol", "Alice", "Alice"));
+        try {
+            day.append(new DataFrame(Arrays.asList(Arrays.asList("Dan", 1, "high")),
+                    Arrays.asList("name", "age", "salary")));
+            assert false;
+        } catch (TypeDoesNotMatch e) {
+            assert day.countRows() == 5;
+            assert day.getColumn("name").size() == 5;
+        }
+        day.append(day);
+        assert day.countRows() == 10;
+        assert day.getColumn("age").getValue().get(7).equals(41);
+
+        // Agregar muchos lotes da el mismo resultado que una sola concatenación
+        DataFrame batches = batch(0, 100);
+        DataFrame expected = batch(0, 100);
+        for (int i = 1; i < 200; i++) {
+            batches.append(batch(i * 100, 100));
+            expected = expected.concat(batch(i * 100, 100));
+        }
+        assert batches.countRows() == 20000;
+        assert batches.getColumn("id").getValue().equals(expected.getColumn("id").getValue());
+        assert batches.getColumn("tag").getValue().equals(expected.getColumn("tag").getValue());
+        assert batches.getColumn("id").getValue().get(12345).equals(12345);
+    }
+
+    private static DataFrame batch(int start, int rows) throws Exception {
+        IntStorage ids = new IntStorage(rows);
+        StringStorage tags = new StringStorage(rows);
+        for (int i = 0; i < rows; i++) {
+            ids.addInt(start + i);
+            tags.add("t" + (start + i) % 7);
+        }
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("id", ids));
+        columns.add(new Column<>("tag", tags));
+        return new DataFrame(columns);
+    }
+}
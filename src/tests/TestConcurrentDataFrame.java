@@ -0,0 +1,147 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import exceptions.TypeDoesNotMatch;
+import structures.ChunkedStorage;
+import structures.Column;
+import structures.ColumnStorage;
+import structures.ConcurrentDataFrame;
+import structures.DataFrame;
+import structures.IntStorage;
+
+public class TestConcurrentDataFrame {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame df = new DataFrame(Arrays.asList(
+                Arrays.asList("Alice", 25, 70000.0),
+                Arrays.asList("Bob", 30, null),
+                Arrays.asList("Carol", 35, 80000.0)),
+                Arrays.asList("name", "age", "salary"));
+        ConcurrentDataFrame shared = new ConcurrentDataFrame(df);
+
+        // El original se puede seguir modificando sin afectar al compartido
+        df.setCell(0, 1, 99);
+        assert shared.snapshot().getColumn("age").getValue().equals(Arrays.asList(25, 30, 35));
+
+        // Una instantánea no cambia con las escrituras posteriores
+        DataFrame before = shared.snapshot();
+        assert shared.version() == 0;
+        shared.setCell(1, 2, 75000.0);
+        shared.insertRow(Arrays.asList("Dan", 40, 90000.0));
+        assert shared.version() == 2 && shared.countRows() == 4;
+        assert before.countRows() == 3;
+        assert before.getColumn("salary").getValue().equals(Arrays.asList(70000.0, null, 80000.0));
+        DataFrame after = shared.snapshot();
+        assert after.getColumn("salary").getValue().equals(Arrays.asList(70000.0, 75000.0, 80000.0, 90000.0));
+        assert after.getColumn("name").getValue().get(3).equals("Dan");
+
+        // Los lectores pueden modificar su instantánea sin afectar a nadie
+        after.setCell(0, 1, 1);
+        after.getRow(0).setLabel("first");
+        after.insertRow(Arrays.asList("Eve", 45, 1.0));
+        DataFrame other = shared.snapshot();
+        assert other.getColumn("age").getValue().equals(Arrays.asList(25, 30, 35, 40));
+        assert other.getRow(0).getLabel().equals(0) && other.countRows() == 4;
+        assert after.getRow("first").getValue(0).equals("Alice");
+
+        // Una escritura que falla no publica nada
+        try {
+            shared.update(draft -> {
+                draft.setCell(0, 1, 50);
+                draft.setCell(0, 2, "x");
+            });
+            assert false;
+        } catch (TypeDoesNotMatch e) {
+            assert shared.version() == 2;
+            assert shared.snapshot().getColumn("age").getValue().get(0).equals(25);
+        }
+        shared.append(shared.snapshot());
+        assert shared.countRows() == 8 && shared.version() == 3;
+
+        // Los lectores siempre ven versiones completas mientras otro hilo
+        // escribe: cada escritura modifica las dos columnas a la vez
+        int rows = 1000;
+        IntStorage a = new IntStorage(rows);
+        IntStorage b = new IntStorage(rows);
+        for (int i = 0; i < rows; i++) {
+            a.addInt(i);
+            b.addInt(-i);
+        }
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("a", a));
+        columns.add(new Column<>("b", b));
+        ConcurrentDataFrame pairs = new ConcurrentDataFrame(new DataFrame(columns));
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean consistent = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            futures.add(readers.submit(() -> {
+                do {
+                    DataFrame snapshot = pairs.snapshot();
+                    ColumnStorage<?> first = snapshot.getColumn("a").getReadOnlyStorage();
+                    ColumnStorage<?> second = snapshot.getColumn("b").getReadOnlyStorage();
+                    for (int i = 0; i < first.size(); i++) {
+                        if (first.getInt(i) + second.getInt(i) != 0) {
+                            consistent.set(false);
+                        }
+                    }
+                    snapshot.sortBy(Arrays.asList("a"), true);
+                } while (!done.get());
+                return null;
+            }));
+        }
+        for (int version = 1; version <= 200; version++) {
+            int row = version % rows;
+            int value = version * 7;
+            pairs.update(draft -> {
+                draft.setCell(row, 0, value);
+                draft.setCell(row, 1, -value);
+            });
+        }
+        done.set(true);
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        readers.shutdown();
+        assert consistent.get();
+        assert pairs.version() == 200;
+        assert pairs.snapshot().getColumn("a").getValue().get(200 % rows).equals(200 * 7);
+
+        // Con columnas en bloques, cada escritura copia solo los bloques que
+        // cambia, incluido el diccionario si recibe un valor nuevo
+        int large = 2 * ChunkedStorage.CHUNK_ROWS;
+        DataFrame big = new DataFrame(Arrays.asList(Arrays.asList(0, "n0")), Arrays.asList("id", "name"));
+        for (int i = 1; i < large; i++) {
+            big.insertRow(Arrays.asList(i, "n" + (i % 3)));
+        }
+        ConcurrentDataFrame stream = new ConcurrentDataFrame(big);
+        DataFrame first = stream.snapshot();
+        for (int i = 0; i < 1000; i++) {
+            stream.insertRow(Arrays.asList(large + i, "n" + (i % 3)));
+        }
+        stream.setCell(5, 1, "nuevo");
+        stream.setCell(large + 5, 0, -1);
+        DataFrame last = stream.snapshot();
+        assert stream.version() == 1002 && last.countRows() == large + 1000;
+        assert last.getColumn("id").getReadOnlyStorage() instanceof ChunkedStorage;
+        assert first.countRows() == large && first.getCell(5, 1).getValue().equals("n2");
+        assert first.getColumn("name").getReadOnlyStorage().dictionarySize() == 3;
+        assert last.getCell(5, 1).getValue().equals("nuevo") && last.getCell(6, 1).getValue().equals("n0");
+        assert last.getColumn("name").getReadOnlyStorage().dictionarySize() == 4;
+        assert last.getCell(large + 5, 0).getValue().equals(-1) && last.getCell(large + 999, 1).getValue().equals("n0");
+        last.setCell(large + 6, 1, "otro");
+        assert stream.snapshot().getCell(large + 6, 1).getValue().equals("n0");
+    }
+}
@@ -1,8 +1,13 @@
 package tests;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
+import libraries.DataExporter;
 import libraries.DataImporter;
 import structures.DataFrame;
 
@@ -47,5 +52,33 @@ public class TestExportTo {
         df = DataImporter.readJSON("data/dummy_export.json");
         assert df.countRows() == 5 : "Error en la exportación a JSON";
         assert df.countColumns() == 5 : "Error en la exportación a JSON";
+
+        // Escape de comillas, delimitadores y saltos de línea, y valores nulos
+        rows = Arrays.asList(
+                Arrays.asList("dice \"hola\", chau", 1.25, true, -3000000000L),
+                Arrays.asList("línea\nnueva\t ", null, false, 7L));
+        df = new DataFrame(rows, Arrays.asList("texto", "valor", "activo", "grande"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new DataExporter(df).toCSV(output);
+        String csv = output.toString(StandardCharsets.UTF_8);
+        assert csv.startsWith("texto,valor,activo,grande\n\"dice \"\"hola\"\", chau\",1.25,true,-3000000000\n")
+                : "Error en el escape del CSV";
+        DataFrame imported = DataImporter.readCSV(new ByteArrayInputStream(output.toByteArray()), ',');
+        assert imported.getCell(0, 0).getValue().equals("dice \"hola\", chau");
+        assert imported.getCell(1, 0).getValue().equals("línea\nnueva\t ");
+        assert imported.getCell(1, 1).isEmpty();
+        assert imported.getCell(0, 3).getValue().equals(-3000000000L);
+
+        output = new ByteArrayOutputStream();
+        new DataExporter(df).toJSON(output);
+        String json = output.toString(StandardCharsets.UTF_8);
+        assert json.contains("\"texto\": \"línea\\nnueva\\t \", \"valor\": null") : "Error en el escape del JSON";
+        imported = DataImporter.readJSON(new InputStreamReader(
+                new ByteArrayInputStream(output.toByteArray()), StandardCharsets.UTF_8));
+        assert imported.getCell(0, 0).getValue().equals("dice \"hola\", chau");
+        assert imported.getCell(1, 0).getValue().equals("línea\nnueva\t ");
+        assert imported.getCell(0, 1).getValue().equals(1.25);
+        assert imported.getCell(1, 1).isEmpty();
     }
 }
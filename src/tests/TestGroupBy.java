@@ -0,0 +1,160 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import exceptions.TypeDoesNotMatch;
+import structures.Aggregation;
+import structures.DataFrame;
+import structures.GroupedDataFrame;
+
+public class TestGroupBy {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame df = new DataFrame(Arrays.asList(
+                Arrays.asList("a_b", "c", 1, 10L, 1.5, true),
+                Arrays.asList("a", "b_c", 2, 10L, 1.5, false),
+                Arrays.asList("a_b", "c", 1, 20L, null, true),
+                Arrays.asList(null, "c", null, 20L, 2.5, null),
+                Arrays.asList(null, "c", null, 10L, null, null),
+                Arrays.asList("a", "b_c", 2, 10L, 1.5, false)),
+                Arrays.asList("x", "y", "n", "big", "score", "flag"));
+
+        // Valores que se escriben igual al unirlos no se mezclan
+        GroupedDataFrame byText = df.groupBy(Arrays.asList("x", "y"));
+        assert byText.countGroups() == 3;
+        assert byText.getGroupKey(0).equals(Arrays.asList("a_b", "c"));
+        assert byText.getGroupKey(1).equals(Arrays.asList("a", "b_c"));
+        assert byText.getGroupKey(2).equals(Arrays.asList(null, "c"));
+        assert Arrays.equals(byText.getGroupRows(0), new int[] { 0, 2 });
+        assert Arrays.equals(byText.getGroupRows(1), new int[] { 1, 5 });
+        assert Arrays.equals(byText.getGroupRows(2), new int[] { 3, 4 });
+
+        // Claves de tipos primitivos, con nulos agrupados entre sí
+        GroupedDataFrame byNumbers = df.groupBy(Arrays.asList("n", "big"));
+        assert byNumbers.countGroups() == 5;
+        assert byNumbers.getGroupKey(0).equals(Arrays.asList(1, 10L));
+        assert byNumbers.getGroupKey(3).equals(Arrays.asList(null, 20L));
+        assert Arrays.equals(byNumbers.getGroupRows(1), new int[] { 1, 5 });
+
+        GroupedDataFrame byScore = df.groupBy(Arrays.asList("score", "flag"));
+        assert byScore.countGroups() == 5;
+        assert Arrays.equals(byScore.getGroupRows(0), new int[] { 0 });
+        assert Arrays.equals(byScore.getGroupRows(1), new int[] { 1, 5 });
+        assert byScore.getGroupKey(2).equals(Arrays.asList(null, true));
+
+        // Agregaciones sobre los grupos
+        Map<String, Double> sum = df.groupBy(Arrays.asList("flag")).sum("big");
+        assert sum.get("true") == 30.0;
+        assert sum.get("false") == 20.0;
+        assert sum.get("null") == 30.0;
+        Map<String, Integer> count = df.groupBy(Arrays.asList("x")).count("score");
+        assert count.get("a_b") == 1;
+        assert count.get("null") == 1;
+
+        // Los mapas por nombre no mezclan ni pierden grupos que se escriben igual
+        DataFrame clash = new DataFrame(Arrays.asList(
+                Arrays.asList("a_b", "c", 1.0),
+                Arrays.asList("a", "b_c", 2.0),
+                Arrays.asList(null, "c", 4.0),
+                Arrays.asList("null", "c", 8.0)),
+                Arrays.asList("x", "y", "v"));
+        GroupedDataFrame clashing = clash.groupBy(Arrays.asList("x", "y"));
+        assert clashing.countGroups() == 4;
+        try {
+            clashing.sum("v");
+            assert false;
+        } catch (IllegalStateException e) {
+        }
+        try {
+            clash.groupBy(Arrays.asList("x")).count("v");
+            assert false;
+        } catch (IllegalStateException e) {
+        }
+        assert clashing.agg(Map.of("v", Arrays.asList(Aggregation.SUM))).getColumn("v_sum").getValue()
+                .equals(Arrays.asList(1.0, 2.0, 4.0, 8.0));
+
+        // Muchas combinaciones, más que las que entran en una tabla directa
+        int rows = 200000;
+        List<List<?>> data = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            data.add(Arrays.asList(i % 1000, i % 997));
+        }
+        GroupedDataFrame wide = new DataFrame(data, Arrays.asList("a", "b")).groupBy(Arrays.asList("a", "b"));
+        assert wide.countGroups() == rows;
+        assert wide.getGroupKey(rows - 1).equals(Arrays.asList((rows - 1) % 1000, (rows - 1) % 997));
+
+        // Varias agregaciones en un solo DataFrame
+        DataFrame result = df.groupBy(Arrays.asList("x", "y")).agg(Map.of(
+                "big", Arrays.asList(Aggregation.SUM, Aggregation.COUNT, Aggregation.MAX),
+                "score", Arrays.asList(Aggregation.MEAN, Aggregation.MIN, Aggregation.VAR, Aggregation.STD)));
+        assert result.countRows() == 3;
+        assert result.getColumn("x").getValue().equals(Arrays.asList("a_b", "a", null));
+        assert result.getColumn("y").getValue().equals(Arrays.asList("c", "b_c", "c"));
+        assert result.getColumn("big_sum").getValue().equals(Arrays.asList(30.0, 20.0, 30.0));
+        assert result.getColumn("big_count").getValue().equals(Arrays.asList(2, 2, 2));
+        assert result.getColumn("big_max").getValue().equals(Arrays.asList(20.0, 10.0, 20.0));
+        assert result.getColumn("score_mean").getValue().equals(Arrays.asList(1.5, 1.5, 2.5));
+        assert result.getColumn("score_min").getValue().equals(Arrays.asList(1.5, 1.5, 2.5));
+        assert result.getColumn("score_var").getValue().equals(Arrays.asList(0.0, 0.0, 0.0));
+
+        // Varianza con Welford frente al cálculo en dos pasadas
+        List<List<?>> values = new ArrayList<>();
+        double[] sums = new double[3];
+        for (int i = 0; i < 3000; i++) {
+            double value = 1e6 + (i * 7919 % 1000) / 10.0 - 50;
+            values.add(Arrays.asList(i % 3, value));
+            sums[i % 3] += value;
+        }
+        DataFrame numbers = new DataFrame(values, Arrays.asList("g", "v"));
+        DataFrame stats = numbers.groupBy(Arrays.asList("g")).agg(Map.of("v",
+                Arrays.asList(Aggregation.VAR, Aggregation.MIN, Aggregation.MAX)));
+        for (int g = 0; g < 3; g++) {
+            double mean = sums[g] / 1000;
+            double squares = 0;
+            for (int i = g; i < 3000; i += 3) {
+                squares += Math.pow((Double) values.get(i).get(1) - mean, 2);
+            }
+            double var = (Double) stats.getCell(g, 1).getValue();
+            assert Math.abs(var - squares / 1000) < 1e-6 * var;
+            assert (Double) stats.getCell(g, 2).getValue() < 1e6 - 49;
+            assert (Double) stats.getCell(g, 3).getValue() > 1e6 + 49;
+        }
+
+        // Máximo de valores negativos y agregaciones sobre texto
+        DataFrame negative = new DataFrame(Arrays.asList(Arrays.asList("a", -3), Arrays.asList("a", -1)),
+                Arrays.asList("k", "v"));
+        assert negative.groupBy(Arrays.asList("k")).max("v").get("a") == -1.0;
+        assert negative.groupBy(Arrays.asList("v")).agg(Map.of("k", Arrays.asList(Aggregation.COUNT)))
+                .getColumn("k_count").getValue().equals(Arrays.asList(1, 1));
+        try {
+            negative.groupBy(Arrays.asList("v")).agg(Map.of("k", Arrays.asList(Aggregation.SUM)));
+            assert false : "Se esperaba TypeDoesNotMatch";
+        } catch (TypeDoesNotMatch e) {
+        }
+
+        // Los grupos con NaN dan NaN, como la suma y la media
+        DataFrame nan = new DataFrame(Arrays.asList(
+                Arrays.asList("a", Double.NaN), Arrays.asList("a", Double.NaN),
+                Arrays.asList("b", 1.0), Arrays.asList("b", Double.NaN), Arrays.asList("c", 2.0)),
+                Arrays.asList("k", "v"));
+        DataFrame extremes = nan.groupBy(Arrays.asList("k")).agg(Map.of("v",
+                Arrays.asList(Aggregation.MIN, Aggregation.MAX)));
+        for (int g = 0; g < 2; g++) {
+            assert Double.isNaN((Double) extremes.getCell(g, 1).getValue());
+            assert Double.isNaN((Double) extremes.getCell(g, 2).getValue());
+        }
+        assert extremes.getCell(2, 1).getValue().equals(2.0) && extremes.getCell(2, 2).getValue().equals(2.0);
+        assert Double.isNaN(nan.groupBy(Arrays.asList("k")).min("v").get("a"));
+
+        // Sin filas
+        assert new DataFrame(new ArrayList<>(), Arrays.asList("a")).groupBy(Arrays.asList("a"))
+                .countGroups() == 0;
+    }
+}
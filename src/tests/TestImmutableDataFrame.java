@@ -0,0 +1,105 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import exceptions.TypeDoesNotMatch;
+import libraries.RowFilter;
+import structures.Cell;
+import structures.Column;
+import structures.ColumnStorage;
+import structures.DataFrame;
+import structures.ImmutableDataFrame;
+import structures.IntStorage;
+import structures.Row;
+
+public class TestImmutableDataFrame {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        DataFrame df = new DataFrame(Arrays.asList(
+                Arrays.asList("Alice", 25, 70000.0),
+                Arrays.asList("Bob", 30, null),
+                Arrays.asList("Carol", 35, 80000.0)),
+                Arrays.asList("name", "age", "salary"));
+        ImmutableDataFrame first = new ImmutableDataFrame(df);
+
+        // El DataFrame original se puede seguir modificando sin afectar al
+        // inmutable
+        df.setCell(0, 1, 99);
+        assert first.getValue(0, "age").equals(25);
+
+        // Cada modificación devuelve una versión nueva y deja la anterior igual
+        ImmutableDataFrame second = first.setCell(1, first.getColumnIndex("age"), 31);
+        ImmutableDataFrame filled = second.fillna("salary", 0.0);
+        ImmutableDataFrame wider = filled.insertColumn("bonus", Arrays.asList(1, 2, 3));
+        ImmutableDataFrame longer = wider.insertRow(Arrays.asList("Dan", 40, null, 4));
+        assert first.getValue(1, "age").equals(30) && second.getValue(1, "age").equals(31);
+        assert second.getValue(1, "salary") == null && filled.getValue(1, "salary").equals(0.0);
+        assert filled.countColumns() == 3 && wider.countColumns() == 4;
+        assert wider.countRows() == 3 && longer.countRows() == 4;
+        assert longer.getValue(3, "name").equals("Dan") && longer.getValue(3, "salary") == null;
+        assert filled.fillna("salary", 1.0) == filled;
+        try {
+            first.setCell(0, 1, "x");
+            assert false;
+        } catch (TypeDoesNotMatch e) {
+            assert first.getValue(0, "age").equals(25);
+        }
+
+        // El resto de las operaciones se usan a través de un DataFrame común
+        DataFrame view = longer.toDataFrame();
+        assert view.getColumnLabels().equals(Arrays.asList("name", "age", "salary", "bonus"));
+        assert view.filter(RowFilter.greaterThan("age", 30)).countRows() == 3;
+        view.setCell(0, 1, 1);
+        assert longer.getValue(0, "age").equals(25);
+
+        // Una columna sin valores toma el tipo del primero que recibe
+        ImmutableDataFrame empty = new ImmutableDataFrame().insertColumn("x", Arrays.asList(null, null));
+        ImmutableDataFrame typed = empty.setCell(0, 0, 5).insertRow(Arrays.asList(6));
+        assert typed.toDataFrame().getColumn("x").getType() == Integer.class;
+        assert typed.toDataFrame().getColumn("x").getValue().equals(Arrays.asList(5, null, 6));
+
+        // Varios bloques: solo cambia el bloque modificado
+        int rows = 2 * 65536;
+        IntStorage storage = new IntStorage(rows);
+        for (int i = 0; i < rows; i++) {
+            storage.addInt(i);
+        }
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("n", storage));
+        ImmutableDataFrame large = new ImmutableDataFrame(new DataFrame(columns));
+        ImmutableDataFrame updated = large.setCell(70000, 0, -1).insertRow(Arrays.asList(rows)).fillna("n", 0);
+        assert updated.countRows() == rows + 1;
+        assert updated.getValue(70000, 0).equals(-1) && large.getValue(70000, 0).equals(70000);
+        assert updated.getValue(rows, 0).equals(rows) && updated.getValue(65535, 0).equals(65535);
+        List<?> values = updated.toDataFrame().getColumn("n").getValue();
+        assert values.size() == rows + 1 && values.get(70000).equals(-1) && values.get(rows - 1).equals(rows - 1);
+
+        // copy no copia valores ni congela el original, pero las copias son
+        // independientes
+        DataFrame original = new DataFrame(Arrays.asList(Arrays.asList(1), Arrays.asList(2)), Arrays.asList("n"));
+        ColumnStorage<?> originalStorage = original.getColumn("n").getReadOnlyStorage();
+        DataFrame duplicate = original.copy();
+        original.setCell(0, 0, 10);
+        assert original.getColumn("n").getReadOnlyStorage() == originalStorage;
+        assert duplicate.getColumn("n").getValue().equals(Arrays.asList(1, 2));
+        DataFrame copy = df.copy();
+        copy.setCell(1, 1, 0);
+        df.setCell(2, 1, 1);
+        assert copy.getColumn("age").getValue().equals(Arrays.asList(99, 0, 35));
+        assert df.getColumn("age").getValue().equals(Arrays.asList(99, 30, 1));
+
+        // La copia de una fila no modifica el DataFrame
+        Row row = df.getRow(0).copy();
+        ((Cell<Object>) row.getCell(1)).setValue(7);
+        row.setCell(0, new Cell<>("Zoe"));
+        assert df.getRow(0).getValue(0).equals("Alice") && df.getRow(0).getValue(1).equals(99);
+        assert row.getValue(1).equals(7);
+    }
+}
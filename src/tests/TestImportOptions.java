@@ -0,0 +1,144 @@
+package tests;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import exceptions.LabelNotFound;
+import libraries.DataImporter;
+import libraries.ImportOptions;
+import structures.DataFrame;
+
+public class TestImportOptions {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("options", ".csv");
+        int rows = 200000;
+        // Filas largas para que el buffer del lector se compacte con una fila
+        // retenida a medio evaluar
+        String padding = String.join("", Collections.nCopies(40, "x"));
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,name,price,active,notes\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(i + ",");
+                writer.write(i % 3 == 0 ? "\"n, " + (i % 10) + "\"," : "n" + (i % 10) + ",");
+                writer.write((i % 7 == 0 ? "" : (i % 100) + ".5") + ",");
+                writer.write((i % 2 == 0) + ",");
+                writer.write(padding + i + "\n");
+            }
+        }
+
+        try {
+            DataFrame all = DataImporter.readCSV(file.toString());
+
+            // Proyección: solo las columnas pedidas, en el orden pedido
+            DataFrame projected = DataImporter.readCSV(file.toString(),
+                    new ImportOptions().columns("price", "id"));
+            assert projected.getColumnLabels().equals(Arrays.asList("price", "id"));
+            assert projected.countRows() == rows;
+            assert projected.getColumn("price").getValue().equals(all.getColumn("price").getValue());
+            assert projected.getColumn("id").getValue().equals(all.getColumn("id").getValue());
+
+            // Condiciones sobre una columna conservada y otra descartada
+            for (boolean parallel : new boolean[] { false, true }) {
+                DataFrame filtered = DataImporter.readCSV(file.toString(), new ImportOptions()
+                        .parallel(parallel)
+                        .columns("id", "name", "price")
+                        .where("active", value -> Boolean.TRUE.equals(value))
+                        .where("id", value -> ((Integer) value) % 3 == 0));
+
+                assert filtered.getColumnLabels().equals(Arrays.asList("id", "name", "price"));
+                int expected = 0;
+                for (int i = 0; i < rows; i++) {
+                    if (i % 6 != 0) {
+                        continue;
+                    }
+                    assert filtered.getCell(expected, 0).getValue().equals(i);
+                    assert filtered.getCell(expected, 1).getValue().equals("n, " + (i % 10));
+                    assert Objects.equals(filtered.getCell(expected, 2).getValue(),
+                            all.getCell(i, 2).getValue());
+                    expected++;
+                }
+                assert filtered.countRows() == expected;
+            }
+
+            // Los valores vacíos llegan a las condiciones como null
+            DataFrame missing = DataImporter.readCSV(file.toString(),
+                    new ImportOptions().columns("id").where("price", value -> value == null));
+            assert missing.countRows() == (rows + 6) / 7;
+            assert missing.getCell(1, 0).getValue().equals(7);
+
+            // Ninguna fila cumple la condición
+            DataFrame none = DataImporter.readCSV(file.toString(),
+                    new ImportOptions().where("id", value -> false));
+            assert none.countRows() == 0;
+            assert none.countColumns() == 5;
+
+            // Una etiqueta que no existe en el archivo
+            try {
+                DataImporter.readCSV(file.toString(), new ImportOptions().columns("id", "missing"));
+                assert false : "Se esperaba LabelNotFound";
+            } catch (LabelNotFound e) {
+            }
+            try {
+                DataImporter.readCSV(file.toString(), new ImportOptions().where("missing", value -> true));
+                assert false : "Se esperaba LabelNotFound";
+            } catch (LabelNotFound e) {
+            }
+
+            // Una columna pedida dos veces
+            try {
+                new ImportOptions().columns("id", "price", "id");
+                assert false : "Se esperaba IllegalArgumentException";
+            } catch (IllegalArgumentException e) {
+            }
+        } finally {
+            Files.delete(file);
+        }
+
+        // Los campos vacíos llegan a las condiciones como quedan en el
+        // DataFrame: "" en texto y null en el resto, aunque la columna empiece
+        // vacía
+        Path empty = Files.createTempFile("empty", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(empty, StandardCharsets.UTF_8)) {
+            writer.write("id,city,n,blank\n0,,,\n1,X,5,\n2,Y,,\n3,,7,\n4,Z,8,\n");
+        }
+        try {
+            DataFrame all = DataImporter.readCSV(empty.toString());
+            for (boolean parallel : new boolean[] { false, true }) {
+                Map<Object, Predicate<Object>> notY = new HashMap<>();
+                notY.put("city", value -> !value.equals("Y"));
+                DataFrame pushed = DataImporter.readCSV(empty.toString(), new ImportOptions().parallel(parallel)
+                        .where("city", notY.get("city")));
+                assert pushed.getColumn("id").getValue().equals(all.filter(notY).getColumn("id").getValue());
+                assert pushed.getColumn("id").getValue().equals(Arrays.asList(0, 1, 3, 4));
+
+                assert DataImporter.readCSV(empty.toString(), new ImportOptions().parallel(parallel)
+                        .where("city", value -> !((String) value).isEmpty()))
+                        .getColumn("id").getValue().equals(Arrays.asList(1, 2, 4));
+                assert DataImporter.readCSV(empty.toString(), new ImportOptions().parallel(parallel)
+                        .where("n", value -> value == null))
+                        .getColumn("id").getValue().equals(Arrays.asList(0, 2));
+                DataFrame numbers = DataImporter.readCSV(empty.toString(), new ImportOptions().parallel(parallel)
+                        .columns("n", "city").where("n", value -> value != null));
+                assert numbers.getColumn("n").getValue().equals(Arrays.asList(5, 7, 8));
+                assert numbers.getColumn("city").getValue().equals(Arrays.asList("X", "", "Z"));
+                assert DataImporter.readCSV(empty.toString(), new ImportOptions().parallel(parallel)
+                        .where("blank", value -> "".equals(value))).countRows() == 5;
+            }
+        } finally {
+            Files.delete(empty);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package tests;
+
+import java.io.StringReader;
+import java.util.Arrays;
+
+import exceptions.InvalidShape;
+import exceptions.TypeDoesNotMatch;
+import libraries.DataImporter;
+import structures.DataFrame;
+
+public class TestJSONParser {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        // Comas y escapes dentro de cadenas, null, claves faltantes y nuevas
+        String json = "[\n"
+                + "  {\"name\": \"Ana, \\\"la jefa\\\"\", \"age\": 30, \"score\": 1.5e1, \"ok\": true},\n"
+                + "  {\"age\": 3000000000, \"name\": \"B\\u00e9a\\n\", \"ok\": null},\n"
+                + "  {\"name\": \"Carl\", \"tags\": [\"x\", {\"y\": \"]\"}], \"score\": -0.25}\n"
+                + "]";
+        DataFrame df = DataImporter.readJSON(new StringReader(json));
+
+        assert df.countRows() == 3;
+        assert df.countColumns() == 5;
+        assert df.getColumns().get(0).getLabel().equals("name");
+        assert df.getCell(0, 0).getValue().equals("Ana, \"la jefa\"");
+        assert df.getCell(1, 0).getValue().equals("Béa\n");
+        assert df.getColumn("age").getType() == Long.class;
+        assert df.getCell(0, 1).getValue().equals(30L);
+        assert df.getCell(1, 1).getValue().equals(3000000000L);
+        assert df.getCell(2, 1).isEmpty();
+        assert df.getCell(0, 2).getValue().equals(15.0);
+        assert df.getCell(1, 2).isEmpty();
+        assert df.getCell(2, 2).getValue().equals(-0.25);
+        assert df.getCell(0, 3).getValue().equals(true);
+        assert df.getCell(1, 3).isEmpty();
+        assert df.getCell(0, 4).isEmpty();
+        assert df.getCell(2, 4).getValue().equals("[\"x\", {\"y\": \"]\"}]");
+
+        // JSON delimitado por líneas
+        df = DataImporter.readJSON(new StringReader("{\"a\": 1}\n{\"a\": 2}\r\n\n{\"a\": 3}\n"));
+        assert df.countRows() == 3;
+        assert df.getColumn("a").getType() == Integer.class;
+        assert df.getCell(2, 0).getValue().equals(3);
+
+        // JSON tiene un solo tipo de número: enteros y decimales comparten columna
+        df = DataImporter.readJSON(new StringReader("[{\"a\": 1}, {\"a\": null}, {\"a\": 2.5}, {\"a\": 3}]"));
+        assert df.getColumn("a").getType() == Double.class;
+        assert df.getCell(0, 0).getValue().equals(1.0) && df.getCell(1, 0).isEmpty();
+        assert df.getCell(2, 0).getValue().equals(2.5) && df.getCell(3, 0).getValue().equals(3.0);
+        df = DataImporter.readJSON(new StringReader("{\"a\": 2.5}\n{\"a\": 3000000000}\n{\"a\": 4}\n"));
+        assert df.getColumn("a").getValue().equals(Arrays.asList(2.5, 3e9, 4.0));
+        df = DataImporter.readJSON(new StringReader("[{\"a\": 1}, {\"a\": 3000000000}, {\"a\": 99999999999999999999}]"));
+        assert df.getColumn("a").getValue().equals(Arrays.asList(1.0, 3e9, 1e20));
+
+        // Contenido vacío
+        df = DataImporter.readJSON(new StringReader("[]"));
+        assert df.countColumns() == 0;
+        df = DataImporter.readJSON(new StringReader(""));
+        assert df.countColumns() == 0;
+
+        try {
+            DataImporter.readJSON(new StringReader("[{\"a\": 1}, {\"a\": \"uno\"}]"));
+            assert false : "Se esperaba TypeDoesNotMatch";
+        } catch (TypeDoesNotMatch e) {
+        }
+
+        try {
+            DataImporter.readJSON(new StringReader("[{\"a\": 1,}]"));
+            assert false : "Se esperaba InvalidShape";
+        } catch (InvalidShape e) {
+        }
+
+        try {
+            DataImporter.readJSON(new StringReader("[{\"a\": 1, \"a\": 2}]"));
+            assert false : "Se esperaba InvalidShape";
+        } catch (InvalidShape e) {
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import exceptions.TypeDoesNotMatch;
+import structures.Column;
+import structures.DataFrame;
+import structures.IntStorage;
+import structures.JoinType;
+
+public class TestJoin {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame employees = new DataFrame(Arrays.asList(
+                Arrays.asList("Alice", 1, "HR"),
+                Arrays.asList("Bob", 2, "IT"),
+                Arrays.asList("Carol", 2, "IT"),
+                Arrays.asList("David", null, "IT"),
+                Arrays.asList("Eve", 4, "Sales")),
+                Arrays.asList("name", "dept", "area"));
+        DataFrame departments = new DataFrame(Arrays.asList(
+                Arrays.asList(2, "Infra", "IT"),
+                Arrays.asList(1, "People", "HR"),
+                Arrays.asList(3, "Legal", "Law"),
+                Arrays.asList(2, "Dev", "IT")),
+                Arrays.asList("dept", "title", "area"));
+        List<Object> dept = Arrays.asList("dept");
+
+        // Las filas siguen el orden izquierdo y las parejas el derecho; los
+        // nulos no se unen
+        DataFrame inner = employees.join(departments, dept, dept, JoinType.INNER);
+        assert inner.getColumnLabels().equals(Arrays.asList("name", "dept", "area", "title", "area_right"));
+        assert inner.getColumn("name").getValue().equals(Arrays.asList("Alice", "Bob", "Bob", "Carol", "Carol"));
+        assert inner.getColumn("title").getValue().equals(Arrays.asList("People", "Infra", "Dev", "Infra", "Dev"));
+
+        DataFrame left = employees.join(departments, dept, dept, JoinType.LEFT);
+        assert left.countRows() == 7;
+        assert left.getColumn("title").getValue().get(5) == null;
+        assert left.getColumn("title").getValue().get(6) == null;
+
+        DataFrame right = employees.join(departments, dept, dept, JoinType.RIGHT);
+        assert right.getColumn("title").getValue().equals(Arrays.asList("Infra", "Infra", "People", "Legal", "Dev", "Dev"));
+        assert right.getColumn("name").getValue().equals(Arrays.asList("Bob", "Carol", "Alice", null, "Bob", "Carol"));
+        assert right.getColumn("dept").getValue().equals(Arrays.asList(2, 2, 1, 3, 2, 2));
+
+        DataFrame outer = employees.join(departments, dept, dept, JoinType.OUTER);
+        assert outer.countRows() == 8;
+        assert outer.getColumn("dept").getValue().get(7).equals(3);
+        assert outer.getColumn("name").getValue().get(7) == null;
+
+        // Claves de varias columnas, incluidas cadenas de diccionarios distintos
+        DataFrame both = employees.join(departments, Arrays.asList("area", "dept"), Arrays.asList("area", "dept"),
+                JoinType.INNER);
+        assert both.getColumnLabels().equals(Arrays.asList("name", "dept", "area", "title"));
+        assert both.countRows() == 5;
+
+        try {
+            employees.join(departments, Arrays.asList("name"), dept, JoinType.INNER);
+            assert false;
+        } catch (TypeDoesNotMatch e) {
+            // Las claves deben ser del mismo tipo
+        }
+
+        // Una clave sin tipo (DataFrame vacío o solo nulos) no se une con nada
+        DataFrame noDepartments = new DataFrame(new ArrayList<>(), Arrays.asList("dept", "title", "area"));
+        DataFrame unmatched = employees.join(noDepartments, dept, dept, JoinType.LEFT);
+        assert unmatched.countRows() == 5;
+        assert unmatched.getColumn("title").getValue().equals(Arrays.asList(null, null, null, null, null));
+        assert employees.join(noDepartments, dept, dept, JoinType.INNER).countRows() == 0;
+        DataFrame noEmployees = new DataFrame(new ArrayList<>(), Arrays.asList("name", "dept", "area"));
+        DataFrame onlyRight = noEmployees.join(departments, dept, dept, JoinType.OUTER);
+        assert onlyRight.getColumn("dept").getValue().equals(Arrays.asList(2, 1, 3, 2));
+        assert onlyRight.getColumn("dept").getType() == Integer.class;
+        DataFrame nullKeys = new DataFrame(Arrays.asList(Arrays.asList("Zoe", null, "IT")),
+                Arrays.asList("name", "dept", "area"));
+        assert nullKeys.join(departments, dept, dept, JoinType.LEFT).getColumn("title").getValue()
+                .equals(Arrays.asList((Object) null));
+
+        // Claves de int y de long se comparan como long, con tabla hash y con
+        // merge join
+        DataFrame longDepartments = new DataFrame(Arrays.asList(
+                Arrays.asList(2L, "Infra"),
+                Arrays.asList(1L, "People"),
+                Arrays.asList(3L, "Legal"),
+                Arrays.asList(2L, "Dev")),
+                Arrays.asList("dept", "title"));
+        assert employees.join(longDepartments, dept, dept, JoinType.INNER).getColumn("title").getValue()
+                .equals(inner.getColumn("title").getValue());
+        DataFrame widened = employees.join(longDepartments, dept, dept, JoinType.OUTER);
+        assert widened.getColumn("dept").getType() == Long.class;
+        assert widened.getColumn("dept").getValue().equals(Arrays.asList(1L, 2L, 2L, 2L, 2L, null, 4L, 3L));
+        DataFrame sortedInts = new DataFrame(Arrays.asList(Arrays.asList(1), Arrays.asList(2), Arrays.asList(4)),
+                Arrays.asList("k"));
+        DataFrame sortedLongs = new DataFrame(Arrays.asList(Arrays.asList(2L, "b"), Arrays.asList(3L, "c"),
+                Arrays.asList(4L, "d")), Arrays.asList("k", "v"));
+        assert sortedLongs.join(sortedInts, Arrays.asList("k"), Arrays.asList("k"), JoinType.INNER)
+                .getColumn("v").getValue().equals(Arrays.asList("b", "d"));
+
+        // Con DataFrames ordenados por la clave (merge join) y sin ordenar
+        // (tabla hash) el resultado es el de unir las filas una por una
+        Random random = new Random(5);
+        int[] sortedLeft = new int[6000];
+        int[] sortedRight = new int[1000];
+        for (int i = 0; i < sortedLeft.length; i++) {
+            sortedLeft[i] = i / 4;
+        }
+        for (int i = 0; i < sortedRight.length; i++) {
+            sortedRight[i] = i / 2 * 3;
+        }
+        int[][][] inputs = {
+                { sortedLeft, sortedRight },
+                { shuffle(sortedLeft, random), shuffle(sortedRight, random) } };
+        List<Object> key = Arrays.asList("key");
+        for (int[][] input : inputs) {
+            for (JoinType how : JoinType.values()) {
+                DataFrame joined = frame(input[0]).join(frame(input[1]), key, key, how);
+                List<List<Integer>> expected = nestedLoops(input[0], input[1], how);
+                assert joined.getColumn("id").getValue().equals(expected.get(0));
+                assert joined.getColumn("id_right").getValue().equals(expected.get(1));
+            }
+        }
+    }
+
+    /**
+     * Une las filas comparando cada par, como referencia.
+     */
+    private static List<List<Integer>> nestedLoops(int[] left, int[] right, JoinType how) {
+        boolean swap = how == JoinType.RIGHT;
+        int[] probe = swap ? right : left;
+        int[] build = swap ? left : right;
+        List<Integer> probeRows = new ArrayList<>();
+        List<Integer> buildRows = new ArrayList<>();
+        boolean[] matched = new boolean[build.length];
+        for (int i = 0; i < probe.length; i++) {
+            boolean found = false;
+            for (int j = 0; j < build.length; j++) {
+                if (probe[i] == build[j]) {
+                    probeRows.add(i);
+                    buildRows.add(j);
+                    matched[j] = true;
+                    found = true;
+                }
+            }
+            if (!found && how != JoinType.INNER) {
+                probeRows.add(i);
+                buildRows.add(null);
+            }
+        }
+        if (how == JoinType.OUTER) {
+            for (int j = 0; j < build.length; j++) {
+                if (!matched[j]) {
+                    probeRows.add(null);
+                    buildRows.add(j);
+                }
+            }
+        }
+        return swap ? Arrays.asList(buildRows, probeRows) : Arrays.asList(probeRows, buildRows);
+    }
+
+    private static DataFrame frame(int[] keys) throws Exception {
+        int[] ids = new int[keys.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("key", new IntStorage(keys.clone(), keys.length)));
+        columns.add(new Column<>("id", new IntStorage(ids, ids.length)));
+        return new DataFrame(columns);
+    }
+
+    private static int[] shuffle(int[] values, Random random) {
+        int[] shuffled = values.clone();
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        return shuffled;
+    }
+}
@@ -0,0 +1,86 @@
+package tests;
+
+import java.util.Arrays;
+
+import libraries.DataImporter;
+import performance.AllocationTracker;
+import performance.Benchmark;
+import structures.Column;
+import structures.DataFrame;
+import structures.IntStorage;
+import structures.StringStorage;
+
+public class TestMemoryUsage {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        // Una columna de enteros ocupa unos 4 bytes por valor
+        IntStorage ints = new IntStorage(100000);
+        for (int i = 0; i < 100000; i++) {
+            ints.addInt(i);
+        }
+        long intBytes = ints.memoryUsage(false);
+        assert intBytes >= 400000 && intBytes < 400000 + 2000;
+        assert ints.memoryUsage(true) == intBytes;
+
+        // Las cadenas del diccionario solo se cuentan en la estimación profunda
+        StringStorage strings = new StringStorage(1000);
+        for (int i = 0; i < 1000; i++) {
+            strings.add("valor " + (i % 10));
+        }
+        assert strings.memoryUsage(true) > strings.memoryUsage(false);
+        assert strings.memoryUsage(false) >= 4000;
+
+        // Seleccionar filas conserva solo los valores que usan
+        StringStorage unique = new StringStorage(100001);
+        for (int i = 0; i < 100000; i++) {
+            unique.add("u" + i);
+        }
+        unique.addNull();
+        StringStorage few = unique.select(new int[] { 99999, 100000, 5, 99999 });
+        assert few.dictionarySize() == 2 && few.memoryUsage(true) < 2000;
+        assert few.get(0).equals("u99999") && few.isNull(1) && few.get(2).equals("u5") && few.get(3).equals("u99999");
+        int[] reversed = new int[100001];
+        for (int i = 0; i < reversed.length; i++) {
+            reversed[i] = reversed.length - 1 - i;
+        }
+        StringStorage all = unique.select(reversed);
+        assert all.dictionarySize() == 100000 && all.isNull(0) && all.get(100000).equals("u0");
+        all.add("u7");
+        assert all.dictionarySize() == 100000 && unique.dictionarySize() == 100000;
+
+        // Una vista solo ocupa sus posiciones, salvo en la estimación profunda
+        Column<?> view = new Column<>("n", ints).view(10, 20);
+        assert view.memoryUsage(false) < 1000;
+        assert view.memoryUsage(true) > intBytes;
+
+        DataFrame dummy = DataImporter.readCSV("data/dummy.csv");
+        DataFrame usage = dummy.memoryUsage();
+        assert usage.getColumnLabels().equals(Arrays.asList("column", "type", "rows", "shallow_bytes", "deep_bytes"));
+        assert usage.countRows() == dummy.countColumns() + 1;
+        assert usage.getColumn("column").getValue().get(0).equals("Index");
+        for (int i = 0; i < usage.countRows(); i++) {
+            long shallow = (Long) usage.getColumn("shallow_bytes").getValue().get(i);
+            long deep = (Long) usage.getColumn("deep_bytes").getValue().get(i);
+            assert shallow > 0 && deep >= shallow;
+            assert usage.getColumn("rows").getValue().get(i).equals(dummy.countRows());
+        }
+
+        // Las reservas de memoria del hilo actual se miden por operación
+        if (AllocationTracker.isSupported()) {
+            long allocated = AllocationTracker.measure(() -> new long[100000]);
+            assert allocated >= 800000;
+            DataFrame results = new Benchmark().warmup(1).iterations(2).minIterationTime(0).allocations(true)
+                    .add("array", 1, () -> new int[1000])
+                    .run();
+            assert (Long) results.getColumn("alloc_bytes").getValue().get(0) >= 4000;
+        }
+        DataFrame untracked = new Benchmark().warmup(1).iterations(1).minIterationTime(0)
+                .add("noop", 1, () -> null)
+                .run();
+        assert untracked.getColumn("alloc_bytes").getValue().get(0) == null;
+    }
+}
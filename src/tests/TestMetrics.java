@@ -0,0 +1,100 @@
+package tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import exceptions.LabelNotFound;
+import libraries.DataExporter;
+import libraries.DataImporter;
+import libraries.RowFilter;
+import performance.LatencyHistogram;
+import performance.Metrics;
+import performance.PerformanceTimer;
+import structures.Aggregation;
+import structures.DataFrame;
+
+public class TestMetrics {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        // Los percentiles tienen un error relativo acotado
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i * 10L);
+        }
+        assert histogram.count() == 100000;
+        assert histogram.maxNanos() == 1000000;
+        assert Math.abs(histogram.percentile(50) - 500000) <= 500000 * 0.032;
+        assert Math.abs(histogram.percentile(99) - 990000) <= 990000 * 0.032;
+        assert histogram.percentile(100) == 1000000;
+        assert Math.abs(histogram.meanNanos() - 500005) < 1e-6;
+        LatencyHistogram small = new LatencyHistogram();
+        small.record(7);
+        small.record(-3);
+        assert small.percentile(100) == 7 && small.percentile(10) == 0;
+
+        // Desactivado no se registra nada
+        DataFrame df = DataImporter.readCSV("data/dummy.csv");
+        Metrics.reset();
+        assert !Metrics.isEnabled();
+        df.sortBy(Arrays.asList("age"), false);
+        Metrics.increment("ignored");
+        assert Metrics.histogram("sortBy") == null && Metrics.counter("ignored") == 0;
+
+        Metrics.enable();
+        try {
+            DataFrame read = DataImporter.readCSV("data/dummy.csv");
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            new DataExporter(read).toCSV(output);
+            read.sortBy(Arrays.asList("age"), false);
+            read.sortBy(Arrays.asList("salary"), true);
+            read.filter(RowFilter.greaterThan("age", 30));
+            read.groupBy(Arrays.asList("city")).agg(
+                    Collections.singletonMap("salary", Arrays.asList(Aggregation.MEAN, Aggregation.MAX)));
+            read.concat(read);
+            Metrics.add("batches", 3);
+
+            // Las excepciones de la operación se propagan y la duración se
+            // registra igual
+            try {
+                PerformanceTimer.measure("lookup", read.countRows(), () -> read.getColumn("missing"));
+                assert false;
+            } catch (LabelNotFound e) {
+                assert Metrics.histogram("lookup").count() == 1;
+            }
+
+            assert Metrics.histogram("readCSV").count() == 1;
+            assert Metrics.histogram("sortBy").count() == 2;
+            assert Metrics.histogram("filter").count() == 1;
+            assert Metrics.histogram("groupBy").count() == 1;
+            assert Metrics.histogram("agg").count() == 1;
+            assert Metrics.histogram("concat").count() == 1;
+            assert Metrics.counter("batches") == 3;
+
+            DataFrame snapshot = Metrics.snapshot();
+            assert snapshot.getColumnLabels().equals(Arrays.asList("metric", "count", "total_ns", "mean_ns",
+                    "p50_ns", "p90_ns", "p99_ns", "max_ns", "rows", "bytes", "rows_per_s", "bytes_per_s"));
+            int readCSV = snapshot.getColumn("metric").getValue().indexOf("readCSV");
+            assert snapshot.getColumn("rows").getValue().get(readCSV).equals((long) read.countRows());
+            assert snapshot.getColumn("bytes").getValue().get(readCSV).equals(new File("data/dummy.csv").length());
+            int toCSV = snapshot.getColumn("metric").getValue().indexOf("toCSV");
+            assert snapshot.getColumn("bytes").getValue().get(toCSV).equals((long) output.size());
+            int sortBy = snapshot.getColumn("metric").getValue().indexOf("sortBy");
+            assert snapshot.getColumn("rows").getValue().get(sortBy).equals(2L * read.countRows());
+            int batches = snapshot.getColumn("metric").getValue().indexOf("batches");
+            assert snapshot.getColumn("count").getValue().get(batches).equals(3L);
+            assert snapshot.getColumn("mean_ns").getValue().get(batches) == null;
+
+            String report = Metrics.report();
+            assert report.contains("sortBy") && report.contains("count=2") && report.contains("batches");
+        } finally {
+            Metrics.disable();
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package tests;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import libraries.DataManipulator;
+import structures.Aggregation;
+import structures.Column;
+import structures.DataFrame;
+import structures.DoubleStorage;
+import structures.GroupedDataFrame;
+import structures.IntStorage;
+import structures.StringStorage;
+
+public class TestParallelGroupBy {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        // Suficientes filas para que se repartan en varios bloques
+        int rows = 600000;
+        Random random = new Random(7);
+        IntStorage low = new IntStorage(rows);
+        IntStorage high = new IntStorage(rows);
+        StringStorage names = new StringStorage(rows);
+        DoubleStorage values = new DoubleStorage(rows);
+        for (int i = 0; i < rows; i++) {
+            low.addInt(random.nextInt(10));
+            high.addInt(random.nextInt(rows / 2));
+            if (i % 11 == 0) {
+                names.addNull();
+            } else {
+                names.add("n" + random.nextInt(50));
+            }
+            if (i % 13 == 0) {
+                values.addNull();
+            } else {
+                values.addDouble(random.nextGaussian() * 1000 + 5000);
+            }
+        }
+        DataFrame df = new DataFrame(Arrays.asList(new Column<>("low", low), new Column<>("high", high),
+                new Column<>("name", names), new Column<>("value", values)));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            DataManipulator manipulator = new DataManipulator(df);
+            List<List<Object>> keys = Arrays.asList(Arrays.asList("low"), Arrays.asList("high"),
+                    Arrays.asList("name", "low"), Arrays.asList("low", "high"));
+            Map<Object, List<Aggregation>> aggregations = Map.of("value",
+                    Arrays.asList(Aggregation.SUM, Aggregation.COUNT, Aggregation.MEAN, Aggregation.MIN,
+                            Aggregation.MAX, Aggregation.STD));
+            for (List<Object> key : keys) {
+                GroupedDataFrame sequential = manipulator.groupBy(key);
+                GroupedDataFrame parallel = manipulator.groupBy(key, pool);
+
+                // Los mismos grupos, en el mismo orden
+                assert parallel.countGroups() == sequential.countGroups();
+                for (int group = 0; group < sequential.countGroups(); group++) {
+                    assert Arrays.equals(parallel.getGroupRows(group), sequential.getGroupRows(group));
+                }
+
+                DataFrame expected = sequential.agg(aggregations);
+                DataFrame actual = parallel.agg(aggregations);
+                assert actual.getColumnLabels().equals(expected.getColumnLabels());
+                for (int c = 0; c < expected.countColumns(); c++) {
+                    List<?> expectedValues = expected.getColumns().get(c).getValue();
+                    List<?> actualValues = actual.getColumns().get(c).getValue();
+                    for (int i = 0; i < expectedValues.size(); i++) {
+                        Object e = expectedValues.get(i);
+                        Object a = actualValues.get(i);
+                        if (e instanceof Double && a instanceof Double) {
+                            assert Math.abs((Double) e - (Double) a) <= 1e-9 * Math.max(1, Math.abs((Double) e));
+                        } else {
+                            assert e == null ? a == null : e.equals(a);
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
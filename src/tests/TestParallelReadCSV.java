@@ -0,0 +1,51 @@
+package tests;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import libraries.DataImporter;
+import structures.DataFrame;
+
+public class TestParallelReadCSV {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        // Un archivo de varios MB para que se divida en más de un bloque
+        Path file = Files.createTempFile("parallel", ".csv");
+        int rows = 300000;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,big,price,active,name\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(i + ",");
+                writer.write((i == rows - 1 ? "3000000000" : String.valueOf(i * 7)) + ",");
+                writer.write((i % 5 == 0 ? "" : (i % 100) + ".25") + ",");
+                writer.write((i % 2 == 0) + ",");
+                writer.write(i % 3 == 0 ? "\"nombre, " + (i % 10) + "\"" : "n" + (i % 10));
+                writer.write(i % 1000 == 0 ? "\r\n\r\n" : "\n");
+            }
+        }
+
+        try {
+            DataFrame sequential = DataImporter.readCSV(file.toString(), ',', false);
+            DataFrame parallel = DataImporter.readCSV(file.toString(), ',', true);
+
+            assert parallel.countRows() == rows;
+            assert parallel.countColumns() == sequential.countColumns();
+            for (int c = 0; c < sequential.countColumns(); c++) {
+                assert parallel.getColumns().get(c).getLabel().equals(sequential.getColumns().get(c).getLabel());
+                assert parallel.getColumns().get(c).getType() == sequential.getColumns().get(c).getType();
+                assert parallel.getColumns().get(c).getValue().equals(sequential.getColumns().get(c).getValue());
+            }
+            assert parallel.getColumn("big").getType() == Long.class;
+            assert parallel.getCell(5, 2).isEmpty();
+            assert parallel.getCell(3, 4).getValue().equals("nombre, 3");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package tests;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import libraries.DataManipulator;
+import structures.Column;
+import structures.DataFrame;
+import structures.DoubleStorage;
+import structures.IntStorage;
+import structures.ObjectStorage;
+import structures.StringStorage;
+
+public class TestParallelSort {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        // Suficientes filas para que se repartan en varios bloques
+        int rows = 500000;
+        Random random = new Random(11);
+        IntStorage low = new IntStorage(rows);
+        StringStorage names = new StringStorage(rows);
+        DoubleStorage values = new DoubleStorage(rows);
+        ObjectStorage dates = new ObjectStorage(LocalDate.class, rows);
+        IntStorage ids = new IntStorage(rows);
+        for (int i = 0; i < rows; i++) {
+            low.addInt(random.nextInt(5));
+            if (i % 11 == 0) {
+                names.addNull();
+            } else {
+                names.add("n" + random.nextInt(40));
+            }
+            if (i % 13 == 0) {
+                values.addNull();
+            } else {
+                values.addDouble(random.nextInt(100) / 4.0);
+            }
+            dates.add(i % 17 == 0 ? null : LocalDate.ofEpochDay(random.nextInt(30)));
+            ids.addInt(i);
+        }
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("low", low));
+        columns.add(new Column<>("name", names));
+        columns.add(new Column<>("value", values));
+        columns.add(new Column<>("date", dates));
+        columns.add(new Column<>("id", ids));
+        DataFrame df = new DataFrame(columns);
+        DataManipulator manipulator = new DataManipulator(df);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        // El orden en paralelo es el mismo que el secuencial, incluidos los
+        // empates
+        List<List<Object>> keys = Arrays.asList(
+                Arrays.asList("low", "name"),
+                Arrays.asList("value"),
+                Arrays.asList("date", "low"),
+                Arrays.asList("name", "value", "low"));
+        boolean[][] directions = {
+                { false, true },
+                { true },
+                { true, false },
+                { false, false, true } };
+        for (int i = 0; i < keys.size(); i++) {
+            DataFrame sequential = manipulator.sortBy(keys.get(i), directions[i]);
+            DataFrame parallel = manipulator.sortBy(keys.get(i), directions[i], pool, 0);
+            assert parallel.getColumn("id").getValue().equals(sequential.getColumn("id").getValue());
+        }
+
+        // Por debajo del umbral se ordena en el hilo actual
+        DataFrame small = df.head(1000);
+        assert new DataManipulator(small).sortBy(Arrays.asList("value"), new boolean[] { false }, pool, rows)
+                .getColumn("id").getValue()
+                .equals(small.sortBy(Arrays.asList("value"), false).getColumn("id").getValue());
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,89 @@
+package tests;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import exceptions.TypeDoesNotMatch;
+import libraries.RowFilter;
+import structures.DataFrame;
+
+public class TestRowFilter {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame df = new DataFrame(Arrays.asList(
+                Arrays.asList("Alice", 25, 3000000000L, 70000.0, true),
+                Arrays.asList("Bob", 30, null, 120000.0, false),
+                Arrays.asList(null, 35, 1L, null, true),
+                Arrays.asList("David", null, 2L, 90000.0, null),
+                Arrays.asList("Alice", 60, 3L, 100000.0, false)),
+                Arrays.asList("name", "age", "big", "salary", "active"));
+
+        // Condiciones tipadas: los nulos nunca se seleccionan
+        DataFrame older = df.filter(RowFilter.ints("age", age -> age > 28));
+        assert older.countRows() == 3;
+        assert older.getColumn("name").getValue().equals(Arrays.asList("Bob", null, "Alice"));
+        assert older.getColumn("big").getValue().equals(Arrays.asList(null, 1L, 3L));
+
+        assert df.filter(RowFilter.greaterThan("salary", 90000)).countRows() == 2;
+        assert df.filter(RowFilter.greaterOrEqual("salary", 90000)).countRows() == 3;
+        assert df.filter(RowFilter.lessThan("age", 30)).countRows() == 1;
+        assert df.filter(RowFilter.between("big", 1, 2.5)).getColumn("big").getValue()
+                .equals(Arrays.asList(1L, 2L));
+        assert df.filter(RowFilter.greaterThan("big", 2999999999.5)).countRows() == 1;
+        assert df.filter(RowFilter.longs("big", value -> value % 2 == 1)).countRows() == 2;
+        assert df.filter(RowFilter.doubles("age", value -> value / 2 > 17)).countRows() == 2;
+
+        // Cadenas, igualdad y pertenencia
+        assert df.filter(RowFilter.strings("name", name -> name.startsWith("A"))).countRows() == 2;
+        assert df.filter(RowFilter.equalTo("name", "Alice")).countRows() == 2;
+        assert df.filter(RowFilter.in("name", Arrays.asList("Bob", null))).countRows() == 2;
+        assert df.filter(RowFilter.equalTo("age", 30)).countRows() == 1;
+        assert df.filter(RowFilter.equalTo("age", 30L)).countRows() == 0;
+        assert df.filter(RowFilter.equalTo("salary", 90000.0)).countRows() == 1;
+        assert df.filter(RowFilter.equalTo("active", false)).countRows() == 2;
+        assert df.filter(RowFilter.isNull("active")).countRows() == 1;
+        assert df.filter(RowFilter.notNull("big")).countRows() == 4;
+
+        // Combinaciones
+        DataFrame combined = df.filter(RowFilter.equalTo("name", "Alice")
+                .and(RowFilter.greaterThan("age", 30))
+                .or(RowFilter.isNull("name")));
+        assert combined.getColumn("age").getValue().equals(Arrays.asList(35, 60));
+        assert df.filter(RowFilter.isNull("age").not()).countRows() == 4;
+        assert df.filter(RowFilter.values("age", value -> value == null)).countRows() == 1;
+
+        // Una condición que no corresponde al tipo de la columna
+        try {
+            df.filter(RowFilter.ints("name", value -> true));
+            assert false : "Se esperaba TypeDoesNotMatch";
+        } catch (TypeDoesNotMatch e) {
+        }
+        DataFrame dates = new DataFrame(Arrays.asList(Arrays.asList(LocalDate.of(2020, 1, 1))),
+                Arrays.asList("date"));
+        try {
+            dates.filter(RowFilter.greaterThan("date", 0));
+            assert false : "Se esperaba TypeDoesNotMatch";
+        } catch (TypeDoesNotMatch e) {
+        }
+
+        // Más de una palabra del mapa de bits, con la última incompleta
+        int rows = 1000;
+        List<List<?>> data = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            data.add(Arrays.asList(i, i % 3 == 0 ? null : i * 0.5));
+        }
+        DataFrame numbers = new DataFrame(data, Arrays.asList("i", "half"));
+        DataFrame odd = numbers.filter(RowFilter.ints("i", i -> i % 2 == 1).not());
+        assert odd.countRows() == 500;
+        assert odd.getCell(499, 0).getValue().equals(998);
+        DataFrame present = numbers.filter(RowFilter.doubles("half", half -> half >= 250));
+        assert present.countRows() == (rows - 500) - (rows - 500 + 2) / 3;
+        assert numbers.filter(RowFilter.all()).countRows() == rows;
+    }
+}
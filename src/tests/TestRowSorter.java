@@ -0,0 +1,69 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import structures.DataFrame;
+
+public class TestRowSorter {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame df = new DataFrame(Arrays.asList(
+                Arrays.asList("Bob", 30, -1.5, 5L, true),
+                Arrays.asList("Alice", null, 2.0, null, false),
+                Arrays.asList(null, 25, -0.0, 3000000000L, true),
+                Arrays.asList("Bob", 25, 0.0, -3000000000L, null),
+                Arrays.asList("Alice", 40, null, 7L, false)),
+                Arrays.asList("name", "age", "score", "big", "active"));
+
+        // Los nulos van primero en orden ascendente y últimos en descendente
+        assert df.sortBy(Arrays.asList("age"), false).getColumn("name").getValue()
+                .equals(Arrays.asList("Alice", null, "Bob", "Bob", "Alice"));
+        assert df.sortBy(Arrays.asList("age"), true).getColumn("name").getValue()
+                .equals(Arrays.asList("Alice", "Bob", null, "Bob", "Alice"));
+        assert df.sortBy(Arrays.asList("score"), false).getColumn("score").getValue()
+                .equals(Arrays.asList(null, -1.5, -0.0, 0.0, 2.0));
+        assert df.sortBy(Arrays.asList("big"), true).getColumn("big").getValue()
+                .equals(Arrays.asList(3000000000L, 7L, 5L, -3000000000L, null));
+        assert df.sortBy(Arrays.asList("active"), false).getColumn("active").getValue()
+                .equals(Arrays.asList(null, false, false, true, true));
+
+        // Varias columnas, cada una en su sentido, sin modificar el original
+        DataFrame sorted = df.sortBy(Arrays.asList("name", "age"), new boolean[] { false, true });
+        assert sorted.getColumn("name").getValue().equals(Arrays.asList(null, "Alice", "Alice", "Bob", "Bob"));
+        assert sorted.getColumn("age").getValue().equals(Arrays.asList(25, 40, null, 30, 25));
+        assert df.getColumn("name").getValue().equals(Arrays.asList("Bob", "Alice", null, "Bob", "Alice"));
+
+        // Comparación con un ordenamiento estable de referencia
+        Random random = new Random(7);
+        List<List<?>> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rows.add(Arrays.asList(
+                    random.nextInt(10) == 0 ? null : "k" + random.nextInt(50),
+                    random.nextInt(20) - 10,
+                    random.nextInt(10) == 0 ? null : random.nextGaussian(),
+                    i));
+        }
+        DataFrame large = new DataFrame(rows, Arrays.asList("key", "small", "value", "id"));
+        List<List<?>> expected = new ArrayList<>(rows);
+        Comparator<List<?>> byKey = Comparator.comparing(row -> (String) row.get(0),
+                Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+        Comparator<List<?>> bySmall = Comparator.comparing(row -> (Integer) row.get(1));
+        Comparator<List<?>> byValue = Comparator.comparing(row -> (Double) row.get(2),
+                Comparator.nullsFirst(Comparator.<Double>naturalOrder()));
+        expected.sort(byKey.reversed().thenComparing(bySmall).thenComparing(byValue.reversed()));
+        DataFrame actual = large.sortBy(Arrays.asList("key", "small", "value"), new boolean[] { true, false, true });
+        List<Object> ids = new ArrayList<>();
+        for (List<?> row : expected) {
+            ids.add(row.get(3));
+        }
+        assert actual.getColumn("id").getValue().equals(ids);
+    }
+}
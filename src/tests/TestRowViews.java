@@ -0,0 +1,59 @@
+package tests;
+
+import java.util.Arrays;
+
+import exceptions.LabelAlreadyInUse;
+import exceptions.LabelNotFound;
+import structures.DataFrame;
+import structures.Row;
+
+public class TestRowViews {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame df = new DataFrame(Arrays.asList(
+                Arrays.asList("Alice", 23, "New York", "Engineer", 70000),
+                Arrays.asList("Bob", 25, "San Francisco", "Data Scientist", 80000),
+                Arrays.asList("Charlie", 27, "Los Angeles", "Product Manager", 90000),
+                Arrays.asList("David", 29, "Chicago", "Software Engineer", 100000),
+                Arrays.asList("Eve", 31, "Boston", "Data Analyst", 110000),
+                Arrays.asList("Frank", 33, "Seattle", "Data Engineer", 120000)),
+                Arrays.asList("name", "age", "city", "occupation", "salary"));
+
+        // Las filas son vistas sobre las columnas
+        Row row = df.getRow(1);
+        df.setCell(1, 0, "Bobby");
+        assert row.getCell(0).getValue().equals("Bobby");
+        assert df.getRows().size() == 6;
+        assert df.getRows().get(5).getValue(0).equals("Frank");
+
+        row.setLabel("second");
+        assert df.getRow("second").getValue(1).equals(25);
+        assert df.copy().getRow("second").getValue(0).equals("Bobby");
+
+        assert df.head(2).countRows() == 2;
+        assert df.tail(2).getCell(1, 0).getValue().equals("Frank");
+
+        // Acceso por etiquetas
+        assert df.getColumnIndex("salary") == 4;
+        assert df.getCell("second", "city").getValue().equals("San Francisco");
+
+        try {
+            df.getColumnIndex("height");
+            assert false : "Se esperaba LabelNotFound";
+        } catch (Exception e) {
+            assert LabelNotFound.class.isInstance(e);
+        }
+
+        df.getRow(0).setLabel(6);
+        try {
+            df.copy().insertRow(Arrays.asList("Grace", 35, "Austin", "Data Scientist", 130000));
+            assert false : "Se esperaba LabelAlreadyInUse";
+        } catch (Exception e) {
+            assert LabelAlreadyInUse.class.isInstance(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import libraries.DataManipulator;
+import structures.Column;
+import structures.DataFrame;
+import structures.DoubleStorage;
+import structures.IntStorage;
+import structures.StringStorage;
+
+public class TestTopN {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame df = new DataFrame(Arrays.asList(
+                Arrays.asList("Alice", 30, 70000.0),
+                Arrays.asList("Bob", 25, null),
+                Arrays.asList("Carol", 30, 90000.0),
+                Arrays.asList("David", null, 50000.0),
+                Arrays.asList("Eve", 35, 90000.0)),
+                Arrays.asList("name", "age", "salary"));
+
+        // Los empates conservan el orden de las filas, igual que sortBy
+        assert df.nlargest(2, Arrays.asList("salary")).getColumn("name").getValue()
+                .equals(Arrays.asList("Carol", "Eve"));
+        assert df.nsmallest(2, Arrays.asList("salary")).getColumn("name").getValue()
+                .equals(Arrays.asList("Bob", "David"));
+        assert df.nlargest(3, Arrays.asList("age", "salary")).getColumn("name").getValue()
+                .equals(Arrays.asList("Eve", "Carol", "Alice"));
+        assert df.nlargest(10, Arrays.asList("age")).countRows() == 5;
+        assert df.nsmallest(0, Arrays.asList("age")).countRows() == 0;
+
+        // Comparación con sortBy(...).head(n) sobre muchas filas
+        int rows = 400000;
+        Random random = new Random(3);
+        IntStorage small = new IntStorage(rows);
+        StringStorage names = new StringStorage(rows);
+        DoubleStorage values = new DoubleStorage(rows);
+        IntStorage ids = new IntStorage(rows);
+        for (int i = 0; i < rows; i++) {
+            small.addInt(random.nextInt(100));
+            names.add("n" + random.nextInt(20));
+            if (i % 7 == 0) {
+                values.addNull();
+            } else {
+                values.addDouble(random.nextInt(1000));
+            }
+            ids.addInt(i);
+        }
+        List<Column<?>> columns = new ArrayList<>();
+        columns.add(new Column<>("small", small));
+        columns.add(new Column<>("name", names));
+        columns.add(new Column<>("value", values));
+        columns.add(new Column<>("id", ids));
+        DataFrame large = new DataFrame(columns);
+        DataManipulator manipulator = new DataManipulator(large);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        List<Object> keys = Arrays.asList("small", "value");
+        List<?> expected = large.sortBy(keys, true).head(25).getColumn("id").getValue();
+        assert large.nlargest(25, keys).getColumn("id").getValue().equals(expected);
+        assert manipulator.nlargest(25, keys, pool).getColumn("id").getValue().equals(expected);
+
+        keys = Arrays.asList("name", "value");
+        expected = large.sortBy(keys, false).head(40).getColumn("id").getValue();
+        assert large.nsmallest(40, keys).getColumn("id").getValue().equals(expected);
+        assert manipulator.nsmallest(40, keys, pool).getColumn("id").getValue().equals(expected);
+        pool.shutdown();
+    }
+}
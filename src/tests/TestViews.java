@@ -0,0 +1,86 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import libraries.RowFilter;
+import structures.Column;
+import structures.DataFrame;
+import structures.IntStorage;
+
+public class TestViews {
+
+    /**
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        DataFrame df = new DataFrame(Arrays.asList(
+                Arrays.asList("Alice", 25, 70000.0),
+                Arrays.asList("Bob", 30, null),
+                Arrays.asList(null, 35, 80000.0),
+                Arrays.asList("David", 40, 90000.0),
+                Arrays.asList("Eve", 45, 100000.0)),
+                Arrays.asList("name", "age", "salary"));
+
+        // Las vistas muestran los valores del original
+        DataFrame head = df.head(3);
+        assert head.countRows() == 3;
+        assert head.getColumn("name").getValue().equals(Arrays.asList("Alice", "Bob", null));
+        assert head.getColumn("salary").getValue().equals(Arrays.asList(70000.0, null, 80000.0));
+        DataFrame tail = df.tail(2);
+        assert tail.getColumn("age").getValue().equals(Arrays.asList(40, 45));
+        assert tail.getRow(0).getValue(0).equals("David");
+
+        // Escribir en una vista no modifica el original
+        head.setCell(0, 1, 26);
+        assert head.getColumn("age").getValue().equals(Arrays.asList(26, 30, 35));
+        assert df.getColumn("age").getValue().equals(Arrays.asList(25, 30, 35, 40, 45));
+
+        // Escribir en el original no modifica las vistas existentes
+        DataFrame filtered = df.filter(RowFilter.greaterThan("age", 28));
+        DataFrame last = filtered.tail(2);
+        df.setCell(3, 0, "Dave");
+        df.setCell(4, 1, 46);
+        assert df.getColumn("name").getValue().equals(Arrays.asList("Alice", "Bob", null, "Dave", "Eve"));
+        assert filtered.getColumn("name").getValue().equals(Arrays.asList("Bob", null, "David", "Eve"));
+        assert last.getColumn("age").getValue().equals(Arrays.asList(40, 45));
+        assert tail.getColumn("name").getValue().equals(Arrays.asList("David", "Eve"));
+
+        // Una vista de una vista se puede filtrar, modificar y ampliar
+        DataFrame rich = filtered.filter(RowFilter.greaterThan("salary", 85000));
+        assert rich.getColumn("name").getValue().equals(Arrays.asList("David", "Eve"));
+        rich.insertRow(Arrays.asList("Frank", 50, 110000.0));
+        assert rich.countRows() == 3;
+        assert filtered.countRows() == 4;
+
+        DataFrame columns = df.slice(1, 3);
+        assert columns.getColumnLabels().equals(Arrays.asList("age", "salary"));
+        columns.setCell(0, 0, 20);
+        assert df.getColumn("age").getValue().get(0).equals(25);
+
+        // Tomar las primeras filas de un DataFrame grande no copia sus valores
+        int[] values = new int[200000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        List<Column<?>> bigColumns = new ArrayList<>();
+        bigColumns.add(new Column<>("value", new IntStorage(values, values.length)));
+        DataFrame big = new DataFrame(bigColumns);
+        DataFrame top = big.head(1000);
+        assert top.countRows() == 1000;
+        assert top.getColumn("value").getReadOnlyStorage().size() == 1000;
+
+        // Leer una vista (filtrar, ordenar, agrupar) tampoco copia sus valores
+        assert top.filter(RowFilter.between("value", 10, 19)).countRows() == 10;
+        assert top.sortBy(Arrays.asList("value"), true).getCell(0, 0).getValue().equals(999);
+        assert top.groupBy(Arrays.asList("value")).countGroups() == 1000;
+        assert top.getColumn("value").memoryUsage(false) < 1000;
+        assert top.copy().getColumn("value").getValue().get(999).equals(999);
+        DataFrame names = df.filter(RowFilter.notNull("name"));
+        assert names.filter(RowFilter.equalTo("name", "Eve")).getCell(0, 1).getValue().equals(46);
+        assert names.sortBy(Arrays.asList("name"), false).getColumn("name").getValue()
+                .equals(Arrays.asList("Alice", "Bob", "Dave", "Eve"));
+    }
+}